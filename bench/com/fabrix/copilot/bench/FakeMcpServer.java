@@ -0,0 +1,248 @@
+package com.fabrix.copilot.bench;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 🧪 FakeMcpServer - 벤치마크용 가짜 MCP 서버 (initialize, tools/list, tools/call, ping)
+ *
+ * Node 없이 전송 계층 비용을 재기 위한 서버로, 도구 결과는 지정한 크기의 텍스트이고 지정한 지연 후 응답합니다.
+ * 호출 인자 payloadBytes/latencyMs로 호출마다 바꿀 수 있습니다. tools/call은 스레드 풀에서 처리하므로
+ * 동시 호출은 서버 안에서도 동시에 진행되고, JSON-RPC 배치(배열)도 받습니다.
+ * stdio 모드는 자식 JVM으로, HTTP 모드는 같은 프로세스에서(start) 또는 별도 프로세스로 실행합니다.
+ * Eclipse 없이 실행되도록 JDK와 org.json만 사용합니다.
+ *
+ * 실행: java com.fabrix.copilot.bench.FakeMcpServer [--stdio | --http port] [--payload bytes] [--latency ms]
+ */
+public class FakeMcpServer {
+
+    static final String[] TOOLS = { "read_file", "list_directory", "search_files" };
+    private static final String SESSION_HEADER = "Mcp-Session-Id";
+
+    private final int payloadBytes;
+    private final long latencyMillis;
+    private final ExecutorService workers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "fake-mcp-worker");
+        t.setDaemon(true);
+        return t;
+    });
+    private HttpServer http;
+
+    public FakeMcpServer(int payloadBytes, long latencyMillis) {
+        this.payloadBytes = payloadBytes;
+        this.latencyMillis = latencyMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean stdio = true;
+        int port = 0;
+        int payload = 1024;
+        long latency = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--stdio":
+                    stdio = true;
+                    break;
+                case "--http":
+                    stdio = false;
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--payload":
+                    payload = Integer.parseInt(args[++i]);
+                    break;
+                case "--latency":
+                    latency = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        FakeMcpServer server = new FakeMcpServer(payload, latency);
+        if (stdio) {
+            server.serveStdio();
+        } else {
+            server.startHttp(port);
+            System.err.println("fake MCP server listening on http://127.0.0.1:" + server.port() + "/mcp");
+            Thread.currentThread().join();
+        }
+    }
+
+    /**
+     * stdin/stdout 줄 단위 JSON-RPC - stdin이 닫히면 종료
+     */
+    public void serveStdio() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            // 응답 순서는 보장하지 않음 (id로 구분) - 느린 호출이 뒤의 호출을 막지 않음
+            workers.execute(() -> {
+                Object response = handleMessage(trimmed);
+                if (response != null) {
+                    synchronized (out) {
+                        try {
+                            out.write(response.toString());
+                            out.newLine();
+                            out.flush();
+                        } catch (IOException e) {
+                            System.exit(0);
+                        }
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * HTTP 서버 시작 - POST /mcp (JSON-RPC, 배치 포함), GET /health
+     */
+    public void startHttp(int port) throws IOException {
+        // 응답 헤더와 본문을 나눠 쓰므로 Nagle을 끄지 않으면 지연 ACK(40ms)가 측정을 지배함
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        Set<String> sessions = ConcurrentHashMap.newKeySet();
+        http = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 128);
+        http.createContext("/health", exchange -> respond(exchange, 200, "text/plain", "ok"));
+        http.createContext("/mcp", exchange -> {
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                respond(exchange, 200, null, "");
+                return;
+            }
+            String session = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+            if (session != null && !sessions.contains(session)) {
+                respond(exchange, 404, null, "");
+                return;
+            }
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (body.contains("\"initialize\"")) {
+                String newSession = UUID.randomUUID().toString();
+                sessions.add(newSession);
+                exchange.getResponseHeaders().set(SESSION_HEADER, newSession);
+            }
+            Object response = handleMessage(body.trim());
+            if (response == null) {
+                respond(exchange, 202, null, "");
+            } else {
+                respond(exchange, 200, "application/json", response.toString());
+            }
+        });
+        http.setExecutor(workers);
+        http.start();
+    }
+
+    public int port() {
+        return http.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (http != null) {
+            http.stop(0);
+        }
+        workers.shutdownNow();
+    }
+
+    /**
+     * 메시지 하나 또는 배치 처리 - 응답할 것이 없으면(알림만) null
+     */
+    Object handleMessage(String message) {
+        if (message.startsWith("[")) {
+            JSONArray batch = new JSONArray(message);
+            JSONArray responses = new JSONArray();
+            for (int i = 0; i < batch.length(); i++) {
+                JSONObject response = handle(batch.getJSONObject(i));
+                if (response != null) {
+                    responses.put(response);
+                }
+            }
+            return responses.length() > 0 ? responses : null;
+        }
+        return handle(new JSONObject(message));
+    }
+
+    private JSONObject handle(JSONObject request) {
+        if (!request.has("id") || request.isNull("id")) {
+            return null; // notifications/initialized, notifications/cancelled
+        }
+        String method = request.optString("method");
+        JSONObject params = request.optJSONObject("params");
+        switch (method) {
+            case "initialize":
+                JSONObject result = new JSONObject();
+                result.put("protocolVersion", params != null
+                    ? params.optString("protocolVersion", "2025-03-26") : "2025-03-26");
+                result.put("capabilities", new JSONObject().put("tools", new JSONObject()));
+                result.put("serverInfo", new JSONObject().put("name", "fake-mcp").put("version", "1.0.0"));
+                return result(request, result);
+            case "ping":
+                return result(request, new JSONObject());
+            case "tools/list":
+                JSONArray tools = new JSONArray();
+                for (String tool : TOOLS) {
+                    JSONObject schema = new JSONObject().put("type", "object")
+                        .put("properties", new JSONObject().put("path", new JSONObject().put("type", "string")));
+                    tools.put(new JSONObject().put("name", tool).put("description", "Fake " + tool)
+                        .put("inputSchema", schema).put("annotations", new JSONObject().put("readOnlyHint", true)));
+                }
+                return result(request, new JSONObject().put("tools", tools));
+            case "tools/call":
+                return callTool(request, params != null ? params : new JSONObject());
+            default:
+                JSONObject error = new JSONObject().put("code", -32601).put("message", "Method not found: " + method);
+                return new JSONObject().put("jsonrpc", "2.0").put("id", request.get("id")).put("error", error);
+        }
+    }
+
+    private JSONObject callTool(JSONObject request, JSONObject params) {
+        JSONObject arguments = params.optJSONObject("arguments");
+        int size = arguments != null ? arguments.optInt("payloadBytes", payloadBytes) : payloadBytes;
+        long latency = arguments != null ? arguments.optLong("latencyMs", latencyMillis) : latencyMillis;
+        if (latency > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String text = params.optString("name") + ":" + "x".repeat(Math.max(0, size));
+        JSONObject content = new JSONObject().put("type", "text").put("text", text);
+        return result(request, new JSONObject().put("content", new JSONArray().put(content)));
+    }
+
+    private static JSONObject result(JSONObject request, JSONObject result) {
+        return new JSONObject().put("jsonrpc", "2.0").put("id", request.get("id")).put("result", result);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
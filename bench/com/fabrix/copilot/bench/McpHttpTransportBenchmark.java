@@ -0,0 +1,346 @@
+package com.fabrix.copilot.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.fabrix.copilot.mcp.McpStreamableHttpTransport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * ⏱️ McpHttpTransportBenchmark - HTTP MCP 도구 호출 전송 계층 벤치마크
+ *
+ * 로컬 스텁 서버(임의 포트)에 대해 기존 방식(요청 JSON을 다시 파싱해 엔드포인트를 고르고, 응답을 줄 단위로 읽음),
+ * 공유 java.net.http.HttpClient, McpStreamableHttpTransport(keep-alive 재사용, Mcp-Session-Id, 본문 일괄 읽기)를
+ * 순차/동시 호출로 비교하고, 진행 알림을 SSE로 보내는 도구 호출도 측정합니다. 단계마다 새로 열린 연결 수도 출력합니다.
+ *
+ * 실행: bench 폴더를 소스 경로에 포함해 main 실행 (플러그인 빌드에는 포함되지 않음)
+ *   java com.fabrix.copilot.bench.McpHttpTransportBenchmark [iterations]
+ */
+public class McpHttpTransportBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int PROGRESS_EVENTS = 5;
+    private static final String RESULT_TEXT = "x".repeat(2048);
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+
+        StubServer stub = new StubServer();
+        try {
+            URI endpoint = URI.create("http://127.0.0.1:" + stub.port() + "/mcp");
+            McpStreamableHttpTransport transport = new McpStreamableHttpTransport(endpoint, null);
+            initialize(transport);
+            LegacyClient legacy = new LegacyClient("http://127.0.0.1:" + stub.port());
+
+            // 워밍업
+            run(iterations / 4, 1, i -> legacy.callTool("read_file"));
+            run(iterations / 4, 1, i -> toolCall(transport, "read_file"));
+
+            HttpClientCaller httpClient = new HttpClientCaller(endpoint, transport.getSessionId());
+            run(iterations / 4, 1, i -> httpClient.callTool("read_file"));
+
+            System.out.printf("stub server port=%d, session=%s, iterations=%d%n%n",
+                stub.port(), transport.getSessionId(), iterations);
+            for (int threads : new int[] { 1, THREADS }) {
+                report(stub, "legacy HttpURLConnection ", iterations, threads, i -> legacy.callTool("read_file"));
+                report(stub, "java.net.http.HttpClient ", iterations, threads, i -> httpClient.callTool("read_file"));
+                report(stub, "streamable transport     ", iterations, threads, i -> toolCall(transport, "read_file"));
+            }
+
+            AtomicInteger notifications = new AtomicInteger();
+            transport.setNotificationListener(message -> notifications.incrementAndGet());
+            report(stub, "transport SSE + " + PROGRESS_EVENTS + " progress", iterations, 1,
+                i -> toolCall(transport, "long_task"));
+            System.out.printf("%nprogress notifications received: %d (expected %d)%n",
+                notifications.get(), (long) iterations * PROGRESS_EVENTS);
+
+            transport.close();
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private interface Call {
+        Object call(int index) throws Exception;
+    }
+
+    private static Object sink;
+
+    private static void report(StubServer stub, String label, int iterations, int threads, Call call) throws Exception {
+        int connectionsBefore = stub.connections();
+        long nanos = run(iterations, threads, call);
+        double seconds = nanos / 1e9;
+        System.out.printf("%s (%d thread%s): %8.0f ops/s, mean %8.1f us/call, new connections %d%n",
+            label, threads, threads > 1 ? "s" : " ", iterations / seconds, nanos / 1e3 / iterations * threads,
+            stub.connections() - connectionsBefore);
+    }
+
+    private static long run(int iterations, int threads, Call call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            AtomicInteger next = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < iterations) {
+                        sink = call.call(i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final AtomicLong IDS = new AtomicLong(1);
+
+    private static void initialize(McpStreamableHttpTransport transport) throws Exception {
+        JSONObject params = new JSONObject();
+        params.put("protocolVersion", "2025-03-26");
+        params.put("capabilities", new JSONObject());
+        JSONObject response = transport.request(request("initialize", params), 5000);
+        transport.setProtocolVersion(response.getJSONObject("result").getString("protocolVersion"));
+        transport.notify("notifications/initialized", null);
+    }
+
+    private static String toolCall(McpStreamableHttpTransport transport, String tool) throws Exception {
+        JSONObject params = new JSONObject();
+        params.put("name", tool);
+        params.put("arguments", new JSONObject().put("path", "src/Main.java"));
+        JSONObject response = transport.request(request("tools/call", params), 10000);
+        return response.getJSONObject("result").getJSONArray("content").getJSONObject(0).getString("text");
+    }
+
+    private static JSONObject request(String method, JSONObject params) {
+        JSONObject request = new JSONObject();
+        request.put("jsonrpc", "2.0");
+        request.put("id", IDS.getAndIncrement());
+        request.put("method", method);
+        request.put("params", params);
+        return request;
+    }
+
+    /**
+     * 기존 McpHttpClient.sendHTTPRequestInternal의 요청 경로 (JSON 재파싱, 기본 문자셋으로 줄 단위 읽기)
+     */
+    private static final class LegacyClient {
+        private final String baseUrl;
+
+        LegacyClient(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        String callTool(String tool) throws Exception {
+            JSONObject params = new JSONObject();
+            params.put("name", tool);
+            params.put("arguments", new JSONObject().put("path", "src/Main.java"));
+            String response = sendHTTPRequestInternal(request("tools/call", params).toString());
+            return new JSONObject(response).getJSONObject("result").getJSONArray("content")
+                .getJSONObject(0).getString("text");
+        }
+
+        private String sendHTTPRequestInternal(String request) throws IOException {
+            JSONObject jsonRequest = new JSONObject(request);
+            String method = jsonRequest.getString("method");
+            String url = baseUrl + (method.contains("tools") || method.contains("call") ? "/mcp" : "/api");
+
+            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Content-Type", "application/json");
+            conn.setDoOutput(true);
+
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write(request.getBytes("UTF-8"));
+            }
+
+            StringBuilder response = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    response.append(line);
+                }
+            }
+            return response.toString();
+        }
+    }
+
+    /**
+     * 공유 java.net.http.HttpClient로 같은 요청 전송 - 전송 계층 선택 근거로 함께 측정
+     */
+    private static final class HttpClientCaller {
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final URI endpoint;
+        private final String sessionId;
+
+        HttpClientCaller(URI endpoint, String sessionId) {
+            this.endpoint = endpoint;
+            this.sessionId = sessionId;
+        }
+
+        String callTool(String tool) throws Exception {
+            JSONObject params = new JSONObject();
+            params.put("name", tool);
+            params.put("arguments", new JSONObject().put("path", "src/Main.java"));
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .header("Content-Type", "application/json")
+                .header(McpStreamableHttpTransport.SESSION_HEADER, sessionId)
+                .POST(HttpRequest.BodyPublishers.ofString(request("tools/call", params).toString()))
+                .build();
+            String response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)).body();
+            return new JSONObject(response).getJSONObject("result").getJSONArray("content")
+                .getJSONObject(0).getString("text");
+        }
+    }
+
+    /**
+     * 🧪 스텁 MCP 서버 - initialize에 세션 id를 부여하고, long_task는 진행 알림 후 결과를 SSE로 보냄
+     */
+    private static final class StubServer {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        private final Map<String, Boolean> sessions = new HashMap<>();
+        private final AtomicInteger connections = new AtomicInteger();
+
+        StubServer() throws IOException {
+            // 응답 헤더와 본문을 나눠 쓰므로 Nagle을 끄지 않으면 지연 ACK(40ms)가 측정을 지배함
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+            server.createContext("/mcp", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            // 같은 연결의 첫 요청만 셈 (keep-alive 연결은 요청마다 같은 원격 주소/포트)
+            if (exchange.getHttpContext().getAttributes().putIfAbsent(
+                    exchange.getRemoteAddress().toString(), Boolean.TRUE) == null) {
+                connections.incrementAndGet();
+            }
+
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                respond(exchange, 200, null, "");
+                return;
+            }
+            JSONObject message = new JSONObject(body);
+            String method = message.optString("method");
+            if (!message.has("id")) {
+                respond(exchange, 202, null, "");
+                return;
+            }
+
+            long id = message.getLong("id");
+            if ("initialize".equals(method)) {
+                String session = UUID.randomUUID().toString();
+                synchronized (sessions) {
+                    sessions.put(session, Boolean.TRUE);
+                }
+                exchange.getResponseHeaders().set(McpStreamableHttpTransport.SESSION_HEADER, session);
+                JSONObject result = new JSONObject();
+                result.put("protocolVersion", "2025-03-26");
+                result.put("capabilities", new JSONObject());
+                result.put("serverInfo", new JSONObject().put("name", "stub").put("version", "1.0.0"));
+                respond(exchange, 200, "application/json", response(id, result).toString());
+                return;
+            }
+
+            String session = exchange.getRequestHeaders().getFirst(McpStreamableHttpTransport.SESSION_HEADER);
+            synchronized (sessions) {
+                // 세션 없이 보내는 기존 방식은 허용하고, 모르는 세션 id만 거부
+                if (session != null && !sessions.containsKey(session)) {
+                    respond(exchange, 404, null, "");
+                    return;
+                }
+            }
+
+            JSONObject params = message.optJSONObject("params");
+            JSONObject result = new JSONObject();
+            result.put("content", new JSONArray().put(new JSONObject().put("type", "text").put("text", RESULT_TEXT)));
+            if (params != null && "long_task".equals(params.optString("name"))) {
+                streamWithProgress(exchange, id, result);
+            } else {
+                respond(exchange, 200, "application/json", response(id, result).toString());
+            }
+        }
+
+        private void streamWithProgress(HttpExchange exchange, long id, JSONObject result) throws IOException {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 1; i <= PROGRESS_EVENTS; i++) {
+                    JSONObject progress = new JSONObject();
+                    progress.put("jsonrpc", "2.0");
+                    progress.put("method", "notifications/progress");
+                    progress.put("params", new JSONObject().put("progressToken", id).put("progress", i)
+                        .put("total", PROGRESS_EVENTS));
+                    out.write(("data: " + progress + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                out.write(("id: " + id + "\ndata: " + response(id, result) + "\n\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private static JSONObject response(long id, JSONObject result) {
+            JSONObject response = new JSONObject();
+            response.put("jsonrpc", "2.0");
+            response.put("id", id);
+            response.put("result", result);
+            return response;
+        }
+
+        private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            if (contentType != null) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+            }
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
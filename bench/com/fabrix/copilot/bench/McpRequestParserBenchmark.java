@@ -0,0 +1,179 @@
+package com.fabrix.copilot.bench;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fabrix.copilot.agents.McpRequestParser;
+import com.fabrix.copilot.mcp.ToolInvocation;
+
+/**
+ * ⏱️ McpRequestParserBenchmark - McpAgent 직접 도구 실행 파서 벤치마크
+ *
+ * 실제 채팅에서 수집한 한국어/영어 요청 코퍼스로 기존 방식(요청마다 Pattern.compile, 키워드 cascade)과
+ * McpRequestParser(미리 컴파일된 패턴, 단일 스캔)를 비교합니다. 두 파서의 결과가 다른 요청도 함께 출력합니다.
+ *
+ * 실행: bench 폴더를 소스 경로에 포함해 main 실행 (플러그인 빌드에는 포함되지 않음)
+ *   java com.fabrix.copilot.bench.McpRequestParserBenchmark [iterations]
+ */
+public class McpRequestParserBenchmark {
+
+    private static final String[] CORPUS = {
+        "src/main/App.java 파일 내용 읽어줘",
+        "README.md 파일 읽어 줘",
+        "\"config/settings.json\" 파일의 내용을 보여줘",
+        "pom.xml 파일 내용 좀 보여줄래?",
+        "read the file build.gradle",
+        "Please read file 'docs/guide.md'",
+        "현재 디렉토리 목록 보여줘",
+        "src 폴더 목록 보여줘",
+        "list the current directory",
+        "show me the list of files in the lib folder",
+        "'test/resources' 디렉토리 목록",
+        "TODO를 검색해서 파일 찾아줘",
+        "\"NullPointerException\" 이 들어간 파일 검색",
+        "main 가 포함된 파일 찾기",
+        "search for Controller in file names",
+        "find file named Util",
+        "git 상태 확인해줘",
+        "깃 상태 알려줘",
+        "show git status",
+        "git 로그 보여줘",
+        "최근 git 커밋 이력 10개",
+        "show me the git log",
+        "이 코드에서 버그를 찾아줘",
+        "자바에서 스트림 API 사용법 설명해줘",
+        "What is the difference between an interface and an abstract class?",
+        "MCP 서버 연결 상태는 어때?",
+        "refactor this method to use Optional",
+        "파일 구조를 어떻게 설계하는 게 좋을까?",
+        "explain how the file watcher works",
+        "데이터베이스 테이블 목록을 보여줘"
+    };
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        McpRequestParser parser = new McpRequestParser();
+
+        // 결과 비교
+        int differences = 0;
+        int matched = 0;
+        for (String request : CORPUS) {
+            ToolInvocation current = parser.parse(request);
+            String legacy = LegacyParser.parse(request);
+            String currentText = current != null ? current.getToolName() + current.getArguments() : null;
+            if (current != null) matched++;
+            if (!Objects.equals(legacy, currentText)) {
+                differences++;
+                System.out.println("≠ " + request + "\n    legacy : " + legacy + "\n    current: " + currentText);
+            }
+        }
+        System.out.printf("corpus=%d, direct invocations=%d, differences from legacy=%d%n%n",
+            CORPUS.length, matched, differences);
+
+        // 워밍업
+        run(iterations / 4, request -> LegacyParser.parse(request));
+        run(iterations / 4, request -> parser.parse(request));
+
+        long legacyNanos = run(iterations, request -> LegacyParser.parse(request));
+        long currentNanos = run(iterations, request -> parser.parse(request));
+
+        long requests = (long) iterations * CORPUS.length;
+        System.out.printf("legacy cascade : %8.1f ns/request%n", (double) legacyNanos / requests);
+        System.out.printf("McpRequestParser: %8.1f ns/request%n", (double) currentNanos / requests);
+        System.out.printf("speedup        : %8.2fx%n", (double) legacyNanos / Math.max(1, currentNanos));
+    }
+
+    private interface Parser {
+        Object parse(String request);
+    }
+
+    private static Object sink;
+
+    private static long run(int iterations, Parser parser) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String request : CORPUS) {
+                sink = parser.parse(request);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * 기존 McpAgent.tryDirectToolExecution의 판별/추출 로직 (도구 실행 없이 결과만 반환)
+     */
+    private static final class LegacyParser {
+
+        static String parse(String request) {
+            String lower = request.toLowerCase();
+
+            if ((lower.contains("파일") || lower.contains("file")) &&
+                (lower.contains("읽") || lower.contains("read") || lower.contains("내용"))) {
+                String filePath = extractFilePath(request);
+                if (filePath != null) {
+                    return call("read_file", "path", filePath);
+                }
+            }
+
+            if ((lower.contains("디렉토리") || lower.contains("폴더") || lower.contains("directory")) &&
+                (lower.contains("목록") || lower.contains("list") || lower.contains("보"))) {
+                String dirPath = extractDirectoryPath(request);
+                return call("list_directory", "path", dirPath != null ? dirPath : "./");
+            }
+
+            if (lower.contains("파일") && (lower.contains("검색") || lower.contains("찾"))) {
+                String query = extractSearchQuery(request);
+                if (query != null) {
+                    return call("search_files", "query", query, "path", "./");
+                }
+            }
+
+            if ((lower.contains("git") || lower.contains("깃")) && lower.contains("상태")) {
+                return call("git_status");
+            }
+
+            if ((lower.contains("git") || lower.contains("깃")) &&
+                (lower.contains("로그") || lower.contains("이력") || lower.contains("log"))) {
+                return call("git_log", "limit", "10");
+            }
+            return null;
+        }
+
+        private static String call(String tool, String... keyValues) {
+            Map<String, Object> params = new LinkedHashMap<>();
+            for (int i = 0; i + 1 < keyValues.length; i += 2) {
+                params.put(keyValues[i], keyValues[i + 1]);
+            }
+            return tool + params;
+        }
+
+        private static String extractFilePath(String request) {
+            String[] patterns = { "([\\w\\-./]+\\.[\\w]+)", "\"([^\"]+)\"", "'([^']+)'" };
+            for (String pattern : patterns) {
+                java.util.regex.Matcher m = java.util.regex.Pattern.compile(pattern).matcher(request);
+                if (m.find()) return m.group(1);
+            }
+            return null;
+        }
+
+        private static String extractDirectoryPath(String request) {
+            if (request.contains("현재") || request.contains("current")) return "./";
+            String[] patterns = { "([\\w\\-./]+)\\s*(디렉토리|폴더|directory|folder)", "\"([^\"]+)\"", "'([^']+)'" };
+            for (String pattern : patterns) {
+                java.util.regex.Matcher m = java.util.regex.Pattern.compile(pattern).matcher(request);
+                if (m.find()) return m.group(1).trim();
+            }
+            return null;
+        }
+
+        private static String extractSearchQuery(String request) {
+            String[] patterns = { "\"([^\"]+)\"", "'([^']+)'", "([\\w]+)\\s*를?\\s*검색", "([\\w]+)\\s*가?\\s*포함된" };
+            for (String pattern : patterns) {
+                java.util.regex.Matcher m = java.util.regex.Pattern.compile(pattern).matcher(request);
+                if (m.find()) return m.group(1);
+            }
+            return null;
+        }
+    }
+}
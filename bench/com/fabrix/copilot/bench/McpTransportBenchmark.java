@@ -0,0 +1,175 @@
+package com.fabrix.copilot.bench;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.mcp.McpClient;
+import com.fabrix.copilot.mcp.McpHttpClient;
+import com.fabrix.copilot.mcp.McpServerConfig;
+import com.fabrix.copilot.mcp.McpStdioClient;
+
+/**
+ * ⏱️ McpTransportBenchmark - MCP 클라이언트별 도구 호출 왕복 벤치마크
+ *
+ * FakeMcpServer를 stdio(자식 JVM)와 HTTP(같은 프로세스)로 띄우고 McpStdioClient, McpClient(stdio/HTTP),
+ * McpHttpClient로 같은 tools/call을 보내 다음을 측정합니다.
+ *   - 순차 호출 왕복 지연 (평균, p50, p99)
+ *   - 1/4/16 스레드 동시 호출 처리량
+ *   - 호출당 할당량 (순차 구간, 살아 있는 모든 스레드의 합 - 응답 리더 스레드 포함, HTTP는 같은 프로세스의 서버 몫도 포함)
+ * 서버 지연을 0으로 두면 전송 계층 비용만, 지연을 주면 동시 호출이 서버 안에서 겹치는지를 봅니다.
+ *
+ * 실행: bench 폴더를 소스 경로에 포함해 main 실행 (플러그인 빌드에는 포함되지 않음)
+ *   java com.fabrix.copilot.bench.McpTransportBenchmark [iterations] [payloadBytes] [latencyMs]
+ */
+public class McpTransportBenchmark {
+
+    private static final int[] THREADS = { 1, 4, 16 };
+
+    private interface Call {
+        String call() throws Exception;
+    }
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int payloadBytes = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        FakeMcpServer httpServer = new FakeMcpServer(payloadBytes, latencyMillis);
+        httpServer.startHttp(0);
+        String url = "http://127.0.0.1:" + httpServer.port();
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put("path", "src/Main.java");
+
+        System.out.printf("iterations=%d, payload=%d bytes, server latency=%dms, http=%s%n%n",
+            iterations, payloadBytes, latencyMillis, url);
+        try {
+            McpStdioClient stdio = new McpStdioClient(stdioConfig("fake-stdio", payloadBytes, latencyMillis));
+            if (connect("McpStdioClient", stdio.connect())) {
+                measure("McpStdioClient (stdio)", iterations,
+                    () -> stdio.executeTool("read_file", arguments, RequestDeadline.unbounded()));
+                stdio.disconnect();
+            }
+
+            McpClient legacyStdio = new McpClient(stdioConfig("fake-legacy-stdio", payloadBytes, latencyMillis));
+            if (connect("McpClient stdio", legacyStdio.connect())) {
+                measure("McpClient (stdio)", iterations, () -> legacyStdio.callTool("read_file", arguments));
+                legacyStdio.disconnect();
+            }
+
+            McpClient legacyHttp = new McpClient(httpConfig("fake-legacy-http", url));
+            if (connect("McpClient http", legacyHttp.connect())) {
+                measure("McpClient (http)", iterations, () -> legacyHttp.callTool("read_file", arguments));
+                legacyHttp.disconnect();
+            }
+
+            McpHttpClient http = new McpHttpClient(httpConfig("fake-http", url));
+            if (connect("McpHttpClient", http.connect())) {
+                measure("McpHttpClient (http)", iterations,
+                    () -> http.callTool("read_file", arguments, RequestDeadline.unbounded()));
+                http.disconnect();
+            }
+        } finally {
+            httpServer.stop();
+        }
+    }
+
+    // 같은 JVM과 클래스 경로로 FakeMcpServer를 자식 프로세스로 실행
+    private static McpServerConfig stdioConfig(String name, int payloadBytes, long latencyMillis) {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> args = Arrays.asList("-cp", System.getProperty("java.class.path"),
+            FakeMcpServer.class.getName(), "--stdio",
+            "--payload", String.valueOf(payloadBytes), "--latency", String.valueOf(latencyMillis));
+        return new McpServerConfig(name, "stdio", java, args, Collections.emptyMap(), 0);
+    }
+
+    private static McpServerConfig httpConfig(String name, String url) {
+        return new McpServerConfig(name, "http", "", Collections.singletonList(url), Collections.emptyMap(), 0);
+    }
+
+    private static boolean connect(String label, boolean connected) {
+        if (!connected) {
+            System.out.println(label + ": connect failed, skipped");
+        }
+        return connected;
+    }
+
+    private static void measure(String label, int iterations, Call call) throws Exception {
+        // 워밍업 (JIT, keep-alive 연결)
+        for (int i = 0; i < Math.max(100, iterations / 4); i++) {
+            sink = call.call();
+        }
+
+        long[] latencies = new long[iterations];
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long callStart = System.nanoTime();
+            sink = call.call();
+            latencies[i] = System.nanoTime() - callStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        Arrays.sort(latencies);
+
+        System.out.printf("%-24s sequential: mean %8.1f us, p50 %8.1f us, p99 %8.1f us, alloc %7.1f KB/call%n",
+            label, elapsed / 1e3 / iterations, latencies[iterations / 2] / 1e3,
+            latencies[Math.min(iterations - 1, (int) Math.ceil(iterations * 0.99) - 1)] / 1e3,
+            allocated / 1024.0 / iterations);
+        for (int threads : THREADS) {
+            long nanos = run(iterations, threads, call);
+            System.out.printf("%-24s %2d thread%s: %8.0f calls/s%n",
+                label, threads, threads > 1 ? "s" : " ", iterations / (nanos / 1e9));
+        }
+        System.out.println();
+    }
+
+    private static long run(int iterations, int threads, Call call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            AtomicInteger next = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    while (next.getAndIncrement() < iterations) {
+                        sink = call.call();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // 살아 있는 모든 스레드의 누적 할당량 (HotSpot 확장 API, 지원하지 않으면 0)
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        long total = 0;
+        for (long allocated : ((com.sun.management.ThreadMXBean) threads)
+                .getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, allocated);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,193 @@
+package com.fabrix.copilot.agents;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.core.RequestTrace;
+import com.fabrix.copilot.utils.CopilotLogger;
+
+/**
+ * 🎲 AgentEnsemble - 모호한 요청에 대한 병렬 실행
+ *
+ * 분류기가 CODE/GENERAL 중 하나로 확신하지 못하는 요청("에러가 뭐예요?" 등)은
+ * CodingAgent와 GeneralAgent를 동시에 실행하고, 공유 데드라인 안에 도착한 응답 중
+ * 로컬 스코어러가 더 나은 쪽을 선택합니다. 선택되지 않은 작업은 취소됩니다.
+ * 전체 지연 시간은 두 번 순차 호출한 합이 아니라 max()가 됩니다.
+ */
+public class AgentEnsemble {
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4, new ThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "FabriX-Ensemble-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    /**
+     * 🏆 앙상블 실행 결과
+     */
+    public static class Outcome {
+        public final ReactAgent.ActionType winner;
+        public final String content;
+        public final int score;
+        public final int completedCandidates;
+
+        Outcome(ReactAgent.ActionType winner, String content, int score, int completedCandidates) {
+            this.winner = winner;
+            this.content = content;
+            this.score = score;
+            this.completedCandidates = completedCandidates;
+        }
+    }
+
+    private static class Candidate {
+        final ReactAgent.ActionType type;
+        final String content;
+        final RequestDeadline deadline;
+
+        Candidate(ReactAgent.ActionType type, String content, RequestDeadline deadline) {
+            this.type = type;
+            this.content = content;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * 두 에이전트를 병렬 실행하고 승자를 선택
+     * @param timeoutMillis 두 후보가 공유하는 데드라인
+     * @param deadline 요청 전체 예산 - 각 후보의 LLM 호출에 전달
+     */
+    public Outcome run(String input, String context, long timeoutMillis, RequestDeadline deadline) throws Exception {
+        CodingAgent codingAgent = AgentProvider.getCodingAgent();
+        GeneralAgent generalAgent = AgentProvider.getGeneralAgent();
+        CompletionService<Candidate> completion = new ExecutorCompletionService<>(EXECUTOR);
+        List<Future<Candidate>> futures = new ArrayList<>();
+
+        // 후보는 풀 스레드에서 실행되므로 호출 스레드의 현재 스팬을 부모로 명시
+        // 후보마다 따로 취소할 수 있는 데드라인을 주어 패자의 HTTP/MCP 호출만 끊을 수 있게 함
+        RequestTrace.Span parentSpan = deadline.getTrace().current();
+        RequestDeadline codeDeadline = deadline.fork();
+        RequestDeadline generalDeadline = deadline.fork();
+        List<RequestDeadline> memberDeadlines = Arrays.asList(codeDeadline, generalDeadline);
+        futures.add(completion.submit(candidate(ReactAgent.ActionType.CODE, codeDeadline, parentSpan,
+            () -> codingAgent.process(input, context, codeDeadline))));
+        futures.add(completion.submit(candidate(ReactAgent.ActionType.GENERAL, generalDeadline, parentSpan,
+            () -> generalAgent.processWithContext(input, context, generalDeadline))));
+
+        long stopAt = System.currentTimeMillis() + timeoutMillis;
+        List<Candidate> completed = new ArrayList<>();
+        Candidate best = null;
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                long remaining = stopAt - System.currentTimeMillis();
+                if (remaining <= 0) break;
+
+                Future<Candidate> done = completion.poll(remaining, TimeUnit.MILLISECONDS);
+                if (done == null) break; // 데드라인 도달
+
+                try {
+                    completed.add(done.get());
+                } catch (Exception e) {
+                    CopilotLogger.warn("Ensemble candidate failed: " + e.getMessage());
+                }
+            }
+
+            if (completed.isEmpty()) {
+                throw new java.util.concurrent.TimeoutException(
+                    "Ensemble candidates did not finish within " + timeoutMillis + "ms");
+            }
+
+            int bestScore = Integer.MIN_VALUE;
+            for (Candidate c : completed) {
+                int score = score(input, c);
+                if (score > bestScore) {
+                    best = c;
+                    bestScore = score;
+                }
+            }
+
+            CopilotLogger.info("Ensemble winner: " + best.type + " (score " + bestScore + ", "
+                + completed.size() + "/" + futures.size() + " candidates completed)");
+            return new Outcome(best.type, best.content, bestScore, completed.size());
+        } finally {
+            // 승자가 정해지면 나머지 후보(패자)는 바로 취소 - 인터럽트로 풀리지 않는 LLM/MCP 호출은 데드라인 취소로 끊음
+            // 승자의 데드라인은 취소하지 않고 부모의 취소 훅 목록에서만 제거
+            for (int i = 0; i < futures.size(); i++) {
+                RequestDeadline member = memberDeadlines.get(i);
+                if (best != null && best.deadline == member) {
+                    member.release();
+                } else {
+                    member.cancel();
+                    futures.get(i).cancel(true);
+                }
+            }
+        }
+    }
+
+    private Callable<Candidate> candidate(ReactAgent.ActionType type, RequestDeadline deadline,
+            RequestTrace.Span parentSpan, Callable<String> work) {
+        return () -> {
+            RequestTrace.Span span = deadline.getTrace().open("ensemble " + type, parentSpan);
+            try {
+                return new Candidate(type, work.call(), deadline);
+            } finally {
+                span.close();
+            }
+        };
+    }
+
+    /**
+     * 📏 로컬 스코어러 - LLM 호출 없이 휴리스틱으로 응답 품질 평가
+     */
+    private int score(String input, Candidate candidate) {
+        String content = candidate.content;
+        if (content == null || content.trim().isEmpty()) return -100;
+
+        int score = 0;
+        String lowerInput = input.toLowerCase();
+
+        // 오류/폴백/재질문 응답은 강하게 감점
+        if (content.startsWith("❌")) score -= 50;
+        if (content.contains("임시 응답")) score -= 40;
+        if (content.contains("확인이 필요합니다")) score -= 20;
+
+        boolean asksForCode = lowerInput.contains("코드") || lowerInput.contains("code")
+            || lowerInput.contains("예제") || lowerInput.contains("example")
+            || lowerInput.contains("고쳐") || lowerInput.contains("fix");
+        boolean hasCodeBlock = content.contains("```");
+
+        if (candidate.type == ReactAgent.ActionType.CODE) {
+            score += hasCodeBlock ? (asksForCode ? 15 : 5) : -10;
+        } else {
+            // 설명형 질문에 코드 블록 없이 답한 일반 응답은 가점
+            boolean explanatory = lowerInput.contains("뭐") || lowerInput.contains("무엇")
+                || lowerInput.contains("왜") || lowerInput.contains("what") || lowerInput.contains("why")
+                || lowerInput.contains("설명");
+            if (explanatory) score += 10;
+            if (asksForCode && !hasCodeBlock) score -= 10;
+        }
+
+        // 너무 짧은 응답은 감점, 적당한 길이는 소폭 가점
+        int length = content.length();
+        if (length < 40) score -= 15;
+        else if (length < 4000) score += 5;
+
+        return score;
+    }
+}
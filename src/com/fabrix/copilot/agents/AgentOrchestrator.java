@@ -2,29 +2,37 @@ package com.fabrix.copilot.agents;
 
 import com.fabrix.copilot.core.ConversationManager;
 import com.fabrix.copilot.core.LLMClient;
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.core.RequestTrace;
 import com.fabrix.copilot.utils.CopilotLogger;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.function.Consumer;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import java.util.List;  // 추가
-import java.util.Map;   // 추가
 import java.util.HashMap; // 추가
 import com.fabrix.copilot.mcp.McpServerManager;
+import com.fabrix.copilot.mcp.McpSnapshot;
 /**
  * 🎯 AgentOrchestrator - ReAct 패턴 통합 오케스트레이터 (개선된 버전)
  * - MCP 도구 요청을 감지하고 적절한 에이전트로 라우팅
  * - Eclipse Jobs API를 사용하여 모든 요청을 비동기적으로 처리
  */
 public class AgentOrchestrator {
-    private final ReactAgent reactAgent;
+    // SimpleDateFormat과 달리 thread-safe하므로 단계마다 새로 만들 필요 없음
+    private static final DateTimeFormatter STEP_TIME_FORMAT =
+        DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    
     private final ConversationManager conversationManager;
     private final LLMClient llmClient;
 
     public AgentOrchestrator() {
-        this.reactAgent = new ReactAgent();
+        // ReactAgent는 AgentProvider의 공유 인스턴스를 첫 요청 시점에 가져옴
         this.conversationManager = ConversationManager.getInstance();
         this.llmClient = LLMClient.getInstance();
     }
@@ -35,41 +43,44 @@ public class AgentOrchestrator {
      */
     public void processComplexRequestAsync(String userRequest, String fileContext, String modelId,
             Consumer<String> onSuccess, Consumer<Throwable> onError) {
-Job job = new Job("AI Assistant is thinking...") {
-@Override
-protected IStatus run(IProgressMonitor monitor) {
-try {
-monitor.beginTask("에이전트 시스템 실행 중...", IProgressMonitor.UNKNOWN);
-
-CopilotLogger.info("Processing request with model: " + modelId);
-CopilotLogger.info("User request: " + userRequest);
-CopilotLogger.info("Context length: " + (fileContext != null ? fileContext.length() : 0));
-
-String enhancedContext = fileContext;
-if (modelId != null && !modelId.isEmpty()) {
-enhancedContext = "Model: " + modelId + "\n" + fileContext;
-}
-
-// 모든 요청을 ReactAgent 기반으로 처리
-String response = processComplexRequest(userRequest, enhancedContext, modelId);
-
-org.eclipse.swt.widgets.Display.getDefault().asyncExec(() -> {
-onSuccess.accept(response);
-});
-
-return Status.OK_STATUS;
-} catch (Exception e) {
-CopilotLogger.error("Request processing failed", e);
-org.eclipse.swt.widgets.Display.getDefault().asyncExec(() -> {
-onError.accept(e);
-});
-return Status.error("요청 처리 중 오류가 발생했습니다.", e);
-}
-}
-};
-job.setUser(true);
-job.schedule();
-}
+        // 요청 전체가 공유하는 시간 예산 - Job 생성 시점부터 계산
+        RequestDeadline deadline = RequestDeadline.fromPreferences();
+        
+        Job job = new Job("AI Assistant is thinking...") {
+            @Override
+            protected IStatus run(IProgressMonitor monitor) {
+                try {
+                    monitor.beginTask("에이전트 시스템 실행 중...", IProgressMonitor.UNKNOWN);
+                    
+                    CopilotLogger.info("Processing request with model: " + modelId);
+                    CopilotLogger.info("User request: " + userRequest);
+                    CopilotLogger.info("Context length: " + (fileContext != null ? fileContext.length() : 0));
+                    
+                    String enhancedContext = fileContext;
+                    if (modelId != null && !modelId.isEmpty()) {
+                        enhancedContext = "Model: " + modelId + "\n" + fileContext;
+                    }
+                    
+                    // 모든 요청을 ReactAgent 기반으로 처리
+                    String response = processComplexRequest(userRequest, enhancedContext, modelId, deadline);
+                    
+                    org.eclipse.swt.widgets.Display.getDefault().asyncExec(() -> {
+                        onSuccess.accept(response);
+                    });
+                    
+                    return Status.OK_STATUS;
+                } catch (Exception e) {
+                    CopilotLogger.error("Request processing failed", e);
+                    org.eclipse.swt.widgets.Display.getDefault().asyncExec(() -> {
+                        onError.accept(e);
+                    });
+                    return Status.error("요청 처리 중 오류가 발생했습니다.", e);
+                }
+            }
+        };
+        job.setUser(true);
+        job.schedule();
+    }
 
     
     /**
@@ -82,18 +93,14 @@ job.schedule();
         
         String lower = request.toLowerCase();
         
-        // MCP 서버가 연결되어 있는지 확인
-        McpServerManager.McpStatus status = McpServerManager.getInstance().getStatus();
-        if (status.getConnectedServers() == 0) {
+        // MCP 서버가 연결되어 있는지 확인 (상태와 도구 목록은 같은 스냅샷에서)
+        McpSnapshot mcp = McpServerManager.getInstance().getSnapshot();
+        if (!mcp.hasConnectedServers()) {
             return false;
         }
         
-        // 연결된 도구들 확인
-        Map<String, List<McpServerManager.McpTool>> connectedTools = 
-            McpServerManager.getInstance().getConnectedTools();
-        
         // 각 도구별로 관련 키워드 확인
-        for (List<McpServerManager.McpTool> tools : connectedTools.values()) {
+        for (List<McpServerManager.McpTool> tools : mcp.getConnectedTools().values()) {
             for (McpServerManager.McpTool tool : tools) {
                 if (isRequestForTool(lower, tool.getName())) {
                     CopilotLogger.info("Request matches MCP tool: " + tool.getName());
@@ -144,39 +151,61 @@ job.schedule();
     /**
      * 복잡한 요청 처리 (ReactAgent 사용)
      */
-    public String processComplexRequest(String userRequest, String fileContext, String modelId) {
+    public String processComplexRequest(String userRequest, String fileContext, String modelId)
+            throws RequestDeadline.DeadlineExceededException {
+        return processComplexRequest(userRequest, fileContext, modelId, RequestDeadline.fromPreferences());
+    }
+    
+    /**
+     * 복잡한 요청 처리 - 호출자가 만든 데드라인을 모든 하위 단계에 전달
+     */
+    public String processComplexRequest(String userRequest, String fileContext, String modelId,
+            RequestDeadline deadline) throws RequestDeadline.DeadlineExceededException {
+        RequestTrace trace = deadline.getTrace();
+        trace.getRoot().set("message", preview(userRequest, 60));
         try {
             // 새 대화 세션 시작
             String sessionId = conversationManager.startNewConversation();
             
-            // 컨텍스트 강화
-            String enhancedContext = buildEnhancedContext(userRequest, fileContext, modelId);
+            // 컨텍스트 강화 (MCP 요청 판단은 한 번만)
+            boolean mcpRequest = isMCPToolRequest(userRequest);
+            String enhancedContext = buildEnhancedContext(userRequest, fileContext, modelId, mcpRequest);
             
             CopilotLogger.info("Processing complex request");
             CopilotLogger.info("Session ID: " + sessionId);
             
             // MCP 도구 요청인지 먼저 확인
-            if (isMCPToolRequest(userRequest)) {
+            if (mcpRequest) {
                 CopilotLogger.info("MCP tool request detected, routing to McpAgent");
                 
                 // McpAgent로 직접 라우팅
                 McpAgent mcpAgent = AgentProvider.getMcpAgent();
-                String mcpResponse = mcpAgent.process(userRequest, enhancedContext);
+                String mcpResponse;
+                RequestTrace.Span span = trace.open("MCP agent");
+                try {
+                    mcpResponse = mcpAgent.process(userRequest, enhancedContext, deadline);
+                } finally {
+                    span.close();
+                }
                 
                 // 대화 기록에 추가
                 conversationManager.addMessage(sessionId, userRequest, true);
                 conversationManager.addMessage(sessionId, mcpResponse, false);
                 
+                trace.finish();
+                CopilotLogger.info("Request timeline:\n" + trace.format());
                 return mcpResponse;
             }
             
             // MCP가 아닌 경우 ReactAgent를 통해 처리
             CopilotLogger.info("Processing through ReactAgent");
             
-            ReactAgent.ReactResponse response = reactAgent.process(
+            ReactAgent.ReactResponse response = AgentProvider.getReactAgent().process(
                 userRequest, 
                 enhancedContext, 
-                sessionId
+                sessionId,
+                null,
+                deadline
             );
             
             // 대화 기록에 추가
@@ -184,11 +213,21 @@ job.schedule();
             conversationManager.addMessage(sessionId, response.getFinalAnswer(), false);
             
             // 처리 과정 로그
-            logProcessingSteps(response);
+            trace.finish();
+            logProcessingSteps(response, trace);
+            CopilotLogger.info("Request finished in " + deadline.elapsedMillis() + "ms (" + deadline + ")");
             
             return response.getFinalAnswer();
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            // 예산 소진/취소는 응답 문자열로 바꾸지 않음 - 호출자가 취소/타임아웃으로 표시하고 대화에 저장하지 않음
+            trace.getRoot().fail(e);
+            trace.finish();
+            CopilotLogger.info("Request stopped after " + deadline.elapsedMillis() + "ms: " + e.getMessage());
+            throw e;
         } catch (Exception e) {
+            trace.getRoot().fail(e);
+            trace.finish();
             CopilotLogger.error("Complex request processing failed", e);
             return "❌ 요청 처리 중 오류가 발생했습니다: " + e.getMessage();
         }
@@ -197,7 +236,7 @@ job.schedule();
     /**
      * 강화된 컨텍스트 생성
      */
-    private String buildEnhancedContext(String userRequest, String fileContext, String modelId) {
+    private String buildEnhancedContext(String userRequest, String fileContext, String modelId, boolean mcpRequest) {
         StringBuilder context = new StringBuilder();
         
         // 모델 정보
@@ -212,7 +251,7 @@ job.schedule();
         }
         
         // MCP 도구 가용성 힌트
-        if (isMCPToolRequest(userRequest)) {
+        if (mcpRequest) {
             context.append("\n=== Available MCP Tools ===\n");
             context.append("- File operations: read_file, write_file, list_directory, search_files\n");
             context.append("- Git operations: git_status, git_log, git_diff\n");
@@ -223,7 +262,7 @@ job.schedule();
         context.append("\n=== Request Type ===\n");
         if (userRequest.toLowerCase().contains("코드") || userRequest.toLowerCase().contains("code")) {
             context.append("This appears to be a coding-related request.\n");
-        } else if (isMCPToolRequest(userRequest)) {
+        } else if (mcpRequest) {
             context.append("This appears to be an MCP tool request.\n");
         } else {
             context.append("This appears to be a general knowledge request.\n");
@@ -235,14 +274,14 @@ job.schedule();
     /**
      * 처리 과정 로깅
      */
-    private void logProcessingSteps(ReactAgent.ReactResponse response) {
+    private void logProcessingSteps(ReactAgent.ReactResponse response, RequestTrace trace) {
         CopilotLogger.info("=== ReactAgent Processing Steps ===");
         CopilotLogger.info("Overall Status: " + response.getOverallStatus());
         CopilotLogger.info("Total Steps: " + response.getSteps().size());
         
         for (ReactAgent.ReactStep step : response.getSteps()) {
             CopilotLogger.info(String.format("Step [%s] - Action: %s, Status: %s",
-                new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date(step.getTimestamp())),
+                STEP_TIME_FORMAT.format(Instant.ofEpochMilli(step.getTimestamp())),
                 step.getActionType(),
                 step.getStatus()
             ));
@@ -253,15 +292,21 @@ job.schedule();
                 CopilotLogger.debug("Result: " + step.getResult());
             }
         }
+        CopilotLogger.info("Request timeline:\n" + trace.format());
         CopilotLogger.info("================================");
     }
     
+    private static String preview(String text, int maxLength) {
+        if (text == null) return "";
+        return text.length() > maxLength ? text.substring(0, maxLength) + "..." : text;
+    }
+    
     /**
      * 에이전트 시스템 상태 확인
      */
     public boolean isReady() {
         boolean llmReady = llmClient != null;
-        boolean reactReady = reactAgent != null;
+        boolean reactReady = AgentProvider.getReactAgent() != null;
         boolean conversationReady = conversationManager != null;
         
         boolean allReady = llmReady && reactReady && conversationReady;
@@ -281,7 +326,8 @@ job.schedule();
         StringBuilder info = new StringBuilder();
         info.append("🎯 **Agent Orchestrator Status**\n\n");
         info.append("• LLM Client: ").append(llmClient != null ? "✅ Ready" : "❌ Not initialized").append("\n");
-        info.append("• React Agent: ").append(reactAgent != null ? "✅ Ready" : "❌ Not initialized").append("\n");
+        info.append("• React Agent: ").append(AgentProvider.getCreationTimings().containsKey("ReactAgent")
+            ? "✅ Ready" : "💤 Created on first request").append("\n");
         info.append("• Conversation Manager: ").append(conversationManager != null ? "✅ Ready" : "❌ Not initialized").append("\n");
         
         // 대화 통계
@@ -293,6 +339,17 @@ job.schedule();
             info.append("• Total messages: ").append(totalMessages).append("\n");
         }
         
+        // 지연 생성된 에이전트와 생성 시간
+        info.append("\n**Agent Startup:**\n");
+        java.util.Map<String, Long> timings = AgentProvider.getCreationTimings();
+        if (timings.isEmpty()) {
+            info.append("• No agents created yet\n");
+        }
+        timings.forEach((name, millis) -> info.append("• ").append(name).append(": ").append(millis).append("ms\n"));
+        
+        info.append("\n**Agent Result Cache:**\n");
+        info.append("• ").append(AgentResultCache.getInstance().getStats()).append("\n");
+        
         return info.toString();
     }
 }
\ No newline at end of file
@@ -1,40 +1,86 @@
 package com.fabrix.copilot.agents;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+
 /**
  * 🎯 AgentProvider (신규)
  * * 플러그인 전체에서 사용될 에이전트들의 싱글톤 인스턴스를 제공합니다.
  * 이 클래스를 통해 불필요한 객체 생성을 막고 메모리 사용을 최적화합니다.
+ *
+ * 각 에이전트는 holder 클래스 안에 있어 처음 요청될 때 한 번만 생성됩니다(JVM 클래스 초기화로 thread-safe).
+ * 따라서 ChatView를 열 때 사용하지 않는 에이전트(예: MCP 미사용 시 McpAgent)는 생성 비용이 들지 않습니다.
  */
 public final class AgentProvider {
 
-    private static final GeneralAgent GENERAL_AGENT = new GeneralAgent();
-    private static final CodingAgent CODING_AGENT = new CodingAgent();
-    private static final McpAgent MCP_AGENT = new McpAgent();
-    private static final SelfCritiqueAgent SELF_CRITIQUE_AGENT = new SelfCritiqueAgent();
-    
-    // ReactAgent는 다른 에이전트들을 사용하므로 별도 초기화
-    private static final ReactAgent REACT_AGENT = new ReactAgent();
+    // 에이전트별 생성 시간 (ms) - 생성 순서대로 기록
+    private static final Map<String, Long> CREATION_TIMINGS = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private static final class GeneralAgentHolder {
+        static final GeneralAgent INSTANCE = create("GeneralAgent", GeneralAgent::new);
+    }
+
+    private static final class CodingAgentHolder {
+        static final CodingAgent INSTANCE = create("CodingAgent", CodingAgent::new);
+    }
+
+    private static final class McpAgentHolder {
+        static final McpAgent INSTANCE = create("McpAgent", McpAgent::new);
+    }
+
+    private static final class SelfCritiqueAgentHolder {
+        static final SelfCritiqueAgent INSTANCE = create("SelfCritiqueAgent", SelfCritiqueAgent::new);
+    }
+
+    // ReactAgent는 다른 에이전트들을 실제 사용 시점에 가져오므로 생성 비용이 작음
+    private static final class ReactAgentHolder {
+        static final ReactAgent INSTANCE = create("ReactAgent", ReactAgent::new);
+    }
 
     // private 생성자로 외부에서 인스턴스화 방지
     private AgentProvider() {}
 
     public static GeneralAgent getGeneralAgent() {
-        return GENERAL_AGENT;
+        return GeneralAgentHolder.INSTANCE;
     }
 
     public static CodingAgent getCodingAgent() {
-        return CODING_AGENT;
+        return CodingAgentHolder.INSTANCE;
     }
 
     public static McpAgent getMcpAgent() {
-        return MCP_AGENT;
+        return McpAgentHolder.INSTANCE;
     }
 
     public static SelfCritiqueAgent getSelfCritiqueAgent() {
-        return SELF_CRITIQUE_AGENT;
+        return SelfCritiqueAgentHolder.INSTANCE;
     }
-    
+
     public static ReactAgent getReactAgent() {
-        return REACT_AGENT;
+        return ReactAgentHolder.INSTANCE;
+    }
+
+    /**
+     * ⏱️ 지금까지 생성된 에이전트와 생성 소요 시간 (ms)
+     */
+    public static Map<String, Long> getCreationTimings() {
+        synchronized (CREATION_TIMINGS) {
+            return new LinkedHashMap<>(CREATION_TIMINGS);
+        }
+    }
+
+    private static <T> T create(String name, Supplier<T> factory) {
+        long start = System.nanoTime();
+        T agent = factory.get();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+
+        CREATION_TIMINGS.put(name, elapsedMillis);
+        CopilotLogger.info("🤖 " + name + " created on first use in " + elapsedMillis + "ms (thread: "
+            + Thread.currentThread().getName() + ")");
+        return agent;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package com.fabrix.copilot.agents;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+import com.fabrix.copilot.utils.PreferenceManager;
+
+/**
+ * 🗂️ AgentResultCache - 에이전트 응답 메모이제이션
+ *
+ * 동일한 요청을 같은 컨텍스트(선택 코드, 첨부 파일, 에디터 문서 상태)로 다시 보낸 경우
+ * 프롬프트 생성과 LLM 호출 없이 이전 응답을 재사용합니다.
+ * - 키: 에이전트 타입 + 정규화된 요청 + 컨텍스트 섹션들의 SHA-256 해시
+ * - TTL: PreferenceManager의 agent.cache.ttl.seconds (0이면 비활성화)
+ * - 에디터 문서가 바뀌면 문서 수정 스탬프가 키에 포함되므로 이전 항목은 더 이상 매칭되지 않습니다.
+ */
+public final class AgentResultCache {
+
+    private static final AgentResultCache INSTANCE = new AgentResultCache();
+    private static final int MAX_ENTRIES = 200;
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static class Entry {
+        final String value;
+        final long createdAt;
+
+        Entry(String value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private AgentResultCache() {
+        // access-order LinkedHashMap으로 간단한 LRU 구현
+        this.entries = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    public static AgentResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 캐시 키 생성
+     * @param agentType 에이전트 종류 (e.g. "coding")
+     * @param request 사용자 요청 (공백/대소문자 정규화)
+     * @param contextSections 프롬프트에 들어가는 컨텍스트 섹션들
+     */
+    public static String buildKey(String agentType, String request, String... contextSections) {
+        StringBuilder key = new StringBuilder();
+        key.append(agentType).append('|').append(normalize(request)).append('|');
+        key.append(hashSections(contextSections));
+        return key.toString();
+    }
+
+    /**
+     * 캐시 조회 - 만료된 항목은 제거 후 null 반환
+     */
+    public String lookup(String key) {
+        long ttlMillis = getTtlMillis();
+        if (ttlMillis <= 0 || key == null) {
+            return null;
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.createdAt <= ttlMillis) {
+                hits.incrementAndGet();
+                CopilotLogger.debug("Agent cache hit (" + getStats() + ")");
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 캐시 저장 - 비어 있는 응답은 저장하지 않음
+     */
+    public void store(String key, String value) {
+        if (getTtlMillis() <= 0 || key == null || value == null || value.trim().isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 만료된 항목 정리
+     */
+    public void evictExpired() {
+        long ttlMillis = getTtlMillis();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (ttlMillis <= 0 || now - it.next().createdAt > ttlMillis) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        CopilotLogger.info("Agent result cache cleared");
+    }
+
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public String getStats() {
+        return String.format("entries: %d, hits: %d, misses: %d, hit rate: %.1f%%",
+            size(), hits.get(), misses.get(), getHitRate() * 100);
+    }
+
+    private long getTtlMillis() {
+        return PreferenceManager.getInstance().getAgentCacheTtlSeconds() * 1000L;
+    }
+
+    private static String normalize(String request) {
+        if (request == null) return "";
+        return request.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private static String hashSections(String... sections) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String section : sections) {
+                if (section != null) {
+                    digest.update(section.getBytes(StandardCharsets.UTF_8));
+                }
+                // 섹션 경계를 구분하여 ("ab","c")와 ("a","bc")가 같은 해시가 되지 않도록 함
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            // SHA-256은 항상 존재하지만, 만약을 위해 hashCode로 대체
+            int hash = 1;
+            for (String section : sections) {
+                hash = 31 * hash + (section != null ? section.hashCode() : 0);
+            }
+            return Integer.toHexString(hash);
+        }
+    }
+}
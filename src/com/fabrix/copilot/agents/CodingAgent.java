@@ -2,6 +2,11 @@ package com.fabrix.copilot.agents;
 
 import com.fabrix.copilot.core.ContextCollector;
 import com.fabrix.copilot.core.LLMClient;
+import com.fabrix.copilot.core.PromptAssembler;
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.utils.PreferenceManager;
+
+import java.util.Map;
 
 /**
  * 🤖 CodingAgent - 코딩 전문 에이전트
@@ -11,8 +16,9 @@ public class CodingAgent {
     
     private final LLMClient llmClient;
     private final ContextCollector contextCollector;
+    private final AgentResultCache resultCache;
     
-    private final String SYSTEM_PROMPT =
+    private static final String SYSTEM_PROMPT =
         "당신은 숙련된 프로그래머입니다. " +
         "코드 작성, 리뷰, 디버깅, 리팩토링을 전문으로 합니다. " +
         "간결하고 효율적인 코드를 작성하며, 베스트 프랙티스를 따릅니다. " +
@@ -22,39 +28,72 @@ public class CodingAgent {
     public CodingAgent() {
         this.llmClient = LLMClient.getInstance();
         this.contextCollector = new ContextCollector(); // ContextCollector 통합 버전을 사용
+        this.resultCache = AgentResultCache.getInstance();
+    }
+    
+    public String process(String userInput, String context) throws RequestDeadline.DeadlineExceededException {
+        return process(userInput, context, RequestDeadline.unbounded());
     }
     
-    public String process(String userInput, String context) {
+    /**
+     * ⏳ 데드라인 인식 처리 - LLM 타임아웃을 남은 요청 예산에 맞춤
+     */
+    public String process(String userInput, String context, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         try {
             if (userInput == null || userInput.trim().isEmpty()) {
                 return "❌ 요청사항을 입력해주세요.";
             }
             
             String codeContext = safeGetCurrentCodeContext();
-            String prompt = buildCodingPrompt(userInput, context, codeContext);
             
-            String response = safeGenerateResponse(prompt);
+            // 동일 요청 + 동일 컨텍스트 + 동일 문서 버전이면 캐시된 응답 재사용
+            String cacheKey = AgentResultCache.buildKey("coding", userInput,
+                context, codeContext, safeGetDocumentStamp());
+            String cached = resultCache.lookup(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+            
+            String prompt = buildCodingPrompt(userInput, context, codeContext, deadline);
             
-            if (needsTechnicalClarification(userInput, response)) {
-                return askTechnicalDetails(userInput);
+            String response = safeGenerateResponse(prompt, deadline);
+            if (response == null) {
+                // 폴백 응답은 캐시하지 않음
+                return generateFallbackResponse(prompt);
             }
             
-            return response;
+            // 재요청도 첫 요청과 같은 응답을 받도록 명확화 분기까지 거친 최종 응답을 캐시
+            String answer = needsTechnicalClarification(userInput, response)
+                ? askTechnicalDetails(userInput)
+                : response;
+            resultCache.store(cacheKey, answer);
+            return answer;
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            // 예산 소진/취소는 오류 응답으로 바꾸지 않고 요청 처리기까지 전파
+            throw e;
         } catch (Exception e) {
             return handleProcessError(e, userInput);
         }
     }
     
-    private String safeGenerateResponse(String prompt) {
+    /**
+     * LLM 응답 생성 - 호출이 실패하면 null (호출자가 캐시하지 않는 폴백 응답으로 대체)
+     */
+    private String safeGenerateResponse(String prompt, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         try {
             // [수정] generateResponse 호출 시 두 번째 인자로 null을 전달하여 기본 모델을 사용하도록 함
-            return llmClient.generateResponse(prompt, null);
+            return llmClient.generateResponse(prompt, null, deadline);
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            // 예산 소진은 폴백 응답으로 감추지 않고 호출자에게 그대로 알림
+            throw e;
         } catch (Exception e) {
             String errorMsg = "AI 응답 생성 실패: " + e.getMessage();
             System.err.println("CodingAgent LLM 호출 실패: " + errorMsg);
-            return generateFallbackResponse(prompt);
+            return null;
         }
     }
     
@@ -68,20 +107,58 @@ public class CodingAgent {
         }
     }
     
-    private String buildCodingPrompt(String userInput, String context, String codeContext) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append(SYSTEM_PROMPT).append("\n\n");
-        
-        if (codeContext != null && !codeContext.trim().isEmpty()) {
-            prompt.append("📁 현재 코드 컨텍스트:\n```\n").append(codeContext).append("\n```\n\n");
+    private String safeGetDocumentStamp() {
+        try {
+            if (contextCollector == null) return "";
+            return contextCollector.getCurrentDocumentStamp();
+        } catch (Exception e) {
+            return "";
         }
+    }
+    
+    /**
+     * 🧱 코딩 프롬프트 조립 - 섹션별 우선순위/토큰 예산 적용
+     * 선택된 코드 > 첨부 파일/파일 컨텍스트 > 도구 목록·요청 유형 힌트 순으로 유지하고,
+     * 예산을 넘으면 도구 목록처럼 가치가 낮은 섹션부터 요약하거나 제외합니다.
+     */
+    private String buildCodingPrompt(String userInput, String context, String codeContext, RequestDeadline deadline) {
+        PromptAssembler assembler = codingPromptAssembler(userInput, context, codeContext,
+            PreferenceManager.getInstance().getPromptTokenBudget());
+        String prompt = assembler.assemble();
+        
+        deadline.getTrace().current()
+            .set("promptTokens~", assembler.getAssembledTokens())
+            .set("trimmedSections", assembler.getTrimmedSections().isEmpty() ? null : assembler.getTrimmedSections())
+            .set("droppedSections", assembler.getDroppedSections().isEmpty() ? null : assembler.getDroppedSections());
+        return prompt;
+    }
+    
+    static PromptAssembler codingPromptAssembler(String userInput, String context, String codeContext, int tokenBudget) {
+        PromptAssembler assembler = new PromptAssembler(tokenBudget);
+        assembler.add("system", null, SYSTEM_PROMPT, PromptAssembler.Priority.REQUIRED, Integer.MAX_VALUE);
+        assembler.addCode("code", "📁 현재 코드 컨텍스트:", codeContext, PromptAssembler.Priority.HIGH, 1500);
         
-        if (context != null && !context.trim().isEmpty()) {
-            prompt.append("📋 추가 컨텍스트: ").append(context).append("\n\n");
+        // 오케스트레이터 컨텍스트는 "=== 이름 ===" 섹션으로 나누어 각각 우선순위 지정
+        for (Map.Entry<String, String> part : PromptAssembler.splitContext(context).entrySet()) {
+            String name = part.getKey();
+            String content = part.getValue();
+            
+            if (name.equals("File Context")) {
+                assembler.add("file", "📋 파일 컨텍스트:", content, PromptAssembler.Priority.MEDIUM, 3000);
+            } else if (name.equals("Available MCP Tools")) {
+                // ChatView의 도구 목록과 오케스트레이터의 힌트 - 코딩 요청에는 거의 쓸모가 없으므로 낮은 우선순위로
+                assembler.add("tool-hints", "🔌 사용 가능한 도구:", content, PromptAssembler.Priority.LOW, 150);
+            } else if (name.equals("Request Type")) {
+                assembler.add("request-type", null, content, PromptAssembler.Priority.LOW, 50);
+            } else if (name.isEmpty()) {
+                assembler.add("context", "📋 추가 컨텍스트:", content, PromptAssembler.Priority.MEDIUM, 1000);
+            } else {
+                assembler.add(name, "📋 " + name + ":", content, PromptAssembler.Priority.MEDIUM, 1000);
+            }
         }
         
-        prompt.append("🎯 요청사항: ").append(userInput);
-        return prompt.toString();
+        assembler.add("request", null, "🎯 요청사항: " + userInput, PromptAssembler.Priority.REQUIRED, Integer.MAX_VALUE);
+        return assembler;
     }
     
     private boolean needsTechnicalClarification(String input, String response) {
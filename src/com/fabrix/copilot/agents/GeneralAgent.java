@@ -1,6 +1,7 @@
 package com.fabrix.copilot.agents;
 
 import com.fabrix.copilot.core.LLMClient;
+import com.fabrix.copilot.core.RequestDeadline;
 
 /**
  * 🤖 GeneralAgent - 일반 목적 AI 에이전트
@@ -9,6 +10,7 @@ import com.fabrix.copilot.core.LLMClient;
 public class GeneralAgent {
     
     private final LLMClient llmClient;
+    private final AgentResultCache resultCache;
     
     private final String SYSTEM_PROMPT =
         "당신은 도움이 되는 AI 어시스턴트입니다. " +
@@ -18,6 +20,7 @@ public class GeneralAgent {
     
     public GeneralAgent() {
         this.llmClient = LLMClient.getInstance();
+        this.resultCache = AgentResultCache.getInstance();
     }
     
     public String process(String userMessage) {
@@ -27,7 +30,7 @@ public class GeneralAgent {
             }
             
             String prompt = buildGeneralPrompt(userMessage);
-            String response = safeGenerateResponse(prompt);
+            String response = safeGenerateResponse(prompt, null, RequestDeadline.unbounded());
             return postProcessResponse(response, userMessage);
             
         } catch (Exception e) {
@@ -35,26 +38,53 @@ public class GeneralAgent {
         }
     }
     
-    public String processWithContext(String userMessage, String context) {
+    public String processWithContext(String userMessage, String context)
+            throws RequestDeadline.DeadlineExceededException {
+        return processWithContext(userMessage, context, RequestDeadline.unbounded());
+    }
+    
+    /**
+     * ⏳ 데드라인 인식 처리 - LLM 타임아웃을 남은 요청 예산에 맞춤
+     */
+    public String processWithContext(String userMessage, String context, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         try {
             if (userMessage == null || userMessage.trim().isEmpty()) {
                 return "❓ 질문이나 요청사항을 입력해주세요.";
             }
             
+            // 동일 질문 + 동일 컨텍스트(선택 코드, 첨부 파일 포함)면 캐시된 응답 재사용
+            String cacheKey = AgentResultCache.buildKey("general", userMessage, context);
+            String cached = resultCache.lookup(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+            
             String prompt = buildContextualPrompt(userMessage, context);
-            String response = safeGenerateResponse(prompt);
+            String response = safeGenerateResponse(prompt, cacheKey, deadline);
             return postProcessResponse(response, userMessage);
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            // 예산 소진/취소는 오류 응답으로 바꾸지 않고 요청 처리기까지 전파
+            throw e;
         } catch (Exception e) {
             return handleProcessError(e, userMessage);
         }
     }
     
-    private String safeGenerateResponse(String prompt) {
+    private String safeGenerateResponse(String prompt, String cacheKey, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         try {
             // [수정] generateResponse 호출 시 두 번째 인자로 null을 전달하여 기본 모델을 사용하도록 함
-            return llmClient.generateResponse(prompt, null);
+            String response = llmClient.generateResponse(prompt, null, deadline);
+            if (cacheKey != null) {
+                resultCache.store(cacheKey, response);
+            }
+            return response;
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            // 예산 소진은 폴백 응답으로 감추지 않고 호출자에게 그대로 알림
+            throw e;
         } catch (Exception e) {
             String errorMsg = "AI 응답 생성 실패: " + e.getMessage();
             System.err.println("GeneralAgent LLM 호출 실패: " + errorMsg);
@@ -1,12 +1,16 @@
 package com.fabrix.copilot.agents;
 
 import com.fabrix.copilot.core.LLMClient;
+import com.fabrix.copilot.core.RequestDeadline;
 import com.fabrix.copilot.utils.PreferenceManager;
 import com.fabrix.copilot.utils.CopilotLogger; // 추가
 import com.fabrix.copilot.mcp.McpServerManager;
+import com.fabrix.copilot.mcp.ToolInvocation;
 
-import java.util.Map;      // 추가
+import java.util.ArrayList;
 import java.util.HashMap;  // 추가
+import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 🔌 McpAgent - MCP(Model Context Protocol) 전문 에이전트
@@ -22,6 +26,10 @@ public class McpAgent {
         "외부 도구와 서비스를 연동하여 파일 시스템, API 등에 접근할 수 있으며, " +
         "이를 활용하여 사용자에게 더 정확하고 실용적인 답변을 제공합니다.";
     
+    private static final String FALLBACK_HEADER = "🔌 **MCP 에이전트 임시 응답**";
+    
+    private static final McpRequestParser REQUEST_PARSER = new McpRequestParser();
+    
     private boolean mcpConnected = false;
     private String mcpServerUrl = "";
     
@@ -35,8 +43,7 @@ public class McpAgent {
         try {
             if (preferenceManager.isMCPEnabled()) {
                 // 실제로 연결된 MCP 서버 수 확인
-                McpServerManager.McpStatus status = McpServerManager.getInstance().getStatus();
-                this.mcpConnected = status.getConnectedServers() > 0;
+                this.mcpConnected = McpServerManager.getInstance().getSnapshot().hasConnectedServers();
                 this.mcpServerUrl = preferenceManager.getMCPFullUrl();
 
                 if (mcpConnected) {
@@ -53,7 +60,15 @@ public class McpAgent {
         }
     }
     
-    public String process(String userRequest, String mcpContext) {
+    public String process(String userRequest, String mcpContext) throws RequestDeadline.DeadlineExceededException {
+        return process(userRequest, mcpContext, RequestDeadline.unbounded());
+    }
+    
+    /**
+     * ⏳ 데드라인 인식 처리 - 도구 실행과 LLM 호출이 남은 요청 예산을 공유
+     */
+    public String process(String userRequest, String mcpContext, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         try {
             if (userRequest == null || userRequest.trim().isEmpty()) {
                 return "❓ MCP를 통해 처리할 요청을 입력해주세요.";
@@ -66,97 +81,91 @@ public class McpAgent {
             CopilotLogger.info("McpAgent processing request: " + userRequest);
             
             // 1. 먼저 도구를 직접 실행해 보기
-            String toolResult = tryDirectToolExecution(userRequest, mcpContext);
+            String toolResult = tryDirectToolExecution(userRequest, mcpContext, deadline);
             if (toolResult != null) {
                 return toolResult;
             }
             
-            // 2. LLM을 통한 처리
+            // 2. LLM을 통한 처리 - 도구 실행 결과는 외부 상태에 의존하므로 LLM 응답만 캐시
+            AgentResultCache resultCache = AgentResultCache.getInstance();
+            String cacheKey = AgentResultCache.buildKey("mcp", userRequest, mcpContext);
+            String cached = resultCache.lookup(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+            
             String prompt = buildMCPPrompt(userRequest, mcpContext);
-            String response = safeGenerateResponse(prompt);
+            String response = safeGenerateResponse(prompt, deadline);
             
             // 3. LLM 응답에서 도구 실행 필요성 확인
             if (requiresMCPToolExecution(response)) {
                 return executeMCPToolsFromLLMResponse(response, userRequest);
             }
             
+            if (!isFallbackResponse(response)) {
+                resultCache.store(cacheKey, response);
+            }
             return response;
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            // 예산 소진/취소는 오류 응답으로 바꾸지 않고 요청 처리기까지 전파
+            throw e;
         } catch (Exception e) {
             return handleProcessError(e, userRequest);
         }
     }
 
-    // 직접 도구 실행 시도
-    private String tryDirectToolExecution(String request, String context) {
+    // 직접 도구 실행 시도 - 요청을 한 번에 ToolInvocation으로 파싱하고 서버의 inputSchema로 검증
+    // 독립적인 호출이 여럿이면 서버별 배치로 한 번에 보냄
+    private String tryDirectToolExecution(String request, String context, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         try {
-            String lower = request.toLowerCase();
-            McpServerManager manager = McpServerManager.getInstance();
-            
-            // 파일 읽기 요청
-            if ((lower.contains("파일") || lower.contains("file")) && 
-                (lower.contains("읽") || lower.contains("read") || lower.contains("내용"))) {
-                
-                // 파일 경로 추출
-                String filePath = extractFilePath(request);
-                if (filePath != null) {
-                    Map<String, Object> params = new HashMap<>();
-                    params.put("path", filePath);
-                    
-                    CopilotLogger.info("Executing read_file with path: " + filePath);
-                    String result = manager.executeTool("read_file", params, context);
-                    return formatToolResult("read_file", filePath, result);
-                }
+            List<ToolInvocation> planned = REQUEST_PARSER.parseAll(request);
+            if (planned.isEmpty()) {
+                return null;
             }
             
-            // 디렉토리 목록 요청
-            if ((lower.contains("디렉토리") || lower.contains("폴더") || lower.contains("directory")) && 
-                (lower.contains("목록") || lower.contains("list") || lower.contains("보"))) {
-                
-                String dirPath = extractDirectoryPath(request);
-                Map<String, Object> params = new HashMap<>();
-                params.put("path", dirPath != null ? dirPath : "./");
-                
-                CopilotLogger.info("Executing list_directory with path: " + params.get("path"));
-                String result = manager.executeTool("list_directory", params, context);
-                return formatToolResult("list_directory", params.get("path").toString(), result);
-            }
-            
-            // 파일 검색 요청
-            if (lower.contains("파일") && (lower.contains("검색") || lower.contains("찾"))) {
-                String query = extractSearchQuery(request);
-                if (query != null) {
-                    Map<String, Object> params = new HashMap<>();
-                    params.put("query", query);
-                    params.put("path", "./");
-                    
-                    CopilotLogger.info("Executing search_files with query: " + query);
-                    String result = manager.executeTool("search_files", params, context);
-                    return formatToolResult("search_files", query, result);
+            McpServerManager manager = McpServerManager.getInstance();
+            List<ToolInvocation> invocations = new ArrayList<>();
+            for (ToolInvocation invocation : planned) {
+                ToolInvocation.Validation validation = invocation.validate(manager.getToolSchema(invocation.getToolName()));
+                if (!validation.isValid()) {
+                    // 서버 스키마와 맞지 않는 호출은 보내지 않고 LLM 경로로 처리
+                    CopilotLogger.info("Direct invocation rejected by input schema: " + invocation
+                        + " " + validation.getErrors());
+                    return null;
                 }
+                invocations.add(validation.getInvocation());
             }
             
-            // Git 상태 요청
-            if ((lower.contains("git") || lower.contains("깃")) && lower.contains("상태")) {
-                CopilotLogger.info("Executing git_status");
-                String result = manager.executeTool("git_status", new HashMap<>(), context);
-                return formatToolResult("git_status", null, result);
+            if (invocations.size() > 1) {
+                CopilotLogger.info("Executing " + invocations.size() + " tools: " + invocations);
+                List<String> results = manager.executeTools(invocations, context, deadline);
+                StringBuilder formatted = new StringBuilder();
+                for (int i = 0; i < invocations.size(); i++) {
+                    if (i > 0) {
+                        formatted.append("\n\n");
+                    }
+                    ToolInvocation invocation = invocations.get(i);
+                    formatted.append(formatToolResult(invocation.getToolName(), invocation.getDisplayParameter(), results.get(i)));
+                }
+                return formatted.toString();
             }
             
-            // Git 로그 요청
-            if ((lower.contains("git") || lower.contains("깃")) && 
-                (lower.contains("로그") || lower.contains("이력") || lower.contains("log"))) {
-                
-                Map<String, Object> params = new HashMap<>();
-                params.put("limit", "10");
-                
-                CopilotLogger.info("Executing git_log");
-                String result = manager.executeTool("git_log", params, context);
-                return formatToolResult("git_log", null, result);
-            }
+            ToolInvocation invocation = invocations.get(0);
+            CopilotLogger.info("Executing " + invocation.getToolName() + " with " + invocation.getArguments());
+            String result = manager.executeTool(invocation.getToolName(),
+                new HashMap<>(invocation.getArguments()), context, deadline);
+            return formatToolResult(invocation.getToolName(), invocation.getDisplayParameter(), result);
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
-            CopilotLogger.error("Direct tool execution failed", e);
+            if (e.getCause() instanceof TimeoutException) {
+                CopilotLogger.warn("Direct tool execution timed out: " + e.getMessage());
+            } else {
+                CopilotLogger.error("Direct tool execution failed", e);
+            }
         }
         
         return null; // 직접 실행할 수 없는 경우
@@ -206,73 +215,12 @@ public class McpAgent {
         return formatted.toString();
     }
 
-    // 파일 경로 추출
-    private String extractFilePath(String request) {
-        // 간단한 패턴 매칭으로 파일 경로 추출
-        String[] patterns = {
-            "([\\w\\-./]+\\.[\\w]+)",  // 파일명.확장자 패턴
-            "\"([^\"]+)\"",             // 따옴표로 둘러싼 경로
-            "'([^']+)'"                 // 작은 따옴표로 둘러싼 경로
-        };
-        
-        for (String pattern : patterns) {
-            java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-            java.util.regex.Matcher m = p.matcher(request);
-            if (m.find()) {
-                return m.group(1);
-            }
-        }
-        
-        return null;
-    }
-
-    // 디렉토리 경로 추출
-    private String extractDirectoryPath(String request) {
-        if (request.contains("현재") || request.contains("current")) {
-            return "./";
-        }
-        
-        // 경로 패턴 추출
-        String[] patterns = {
-            "([\\w\\-./]+)\\s*(디렉토리|폴더|directory|folder)",
-            "\"([^\"]+)\"",
-            "'([^']+)'"
-        };
-        
-        for (String pattern : patterns) {
-            java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-            java.util.regex.Matcher m = p.matcher(request);
-            if (m.find()) {
-                return m.group(1).trim();
-            }
-        }
-        
-        return null;
-    }
-
-    // 검색 쿼리 추출
-    private String extractSearchQuery(String request) {
-        String[] patterns = {
-            "\"([^\"]+)\"",                    // 따옴표
-            "'([^']+)'",                       // 작은 따옴표
-            "([\\w]+)\\s*를?\\s*검색",         // ~를 검색
-            "([\\w]+)\\s*가?\\s*포함된"        // ~가 포함된
-        };
-        
-        for (String pattern : patterns) {
-            java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-            java.util.regex.Matcher m = p.matcher(request);
-            if (m.find()) {
-                return m.group(1);
-            }
-        }
-        
-        return null;
-    }
-    
-    private String safeGenerateResponse(String prompt) {
+    private String safeGenerateResponse(String prompt, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         try {
-            return llmClient.generateResponse(prompt, null);
+            return llmClient.generateResponse(prompt, null, deadline);
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             String errorMsg = "AI 응답 생성 실패: " + e.getMessage();
             System.err.println("McpAgent LLM 호출 실패: " + errorMsg);
@@ -296,7 +244,13 @@ public class McpAgent {
     }
     
     private boolean isMCPAvailable() {
-        return preferenceManager.isMCPEnabled() && mcpConnected;
+        if (!preferenceManager.isMCPEnabled()) return false;
+        if (!mcpConnected) {
+            // 서버는 백그라운드에서 병렬로 시작되므로 에이전트 생성 이후 준비된 서버도 반영
+            McpServerManager manager = McpServerManager.getInstance();
+            mcpConnected = manager.getSnapshot().hasConnectedServers() || manager.isStarting();
+        }
+        return mcpConnected;
     }
     
     private String handleMCPUnavailable() {
@@ -327,7 +281,7 @@ public class McpAgent {
     }
     
     private String generateFallbackResponse(String prompt) {
-        return "🔌 **MCP 에이전트 임시 응답**\n\n" +
+        return FALLBACK_HEADER + "\n\n" +
                "현재 AI 엔진 또는 MCP 서버에 접근할 수 없습니다.\n\n" +
                "🔄 시스템 복구 후 다시 시도해주세요.";
     }
@@ -335,4 +289,8 @@ public class McpAgent {
     public boolean isReady() {
         return llmClient != null && preferenceManager != null;
     }
+    
+    private boolean isFallbackResponse(String response) {
+        return response == null || response.startsWith(FALLBACK_HEADER);
+    }
 }
\ No newline at end of file
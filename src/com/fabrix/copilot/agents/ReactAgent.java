@@ -2,7 +2,10 @@ package com.fabrix.copilot.agents;
 
 import com.fabrix.copilot.core.ConversationManager;
 import com.fabrix.copilot.core.LLMClient;
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.core.RequestTrace;
 import com.fabrix.copilot.utils.CopilotLogger;
+import com.fabrix.copilot.utils.PreferenceManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,11 +16,10 @@ import java.util.List;
  */
 public class ReactAgent {
 
+    private static final long ANALYSIS_BUDGET_MS = 15000;
+    
     private final LLMClient llmClient;
-    private final CodingAgent codingAgent;
-    private final McpAgent mcpAgent;
-    private final GeneralAgent generalAgent;
-    private final SelfCritiqueAgent critiqueAgent;
+    private final AgentEnsemble ensemble;
 
     public enum ActionType {
         CODE, MCP, GENERAL, CLARIFY, OBSERVE, THINK, REFLECT
@@ -76,22 +78,28 @@ public class ReactAgent {
         private final ActionType type;
         private final String description;
         private final String parameters;
+        private final boolean ambiguous;
         
         public ReactAction(ActionType type, String description) {
-            this.type = type;
-            this.description = description;
-            this.parameters = "";
+            this(type, description, "", false);
         }
         
         public ReactAction(ActionType type, String description, String parameters) {
+            this(type, description, parameters, false);
+        }
+        
+        public ReactAction(ActionType type, String description, String parameters, boolean ambiguous) {
             this.type = type;
             this.description = description;
             this.parameters = parameters;
+            this.ambiguous = ambiguous;
         }
         
         public ActionType getType() { return type; }
         public String getDescription() { return description; }
         public String getParameters() { return parameters; }
+        /** CODE/GENERAL 분류가 확실하지 않아 앙상블 실행 대상인지 여부 */
+        public boolean isAmbiguous() { return ambiguous; }
     }
     
     /**
@@ -147,38 +155,58 @@ public class ReactAgent {
     }
     
     public ReactAgent() {
+        // 하위 에이전트는 실제로 선택된 시점에 AgentProvider에서 가져옴 (사용하지 않는 에이전트는 생성하지 않음)
         this.llmClient = LLMClient.getInstance();
-        this.codingAgent = AgentProvider.getCodingAgent();
-        this.mcpAgent = AgentProvider.getMcpAgent();
-        this.generalAgent = AgentProvider.getGeneralAgent();
-        this.critiqueAgent = AgentProvider.getSelfCritiqueAgent();
+        this.ensemble = new AgentEnsemble();
     }
     
     /**
      * 🎯 메인 REACT 프로세스 - 기본 버전 (콜백 없음)
      */
-    public ReactResponse process(String userRequest, String context, String sessionId) {
+    public ReactResponse process(String userRequest, String context, String sessionId)
+            throws RequestDeadline.DeadlineExceededException {
         return process(userRequest, context, sessionId, null);
     }
     
     /**
      * 🎯 메인 REACT 프로세스 - 콜백 지원 버전
      */
-    public ReactResponse process(String userRequest, String context, String sessionId, ReactCallback callback) {
+    public ReactResponse process(String userRequest, String context, String sessionId, ReactCallback callback)
+            throws RequestDeadline.DeadlineExceededException {
+        return process(userRequest, context, sessionId, callback, RequestDeadline.unbounded());
+    }
+    
+    /**
+     * 🎯 메인 REACT 프로세스 - 데드라인 지원 버전
+     * 모든 단계가 하나의 요청 예산을 공유하며, 예산이 소진되면 남은 단계를 건너뜁니다.
+     */
+    public ReactResponse process(String userRequest, String context, String sessionId, ReactCallback callback,
+            RequestDeadline deadline) throws RequestDeadline.DeadlineExceededException {
         List<ReactStep> steps = new ArrayList<>();
+        RequestTrace trace = deadline.getTrace();
         
         try {
             String conversationContext = ConversationManager.getInstance().getConversationContext(sessionId, 3);
             
             // 1. OBSERVE - 요청 분석
-            String observation = analyzeRequest(userRequest, context);
+            String observation;
+            RequestTrace.Span observeSpan = trace.open("OBSERVE");
+            try {
+                observation = analyzeRequest(userRequest, context, deadline);
+            } finally {
+                observeSpan.close();
+            }
             steps.add(new ReactStep(ActionType.OBSERVE, "요청 분석", observation, ReactStatus.COMPLETED));
             if (callback != null) {
                 callback.onObservation("요청을 분석하고 있습니다: " + userRequest);
             }
             
             // 2. THINK - 작업 계획
-            ReactAction action = decideAction(userRequest, context, conversationContext);
+            ReactAction action;
+            try (RequestTrace.Span span = trace.open("THINK")) {
+                action = decideAction(userRequest, context, conversationContext);
+                span.set("action", action.getType()).set("ambiguous", action.isAmbiguous());
+            }
             String thought = "선택된 작업: " + action.getDescription();
             steps.add(new ReactStep(ActionType.THINK, "계획 수립", thought, ReactStatus.COMPLETED));
             if (callback != null) {
@@ -189,11 +217,22 @@ public class ReactAgent {
             if (callback != null) {
                 callback.onAction("실행 중", action.getType().toString());
             }
-            ReactResult result = executeAndCritique(action, userRequest, context);
+            deadline.check("ACT");
+            ReactResult result;
+            try (RequestTrace.Span span = trace.open("ACT")) {
+                result = executeAndCritique(action, userRequest, context, deadline);
+                span.set("status", result.getStatus());
+            }
             steps.add(new ReactStep(action.getType(), "작업 실행", result.getContent(), result.getStatus()));
             
             // 4. REFLECT - 결과 평가
-            String reflection = evaluateResult(result, userRequest);
+            String reflection;
+            RequestTrace.Span reflectSpan = trace.open("REFLECT");
+            try {
+                reflection = evaluateResult(result, userRequest);
+            } finally {
+                reflectSpan.close();
+            }
             steps.add(new ReactStep(ActionType.REFLECT, "결과 평가", reflection, ReactStatus.COMPLETED));
             if (callback != null) {
                 callback.onReflection("결과를 평가하고 있습니다...");
@@ -201,6 +240,9 @@ public class ReactAgent {
             
             return new ReactResponse(steps, result.getContent(), result.getStatus());
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            // 예산 소진/취소는 오류 단계로 기록하지 않고 요청 처리기까지 전파
+            throw e;
         } catch (Exception e) {
             CopilotLogger.error("ReactAgent process failed", e);
             String errorMessage = "처리 중 오류가 발생했습니다: " + e.getMessage();
@@ -212,7 +254,7 @@ public class ReactAgent {
     /**
      * 요청 분석 - LLM을 사용한 의도 파악
      */
-    private String analyzeRequest(String request, String context) {
+    private String analyzeRequest(String request, String context, RequestDeadline deadline) {
         try {
             String prompt = String.format("""
                 다음 사용자 요청을 분석하세요:
@@ -228,7 +270,8 @@ public class ReactAgent {
                 간단히 한 문장으로 요약하세요.
                 """, request, context);
             
-            String analysis = llmClient.generateResponse(prompt, null);
+            // 분석은 부가 단계이므로 예산의 일부만 사용
+            String analysis = llmClient.generateResponse(prompt, null, deadline.limitTo(ANALYSIS_BUDGET_MS));
             return analysis != null ? analysis : "요청 분석 완료";
             
         } catch (Exception e) {
@@ -253,22 +296,36 @@ public class ReactAgent {
     /**
      * ⚡️ 실행 및 자기 평가 (Self-Critique)
      */
-    private ReactResult executeAndCritique(ReactAction action, String input, String context) {
+    private ReactResult executeAndCritique(ReactAction action, String input, String context, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
         ReactResult result = new ReactResult();
         try {
-            String initialContent = executeAgent(action, input, context);
+            // 분류가 모호하면 CODE/GENERAL을 병렬 실행하고 스코어러가 고른 응답 사용
+            if (action.isAmbiguous() && PreferenceManager.getInstance().isAgentEnsembleEnabled()) {
+                ReactResult ensembleResult = executeEnsemble(input, context, deadline);
+                if (ensembleResult != null) {
+                    return ensembleResult;
+                }
+            }
+            
+            String initialContent = executeAgent(action, input, context, deadline);
             
-            // Self-Critique는 선택적으로 적용
-            if (shouldUseSelfCritique(action.getType())) {
-                SelfCritiqueAgent.CritiqueResult critique = critiqueAgent.evaluate(input, initialContent, context);
+            // Self-Critique는 선택적으로 적용 (예산이 남아 있을 때만)
+            if (shouldUseSelfCritique(action.getType()) && !deadline.isExpired()) {
+                SelfCritiqueAgent.CritiqueResult critique;
+                try (RequestTrace.Span span = deadline.getTrace().open("self-critique")) {
+                    critique = AgentProvider.getSelfCritiqueAgent().evaluate(input, initialContent, context, deadline);
+                    span.set("valid", critique.isValid);
+                }
                 
-                if (critique.isValid) {
+                // 평가 후 예산이 소진되었으면 재실행하지 않고 초기 응답 사용
+                if (critique.isValid || deadline.isExpired()) {
                     result.setContent(initialContent);
                     result.setStatus(ReactStatus.COMPLETED);
                 } else {
                     // 간단한 개선 시도
                     ReactAction improvedAction = decideImprovedAction(critique.improvedAction);
-                    String improvedContent = executeAgent(improvedAction, input, context);
+                    String improvedContent = executeAgent(improvedAction, input, context, deadline);
                     
                     result.setContent(improvedContent + "\n\n💡 (피드백을 통해 답변을 개선했습니다)");
                     result.setStatus(ReactStatus.COMPLETED);
@@ -279,6 +336,8 @@ public class ReactAgent {
                 result.setStatus(ReactStatus.COMPLETED);
             }
             
+        } catch (RequestDeadline.DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             result.setContent("처리 중 오류가 발생했습니다: " + e.getMessage());
             result.setStatus(ReactStatus.ERROR);
@@ -287,6 +346,26 @@ public class ReactAgent {
         return result;
     }
     
+    /**
+     * 🎲 앙상블 실행 - 실패 시 null을 반환하여 단일 에이전트 경로로 폴백
+     */
+    private ReactResult executeEnsemble(String input, String context, RequestDeadline deadline) {
+        try {
+            long timeoutMillis = Math.min(deadline.remainingMillis(),
+                PreferenceManager.getInstance().getAgentEnsembleTimeoutSeconds() * 1000L);
+            AgentEnsemble.Outcome outcome = ensemble.run(input, context, timeoutMillis, deadline);
+            
+            ReactResult result = new ReactResult();
+            result.setContent(outcome.content);
+            result.setStatus(ReactStatus.COMPLETED);
+            result.setMetadata("Ensemble winner: " + outcome.winner + " (score " + outcome.score + ")");
+            return result;
+        } catch (Exception e) {
+            CopilotLogger.warn("Ensemble execution failed, falling back to single agent: " + e.getMessage());
+            return null;
+        }
+    }
+    
     /**
      * Self-Critique 사용 여부 결정
      */
@@ -295,15 +374,21 @@ public class ReactAgent {
         return actionType == ActionType.GENERAL;
     }
     
-    private String executeAgent(ReactAction action, String input, String context) {
-        switch (action.getType()) {
-            case CODE:
-                return codingAgent.process(input, context);
-            case MCP:
-                return mcpAgent.process(input, context);
-            case GENERAL:
-            default:
-                return generalAgent.processWithContext(input, context);
+    private String executeAgent(ReactAction action, String input, String context, RequestDeadline deadline)
+            throws RequestDeadline.DeadlineExceededException {
+        RequestTrace.Span span = deadline.getTrace().open(action.getType() + " agent");
+        try {
+            switch (action.getType()) {
+                case CODE:
+                    return AgentProvider.getCodingAgent().process(input, context, deadline);
+                case MCP:
+                    return AgentProvider.getMcpAgent().process(input, context, deadline);
+                case GENERAL:
+                default:
+                    return AgentProvider.getGeneralAgent().processWithContext(input, context, deadline);
+            }
+        } finally {
+            span.close();
         }
     }
     
@@ -313,22 +398,26 @@ public class ReactAgent {
     private ReactAction decideAction(String request, String context, String conversationContext) {
         String lower = request.toLowerCase();
         
-        // 코드 관련 키워드 확인
-        if (lower.contains("코드") || lower.contains("함수") || lower.contains("class") ||
+        // 코드 관련 키워드 확인 - 확실한 키워드와 일반 대화에도 자주 등장하는 모호한 키워드를 구분
+        boolean strongCode = lower.contains("코드") || lower.contains("함수") || lower.contains("class") ||
             lower.contains("메소드") || lower.contains("method") || lower.contains("변수") ||
             lower.contains("java") || lower.contains("python") || lower.contains("javascript") ||
-            lower.contains("수정") || lower.contains("리팩토링") || lower.contains("refactor") ||
-            lower.contains("버그") || lower.contains("디버그") || lower.contains("에러") || 
-            lower.contains("error") || lower.contains("구현") || lower.contains("implement")) {
+            lower.contains("리팩토링") || lower.contains("refactor") || lower.contains("디버그") ||
+            lower.contains("implement");
+        boolean weakCode = lower.contains("수정") || lower.contains("버그") || lower.contains("에러") || 
+            lower.contains("error") || lower.contains("구현");
+        
+        if (strongCode || (weakCode && hasCodeInContext(context))) {
             return new ReactAction(ActionType.CODE, "코드 작성 및 분석", request);
         }
         
+        if (weakCode && !isMcpRequest(lower)) {
+            // "에러가 뭐예요?"처럼 코드 질문인지 일반 질문인지 애매한 경우
+            return new ReactAction(ActionType.CODE, "코드/일반 병렬 응답", request, true);
+        }
+        
         // MCP 도구 관련 - 명시적인 파일/디렉토리 작업
-        if ((lower.contains("파일") && (lower.contains("읽") || lower.contains("쓰") || 
-             lower.contains("목록") || lower.contains("생성") || lower.contains("삭제"))) ||
-            (lower.contains("디렉토리") || lower.contains("폴더")) ||
-            lower.contains("git") || lower.contains("깃") ||
-            lower.contains("mcp") || lower.contains("도구")) {
+        if (isMcpRequest(lower)) {
             return new ReactAction(ActionType.MCP, "MCP 도구 사용", request);
         }
         
@@ -336,6 +425,22 @@ public class ReactAgent {
         return new ReactAction(ActionType.GENERAL, "일반 질문 응답", request);
     }
     
+    private boolean isMcpRequest(String lower) {
+        return (lower.contains("파일") && (lower.contains("읽") || lower.contains("쓰") || 
+                lower.contains("목록") || lower.contains("생성") || lower.contains("삭제"))) ||
+               (lower.contains("디렉토리") || lower.contains("폴더")) ||
+               lower.contains("git") || lower.contains("깃") ||
+               lower.contains("mcp") || lower.contains("도구");
+    }
+    
+    /**
+     * 컨텍스트에 코드(선택 코드, 첨부 코드)가 포함되어 있는지 확인
+     */
+    private boolean hasCodeInContext(String context) {
+        if (context == null) return false;
+        return context.contains("```") || context.contains("선택된 코드") || context.contains("첨부");
+    }
+    
     private ReactAction decideImprovedAction(String improvedActionHint) {
         if (improvedActionHint == null || improvedActionHint.trim().isEmpty()) {
             return new ReactAction(ActionType.GENERAL, "개선된 응답");
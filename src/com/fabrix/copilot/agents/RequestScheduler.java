@@ -0,0 +1,300 @@
+package com.fabrix.copilot.agents;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.utils.CopilotLogger;
+
+/**
+ * 🗓️ RequestScheduler - 뷰 단위 채팅 요청 스케줄러
+ *
+ * - supersede 모드: 새 요청이 들어오면 진행 중인 요청을 취소(HTTP 연결, MCP RPC까지)하고 대기열을 비웁니다.
+ * - queue 모드: 진행 중인 요청이 끝날 때까지 대기하며, 같은 내용의 대기 요청은 하나로 합칩니다.
+ * - 진행 중/대기 중 요청 수를 노출하고, 변경 시 리스너에 알립니다.
+ *
+ * 콜백은 Job 스레드에서 호출되므로 UI 갱신은 호출자가 Display.asyncExec로 처리해야 합니다.
+ */
+public class RequestScheduler {
+
+    /**
+     * 🛠 요청 작업 - 예산 소진/취소는 예외로 알려 취소 또는 오류 경로로 처리
+     */
+    public interface Work {
+        String apply(RequestDeadline deadline) throws Exception;
+    }
+
+    /**
+     * 📬 스케줄링 대상 요청
+     */
+    public static class ScheduledRequest {
+        private final String key;
+        private final String label;
+        private final Work work;
+        private final List<Consumer<String>> successHandlers = new ArrayList<>();
+        private final List<Consumer<Throwable>> errorHandlers = new ArrayList<>();
+        private final List<Runnable> cancelHandlers = new ArrayList<>();
+        private volatile RequestDeadline deadline;
+        private volatile Job job;
+
+        /**
+         * @param key 대기열 병합에 사용할 키 (같은 키의 대기 요청은 하나로 합쳐짐)
+         * @param label Job 이름 등에 표시할 설명
+         * @param work 데드라인을 받아 응답을 생성하는 작업
+         */
+        public ScheduledRequest(String key, String label, Work work,
+                Consumer<String> onSuccess, Consumer<Throwable> onError, Runnable onCancelled) {
+            this.key = key != null ? key.trim().replaceAll("\\s+", " ") : "";
+            this.label = label;
+            this.work = work;
+            if (onSuccess != null) successHandlers.add(onSuccess);
+            if (onError != null) errorHandlers.add(onError);
+            if (onCancelled != null) cancelHandlers.add(onCancelled);
+        }
+
+        public String getKey() { return key; }
+        public String getLabel() { return label; }
+
+        private void absorb(ScheduledRequest other) {
+            successHandlers.addAll(other.successHandlers);
+            errorHandlers.addAll(other.errorHandlers);
+            cancelHandlers.addAll(other.cancelHandlers);
+        }
+    }
+
+    private final Object lock = new Object();
+    private final Deque<ScheduledRequest> queue = new ArrayDeque<>();
+    private final List<ScheduledRequest> inFlight = new ArrayList<>();
+    private final List<Runnable> stateListeners = new ArrayList<>();
+    private final int maxConcurrent;
+    private volatile boolean supersede;
+
+    public RequestScheduler(boolean supersede) {
+        this(supersede, 1);
+    }
+
+    public RequestScheduler(boolean supersede, int maxConcurrent) {
+        this.supersede = supersede;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+    }
+
+    public void setSupersede(boolean supersede) {
+        this.supersede = supersede;
+    }
+
+    public boolean isSupersede() {
+        return supersede;
+    }
+
+    /**
+     * 요청 제출
+     */
+    public void submit(ScheduledRequest request) {
+        List<ScheduledRequest> superseded = new ArrayList<>();
+
+        synchronized (lock) {
+            if (supersede) {
+                // 새 요청이 이전 요청을 대체 - 대기 중인 것은 버리고 진행 중인 것은 취소
+                superseded.addAll(queue);
+                queue.clear();
+                superseded.addAll(inFlight);
+                // 취소된 요청은 종료를 기다리지 않고 슬롯에서 제외하여 새 요청을 바로 시작
+                inFlight.clear();
+                queue.addLast(request);
+            } else {
+                ScheduledRequest duplicate = findQueued(request.getKey());
+                if (duplicate != null) {
+                    // 같은 요청이 이미 대기 중이면 콜백만 합침
+                    duplicate.absorb(request);
+                    CopilotLogger.info("Coalesced queued request: " + request.getLabel());
+                } else {
+                    queue.addLast(request);
+                }
+            }
+        }
+
+        for (ScheduledRequest old : superseded) {
+            cancelRequest(old, "superseded");
+        }
+
+        drain();
+        fireStateChanged();
+    }
+
+    /**
+     * ⏹ 진행 중 + 대기 중인 모든 요청 취소
+     */
+    public void cancelAll() {
+        List<ScheduledRequest> cancelled = new ArrayList<>();
+        synchronized (lock) {
+            cancelled.addAll(queue);
+            queue.clear();
+            cancelled.addAll(inFlight);
+            inFlight.clear();
+        }
+        for (ScheduledRequest request : cancelled) {
+            cancelRequest(request, "cancelled by user");
+        }
+        fireStateChanged();
+    }
+
+    public int getInFlightCount() {
+        synchronized (lock) {
+            return inFlight.size();
+        }
+    }
+
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    public boolean isBusy() {
+        synchronized (lock) {
+            return !inFlight.isEmpty() || !queue.isEmpty();
+        }
+    }
+
+    /**
+     * 진행/대기 수가 바뀔 때 호출될 리스너 등록 (Job 스레드에서 호출될 수 있음)
+     */
+    public void addStateListener(Runnable listener) {
+        synchronized (lock) {
+            stateListeners.add(listener);
+        }
+    }
+
+    public void removeStateListener(Runnable listener) {
+        synchronized (lock) {
+            stateListeners.remove(listener);
+        }
+    }
+
+    /**
+     * 뷰 종료 시 정리
+     */
+    public void dispose() {
+        cancelAll();
+        synchronized (lock) {
+            stateListeners.clear();
+        }
+    }
+
+    private ScheduledRequest findQueued(String key) {
+        for (ScheduledRequest queued : queue) {
+            if (queued.getKey().equals(key)) {
+                return queued;
+            }
+        }
+        return null;
+    }
+
+    private void drain() {
+        List<ScheduledRequest> toStart = new ArrayList<>();
+        synchronized (lock) {
+            while (inFlight.size() < maxConcurrent && !queue.isEmpty()) {
+                ScheduledRequest next = queue.pollFirst();
+                // 슬롯을 차지하는 시점에 데드라인을 만들어 두어야 시작 직전에 들어온 취소도 전달됨
+                next.deadline = RequestDeadline.fromPreferences();
+                inFlight.add(next);
+                toStart.add(next);
+            }
+        }
+        for (ScheduledRequest request : toStart) {
+            start(request);
+        }
+    }
+
+    private void start(ScheduledRequest request) {
+        RequestDeadline deadline = request.deadline;
+        if (deadline.isCancelled()) {
+            return;
+        }
+
+        Job job = new Job("AI Assistant: " + request.getLabel()) {
+            @Override
+            protected IStatus run(IProgressMonitor monitor) {
+                try {
+                    monitor.beginTask("요청 처리 중...", IProgressMonitor.UNKNOWN);
+                    String response = request.work.apply(deadline);
+
+                    if (deadline.isCancelled()) {
+                        return Status.CANCEL_STATUS;
+                    }
+                    for (Consumer<String> handler : request.successHandlers) {
+                        handler.accept(response);
+                    }
+                    return Status.OK_STATUS;
+                } catch (Exception e) {
+                    if (deadline.isCancelled()) {
+                        return Status.CANCEL_STATUS;
+                    }
+                    CopilotLogger.error("Scheduled request failed: " + request.getLabel(), e);
+                    for (Consumer<Throwable> handler : request.errorHandlers) {
+                        handler.accept(e);
+                    }
+                    return Status.error("요청 처리 중 오류가 발생했습니다.", e);
+                } finally {
+                    monitor.done();
+                    finish(request);
+                }
+            }
+
+            @Override
+            protected void canceling() {
+                // 진행 표시줄에서 Job을 취소한 경우에도 하위 호출까지 중단
+                deadline.cancel();
+            }
+        };
+        request.job = job;
+        job.setUser(false);
+        job.schedule();
+    }
+
+    private void finish(ScheduledRequest request) {
+        synchronized (lock) {
+            inFlight.remove(request);
+        }
+        drain();
+        fireStateChanged();
+    }
+
+    private void cancelRequest(ScheduledRequest request, String reason) {
+        CopilotLogger.info("Cancelling request (" + reason + "): " + request.getLabel());
+
+        RequestDeadline deadline = request.deadline;
+        if (deadline != null) {
+            deadline.cancel();
+        }
+        Job job = request.job;
+        if (job != null) {
+            job.cancel();
+        }
+        for (Runnable handler : request.cancelHandlers) {
+            handler.run();
+        }
+    }
+
+    private void fireStateChanged() {
+        List<Runnable> listeners;
+        synchronized (lock) {
+            listeners = new ArrayList<>(stateListeners);
+        }
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                CopilotLogger.warn("Scheduler listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.fabrix.copilot.agents;
 
 import com.fabrix.copilot.core.LLMClient;
+import com.fabrix.copilot.core.RequestDeadline;
 import com.fabrix.copilot.utils.CopilotLogger; // Logger import
 
 /**
@@ -15,11 +16,18 @@ public class SelfCritiqueAgent {
     }
 
     public CritiqueResult evaluate(String originalInput, String response, String context) {
+        return evaluate(originalInput, response, context, RequestDeadline.unbounded());
+    }
+    
+    /**
+     * ⏳ 데드라인 인식 평가 - 예산이 부족하면 LLM 호출 없이 실패 결과 반환
+     */
+    public CritiqueResult evaluate(String originalInput, String response, String context, RequestDeadline deadline) {
         String prompt = buildCritiquePrompt(originalInput, response, context);
         
         try {
             // [수정] generateResponse 호출 시 두 번째 인자로 null을 전달하여 기본 모델을 사용
-            String critiqueJson = llmClient.generateResponse(prompt, null);
+            String critiqueJson = llmClient.generateResponse(prompt, null, deadline);
             return parseCritique(critiqueJson);
         } catch (Exception e) {
             CopilotLogger.error("Self-Critique 평가 중 오류 발생", e);
@@ -11,10 +11,12 @@ import java.util.regex.Pattern;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IEditorReference;
@@ -75,6 +77,48 @@ public class ContextCollector {
         return "";
     }
     
+    /**
+     * 현재 에디터 문서의 버전 식별자를 가져옵니다.
+     * 문서가 편집될 때마다 값이 바뀌므로, 응답 캐시 키에 포함하여 오래된 결과를 무효화하는 데 사용합니다.
+     * 에이전트 작업 스레드에서는 활성 창을 얻을 수 없으므로 UI 스레드에서 읽습니다.
+     * @return "파일이름@수정스탬프" 형태의 문자열 (에디터가 없으면 빈 문자열)
+     */
+    public String getCurrentDocumentStamp() {
+        if (Display.getCurrent() == null && PlatformUI.isWorkbenchRunning()) {
+            String[] stamp = { "" };
+            PlatformUI.getWorkbench().getDisplay().syncExec(() -> stamp[0] = readDocumentStamp());
+            return stamp[0];
+        }
+        return readDocumentStamp();
+    }
+    
+    private String readDocumentStamp() {
+        try {
+            IWorkbenchWindow window = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+            if (window == null) return "";
+            
+            IWorkbenchPage page = window.getActivePage();
+            if (page == null) return "";
+            
+            IEditorPart editor = page.getActiveEditor();
+            if (editor instanceof ITextEditor) {
+                ITextEditor textEditor = (ITextEditor) editor;
+                IDocument document = textEditor.getDocumentProvider().getDocument(editor.getEditorInput());
+                if (document instanceof IDocumentExtension4) {
+                    long stamp = ((IDocumentExtension4) document).getModificationStamp();
+                    return editor.getEditorInput().getName() + "@" + stamp;
+                }
+                // 수정 스탬프를 지원하지 않는 문서는 내용 해시로 대체
+                if (document != null) {
+                    return editor.getEditorInput().getName() + "#" + document.get().hashCode();
+                }
+            }
+        } catch (Exception e) {
+            CopilotLogger.warn("문서 스탬프를 가져오는데 실패했습니다: " + e.getMessage());
+        }
+        return "";
+    }
+    
     /**
      * 현재 활성화된 파일이 속한 프로젝트의 이름을 가져옵니다.
      * @return 프로젝트 이름
@@ -149,7 +149,7 @@ public class LLMClient {
                     
                     if (monitor.isCanceled()) return Status.CANCEL_STATUS;
 
-                    String response = generateResponseWithRetry(message, modelId);
+                    String response = generateResponseWithRetry(message, modelId, RequestDeadline.fromPreferences());
                     
                     CopilotLogger.info("LLM request successful");
                     onSuccess.accept(response);
@@ -170,18 +170,25 @@ public class LLMClient {
     /**
      * 재시도 로직이 포함된 응답 생성
      */
-    private String generateResponseWithRetry(String message, String modelId) throws Exception {
+    private String generateResponseWithRetry(String message, String modelId, RequestDeadline deadline) throws Exception {
         Exception lastException = null;
         
         for (int i = 0; i < MAX_RETRIES; i++) {
             try {
                 if (i > 0) {
+                    // 대기 후 재시도할 예산이 남아 있지 않으면 즉시 포기
+                    if (deadline.remainingMillis() <= RETRY_DELAY * i) {
+                        CopilotLogger.warn("Skipping LLM retry, request deadline nearly exhausted: " + deadline);
+                        break;
+                    }
                     CopilotLogger.info("Retry attempt " + i + " for LLM request");
                     Thread.sleep(RETRY_DELAY * i); // 점진적 대기
                 }
                 
-                return generateResponse(message, modelId);
+                return generateResponse(message, modelId, deadline);
                 
+            } catch (RequestDeadline.DeadlineExceededException e) {
+                throw e;
             } catch (Exception e) {
                 lastException = e;
                 CopilotLogger.warn("LLM request attempt " + (i + 1) + " failed: " + e.getMessage());
@@ -193,6 +200,13 @@ public class LLMClient {
     }
     
     public String generateResponse(String message, String modelId) throws Exception {
+        return generateResponse(message, modelId, RequestDeadline.unbounded());
+    }
+    
+    /**
+     * ⏳ 데드라인 인식 응답 생성 - 연결/읽기 타임아웃을 남은 예산에 맞춰 줄이고, 예산이 없으면 즉시 실패
+     */
+    public String generateResponse(String message, String modelId, RequestDeadline deadline) throws Exception {
         if (message == null || message.trim().isEmpty()) {
             throw new IllegalArgumentException("Message cannot be empty");
         }
@@ -206,14 +220,24 @@ public class LLMClient {
         
         CopilotLogger.info("Generating response with model: " + effectiveModelId);
 
-        if (isFabriXModel(effectiveModelId)) {
-            return sendFabriXMessage(message, effectiveModelId);
-        } else {
-            return sendOpenAIMessage(message, effectiveModelId);
+        deadline.check("LLM request");
+        
+        try (RequestTrace.Span span = deadline.getTrace().open("LLM " + effectiveModelId)) {
+            span.set("model", effectiveModelId);
+            try {
+                if (isFabriXModel(effectiveModelId)) {
+                    return sendFabriXMessage(message, effectiveModelId, deadline);
+                } else {
+                    return sendOpenAIMessage(message, effectiveModelId, deadline);
+                }
+            } catch (Exception e) {
+                span.fail(e);
+                throw e;
+            }
         }
     }
 
-    private String sendOpenAIMessage(String message, String model) throws Exception {
+    private String sendOpenAIMessage(String message, String model, RequestDeadline deadline) throws Exception {
         String apiKey = preferenceManager.getOpenAIKey();
         if (apiKey.isEmpty()) {
             throw new IllegalStateException("OpenAI API key not configured");
@@ -230,11 +254,12 @@ public class LLMClient {
         headers.put("Content-Type", "application/json");
         
         CopilotLogger.info("Sending request to OpenAI API");
-        String response = makeHTTPRequest(OPENAI_BASE_URL + "/chat/completions", "POST", headers, requestBody);
+        String response = makeHTTPRequest(OPENAI_BASE_URL + "/chat/completions", "POST", headers, requestBody, deadline);
+        recordTokenUsage(deadline, response);
         return parseOpenAIResponse(response);
     }
     
-    private String sendFabriXMessage(String message, String modelId) throws Exception {
+    private String sendFabriXMessage(String message, String modelId, RequestDeadline deadline) throws Exception {
         String token = preferenceManager.getFabriXToken();
         String client = preferenceManager.getFabriXClientKey();
         
@@ -249,7 +274,8 @@ public class LLMClient {
         headers.put("Content-Type", "application/json");
         
         CopilotLogger.info("Sending request to FabriX API");
-        String response = makeHTTPRequest(FABRIX_API_URL, "POST", headers, requestBody);
+        String response = makeHTTPRequest(FABRIX_API_URL, "POST", headers, requestBody, deadline);
+        recordTokenUsage(deadline, response);
         return parseFabriXResponse(response);
     }
 
@@ -297,6 +323,27 @@ public class LLMClient {
         return payload.toString();
     }
 
+    /**
+     * 🧭 응답의 usage 정보를 현재 LLM 스팬에 기록 (usage가 없는 응답은 무시)
+     */
+    private void recordTokenUsage(RequestDeadline deadline, String jsonResponse) {
+        try {
+            JSONObject json = new JSONObject(jsonResponse);
+            JSONObject usage = json.optJSONObject("usage");
+            if (usage == null && json.optJSONObject("result") != null) {
+                usage = json.getJSONObject("result").optJSONObject("usage");
+            }
+            if (usage == null) return;
+            
+            RequestTrace.Span span = deadline.getTrace().current();
+            if (usage.has("prompt_tokens")) span.add("promptTokens", usage.optLong("prompt_tokens"));
+            if (usage.has("completion_tokens")) span.add("completionTokens", usage.optLong("completion_tokens"));
+            if (usage.has("total_tokens")) span.add("totalTokens", usage.optLong("total_tokens"));
+        } catch (Exception e) {
+            // 파싱 오류는 parse*Response에서 처리
+        }
+    }
+    
     private String parseOpenAIResponse(String jsonResponse) throws Exception {
         try {
             CopilotLogger.debug("OpenAI response: " + jsonResponse);
@@ -423,7 +470,7 @@ public class LLMClient {
         headers.put("x-openapi-token", token);
         headers.put("x-generative-ai-client", client);
         
-        String response = makeHTTPRequest(FABRIX_MODELS_URL, "GET", headers, null);
+        String response = makeHTTPRequest(FABRIX_MODELS_URL, "GET", headers, null, RequestDeadline.unbounded());
         List<FabriXModel> models = parseFabriXModels(response);
         
         fabriXModelsCache.clear();
@@ -463,20 +510,27 @@ public class LLMClient {
         return modelId != null && (modelId.contains("fabrix") || modelId.contains("sds") || !modelId.startsWith("gpt"));
     }
 
-    private String makeHTTPRequest(String urlString, String method, Map<String, String> headers, String body) throws Exception {
+    private String makeHTTPRequest(String urlString, String method, Map<String, String> headers, String body,
+            RequestDeadline deadline) throws Exception {
         HttpURLConnection connection = null;
+        RequestDeadline.Registration cancelRegistration = null;
         try {
             URL url = new URL(urlString);
             connection = (HttpURLConnection) url.openConnection();
             
+            // 요청이 취소되면 연결을 끊어 블로킹 중인 읽기/쓰기를 즉시 중단
+            final HttpURLConnection activeConnection = connection;
+            cancelRegistration = deadline.onCancel(activeConnection::disconnect);
+            
             // SSL 설정 적용
             if (connection instanceof HttpsURLConnection) {
                 ((HttpsURLConnection) connection).setSSLSocketFactory(sslContext.getSocketFactory());
             }
             
             connection.setRequestMethod(method);
-            connection.setConnectTimeout(CONNECTION_TIMEOUT);
-            connection.setReadTimeout(READ_TIMEOUT);
+            // 남은 요청 예산보다 긴 타임아웃은 사용하지 않음
+            connection.setConnectTimeout(deadline.timeoutFor("LLM connect", CONNECTION_TIMEOUT));
+            connection.setReadTimeout(deadline.timeoutFor("LLM read", READ_TIMEOUT));
             connection.setUseCaches(false);
             connection.setDoInput(true);
             
@@ -508,6 +562,7 @@ public class LLMClient {
                 try (OutputStream os = connection.getOutputStream()) {
                     byte[] input = body.getBytes(StandardCharsets.UTF_8);
                     os.write(input, 0, input.length);
+                    deadline.getTrace().current().add("bytesSent", input.length);
                 }
             }
             
@@ -526,6 +581,9 @@ public class LLMClient {
             }
             
             String response = readInputStream(stream);
+            deadline.getTrace().current()
+                .set("httpStatus", responseCode)
+                .add("bytesReceived", response.getBytes(StandardCharsets.UTF_8).length);
             
             if (responseCode >= 200 && responseCode < 300) {
                 return response;
@@ -535,9 +593,16 @@ public class LLMClient {
             }
             
         } catch (Exception e) {
+            if (deadline.isCancelled()) {
+                CopilotLogger.info("HTTP request cancelled: " + urlString);
+                throw new RequestDeadline.RequestCancelledException("LLM request cancelled");
+            }
             CopilotLogger.error("HTTP request failed: " + urlString, e);
             throw e;
         } finally {
+            if (cancelRegistration != null) {
+                cancelRegistration.close();
+            }
             if (connection != null) {
                 connection.disconnect();
             }
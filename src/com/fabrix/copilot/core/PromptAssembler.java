@@ -0,0 +1,325 @@
+package com.fabrix.copilot.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🧱 PromptAssembler - 우선순위/토큰 예산 기반 프롬프트 조립기
+ *
+ * 프롬프트를 시스템 지시, 코드 컨텍스트, 첨부 파일, 도구 목록, 요청 등 타입이 있는 섹션으로 받아
+ * 섹션별 예산과 전체 예산 안에 맞춥니다. 예산을 넘으면 우선순위가 낮은 섹션부터 요약(앞/뒤만 유지)하거나 제외하고,
+ * 상위 섹션과 중복되는 내용은 하위 섹션에서 제거합니다. 큰 파일에서도 프롬프트가 작게 유지되어 첫 토큰까지의 지연이 줄어듭니다.
+ *
+ * 토큰 수는 API 토크나이저 없이 추정합니다 (ASCII 4자당 1토큰, 한글 등 비 ASCII 문자는 1자당 1토큰).
+ */
+public final class PromptAssembler {
+
+    /**
+     * 섹션 우선순위 - REQUIRED는 요약/제외하지 않으며, LOW부터 먼저 줄어듭니다.
+     */
+    public enum Priority {
+        REQUIRED, HIGH, MEDIUM, LOW
+    }
+
+    /** 이보다 작게 줄여야 하는 섹션은 요약하지 않고 제외 */
+    private static final int MIN_SECTION_TOKENS = 80;
+
+    /** 중복 제거 대상이 되는 최소 길이 (짧은 문자열은 우연히 겹칠 수 있음) */
+    private static final int MIN_DUPLICATE_CHARS = 40;
+
+    /** 축약 표시("... (N줄 생략) ..." 및 안내 문구)에 필요한 토큰 여유분 */
+    private static final int SHRINK_MARKER_TOKENS = 32;
+
+    private static final Pattern CONTEXT_HEADER = Pattern.compile("(?m)^=== (.+?) ===\\s*$");
+
+    private static final class Section {
+        final String name;
+        final String header;
+        final Priority priority;
+        final int maxTokens;
+        final boolean code;
+        String content;
+        String note;
+
+        Section(String name, String header, String content, Priority priority, int maxTokens, boolean code) {
+            this.name = name;
+            this.header = header;
+            this.content = content.trim();
+            this.priority = priority;
+            this.maxTokens = maxTokens;
+            this.code = code;
+        }
+
+        String render() {
+            StringBuilder sb = new StringBuilder();
+            if (header != null) {
+                sb.append(header).append('\n');
+            }
+            if (code) {
+                sb.append("```\n").append(content).append("\n```");
+            } else {
+                sb.append(content);
+            }
+            if (note != null) {
+                sb.append('\n').append(note);
+            }
+            return sb.toString();
+        }
+
+        /** 제목/코드 블록/축약 표시를 포함한 추정 토큰 수 */
+        int tokens() {
+            return estimateTokens(render());
+        }
+    }
+
+    private final int tokenBudget;
+    private final List<Section> sections = new ArrayList<>();
+    private final List<String> trimmed = new ArrayList<>();
+    private final List<String> dropped = new ArrayList<>();
+    private int assembledTokens;
+
+    public PromptAssembler(int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    /**
+     * 텍스트 섹션 추가 - 내용이 비어 있으면 무시
+     * @param header 섹션 앞에 붙일 제목 (null이면 제목 없음)
+     * @param maxTokens 이 섹션 단독 예산 (전체 예산과 별도로 먼저 적용)
+     */
+    public PromptAssembler add(String name, String header, String content, Priority priority, int maxTokens) {
+        return addSection(name, header, content, priority, maxTokens, false);
+    }
+
+    /**
+     * 코드 섹션 추가 - 코드 블록으로 감싸고, 줄일 때는 앞/뒤 줄을 유지
+     */
+    public PromptAssembler addCode(String name, String header, String content, Priority priority, int maxTokens) {
+        return addSection(name, header, content, priority, maxTokens, true);
+    }
+
+    private PromptAssembler addSection(String name, String header, String content, Priority priority,
+            int maxTokens, boolean code) {
+        if (content != null && !content.trim().isEmpty()) {
+            sections.add(new Section(name, header, content, priority, maxTokens, code));
+        }
+        return this;
+    }
+
+    /**
+     * 📐 예산에 맞춰 프롬프트 조립
+     */
+    public String assemble() {
+        trimmed.clear();
+        dropped.clear();
+
+        removeDuplicates();
+
+        // 1. 섹션별 예산 적용
+        for (Section section : sections) {
+            if (section.priority != Priority.REQUIRED && section.tokens() > section.maxTokens) {
+                shrink(section, section.maxTokens);
+            }
+        }
+
+        // 2. 전체 예산 초과 시 우선순위가 낮은 섹션부터 (같은 우선순위면 나중에 추가된 것부터) 줄이거나 제외
+        List<Section> reducible = new ArrayList<>();
+        for (Section section : sections) {
+            if (section.priority != Priority.REQUIRED) {
+                reducible.add(section);
+            }
+        }
+        reducible.sort(Comparator.comparing((Section s) -> s.priority).reversed()
+            .thenComparing(s -> -sections.indexOf(s)));
+
+        for (Section section : reducible) {
+            int excess = totalTokens() - tokenBudget;
+            if (excess <= 0) break;
+
+            int target = section.tokens() - excess;
+            if (target >= MIN_SECTION_TOKENS) {
+                shrink(section, target);
+            } else {
+                sections.remove(section);
+                dropped.add(section.name);
+            }
+        }
+
+        StringBuilder prompt = new StringBuilder();
+        for (Section section : sections) {
+            if (prompt.length() > 0) {
+                prompt.append("\n\n");
+            }
+            prompt.append(section.render());
+        }
+
+        String result = prompt.toString();
+        assembledTokens = estimateTokens(result);
+        return result;
+    }
+
+    /** 마지막 조립 결과의 추정 토큰 수 */
+    public int getAssembledTokens() {
+        return assembledTokens;
+    }
+
+    public List<String> getTrimmedSections() {
+        return new ArrayList<>(trimmed);
+    }
+
+    public List<String> getDroppedSections() {
+        return new ArrayList<>(dropped);
+    }
+
+    /**
+     * 상위 우선순위 섹션과 겹치는 내용을 하위 섹션에서 제거
+     * (예: 선택된 코드가 첨부 파일 컨텍스트에도 포함된 경우)
+     */
+    private void removeDuplicates() {
+        List<Section> ordered = new ArrayList<>(sections);
+        ordered.sort(Comparator.comparing((Section s) -> s.priority));
+
+        for (int i = 0; i < ordered.size(); i++) {
+            Section lower = ordered.get(i);
+            for (int j = 0; j < i; j++) {
+                Section higher = ordered.get(j);
+                if (higher.priority == lower.priority || !sections.contains(lower) || !sections.contains(higher)) continue;
+
+                if (higher.content.contains(lower.content)) {
+                    sections.remove(lower);
+                    dropped.add(lower.name + " (duplicate)");
+                } else if (higher.content.length() >= MIN_DUPLICATE_CHARS && lower.content.contains(higher.content)) {
+                    lower.content = lower.content.replace(higher.content, "[" + higher.name + " 섹션과 동일한 내용 생략]");
+                    markTrimmed(lower.name + " (duplicate)");
+                }
+            }
+        }
+    }
+
+    private int totalTokens() {
+        int total = 0;
+        for (Section section : sections) {
+            total += section.tokens();
+        }
+        return total;
+    }
+
+    private void shrink(Section section, int targetTokens) {
+        int tokens = section.tokens();
+        if (tokens <= targetTokens) return;
+
+        // 제목, 축약 표시 등 본문 외 토큰을 빼고 남은 예산을 이 섹션의 문자 밀도로 환산
+        int contentTokens = Math.max(1, estimateTokens(section.content));
+        int overhead = tokens - contentTokens + SHRINK_MARKER_TOKENS;
+        int contentTarget = Math.max(0, targetTokens - overhead);
+        int targetChars = (int) ((long) section.content.length() * contentTarget / contentTokens);
+
+        section.content = section.code
+            ? summarizeCode(section.content, targetChars)
+            : summarizeText(section.content, targetChars);
+        section.note = "(" + section.name + " 섹션은 토큰 예산에 맞춰 축약됨)";
+        markTrimmed(section.name);
+    }
+
+    private void markTrimmed(String name) {
+        if (!trimmed.contains(name)) {
+            trimmed.add(name);
+        }
+    }
+
+    /**
+     * 코드 요약 - 앞부분(2/3)과 뒷부분(1/3)의 줄을 유지하고 가운데를 생략
+     */
+    private static String summarizeCode(String code, int targetChars) {
+        String[] lines = code.split("\n", -1);
+        int headBudget = targetChars * 2 / 3;
+        int tailBudget = targetChars - headBudget;
+
+        int head = 0;
+        int used = 0;
+        while (head < lines.length && used + lines[head].length() + 1 <= headBudget) {
+            used += lines[head++].length() + 1;
+        }
+        int tail = lines.length;
+        used = 0;
+        while (tail > head && used + lines[tail - 1].length() + 1 <= tailBudget) {
+            used += lines[--tail].length() + 1;
+        }
+        if (head == 0 && tail == lines.length) {
+            // 한 줄이 너무 긴 경우
+            return summarizeText(code, targetChars);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < head; i++) {
+            sb.append(lines[i]).append('\n');
+        }
+        sb.append("// ... (").append(tail - head).append("줄 생략) ...\n");
+        for (int i = tail; i < lines.length; i++) {
+            sb.append(lines[i]);
+            if (i < lines.length - 1) sb.append('\n');
+        }
+        return sb.toString().trim();
+    }
+
+    private static String summarizeText(String text, int targetChars) {
+        if (text.length() <= targetChars) return text;
+        int keep = Math.max(0, targetChars);
+        // 가능하면 줄 단위로 자름
+        int lineEnd = text.lastIndexOf('\n', keep);
+        if (lineEnd > keep * 4 / 5) {
+            keep = lineEnd;
+        }
+        return text.substring(0, keep) + "\n... (이하 " + (text.length() - keep) + "자 생략)";
+    }
+
+    /**
+     * 🔢 토큰 수 추정
+     */
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) return 0;
+
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    /**
+     * "=== 이름 ===" 머리글로 구분된 컨텍스트를 섹션별로 분리
+     * 첫 머리글 이전의 내용은 빈 문자열 키로 반환합니다.
+     */
+    public static Map<String, String> splitContext(String context) {
+        Map<String, String> parts = new LinkedHashMap<>();
+        if (context == null || context.trim().isEmpty()) return parts;
+
+        Matcher matcher = CONTEXT_HEADER.matcher(context);
+        String currentName = "";
+        int currentStart = 0;
+        while (matcher.find()) {
+            putPart(parts, currentName, context.substring(currentStart, matcher.start()));
+            currentName = matcher.group(1).trim();
+            currentStart = matcher.end();
+        }
+        putPart(parts, currentName, context.substring(currentStart));
+        return parts;
+    }
+
+    private static void putPart(Map<String, String> parts, String name, String content) {
+        String trimmedContent = content.trim();
+        if (!trimmedContent.isEmpty()) {
+            parts.merge(name, trimmedContent, (a, b) -> a + "\n" + b);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.fabrix.copilot.core;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+import com.fabrix.copilot.utils.PreferenceManager;
+
+/**
+ * ⏳ RequestDeadline - 요청 단위 시간 예산
+ *
+ * 하나의 채팅 요청 전체(오케스트레이터 → ReactAgent → 에이전트 → LLM/MCP)가 공유하는 데드라인입니다.
+ * 각 단계는 고정 타임아웃 대신 남은 예산으로 자신의 타임아웃을 정하고,
+ * 예산이 소진되면 외부 호출을 시작하지 않고 즉시 실패합니다.
+ *
+ * 요청이 취소(cancel)되면 예산이 즉시 0이 되고, 진행 중인 HTTP 연결이나 MCP RPC가
+ * 등록해 둔 취소 훅이 실행되어 블로킹 중인 호출도 바로 중단됩니다.
+ *
+ * 데드라인은 요청의 RequestTrace도 함께 전달하여, 각 계층이 자신의 구간을 스팬으로 기록할 수 있습니다.
+ * 오래 걸리는 단계(MCP 도구 등)는 reportProgress로 요청을 보낸 화면에 진행 상황을 알릴 수 있습니다.
+ */
+public final class RequestDeadline {
+
+    /** 단계를 시작하기 위한 최소 남은 시간 - 이보다 적으면 호출해도 의미가 없으므로 즉시 실패 */
+    private static final long MIN_USEFUL_MILLIS = 200;
+
+    private final long startNanos;
+    private final long deadlineNanos;
+    private final RequestDeadline parent;
+    // fork()로 만든 하위 데드라인이면 true - 취소 훅을 직접 가지며 부모와 따로 취소할 수 있음
+    private final boolean ownCancellation;
+    private final RequestTrace trace;
+    private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+    // fork()로 만든 데드라인이 부모에 등록한 취소 훅 - 다 쓰거나 취소되면 해제
+    private volatile Registration parentRegistration;
+    private volatile boolean cancelled = false;
+    private volatile Consumer<String> progressListener;
+
+    /**
+     * ⌛ 예산 소진 예외
+     */
+    public static class DeadlineExceededException extends TimeoutException {
+        private static final long serialVersionUID = 1L;
+
+        public DeadlineExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * ⏹ 요청 취소 예외 - 예산 소진과 같은 경로로 전파되도록 DeadlineExceededException을 확장
+     */
+    public static class RequestCancelledException extends DeadlineExceededException {
+        private static final long serialVersionUID = 1L;
+
+        public RequestCancelledException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 🔗 취소 훅 등록 핸들 - 호출이 끝나면 close()로 해제
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private RequestDeadline(long budgetMillis, RequestDeadline parent) {
+        this(budgetMillis, parent, false);
+    }
+
+    private RequestDeadline(long budgetMillis, RequestDeadline parent, boolean ownCancellation) {
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = budgetMillis == Long.MAX_VALUE
+            ? Long.MAX_VALUE
+            : startNanos + budgetMillis * 1_000_000L;
+        this.parent = parent;
+        this.ownCancellation = ownCancellation;
+        // 하위 데드라인은 부모와 같은 트레이스에 기록
+        this.trace = parent != null ? parent.trace : new RequestTrace("request");
+    }
+
+    /**
+     * 지정한 시간(ms) 후 만료되는 데드라인 생성
+     */
+    public static RequestDeadline after(long budgetMillis) {
+        return new RequestDeadline(Math.max(0, budgetMillis), null);
+    }
+
+    /**
+     * 설정(request.deadline.seconds)의 기본 예산으로 데드라인 생성
+     */
+    public static RequestDeadline fromPreferences() {
+        return after(PreferenceManager.getInstance().getRequestDeadlineSeconds() * 1000L);
+    }
+
+    /**
+     * 제한 없는 데드라인 - 기존 동작(고정 타임아웃)을 그대로 유지할 때 사용
+     */
+    public static RequestDeadline unbounded() {
+        return new RequestDeadline(Long.MAX_VALUE, null);
+    }
+
+    /**
+     * 보조 단계용 하위 데드라인 - 남은 예산과 maxMillis 중 작은 값
+     * 분석처럼 부가적인 단계가 본 작업의 예산을 모두 소모하지 않도록 할 때 사용합니다.
+     * 부모가 취소되면 하위 데드라인도 취소된 것으로 간주합니다.
+     */
+    public RequestDeadline limitTo(long maxMillis) {
+        return new RequestDeadline(Math.max(0, Math.min(remainingMillis(), maxMillis)), this);
+    }
+
+    /**
+     * 🍴 따로 취소할 수 있는 하위 데드라인 - 병렬 후보처럼 하나만 먼저 멈춰야 하는 작업에 사용
+     * 남은 예산은 부모와 같고 부모가 취소되면 함께 취소되지만, 이 데드라인을 취소해도 부모는 계속 진행합니다.
+     * 작업이 끝나면 release()나 cancel()로 부모의 취소 훅 목록에서 제거해야 합니다.
+     */
+    public RequestDeadline fork() {
+        RequestDeadline child = new RequestDeadline(remainingMillis(), this, true);
+        Registration registration = onCancel(child::cancel);
+        if (child.cancelled) {
+            registration.close(); // 이미 취소된 부모 - 훅이 바로 실행됨
+        } else {
+            child.parentRegistration = registration;
+        }
+        return child;
+    }
+
+    /**
+     * 🔓 fork()로 만든 데드라인을 다 쓴 뒤 호출 - 취소하지 않고 부모의 취소 훅 목록에서만 제거
+     */
+    public void release() {
+        Registration registration = parentRegistration;
+        if (registration != null) {
+            parentRegistration = null;
+            registration.close();
+        }
+    }
+
+    /**
+     * ⏹ 요청 취소 - 등록된 취소 훅(HTTP disconnect, RPC 취소 등)을 모두 실행
+     */
+    public void cancel() {
+        if (parent != null && !ownCancellation) {
+            parent.cancel();
+            return;
+        }
+        if (cancelled) return;
+        cancelled = true;
+        release();
+
+        // remove()에 성공한 쪽만 훅을 실행하여 onCancel()과 경합해도 한 번만 실행되도록 함
+        for (Runnable hook : cancelHooks) {
+            if (cancelHooks.remove(hook)) {
+                runHook(hook);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * 취소 시 실행할 훅 등록 - 이미 취소된 경우 즉시 실행
+     */
+    public Registration onCancel(Runnable hook) {
+        if (parent != null && !ownCancellation) {
+            return parent.onCancel(hook);
+        }
+        cancelHooks.add(hook);
+        if (cancelled && cancelHooks.remove(hook)) {
+            runHook(hook);
+        }
+        return () -> cancelHooks.remove(hook);
+    }
+
+    /**
+     * 📶 진행 상황 리스너 등록 - 하위 단계가 reportProgress로 보낸 메시지를 받음 (호출 스레드에서 실행)
+     */
+    public void setProgressListener(Consumer<String> listener) {
+        if (parent != null) {
+            parent.setProgressListener(listener);
+            return;
+        }
+        progressListener = listener;
+    }
+
+    /**
+     * 진행 상황 전달 - 리스너가 없거나 취소된 요청이면 무시
+     */
+    public void reportProgress(String message) {
+        if (parent != null) {
+            if (!cancelled) {
+                parent.reportProgress(message);
+            }
+            return;
+        }
+        Consumer<String> listener = progressListener;
+        if (listener == null || cancelled) return;
+        try {
+            listener.accept(message);
+        } catch (Exception e) {
+            CopilotLogger.warn("Progress listener failed: " + e.getMessage());
+        }
+    }
+
+    private void runHook(Runnable hook) {
+        try {
+            hook.run();
+        } catch (Exception e) {
+            CopilotLogger.warn("Cancel hook failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 🧭 이 요청의 트레이스
+     */
+    public RequestTrace getTrace() {
+        return trace;
+    }
+
+    public boolean isUnbounded() {
+        return deadlineNanos == Long.MAX_VALUE;
+    }
+
+    public long remainingMillis() {
+        if (isCancelled()) return 0;
+        if (isUnbounded()) return Long.MAX_VALUE;
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    public boolean isExpired() {
+        return remainingMillis() < MIN_USEFUL_MILLIS;
+    }
+
+    /**
+     * 단계 시작 전 예산 확인 - 소진되었거나 취소되었으면 예외
+     * @param stage 로그/예외 메시지에 표시할 단계 이름
+     */
+    public void check(String stage) throws DeadlineExceededException {
+        if (isCancelled()) {
+            throw new RequestCancelledException("Request cancelled before " + stage);
+        }
+        if (isExpired()) {
+            throw new DeadlineExceededException("Request deadline exceeded before " + stage
+                + " (elapsed " + elapsedMillis() + "ms)");
+        }
+    }
+
+    /**
+     * 단계별 타임아웃 계산 - 선호 타임아웃과 남은 예산 중 작은 값
+     * @param stage 단계 이름
+     * @param preferredMillis 예산이 충분할 때 사용할 타임아웃
+     */
+    public int timeoutFor(String stage, long preferredMillis) throws DeadlineExceededException {
+        check(stage);
+        return (int) Math.min(Integer.MAX_VALUE, Math.min(preferredMillis, remainingMillis()));
+    }
+
+    @Override
+    public String toString() {
+        if (isCancelled()) {
+            return "RequestDeadline[cancelled, elapsed=" + elapsedMillis() + "ms]";
+        }
+        return isUnbounded()
+            ? "RequestDeadline[unbounded]"
+            : "RequestDeadline[remaining=" + remainingMillis() + "ms, elapsed=" + elapsedMillis() + "ms]";
+    }
+}
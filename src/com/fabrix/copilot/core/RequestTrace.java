@@ -0,0 +1,175 @@
+package com.fabrix.copilot.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 🧭 RequestTrace - 요청 단위 경량 트레이스
+ *
+ * 사용자 메시지 하나가 루트 스팬이 되고, REACT 단계(OBSERVE/THINK/ACT/REFLECT),
+ * LLM 호출, MCP 도구 호출이 하위 스팬으로 기록됩니다. 각 스팬은 소요 시간과
+ * 바이트/토큰 수 같은 속성을 가지며, 완료된 트레이스는 ChatView의 타임라인에 표시됩니다.
+ *
+ * 트레이스는 RequestDeadline에 붙어 있으므로 데드라인을 전달받는 모든 계층에서 별도 인자 없이 사용할 수 있습니다.
+ * 스팬의 부모는 스레드별 "현재 스팬"으로 정해지며, 다른 스레드에서 실행되는 작업은 open(name, parent)로 부모를 지정합니다.
+ */
+public final class RequestTrace {
+
+    /**
+     * ⏱️ 스팬 - 하나의 작업 구간
+     * try-with-resources로 사용하면 종료 시 소요 시간이 기록되고 현재 스팬이 부모로 돌아갑니다.
+     */
+    public final class Span implements AutoCloseable {
+        private final String name;
+        private final Span parent;
+        private final long startNanos;
+        private volatile long endNanos = -1;
+        private volatile String error;
+        private final Map<String, Object> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+        private final List<Span> children = new CopyOnWriteArrayList<>();
+
+        private Span(String name, Span parent) {
+            this.name = name;
+            this.parent = parent;
+            this.startNanos = System.nanoTime();
+        }
+
+        public String getName() { return name; }
+        public Span getParent() { return parent; }
+        public List<Span> getChildren() { return Collections.unmodifiableList(children); }
+        public String getError() { return error; }
+        public boolean isFinished() { return endNanos >= 0; }
+
+        /** 트레이스 시작 시점 기준 시작 오프셋 (ms) */
+        public long getStartOffsetMillis() {
+            return (startNanos - root.startNanos) / 1_000_000L;
+        }
+
+        /** 소요 시간 (ms) - 아직 진행 중이면 현재까지의 시간 */
+        public long getDurationMillis() {
+            long end = endNanos >= 0 ? endNanos : System.nanoTime();
+            return (end - startNanos) / 1_000_000L;
+        }
+
+        public Span set(String key, Object value) {
+            if (value != null) {
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        /** 숫자 속성 누적 (바이트, 토큰 수 등) */
+        public Span add(String key, long delta) {
+            synchronized (attributes) {
+                Object current = attributes.get(key);
+                long base = current instanceof Number ? ((Number) current).longValue() : 0L;
+                attributes.put(key, base + delta);
+            }
+            return this;
+        }
+
+        public Map<String, Object> getAttributes() {
+            synchronized (attributes) {
+                return new LinkedHashMap<>(attributes);
+            }
+        }
+
+        public Span fail(Throwable t) {
+            this.error = t.getClass().getSimpleName() + (t.getMessage() != null ? ": " + t.getMessage() : "");
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (endNanos < 0) {
+                endNanos = System.nanoTime();
+            }
+            Deque<Span> stack = currentStack();
+            if (stack.peek() == this) {
+                stack.pop();
+            } else {
+                stack.remove(this);
+            }
+        }
+    }
+
+    private final Span root;
+    private final ThreadLocal<Deque<Span>> stacks = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public RequestTrace(String rootName) {
+        this.root = new Span(rootName, null);
+    }
+
+    public Span getRoot() {
+        return root;
+    }
+
+    /**
+     * 현재 스레드의 활성 스팬 (없으면 루트)
+     */
+    public Span current() {
+        Span top = currentStack().peek();
+        return top != null ? top : root;
+    }
+
+    /**
+     * 현재 스팬 아래에 하위 스팬 시작
+     */
+    public Span open(String name) {
+        return open(name, current());
+    }
+
+    /**
+     * 지정한 부모 아래에 하위 스팬 시작 - 병렬 작업처럼 다른 스레드에서 부모를 이어받을 때 사용
+     */
+    public Span open(String name, Span parent) {
+        Span span = new Span(name, parent != null ? parent : root);
+        span.parent.children.add(span);
+        currentStack().push(span);
+        return span;
+    }
+
+    /**
+     * 루트 스팬 종료 - 요청 처리가 끝났을 때 호출
+     */
+    public void finish() {
+        root.close();
+    }
+
+    private Deque<Span> currentStack() {
+        return stacks.get();
+    }
+
+    /**
+     * 📜 로그용 텍스트 타임라인
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        appendSpan(sb, root, 0);
+        return sb.toString();
+    }
+
+    private void appendSpan(StringBuilder sb, Span span, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+        sb.append(String.format("+%dms %s %dms", span.getStartOffsetMillis(), span.getName(), span.getDurationMillis()));
+        Map<String, Object> attributes = span.getAttributes();
+        if (!attributes.isEmpty()) {
+            sb.append(' ').append(attributes);
+        }
+        if (span.getError() != null) {
+            sb.append(" ❌ ").append(span.getError());
+        }
+        sb.append('\n');
+        for (Span child : new ArrayList<>(span.children)) {
+            appendSpan(sb, child, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 📦 JsonRpcBatch - JSON-RPC 2.0 배치 요청
+ *
+ * 서로 독립적인 호출(tools/list + resources/list + prompts/list, 여러 tools/call 등)을 배열 하나로 묶어
+ * 한 번의 왕복으로 보내고, 순서와 무관하게 도착한 응답을 id로 짝지어 줍니다.
+ */
+public final class JsonRpcBatch {
+
+    private final AtomicLong idCounter;
+    private final JSONArray requests = new JSONArray();
+    private final List<Long> ids = new ArrayList<>();
+
+    /**
+     * @param idCounter 클라이언트의 JSON-RPC id 카운터 (단건 요청과 id가 겹치지 않도록 공유)
+     */
+    public JsonRpcBatch(AtomicLong idCounter) {
+        this.idCounter = idCounter;
+    }
+
+    /**
+     * 호출 추가 - 부여된 id 반환
+     */
+    public long add(String method, Map<String, Object> params) {
+        long id = idCounter.getAndIncrement();
+        JSONObject request = new JSONObject();
+        request.put("jsonrpc", "2.0");
+        request.put("id", id);
+        request.put("method", method);
+        request.put("params", params != null ? new JSONObject(params) : new JSONObject());
+        requests.put(request);
+        ids.add(id);
+        return id;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    /** 추가한 순서대로의 id 목록 */
+    public List<Long> getIds() {
+        return Collections.unmodifiableList(ids);
+    }
+
+    /** 전송할 배치 본문 (JSON 배열 한 줄) */
+    public String toJson() {
+        return requests.toString();
+    }
+
+    /**
+     * 배치 응답 본문을 id별 응답으로 분리
+     * 배치를 지원하지 않는 서버가 단일 객체로 응답한 경우도 처리하며, id가 없는 응답(배치 자체 거부 등)은 제외합니다.
+     */
+    public static Map<Long, JSONObject> parseResponses(String body) {
+        Map<Long, JSONObject> responses = new HashMap<>();
+        if (body == null || body.trim().isEmpty()) {
+            return responses;
+        }
+
+        String trimmed = body.trim();
+        if (trimmed.startsWith("[")) {
+            JSONArray array = new JSONArray(trimmed);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject response = array.optJSONObject(i);
+                putResponse(responses, response);
+            }
+        } else {
+            putResponse(responses, new JSONObject(trimmed));
+        }
+        return responses;
+    }
+
+    private static void putResponse(Map<Long, JSONObject> responses, JSONObject response) {
+        if (response != null && response.has("id") && !response.isNull("id")) {
+            long id = response.optLong("id", -1);
+            if (id >= 0) {
+                responses.put(id, response);
+            }
+        }
+    }
+
+    /**
+     * tools/call 응답에서 결과 텍스트 추출 - 오류 응답이면 예외
+     */
+    public static String toolResultText(JSONObject response) throws Exception {
+        if (response == null) {
+            throw new Exception("No response in batch");
+        }
+
+        if (response.has("result")) {
+            JSONObject result = response.getJSONObject("result");
+            if (result.has("content")) {
+                JSONArray content = result.getJSONArray("content");
+                if (content.length() > 0) {
+                    JSONObject firstContent = content.getJSONObject(0);
+                    return firstContent.getString("text");
+                }
+            }
+            return result.toString();
+        }
+
+        if (response.has("error")) {
+            JSONObject error = response.getJSONObject("error");
+            throw new Exception("Tool error: " + error.getString("message"));
+        }
+
+        return "No result";
+    }
+}
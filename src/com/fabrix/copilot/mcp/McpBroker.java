@@ -0,0 +1,726 @@
+package com.fabrix.copilot.mcp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 🔀 McpBroker - 여러 Eclipse 인스턴스가 함께 쓰는 로컬 MCP 서버 브로커
+ *
+ * 별도 프로세스로 실행되어 UNIX 도메인 소켓으로 플러그인의 연결을 받고, MCP 서버 프로세스를 직접 띄워 소유합니다.
+ * 같은 명령/인자/환경/작업 디렉토리의 서버는 한 번만 시작해 연결한 모든 인스턴스가 나눠 쓰고(참조 수 관리),
+ * 마지막 연결이 끊기면 잠시 기다렸다가 서버를 내립니다. 서버도 연결도 없으면 브로커도 종료됩니다.
+ *
+ * 연결은 첫 줄의 attach 메시지 이후 일반 stdio MCP(줄 단위 JSON-RPC)와 같으며, 브로커는
+ * 요청 id와 progressToken을 연결별로 바꿔 응답과 진행 알림을 보낸 쪽에 돌려줍니다.
+ * initialize는 처음 한 번만 서버로 보내고 이후 연결에는 저장된 결과로 바로 답하며,
+ * 배치는 개별 요청으로 나눠 보냅니다. 그 밖의 서버 알림(tools/list_changed 등)은 모든 연결에 전달합니다.
+ *
+ * Eclipse 없이 실행되므로 JDK와 org.json만 사용하고, 로그는 표준 오류(시작한 쪽이 로그 파일로 연결)에 남깁니다.
+ * 실행: java -cp <플러그인 클래스 경로> com.fabrix.copilot.mcp.McpBroker [소켓 경로]
+ */
+public final class McpBroker {
+
+    static final String ATTACH = "attach";
+    static final String ATTACHED = "attached";
+    static final String ERROR = "error";
+
+    /** 마지막 연결이 끊긴 뒤 서버를 유지하는 시간 - 다른 인스턴스의 재시작/재연결에 대비 */
+    private static final long SERVER_LINGER_MS = 60000;
+    /** 서버도 연결도 없을 때 브로커가 종료되기까지의 시간 */
+    private static final long IDLE_EXIT_MS = 300000;
+    private static final long IDLE_CHECK_INTERVAL_MS = 30000;
+
+    private final Path socketPath;
+    private final Map<String, SharedServer> servers = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requestIds = new AtomicLong(1);
+    private final AtomicInteger connectionIds = new AtomicInteger(1);
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "FabriX-MCP-Broker-Timer");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile long idleSince = System.currentTimeMillis();
+
+    public static void main(String[] args) throws Exception {
+        Path socket = args.length > 0 ? Paths.get(args[0]) : defaultSocketPath();
+        new McpBroker(socket).run();
+    }
+
+    McpBroker(Path socketPath) {
+        this.socketPath = socketPath;
+    }
+
+    /**
+     * 기본 소켓 경로 - 워크스페이스와 무관하게 사용자마다 하나
+     */
+    public static Path defaultSocketPath() {
+        return Paths.get(System.getProperty("user.home"), ".fabrix-copilot", "mcp-broker.sock");
+    }
+
+    /**
+     * 소켓/잠금/로그 파일을 두는 디렉터리 준비 - 현재 사용자만 접근할 수 있어야 함 (POSIX)
+     * 없으면 rwx------로 만들고, 있으면 소유자와 권한을 확인해 그룹/다른 사용자의 읽기·실행 권한은 제거합니다.
+     * 다른 사용자 소유이거나 그룹/다른 사용자가 쓸 수 있으면 소켓을 바꿔치기할 수 있으므로 시작하지 않습니다.
+     */
+    static void prepareDirectory(Path directory) throws IOException {
+        if (!Files.getFileStore(existingAncestor(directory)).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.createDirectories(directory); // Windows - 사용자 프로필 ACL에 맡김
+            return;
+        }
+        Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+        if (!Files.isDirectory(directory)) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(ownerOnly));
+        }
+        PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class);
+        UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService()
+            .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!attributes.owner().equals(user)) {
+            throw new IOException("MCP broker directory is owned by " + attributes.owner().getName() + ": " + directory);
+        }
+        Set<PosixFilePermission> permissions = attributes.permissions();
+        if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+            throw new IOException("MCP broker directory is group or world writable: " + directory);
+        }
+        if (!ownerOnly.containsAll(permissions)) {
+            Set<PosixFilePermission> narrowed = EnumSet.copyOf(permissions);
+            narrowed.retainAll(ownerOnly);
+            Files.setPosixFilePermissions(directory, narrowed);
+        }
+    }
+
+    private static Path existingAncestor(Path path) {
+        Path existing = path.toAbsolutePath();
+        while (existing.getParent() != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        return existing;
+    }
+
+    /**
+     * 소켓 연결의 입출력 스트림 - Channels.newInputStream/newOutputStream은 JDK 17까지 읽기와 쓰기가
+     * 같은 잠금을 잡아, 응답을 기다리는 동안 요청을 보낼 수 없으므로 채널을 직접 읽고 씀
+     */
+    static InputStream inputStream(SocketChannel channel) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return length == 0 ? 0 : channel.read(ByteBuffer.wrap(buffer, offset, length));
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    static OutputStream outputStream(SocketChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, offset, length);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * 브로커 실행 - 다른 브로커가 이미 실행 중이면(잠금 파일) 바로 종료
+     */
+    void run() throws IOException {
+        // 소켓은 bind 후에야 권한을 좁힐 수 있으므로 디렉터리 권한으로 다른 사용자의 접근을 막음
+        prepareDirectory(socketPath.getParent());
+        try (FileChannel lockChannel = FileChannel.open(socketPath.resolveSibling("mcp-broker.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.tryLock()) {
+            if (lock == null) {
+                log("Another MCP broker is already running: " + socketPath);
+                return;
+            }
+            // 이전 브로커가 비정상 종료하며 남긴 소켓 파일 정리
+            Files.deleteIfExists(socketPath);
+            try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+                server.bind(UnixDomainSocketAddress.of(socketPath));
+                socketPath.toFile().setReadable(false, false);
+                socketPath.toFile().setReadable(true, true);
+                socketPath.toFile().setWritable(false, false);
+                socketPath.toFile().setWritable(true, true);
+                log("MCP broker listening on " + socketPath);
+                timer.scheduleWithFixedDelay(() -> exitIfIdle(server),
+                    IDLE_CHECK_INTERVAL_MS, IDLE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+                while (server.isOpen()) {
+                    SocketChannel channel;
+                    try {
+                        channel = server.accept();
+                    } catch (IOException e) {
+                        break; // 유휴 종료로 닫힘
+                    }
+                    Thread thread = new Thread(() -> serve(channel), "FabriX-MCP-Broker-" + connectionIds.get());
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            } finally {
+                for (SharedServer server : new ArrayList<>(servers.values())) {
+                    server.stop("broker exiting");
+                }
+                Files.deleteIfExists(socketPath);
+                timer.shutdownNow();
+                log("MCP broker stopped");
+            }
+        }
+    }
+
+    private void exitIfIdle(ServerSocketChannel server) {
+        if (!servers.isEmpty() || !connections.isEmpty()) {
+            idleSince = System.currentTimeMillis();
+            return;
+        }
+        if (System.currentTimeMillis() - idleSince >= IDLE_EXIT_MS) {
+            log("No MCP servers or clients for " + (IDLE_EXIT_MS / 1000) + "s, exiting");
+            try {
+                server.close();
+            } catch (IOException e) {
+                log("Failed to close broker socket: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 연결 하나 처리 - attach 후 연결이 끊길 때까지 클라이언트 메시지를 서버로 전달
+     */
+    private void serve(SocketChannel channel) {
+        Connection connection = new Connection(connectionIds.getAndIncrement(), channel);
+        connections.add(connection);
+        SharedServer server = null;
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(inputStream(channel), StandardCharsets.UTF_8));
+            String hello = in.readLine();
+            if (hello == null) {
+                return;
+            }
+            JSONObject request = new JSONObject(hello);
+            if (!ATTACH.equals(request.optString("broker"))) {
+                connection.send(brokerMessage(ERROR).put("message", "expected attach"));
+                return;
+            }
+            try {
+                server = attach(connection, request);
+            } catch (IOException e) {
+                log("Failed to start MCP server " + request.optString("name") + ": " + e.getMessage());
+                connection.send(brokerMessage(ERROR).put("message", e.getMessage()));
+                return;
+            }
+            connection.send(brokerMessage(ATTACHED)
+                .put("shared", server.attached.size() > 1)
+                .put("pid", server.process.pid()));
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                server.fromClientLine(connection, line);
+            }
+        } catch (Exception e) {
+            log("Broker connection " + connection.id + " closed: " + e.getMessage());
+        } finally {
+            if (server != null) {
+                server.detach(connection);
+            }
+            connections.remove(connection);
+            connection.close();
+        }
+    }
+
+    /**
+     * 서버에 연결 - 같은 설정의 서버가 실행 중이면 공유하고, 없으면 시작
+     */
+    private SharedServer attach(Connection connection, JSONObject request) throws IOException {
+        String key = serverKey(request);
+        synchronized (servers) {
+            SharedServer server = servers.get(key);
+            if (server == null || !server.process.isAlive()) {
+                server = new SharedServer(key, request);
+                servers.put(key, server);
+            }
+            server.attach(connection);
+            return server;
+        }
+    }
+
+    // 서버 식별 - 명령, 인자, 환경 변수, 작업 디렉토리가 같으면 같은 서버
+    private static String serverKey(JSONObject request) {
+        JSONObject key = new JSONObject();
+        key.put("command", request.optString("command"));
+        key.put("args", request.optJSONArray("args") != null ? request.getJSONArray("args") : new JSONArray());
+        key.put("env", request.optJSONObject("env") != null ? request.getJSONObject("env") : new JSONObject());
+        key.put("directory", request.optString("directory", ""));
+        return key.toString();
+    }
+
+    static JSONObject brokerMessage(String type) {
+        JSONObject message = new JSONObject();
+        message.put("broker", type);
+        return message;
+    }
+
+    // McpProgressTracker.cancelledNotification과 같은 형식 - 브로커는 Eclipse 의존 클래스를 불러오지 않음
+    private static JSONObject cancelledNotification(long requestId) {
+        JSONObject params = new JSONObject();
+        params.put("requestId", requestId);
+        params.put("reason", "Client disconnected");
+        JSONObject notification = new JSONObject();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", "notifications/cancelled");
+        notification.put("params", params);
+        return notification;
+    }
+
+    static void log(String message) {
+        System.err.println(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()) + " " + message);
+    }
+
+    /**
+     * 브로커에 연결한 플러그인 인스턴스 하나
+     */
+    private static final class Connection {
+        final int id;
+        final SocketChannel channel;
+        final BufferedWriter out;
+        // 연결의 요청 id → 브로커 요청 id (취소 알림 변환, 연결이 끊길 때 정리)
+        final Map<String, Long> outstanding = new ConcurrentHashMap<>();
+
+        Connection(int id, SocketChannel channel) {
+            this.id = id;
+            this.channel = channel;
+            this.out = new BufferedWriter(new OutputStreamWriter(outputStream(channel), StandardCharsets.UTF_8));
+        }
+
+        synchronized void send(JSONObject message) {
+            try {
+                out.write(message.toString());
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        String tokenPrefix() {
+            return "c" + id + ":";
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // 이미 닫힘
+            }
+        }
+    }
+
+    private static final class Route {
+        final Connection connection;
+        final Object clientId;
+
+        Route(Connection connection, Object clientId) {
+            this.connection = connection;
+            this.clientId = clientId;
+        }
+    }
+
+    /**
+     * 여러 연결이 함께 쓰는 MCP 서버 프로세스
+     */
+    private final class SharedServer {
+        final String key;
+        final String name;
+        final Process process;
+        final BufferedWriter stdin;
+        final Set<Connection> attached = ConcurrentHashMap.newKeySet();
+        final Map<Long, Route> routes = new ConcurrentHashMap<>();
+        private CompletableFuture<JSONObject> initializeResponse;
+        private long initializeId;
+        private boolean initializedSent;
+        private ScheduledFuture<?> lingerTask;
+
+        SharedServer(String key, JSONObject request) throws IOException {
+            this.key = key;
+            this.name = request.optString("name", "mcp");
+            List<String> command = new ArrayList<>();
+            command.add(request.getString("command"));
+            JSONArray args = request.optJSONArray("args");
+            if (args != null) {
+                for (int i = 0; i < args.length(); i++) {
+                    command.add(args.getString(i));
+                }
+            }
+            ProcessBuilder builder = new ProcessBuilder(command);
+            JSONObject env = request.optJSONObject("env");
+            if (env != null) {
+                for (String name : env.keySet()) {
+                    builder.environment().put(name, env.getString(name));
+                }
+            }
+            String directory = request.optString("directory", "");
+            if (!directory.isEmpty()) {
+                builder.directory(new File(directory));
+            }
+            this.process = builder.start();
+            this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            log("Started MCP server " + name + " (pid " + process.pid() + ")");
+            startReaders();
+        }
+
+        synchronized void attach(Connection connection) {
+            attached.add(connection);
+            if (lingerTask != null) {
+                lingerTask.cancel(false);
+                lingerTask = null;
+            }
+            log("Connection " + connection.id + " attached to " + name + " (" + attached.size() + " attached)");
+        }
+
+        /**
+         * 연결 해제 - 이 연결의 처리 중인 요청은 서버에 취소를 알리고, 마지막 연결이면 잠시 뒤 서버 종료
+         */
+        synchronized void detach(Connection connection) {
+            if (!attached.remove(connection)) {
+                return;
+            }
+            for (Long brokerId : connection.outstanding.values()) {
+                if (routes.remove(brokerId) != null) {
+                    write(cancelledNotification(brokerId));
+                }
+            }
+            connection.outstanding.clear();
+            log("Connection " + connection.id + " detached from " + name + " (" + attached.size() + " attached)");
+            if (attached.isEmpty() && process.isAlive()) {
+                lingerTask = timer.schedule(this::stopIfUnused, SERVER_LINGER_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void stopIfUnused() {
+            synchronized (servers) {
+                synchronized (this) {
+                    if (attached.isEmpty()) {
+                        stop("no clients for " + (SERVER_LINGER_MS / 1000) + "s");
+                    }
+                }
+            }
+        }
+
+        void stop(String reason) {
+            servers.remove(key, this);
+            if (process.isAlive()) {
+                log("Stopping MCP server " + name + ": " + reason);
+                process.destroy();
+                try {
+                    if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                        process.destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    process.destroyForcibly();
+                }
+            }
+        }
+
+        private void startReaders() {
+            Thread out = new Thread(() -> {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        fromServerLine(line);
+                    }
+                } catch (IOException e) {
+                    // 프로세스 종료
+                } finally {
+                    serverExited();
+                }
+            }, "FabriX-MCP-Broker-" + name);
+            out.setDaemon(true);
+            out.start();
+
+            Thread err = new Thread(() -> {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        log("[" + name + "] " + line);
+                    }
+                } catch (IOException e) {
+                    // 프로세스 종료
+                }
+            }, "FabriX-MCP-Broker-" + name + "-stderr");
+            err.setDaemon(true);
+            err.start();
+        }
+
+        // 서버가 종료되면 연결을 모두 끊어 각 인스턴스가 재연결(새 프로세스 시작)하게 함
+        private void serverExited() {
+            log("MCP server " + name + " exited");
+            servers.remove(key, this);
+            for (Connection connection : new ArrayList<>(attached)) {
+                connection.close();
+            }
+            CompletableFuture<JSONObject> initialize;
+            synchronized (this) {
+                initialize = initializeResponse;
+            }
+            if (initialize != null) {
+                initialize.completeExceptionally(new IOException("MCP server exited: " + name));
+            }
+        }
+
+        synchronized void write(JSONObject message) {
+            try {
+                stdin.write(message.toString());
+                stdin.write('\n');
+                stdin.flush();
+            } catch (IOException e) {
+                log("Failed to write to MCP server " + name + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * 클라이언트 메시지 - 배치는 요소별로 나눠 처리
+         */
+        void fromClientLine(Connection connection, String line) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[")) {
+                JSONArray batch = new JSONArray(trimmed);
+                for (int i = 0; i < batch.length(); i++) {
+                    JSONObject message = batch.optJSONObject(i);
+                    if (message != null) {
+                        fromClient(connection, message);
+                    }
+                }
+            } else if (!trimmed.isEmpty()) {
+                fromClient(connection, new JSONObject(trimmed));
+            }
+        }
+
+        private void fromClient(Connection connection, JSONObject message) {
+            String method = message.optString("method", null);
+            boolean hasId = message.has("id") && !message.isNull("id");
+            if (method == null) {
+                return; // 서버 요청은 브로커가 직접 답하므로 클라이언트 응답은 버림
+            }
+            if (!hasId) {
+                fromClientNotification(connection, method, message);
+                return;
+            }
+            if ("initialize".equals(method)) {
+                initialize(connection, message);
+                return;
+            }
+
+            Object clientId = message.get("id");
+            long brokerId = requestIds.getAndIncrement();
+            routes.put(brokerId, new Route(connection, clientId));
+            connection.outstanding.put(String.valueOf(clientId), brokerId);
+            message.put("id", brokerId);
+            JSONObject params = message.optJSONObject("params");
+            JSONObject meta = params != null ? params.optJSONObject("_meta") : null;
+            if (meta != null && meta.has("progressToken")) {
+                meta.put("progressToken", connection.tokenPrefix() + meta.get("progressToken"));
+            }
+            write(message);
+        }
+
+        private void fromClientNotification(Connection connection, String method, JSONObject message) {
+            if ("notifications/initialized".equals(method)) {
+                synchronized (this) {
+                    if (initializedSent) {
+                        return;
+                    }
+                    initializedSent = true;
+                }
+            } else if ("notifications/cancelled".equals(method)) {
+                JSONObject params = message.optJSONObject("params");
+                Long brokerId = params != null
+                    ? connection.outstanding.remove(String.valueOf(params.opt("requestId"))) : null;
+                if (brokerId == null || routes.remove(brokerId) == null) {
+                    return;
+                }
+                params.put("requestId", brokerId);
+            }
+            write(message);
+        }
+
+        // 처음 initialize만 서버로 보내고, 이후 연결은 같은 결과로 답함
+        private void initialize(Connection connection, JSONObject message) {
+            Object clientId = message.get("id");
+            CompletableFuture<JSONObject> response;
+            synchronized (this) {
+                if (initializeResponse == null) {
+                    initializeResponse = new CompletableFuture<>();
+                    initializeId = requestIds.getAndIncrement();
+                    message.put("id", initializeId);
+                    write(message);
+                }
+                response = initializeResponse;
+            }
+            response.whenComplete((result, error) -> {
+                JSONObject reply = new JSONObject();
+                reply.put("jsonrpc", "2.0");
+                reply.put("id", clientId);
+                if (error != null) {
+                    JSONObject rpcError = new JSONObject();
+                    rpcError.put("code", -32603);
+                    rpcError.put("message", error.getMessage());
+                    reply.put("error", rpcError);
+                } else if (result.has("error")) {
+                    reply.put("error", result.get("error"));
+                } else {
+                    reply.put("result", result.opt("result"));
+                }
+                connection.send(reply);
+            });
+        }
+
+        /**
+         * 서버 메시지 - 응답과 진행 알림은 보낸 연결로, 그 밖의 알림은 모든 연결로
+         */
+        private void fromServerLine(String line) {
+            String trimmed = line.trim();
+            try {
+                if (trimmed.startsWith("[")) {
+                    JSONArray batch = new JSONArray(trimmed);
+                    for (int i = 0; i < batch.length(); i++) {
+                        JSONObject message = batch.optJSONObject(i);
+                        if (message != null) {
+                            fromServer(message);
+                        }
+                    }
+                } else if (trimmed.startsWith("{")) {
+                    fromServer(new JSONObject(trimmed));
+                }
+            } catch (Exception e) {
+                log("Invalid message from " + name + ": " + e.getMessage());
+            }
+        }
+
+        private void fromServer(JSONObject message) {
+            String method = message.optString("method", null);
+            boolean hasId = message.has("id") && !message.isNull("id");
+
+            if (method != null && hasId) {
+                answerServerRequest(message, method);
+                return;
+            }
+            if (hasId) {
+                long brokerId = message.getLong("id");
+                synchronized (this) {
+                    if (initializeResponse != null && brokerId == initializeId) {
+                        initializeResponse.complete(message);
+                        return;
+                    }
+                }
+                Route route = routes.remove(brokerId);
+                if (route != null) {
+                    route.connection.outstanding.remove(String.valueOf(route.clientId));
+                    message.put("id", route.clientId);
+                    route.connection.send(message);
+                }
+                return;
+            }
+            if ("notifications/progress".equals(method)) {
+                routeProgress(message);
+                return;
+            }
+            for (Connection connection : attached) {
+                connection.send(message);
+            }
+        }
+
+        private void routeProgress(JSONObject message) {
+            JSONObject params = message.optJSONObject("params");
+            String token = params != null ? String.valueOf(params.opt("progressToken")) : "";
+            for (Connection connection : attached) {
+                String prefix = connection.tokenPrefix();
+                if (token.startsWith(prefix)) {
+                    params.put("progressToken", token.substring(prefix.length()));
+                    connection.send(message);
+                    return;
+                }
+            }
+        }
+
+        // 서버가 보내는 요청 - ping은 브로커가 답하고, 특정 클라이언트가 필요한 요청은 지원하지 않음
+        private void answerServerRequest(JSONObject request, String method) {
+            JSONObject reply = new JSONObject();
+            reply.put("jsonrpc", "2.0");
+            reply.put("id", request.get("id"));
+            if ("ping".equals(method)) {
+                reply.put("result", new JSONObject());
+            } else {
+                JSONObject error = new JSONObject();
+                error.put("code", -32601);
+                error.put("message", "Method not supported by MCP broker: " + method);
+                reply.put("error", error);
+            }
+            write(reply);
+        }
+    }
+}
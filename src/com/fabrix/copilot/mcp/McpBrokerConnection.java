@@ -0,0 +1,214 @@
+package com.fabrix.copilot.mcp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.StandardProtocolFamily;
+import java.net.URL;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+
+/**
+ * 🔀 McpBrokerConnection - 공유 MCP 브로커에 붙은 stdio 서버 연결
+ *
+ * 브로커 소켓에 연결해 서버를 attach하고, 이후에는 프로세스의 stdin/stdout 대신 쓰는 줄 단위 스트림을 제공합니다.
+ * 브로커가 실행 중이 아니면 플러그인 클래스 경로로 새 브로커 프로세스를 띄운 뒤 다시 연결합니다.
+ */
+final class McpBrokerConnection {
+
+    private static final long LAUNCH_TIMEOUT_MS = 5000;
+    private static final long RETRY_INTERVAL_MS = 100;
+
+    private final SocketChannel channel;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+    private final boolean shared;
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+
+    private McpBrokerConnection(SocketChannel channel, BufferedReader reader, BufferedWriter writer, boolean shared) {
+        this.channel = channel;
+        this.reader = reader;
+        this.writer = writer;
+        this.shared = shared;
+    }
+
+    /**
+     * 서버 attach - 브로커가 없으면 시작하고 연결될 때까지 잠시 재시도
+     */
+    static McpBrokerConnection attach(McpServerConfig config, File directory, Path socketPath) throws IOException {
+        SocketChannel channel;
+        try {
+            channel = connect(socketPath);
+        } catch (IOException e) {
+            launchBroker(socketPath);
+            channel = connectWithRetry(socketPath);
+        }
+
+        try {
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(McpBroker.inputStream(channel), StandardCharsets.UTF_8));
+            BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(McpBroker.outputStream(channel), StandardCharsets.UTF_8));
+
+            JSONObject hello = McpBroker.brokerMessage(McpBroker.ATTACH);
+            hello.put("name", config.getName());
+            hello.put("command", config.getCommand());
+            hello.put("args", new JSONArray(config.getArgs()));
+            hello.put("env", new JSONObject(config.getEnv()));
+            hello.put("directory", directory != null ? directory.getAbsolutePath() : "");
+            writer.write(hello.toString());
+            writer.newLine();
+            writer.flush();
+
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("MCP broker closed the connection");
+            }
+            JSONObject reply = new JSONObject(line);
+            if (!McpBroker.ATTACHED.equals(reply.optString("broker"))) {
+                throw new IOException("MCP broker refused " + config.getName() + ": " + reply.optString("message"));
+            }
+            boolean shared = reply.optBoolean("shared");
+            CopilotLogger.info("🔀 Attached to MCP broker: " + config.getName()
+                + " (pid " + reply.optLong("pid") + (shared ? ", shared" : "") + ")");
+            return new McpBrokerConnection(channel, reader, writer, shared);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static SocketChannel connect(Path socketPath) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static SocketChannel connectWithRetry(Path socketPath) throws IOException {
+        long deadline = System.currentTimeMillis() + LAUNCH_TIMEOUT_MS;
+        while (true) {
+            try {
+                return connect(socketPath);
+            } catch (IOException e) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new IOException("MCP broker did not start: " + socketPath, e);
+                }
+            }
+            try {
+                Thread.sleep(RETRY_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for MCP broker", e);
+            }
+        }
+    }
+
+    // 브로커 프로세스 시작 - Eclipse가 종료되어도 다른 인스턴스를 위해 계속 실행됨
+    private static void launchBroker(Path socketPath) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-cp");
+        command.add(brokerClasspath());
+        command.add(McpBroker.class.getName());
+        command.add(socketPath.toString());
+
+        McpBroker.prepareDirectory(socketPath.getParent());
+        File log = socketPath.resolveSibling("mcp-broker.log").toFile();
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.appendTo(log));
+        pb.redirectInput(ProcessBuilder.Redirect.from(new File(isWindows() ? "NUL" : "/dev/null")));
+        pb.start();
+        CopilotLogger.info("🔀 Started MCP broker: " + socketPath + " (log: " + log + ")");
+    }
+
+    // 플러그인 번들의 클래스 경로 (번들 루트, 개발 환경의 bin, Bundle-ClassPath의 jar)
+    private static String brokerClasspath() throws IOException {
+        Bundle bundle = FrameworkUtil.getBundle(McpBroker.class);
+        if (bundle == null) {
+            return System.getProperty("java.class.path");
+        }
+        List<String> entries = new ArrayList<>();
+        File root = FileLocator.getBundleFileLocation(bundle)
+            .orElseThrow(() -> new IOException("Cannot locate plugin bundle: " + bundle.getSymbolicName()));
+        entries.add(root.getAbsolutePath());
+        File bin = new File(root, "bin");
+        if (bin.isDirectory()) {
+            entries.add(bin.getAbsolutePath());
+        }
+        String bundleClasspath = bundle.getHeaders().get(Constants.BUNDLE_CLASSPATH);
+        if (bundleClasspath != null) {
+            for (String entry : bundleClasspath.split(",")) {
+                String path = entry.trim();
+                if (path.isEmpty() || ".".equals(path)) {
+                    continue;
+                }
+                URL url = bundle.getEntry(path);
+                if (url != null) {
+                    entries.add(new File(FileLocator.toFileURL(url).getPath()).getAbsolutePath());
+                }
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().contains("win");
+    }
+
+    BufferedReader getReader() {
+        return reader;
+    }
+
+    BufferedWriter getWriter() {
+        return writer;
+    }
+
+    /** 다른 인스턴스가 이미 시작한 서버에 붙었는지 */
+    boolean isShared() {
+        return shared;
+    }
+
+    boolean isOpen() {
+        return channel.isOpen() && !closed.isDone();
+    }
+
+    /** 연결이 끊기면 완료 - 브로커 종료나 서버 프로세스 종료 */
+    CompletableFuture<Void> onClose() {
+        return closed;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // 이미 닫힘
+        } finally {
+            closed.complete(null);
+        }
+    }
+}
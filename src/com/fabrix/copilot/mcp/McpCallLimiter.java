@@ -0,0 +1,222 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.fabrix.copilot.core.RequestDeadline;
+
+/**
+ * 🚦 McpCallLimiter - 서버별 동시 도구 호출 제한과 대기열
+ *
+ * 서버마다 동시에 보낼 수 있는 호출 수를 제한하고, 넘치는 호출은 도착 순서대로 대기열에서 기다립니다.
+ * 대기열도 가득 차면 기다리지 않고 바로 실패시켜, 단일 스레드 서버(Node 등) 안에 요청이 쌓여
+ * RPC 타임아웃이 줄줄이 나는 대신 호출자가 즉시 알 수 있게 합니다.
+ * 대기 시간은 요청 데드라인 안에서만 쓰며, 요청이 취소되면 대기열에서 빠집니다.
+ */
+public class McpCallLimiter {
+
+    /** 데드라인이 없는 요청이 대기열에서 기다리는 최대 시간 */
+    private static final long DEFAULT_QUEUE_WAIT_MS = 30000;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * 대기열이 가득 차 호출을 받을 수 없음
+     */
+    public static class QueueFullException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public QueueFullException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 호출 허가 - close()로 반납하면 대기 중인 다음 호출이 이어받음
+     */
+    public final class Permit implements AutoCloseable {
+        private final Lane lane;
+        private boolean released;
+
+        private Permit(Lane lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public void close() {
+            synchronized (lane) {
+                if (released) return;
+                released = true;
+                lane.release();
+            }
+        }
+    }
+
+    /**
+     * 📊 서버별 호출 지표 스냅샷
+     */
+    public static final class Stats {
+        private final int inFlight;
+        private final int maxInFlight;
+        private final int queued;
+        private final int maxQueue;
+        private final int peakQueued;
+        private final long completed;
+        private final long rejected;
+        private final long waited;
+        private final long totalWaitMillis;
+        private final long maxWaitMillis;
+
+        Stats(Lane lane) {
+            this.inFlight = lane.inFlight;
+            this.maxInFlight = lane.maxInFlight;
+            this.queued = lane.waiters.size();
+            this.maxQueue = lane.maxQueue;
+            this.peakQueued = lane.peakQueued;
+            this.completed = lane.completed;
+            this.rejected = lane.rejected;
+            this.waited = lane.waited;
+            this.totalWaitMillis = lane.totalWaitMillis;
+            this.maxWaitMillis = lane.maxWaitMillis;
+        }
+
+        public int getInFlight() { return inFlight; }
+        public int getMaxInFlight() { return maxInFlight; }
+        public int getQueued() { return queued; }
+        public int getMaxQueue() { return maxQueue; }
+        public int getPeakQueued() { return peakQueued; }
+        public long getCompleted() { return completed; }
+        public long getRejected() { return rejected; }
+        /** 대기열을 거친 호출 수 */
+        public long getWaited() { return waited; }
+        public long getMaxWaitMillis() { return maxWaitMillis; }
+
+        /** 대기열을 거친 호출의 평균 대기 시간 */
+        public long getAverageWaitMillis() {
+            return waited > 0 ? totalWaitMillis / waited : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("in-flight %d/%d, queued %d/%d (peak %d), wait avg %dms max %dms, rejected %d",
+                inFlight, maxInFlight, queued, maxQueue, peakQueued, getAverageWaitMillis(), maxWaitMillis, rejected);
+        }
+    }
+
+    private static final class Lane {
+        final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        int maxInFlight = 1;
+        int maxQueue;
+        int inFlight;
+        int peakQueued;
+        long completed;
+        long rejected;
+        long waited;
+        long totalWaitMillis;
+        long maxWaitMillis;
+
+        // 제한이 늘어났으면 기다리던 호출을 바로 보냄
+        void grantWaiters() {
+            while (inFlight < maxInFlight && !waiters.isEmpty()) {
+                // 취소된 대기자는 건너뜀
+                if (waiters.poll().complete(null)) {
+                    inFlight++;
+                }
+            }
+        }
+
+        // 허가를 다음 대기자에게 넘기거나 반납
+        void release() {
+            completed++;
+            inFlight--;
+            grantWaiters();
+        }
+
+        void recordWait(long waitMillis) {
+            waited++;
+            totalWaitMillis += waitMillis;
+            maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+        }
+    }
+
+    /**
+     * 호출 허가 받기 - 여유가 있으면 바로, 없으면 대기열에서 차례를 기다림 (대기열이 가득 차면 즉시 실패)
+     */
+    public Permit acquire(String serverName, int maxInFlight, int maxQueue, RequestDeadline deadline) throws Exception {
+        long timeoutMillis = deadline.timeoutFor("MCP queue " + serverName, DEFAULT_QUEUE_WAIT_MS);
+        Lane lane = lanes.computeIfAbsent(serverName, key -> new Lane());
+        CompletableFuture<Void> turn;
+        synchronized (lane) {
+            lane.maxInFlight = Math.max(1, maxInFlight);
+            lane.maxQueue = Math.max(0, maxQueue);
+            lane.grantWaiters();
+            if (lane.inFlight < lane.maxInFlight && lane.waiters.isEmpty()) {
+                lane.inFlight++;
+                return new Permit(lane);
+            }
+            if (lane.waiters.size() >= lane.maxQueue) {
+                lane.rejected++;
+                throw new QueueFullException(String.format("MCP server busy: %s (%d in flight, %d queued)",
+                    serverName, lane.inFlight, lane.waiters.size()));
+            }
+            turn = new CompletableFuture<>();
+            lane.waiters.add(turn);
+            lane.peakQueued = Math.max(lane.peakQueued, lane.waiters.size());
+        }
+
+        long start = System.currentTimeMillis();
+        // CancellationException으로 완료하면 get()이 그대로 던지므로 다른 예외로 깨움
+        RequestDeadline.Registration cancelRegistration = deadline.onCancel(() -> turn.completeExceptionally(
+            new RequestDeadline.RequestCancelledException("MCP call cancelled in queue: " + serverName)));
+        try {
+            turn.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException | InterruptedException e) {
+            synchronized (lane) {
+                lane.waiters.remove(turn);
+                // 시간이 다 된 순간 차례가 왔으면 허가를 이미 받은 것 - 그대로 진행
+                boolean granted = !turn.completeExceptionally(new CancellationException())
+                    && !turn.isCompletedExceptionally();
+                if (!granted) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                    // 취소나 요청 예산 소진이면 데드라인 예외, 아니면 대기열 타임아웃
+                    deadline.check("MCP call on " + serverName);
+                    throw new TimeoutException("MCP call waited " + timeoutMillis + "ms in queue: " + serverName);
+                }
+            }
+        } finally {
+            cancelRegistration.close();
+        }
+
+        synchronized (lane) {
+            lane.recordWait(System.currentTimeMillis() - start);
+        }
+        return new Permit(lane);
+    }
+
+    /**
+     * 서버 지표 조회 - 호출한 적 없는 서버는 null
+     */
+    public Stats getStats(String serverName) {
+        Lane lane = lanes.get(serverName);
+        if (lane == null) return null;
+        synchronized (lane) {
+            return new Stats(lane);
+        }
+    }
+
+    /**
+     * 제거된 서버의 지표 정리 - 진행 중인 호출의 허가는 그대로 반납됨
+     */
+    public void remove(String serverName) {
+        lanes.remove(serverName);
+    }
+}
@@ -3,11 +3,17 @@ package com.fabrix.copilot.mcp;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.json.JSONObject;
 import org.json.JSONArray;
 
+import com.fabrix.copilot.core.RequestDeadline;
 import com.fabrix.copilot.utils.CopilotLogger;
 
 /**
@@ -19,23 +25,33 @@ import com.fabrix.copilot.utils.CopilotLogger;
  * - 프로세스 생명주기 관리 개선
  */
 public class McpClient {
+    private static final long STDIO_REQUEST_TIMEOUT_MS = 30000;
+    
     private final McpServerConfig config;
     private Process serverProcess;
     private AtomicBoolean connected = new AtomicBoolean(false);
     private final Set<String> availableTools;
+    // tools/list의 inputSchema (도구 이름 → JSON Schema)
+    private final Map<String, JSONObject> toolSchemas = new ConcurrentHashMap<>();
+    private final Map<String, String> toolDescriptions = new ConcurrentHashMap<>();
+    private final Map<String, JSONObject> toolAnnotations = new ConcurrentHashMap<>();
     private Socket socket;
     private BufferedReader reader;
     private PrintWriter writer;
     private String serverUrl;
     private int serverPort;
+    private McpStreamableHttpTransport httpTransport;
     
     // stdio 통신용
     private BufferedReader stdioReader;
     private PrintWriter stdioWriter;
     private Thread stdioReaderThread;
+    private final Object stdioWriteLock = new Object();
+    // 응답 대기 중인 stdio 요청 (JSON-RPC id → 응답 원문) - 리더 스레드 하나가 id로 분배
+    private final Map<String, CompletableFuture<String>> pendingStdioRequests = new ConcurrentHashMap<>();
     
-    // JSON-RPC ID 카운터
-    private long jsonRpcIdCounter = 1;
+    // JSON-RPC ID 카운터 (여러 요청이 동시에 전송될 수 있음)
+    private final AtomicLong jsonRpcIdCounter = new AtomicLong(1);
     
     public McpClient(McpServerConfig config) {
         this.config = config;
@@ -54,11 +70,12 @@ public class McpClient {
                     String urlArg = config.getArgs().get(config.getArgs().size() - 1);
                     
                     // URL 파싱
-                    if (urlArg.startsWith("http://") || urlArg.startsWith("ws://")) {
-                        URL url = new URL(urlArg);
+                    if (urlArg.matches("(https?|wss?)://.*")) {
+                        // URL은 ws/wss 스킴을 모르므로 URI로 파싱
+                        URI url = URI.create(urlArg);
                         serverUrl = url.getHost();
                         serverPort = url.getPort() != -1 ? url.getPort() : 
-                                   (urlArg.startsWith("https://") ? 443 : 80);
+                                   (urlArg.startsWith("https://") || urlArg.startsWith("wss://") ? 443 : 80);
                     } else if (urlArg.contains(":")) {
                         String[] parts = urlArg.split(":");
                         serverUrl = parts[0];
@@ -154,17 +171,9 @@ public class McpClient {
             
             serverProcess = pb.start();
             
-            // 프로세스 시작 확인 (타임아웃 추가)
-            boolean started = false;
-            for (int i = 0; i < 10; i++) { // 최대 5초 대기
-                Thread.sleep(500);
-                if (serverProcess.isAlive()) {
-                    started = true;
-                    break;
-                }
-            }
-            
-            if (!started) {
+            // 고정 대기 없이 바로 진행 - 준비 여부는 initialize 응답으로 판단
+            // (그 전에 프로세스가 종료되면 리더 스레드가 stdout 종료로 대기 요청을 즉시 실패시킴)
+            if (!serverProcess.isAlive()) {
                 CopilotLogger.error("MCP server process failed to start", null);
                 return false;
             }
@@ -173,13 +182,14 @@ public class McpClient {
             stdioReader = new BufferedReader(new InputStreamReader(serverProcess.getInputStream()));
             stdioWriter = new PrintWriter(new OutputStreamWriter(serverProcess.getOutputStream()), true);
             
-            // 에러 스트림 로깅
+            // 에러 스트림 - 서버별 링 버퍼에 보관하고 로그에는 요약만
+            McpStderrLog stderrLog = McpStderrLog.getInstance();
             Thread errorThread = new Thread(() -> {
                 try (BufferedReader errorReader = new BufferedReader(
                         new InputStreamReader(serverProcess.getErrorStream()))) {
                     String line;
                     while ((line = errorReader.readLine()) != null) {
-                        CopilotLogger.warn("MCP Server Error: " + line);
+                        stderrLog.append(config.getName(), line);
                     }
                 } catch (IOException e) {
                     // 정상 종료 시 발생할 수 있음
@@ -238,26 +248,79 @@ public class McpClient {
     }
     
     /**
-     * stdio 응답 리더 스레드
+     * stdio 응답 리더 스레드 - stdout을 읽는 유일한 스레드로, 응답을 JSON-RPC id별 대기 요청에 전달
      */
     private void startStdioReaderThread() {
+        BufferedReader input = stdioReader;
         stdioReaderThread = new Thread(() -> {
             try {
                 String line;
-                while ((line = stdioReader.readLine()) != null) {
+                while ((line = input.readLine()) != null) {
                     CopilotLogger.debug("MCP Response: " + line);
-                    // 응답 처리 로직 추가 가능
+                    dispatchStdioMessage(line);
                 }
             } catch (IOException e) {
                 if (connected.get()) {
                     CopilotLogger.error("stdio reader error: " + e.getMessage(), e);
                 }
+            } finally {
+                failPendingStdioRequests(new IOException("MCP server closed stdout: " + config.getName()));
             }
-        });
+        }, "MCP stdio reader - " + config.getName());
         stdioReaderThread.setDaemon(true);
         stdioReaderThread.start();
     }
     
+    /**
+     * stdout 한 줄 처리 - 응답은 id로 대기 중인 요청을 완료하고, 알림은 로그만 남김
+     * 배치 응답(JSON 배열)은 요소별로 나누어 각 요청에 전달합니다.
+     */
+    private void dispatchStdioMessage(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return;
+        }
+        
+        try {
+            if (trimmed.startsWith("[")) {
+                JSONArray batch = new JSONArray(trimmed);
+                for (int i = 0; i < batch.length(); i++) {
+                    JSONObject message = batch.optJSONObject(i);
+                    if (message != null) {
+                        dispatchStdioMessage(message, message.toString());
+                    }
+                }
+            } else {
+                dispatchStdioMessage(new JSONObject(trimmed), line);
+            }
+        } catch (Exception e) {
+            // 서버가 stdout에 로그를 섞어 쓰는 경우
+            CopilotLogger.debug("Ignoring non JSON-RPC output: " + line);
+        }
+    }
+    
+    private void dispatchStdioMessage(JSONObject message, String raw) {
+        if (message.has("id") && !message.has("method")) {
+            CompletableFuture<String> pending = pendingStdioRequests.remove(String.valueOf(message.get("id")));
+            if (pending != null) {
+                pending.complete(raw);
+            } else {
+                CopilotLogger.warn("Response for unknown or expired request id: " + message.get("id"));
+            }
+        } else if (message.has("method")) {
+            CopilotLogger.debug("MCP notification: " + message.optString("method"));
+        }
+    }
+    
+    private void failPendingStdioRequests(Exception cause) {
+        for (String id : new ArrayList<>(pendingStdioRequests.keySet())) {
+            CompletableFuture<String> pending = pendingStdioRequests.remove(id);
+            if (pending != null) {
+                pending.completeExceptionally(cause);
+            }
+        }
+    }
+    
     /**
      * 🌐 HTTP 연결 테스트
      */
@@ -292,11 +355,10 @@ public class McpClient {
     }
     
     /**
-     * 🔌 WebSocket 연결 (간단한 구현)
+     * 🔌 WebSocket 연결 - websocket 타입 서버는 McpWebSocketClient가 처리
      */
     private boolean connectWebSocket() {
-        // WebSocket은 별도 라이브러리 필요
-        CopilotLogger.warn("WebSocket support not yet implemented");
+        CopilotLogger.warn("WebSocket servers are handled by McpWebSocketClient");
         return false;
     }
     
@@ -308,7 +370,7 @@ public class McpClient {
         StringBuilder json = new StringBuilder();
         json.append("{");
         json.append("\"jsonrpc\":\"2.0\",");
-        json.append("\"id\":").append(jsonRpcIdCounter++).append(",");
+        json.append("\"id\":").append(jsonRpcIdCounter.getAndIncrement()).append(",");
         json.append("\"method\":\"initialize\",");
         json.append("\"params\":{");
         json.append("\"protocolVersion\":\"2024-11-05\",");
@@ -329,7 +391,7 @@ public class McpClient {
             StringBuilder json = new StringBuilder();
             json.append("{");
             json.append("\"jsonrpc\":\"2.0\",");
-            json.append("\"id\":").append(jsonRpcIdCounter++).append(",");
+            json.append("\"id\":").append(jsonRpcIdCounter.getAndIncrement()).append(",");
             json.append("\"method\":\"tools/list\",");
             json.append("\"params\":{}");
             json.append("}");
@@ -408,71 +470,69 @@ public class McpClient {
     }
     
     /**
-     * stdio 요청 전송
+     * stdio 요청 전송 - 요청을 id로 등록하고 쓰기만 한 뒤 리더 스레드가 전달하는 응답을 기다림
+     * 응답을 기다리는 동안 다른 스레드의 요청도 같은 프로세스로 계속 전송될 수 있습니다.
      */
     private String sendStdioRequest(String request) {
-        if (stdioWriter == null || stdioReader == null) {
+        PrintWriter output = stdioWriter;
+        if (output == null || stdioReader == null) {
             CopilotLogger.error("stdio streams are null", null);
             return null;
         }
         
+        String id = null;
         try {
-            CopilotLogger.debug("Sending stdio request: " + request);
-            
-            // JSON-RPC 메시지 전송 (Content-Length 헤더 없이)
-            stdioWriter.println(request);
-            stdioWriter.flush();
+            id = String.valueOf(new JSONObject(request).get("id"));
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            pendingStdioRequests.put(id, pending);
+            Thread reader = stdioReaderThread;
+            if (reader != null && !reader.isAlive()) {
+                // 리더가 이미 끝남 (서버 종료) - 타임아웃까지 기다리지 않고 바로 실패
+                pending.completeExceptionally(new IOException("MCP server closed stdout: " + config.getName()));
+            }
             
-            // 응답 읽기 (한 줄로 오는 JSON 응답)
-            String response = stdioReader.readLine();
+            CopilotLogger.debug("Sending stdio request: " + request);
             
-            if (response != null) {
-                CopilotLogger.debug("Received response: " + response);
-                return response;
+            // JSON-RPC 메시지 전송 (Content-Length 헤더 없이, 한 줄 단위)
+            synchronized (stdioWriteLock) {
+                output.println(request);
+                output.flush();
+                if (output.checkError()) {
+                    throw new IOException("stdio write failed");
+                }
             }
             
-            return null;
+            String response = pending.get(STDIO_REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            CopilotLogger.debug("Received response: " + response);
+            return response;
             
+        } catch (TimeoutException e) {
+            CopilotLogger.error("stdio request timed out after " + STDIO_REQUEST_TIMEOUT_MS + "ms (id " + id + ")", null);
+            return null;
+        } catch (ExecutionException e) {
+            CopilotLogger.error("stdio request failed: " + e.getCause().getMessage(), e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         } catch (Exception e) {
             CopilotLogger.error("stdio request failed: " + e.getMessage(), e);
             return null;
+        } finally {
+            if (id != null) {
+                pendingStdioRequests.remove(id);
+            }
         }
     }
     
     /**
-     * HTTP 요청 전송
+     * HTTP 요청 전송 - 공유 HttpClient의 keep-alive 연결과 Mcp-Session-Id를 재사용
      */
     private String sendHTTPRequest(String request) {
         try {
-            String mcpUrl = "http://" + serverUrl + ":" + serverPort + "/mcp";
-            URL url = new URL(mcpUrl);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(10000);
-            
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(request.getBytes("UTF-8"));
-            }
-            
-            int responseCode = conn.getResponseCode();
-            
-            if (responseCode >= 200 && responseCode < 300) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream()))) {
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    return response.toString();
-                }
-            } else {
-                CopilotLogger.error("HTTP request failed with code: " + responseCode, null);
-            }
-            
+            JSONObject message = new JSONObject(request);
+            JSONObject response = httpTransport().request(message, 10000);
+            return response != null ? response.toString() : null;
         } catch (Exception e) {
             CopilotLogger.error("❌ HTTP request failed: " + e.getMessage(), e);
         }
@@ -480,6 +540,14 @@ public class McpClient {
         return null;
     }
     
+    private synchronized McpStreamableHttpTransport httpTransport() {
+        if (httpTransport == null) {
+            httpTransport = new McpStreamableHttpTransport(
+                URI.create("http://" + serverUrl + ":" + serverPort + "/mcp"), null);
+        }
+        return httpTransport;
+    }
+    
     /**
      * 📝 JSON-RPC 요청 생성
      */
@@ -488,7 +556,7 @@ public class McpClient {
         StringBuilder json = new StringBuilder();
         json.append("{");
         json.append("\"jsonrpc\":\"2.0\",");
-        json.append("\"id\":").append(jsonRpcIdCounter++).append(",");
+        json.append("\"id\":").append(jsonRpcIdCounter.getAndIncrement()).append(",");
         json.append("\"method\":\"").append(method).append("\"");
         
         if (params != null && !params.isEmpty()) {
@@ -554,6 +622,7 @@ public class McpClient {
     private boolean parseToolsFromResponse(String response) {
         try {
             availableTools.clear();
+            recordToolSchemas(response);
             
             // "tools" 배열 찾기
             int toolsStart = response.indexOf("\"tools\":");
@@ -594,6 +663,107 @@ public class McpClient {
         }
     }
     
+    /**
+     * JSON-RPC id 카운터 - 하위 클래스의 요청과 배치도 이 카운터로 id를 받아 같은 연결에서 id가 겹치지 않음
+     */
+    protected AtomicLong getJsonRpcIdCounter() {
+        return jsonRpcIdCounter;
+    }
+    
+    /**
+     * 📐 tools/list 응답의 inputSchema 저장 - JSON으로 파싱되지 않는 응답은 무시
+     */
+    protected void recordToolSchemas(String response) {
+        try {
+            JSONObject json = new JSONObject(response);
+            JSONObject result = json.optJSONObject("result");
+            JSONArray tools = result != null ? result.optJSONArray("tools") : null;
+            if (tools == null) return;
+            
+            toolSchemas.clear();
+            toolDescriptions.clear();
+            toolAnnotations.clear();
+            for (int i = 0; i < tools.length(); i++) {
+                JSONObject tool = tools.optJSONObject(i);
+                if (tool == null || !tool.has("name")) continue;
+                if (tool.optJSONObject("inputSchema") != null) {
+                    toolSchemas.put(tool.getString("name"), tool.getJSONObject("inputSchema"));
+                }
+                if (!tool.optString("description").isEmpty()) {
+                    toolDescriptions.put(tool.getString("name"), tool.getString("description"));
+                }
+                if (tool.optJSONObject("annotations") != null) {
+                    toolAnnotations.put(tool.getString("name"), tool.getJSONObject("annotations"));
+                }
+            }
+        } catch (Exception e) {
+            CopilotLogger.debug("Tool schemas not available: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 🧰 tools 배열로 도구 목록과 입력 스키마 교체 - 하위 클래스의 도구 검색 결과 반영용
+     */
+    protected void replaceAvailableTools(JSONArray tools) {
+        Set<String> names = new HashSet<>();
+        Map<String, JSONObject> schemas = new HashMap<>();
+        Map<String, String> descriptions = new HashMap<>();
+        Map<String, JSONObject> annotations = new HashMap<>();
+        for (int i = 0; i < tools.length(); i++) {
+            JSONObject tool = tools.optJSONObject(i);
+            if (tool == null || !tool.has("name")) continue;
+            names.add(tool.getString("name"));
+            if (tool.optJSONObject("inputSchema") != null) {
+                schemas.put(tool.getString("name"), tool.getJSONObject("inputSchema"));
+            }
+            if (!tool.optString("description").isEmpty()) {
+                descriptions.put(tool.getString("name"), tool.getString("description"));
+            }
+            if (tool.optJSONObject("annotations") != null) {
+                annotations.put(tool.getString("name"), tool.getJSONObject("annotations"));
+            }
+        }
+        
+        synchronized (availableTools) {
+            availableTools.clear();
+            availableTools.addAll(names);
+        }
+        toolSchemas.clear();
+        toolSchemas.putAll(schemas);
+        toolDescriptions.clear();
+        toolDescriptions.putAll(descriptions);
+        toolAnnotations.clear();
+        toolAnnotations.putAll(annotations);
+    }
+    
+    /**
+     * 📐 도구의 입력 스키마 (tools/list의 inputSchema, 없으면 null)
+     */
+    public JSONObject getToolSchema(String toolName) {
+        return toolSchemas.get(toolName);
+    }
+    
+    /**
+     * 📝 도구 설명 (tools/list의 description, 없으면 null)
+     */
+    public String getToolDescription(String toolName) {
+        return toolDescriptions.get(toolName);
+    }
+    
+    /**
+     * 🏷️ 도구 annotations (tools/list의 annotations - readOnlyHint 등, 없으면 null)
+     */
+    public JSONObject getToolAnnotations(String toolName) {
+        return toolAnnotations.get(toolName);
+    }
+    
+    /**
+     * 🏷️ 서버 버전 (initialize 응답의 serverInfo.version, 알 수 없으면 null)
+     */
+    public String getServerVersion() {
+        return null;
+    }
+    
     /**
      * 🛠️ 기본 도구 초기화
      */
@@ -652,6 +822,7 @@ public class McpClient {
                 stdioReader.close();
                 stdioReader = null;
             }
+            failPendingStdioRequests(new IOException("MCP client disconnected: " + config.getName()));
             
             // 프로세스 종료
             if (serverProcess != null && serverProcess.isAlive()) {
@@ -665,6 +836,14 @@ public class McpClient {
             // Socket 정리
             closeSocket();
             
+            // HTTP 세션 종료
+            synchronized (this) {
+                if (httpTransport != null) {
+                    httpTransport.close();
+                    httpTransport = null;
+                }
+            }
+            
             CopilotLogger.info("🔌 MCP client disconnected: " + config.getName());
             
         } catch (Exception e) {
@@ -725,6 +904,20 @@ public class McpClient {
         }
     }
     
+    /**
+     * 💓 상태 확인 - 상태 감시가 원격 서버에 주기적으로 호출 (기본 구현은 연결 상태)
+     */
+    public boolean ping() {
+        return isConnected();
+    }
+    
+    /**
+     * 서버 프로세스 종료 시 완료되는 future - 감시할 프로세스가 없는 전송 계층은 null
+     */
+    public CompletableFuture<Void> onExit() {
+        return null;
+    }
+    
     /**
      * HTTP 헬스 체크
      */
@@ -738,7 +931,8 @@ public class McpClient {
             conn.setReadTimeout(2000);
             
             int responseCode = conn.getResponseCode();
-            conn.disconnect();
+            // disconnect 대신 본문을 읽어 닫아야 연결이 재사용됨 (isConnected마다 호출됨)
+            McpStreamableHttpTransport.drain(conn);
             
             return responseCode >= 200 && responseCode < 300;
             
@@ -754,6 +948,27 @@ public class McpClient {
         return availableTools.contains(toolName);
     }
     
+    /**
+     * ⏳ 데드라인 인식 도구 실행 - 기본 구현은 예산을 확인한 뒤 callTool 호출
+     * 전송 계층별 하위 클래스는 남은 예산으로 자신의 타임아웃을 정하도록 재정의합니다.
+     */
+    public String callTool(String toolName, Map<String, Object> parameters, RequestDeadline deadline) throws Exception {
+        deadline.check("MCP tool " + toolName);
+        return callTool(toolName, parameters);
+    }
+    
+    /**
+     * 📦 여러 도구 실행 - 결과를 호출 순서대로 반환
+     * 기본 구현은 하나씩 호출하며, JSON-RPC 배치를 지원하는 전송 계층은 한 번의 왕복으로 보내도록 재정의합니다.
+     */
+    public List<String> callTools(List<ToolInvocation> invocations, RequestDeadline deadline) throws Exception {
+        List<String> results = new ArrayList<>();
+        for (ToolInvocation invocation : invocations) {
+            results.add(callTool(invocation.getToolName(), new HashMap<>(invocation.getArguments()), deadline));
+        }
+        return results;
+    }
+    
     /**
      * 🛠️ 도구 실행
      */
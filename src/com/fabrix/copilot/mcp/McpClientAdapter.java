@@ -1,6 +1,11 @@
 package com.fabrix.copilot.mcp;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import org.json.JSONObject;
+
+import com.fabrix.copilot.core.RequestDeadline;
 
 /**
  * McpClient 인터페이스에 맞춰 McpStdioClient를 래핑
@@ -13,9 +18,12 @@ public class McpClientAdapter extends McpClient {
         this.stdioClient = stdioClient;
     }
     
+    /**
+     * 연결 - 아직 띄우지 않았거나 유휴 종료된 서버는 프로세스를 다시 시작
+     */
     @Override
     public boolean connect() {
-        return stdioClient.isConnected();
+        return stdioClient.isConnected() || stdioClient.connect();
     }
     
     @Override
@@ -28,13 +36,53 @@ public class McpClientAdapter extends McpClient {
         return stdioClient.isConnected();
     }
     
+    @Override
+    public CompletableFuture<Void> onExit() {
+        return stdioClient.onExit();
+    }
+    
     @Override
     public Set<String> getAvailableTools() {
         return stdioClient.getAvailableTools();
     }
     
+    @Override
+    public boolean hasTool(String toolName) {
+        return stdioClient.hasTool(toolName);
+    }
+    
+    @Override
+    public JSONObject getToolSchema(String toolName) {
+        return stdioClient.getToolSchema(toolName);
+    }
+    
+    @Override
+    public String getToolDescription(String toolName) {
+        return stdioClient.getToolDescription(toolName);
+    }
+    
+    @Override
+    public JSONObject getToolAnnotations(String toolName) {
+        return stdioClient.getToolAnnotations(toolName);
+    }
+    
+    @Override
+    public String getServerVersion() {
+        return stdioClient.getServerVersion();
+    }
+    
     @Override
     public String callTool(String toolName, Map<String, Object> parameters) throws Exception {
         return stdioClient.executeTool(toolName, parameters);
     }
+    
+    @Override
+    public String callTool(String toolName, Map<String, Object> parameters, RequestDeadline deadline) throws Exception {
+        return stdioClient.executeTool(toolName, parameters, deadline);
+    }
+    
+    @Override
+    public List<String> callTools(List<ToolInvocation> invocations, RequestDeadline deadline) throws Exception {
+        return stdioClient.executeTools(invocations, deadline);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+
+/**
+ * 🩺 McpHealthSupervisor - 서버 상태 감시와 자동 재연결
+ *
+ * stdio 서버는 프로세스 종료(Process.onExit)를 바로 감지하고, HTTP/WebSocket 서버는 주기적으로 ping을 보냅니다.
+ * 의도하지 않은 종료나 응답 없음이 확인되면 지수 백오프(지터 포함)로 다시 시작하며,
+ * 정해진 횟수를 넘기면 포기하고 FAILED 상태로 알립니다 (수동 새로고침으로 다시 시도).
+ * 유휴 종료된 💤 서버나 제거된 서버의 종료는 무시합니다.
+ */
+final class McpHealthSupervisor {
+
+    private static final long PING_INTERVAL_MS = 30000;
+    private static final long RECONNECT_INITIAL_DELAY_MS = 1000;
+    private static final long RECONNECT_MAX_DELAY_MS = 60000;
+    private static final int MAX_RECONNECT_ATTEMPTS = 8;
+    /** 이 시간 이상 살아 있던 서버가 다시 죽으면 시도 횟수를 처음부터 셈 (시작 직후 죽는 서버는 계속 늘어남) */
+    private static final long STABLE_UPTIME_MS = 60000;
+
+    private final McpServerManager manager;
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "FabriX-MCP-Health");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 서버 하나의 감시 상태 - 재연결에 성공하면 새 클라이언트로 바뀌고 시도 횟수는 이어받음
+    private static final class Watch {
+        final McpClient client;
+        final CompletableFuture<Void> exit;
+        final long watchedAt = System.currentTimeMillis();
+        int attempts;
+        ScheduledFuture<?> pendingReconnect;
+
+        Watch(McpClient client) {
+            this.client = client;
+            this.exit = client.onExit();
+        }
+
+        boolean isReconnecting() {
+            return pendingReconnect != null && !pendingReconnect.isDone();
+        }
+    }
+
+    McpHealthSupervisor(McpServerManager manager) {
+        this.manager = manager;
+        scheduler.scheduleWithFixedDelay(this::pingRemoteServers,
+            PING_INTERVAL_MS, PING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 연결된 클라이언트 감시 시작 - 같은 서버의 이전 감시(예약된 재연결 포함)는 대체
+     */
+    void watch(String serverName, McpClient client) {
+        Watch watch = new Watch(client);
+        Watch previous = watches.put(serverName, watch);
+        if (previous != null) {
+            cancelReconnect(previous);
+            watch.attempts = previous.attempts;
+        }
+        if (watch.exit != null) {
+            watch.exit.thenRun(() -> scheduler.execute(() -> processExited(serverName, watch)));
+        }
+    }
+
+    /**
+     * 감시 중단 - 서버 제거 시
+     */
+    void forget(String serverName) {
+        Watch watch = watches.remove(serverName);
+        if (watch != null) {
+            cancelReconnect(watch);
+        }
+    }
+
+    /**
+     * 🔄 즉시 재연결 - 백오프를 초기화하고 바로 시도 (수동 새로고침)
+     */
+    void reconnectNow(String serverName) {
+        Watch watch = watches.computeIfAbsent(serverName, key -> {
+            McpClient client = manager.getRegisteredClient(key);
+            return client != null ? new Watch(client) : null;
+        });
+        if (watch == null) {
+            return;
+        }
+        synchronized (watch) {
+            cancelReconnect(watch);
+            watch.attempts = 0;
+            watch.pendingReconnect = scheduler.schedule(() -> attemptReconnect(serverName, watch), 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void processExited(String serverName, Watch watch) {
+        if (!isCurrent(serverName, watch) || !manager.expectsRunning(serverName)) {
+            return; // 유휴 종료, 제거, 재시작으로 대체된 클라이언트
+        }
+        CopilotLogger.warn("💥 MCP server process exited unexpectedly: " + serverName);
+        scheduleReconnect(serverName, watch);
+    }
+
+    // HTTP/WebSocket 서버 ping - 응답이 없으면 재연결 예약
+    private void pingRemoteServers() {
+        for (Map.Entry<String, Watch> entry : watches.entrySet()) {
+            String serverName = entry.getKey();
+            Watch watch = entry.getValue();
+            try {
+                if (watch.exit != null || watch.isReconnecting() || !manager.expectsRunning(serverName)) {
+                    continue;
+                }
+                if (!watch.client.ping() && isCurrent(serverName, watch)) {
+                    CopilotLogger.warn("💔 MCP server not responding to ping: " + serverName);
+                    scheduleReconnect(serverName, watch);
+                }
+            } catch (Exception e) {
+                CopilotLogger.error("MCP health check failed: " + serverName, e);
+            }
+        }
+    }
+
+    // 다음 재연결 예약 - 지연은 1초부터 두 배씩 최대 60초, 절반은 무작위 (여러 서버가 동시에 몰리지 않도록)
+    private void scheduleReconnect(String serverName, Watch watch) {
+        synchronized (watch) {
+            if (watch.isReconnecting()) {
+                return;
+            }
+            if (System.currentTimeMillis() - watch.watchedAt >= STABLE_UPTIME_MS) {
+                watch.attempts = 0;
+            }
+            if (watch.attempts >= MAX_RECONNECT_ATTEMPTS) {
+                CopilotLogger.error("❌ Giving up reconnecting MCP server after " + watch.attempts
+                    + " attempts: " + serverName, null);
+                manager.publishState(serverName, McpServerManager.ServerState.FAILED);
+                return;
+            }
+            long backoff = Math.min(RECONNECT_MAX_DELAY_MS, RECONNECT_INITIAL_DELAY_MS << Math.min(watch.attempts, 16));
+            long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            watch.attempts++;
+            CopilotLogger.info(String.format("🔄 Reconnecting MCP server %s in %dms (attempt %d/%d)",
+                serverName, delay, watch.attempts, MAX_RECONNECT_ATTEMPTS));
+            manager.publishState(serverName, McpServerManager.ServerState.RECONNECTING);
+            watch.pendingReconnect = scheduler.schedule(() -> attemptReconnect(serverName, watch), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void attemptReconnect(String serverName, Watch watch) {
+        if (!isCurrent(serverName, watch)) {
+            return;
+        }
+        boolean reconnected;
+        try {
+            // 성공하면 관리자가 새 클라이언트로 watch()를 다시 불러 감시가 교체됨
+            reconnected = manager.restartServer(serverName);
+        } catch (Exception e) {
+            CopilotLogger.warn("MCP server restart failed: " + serverName + " - " + e.getMessage());
+            reconnected = false;
+        }
+        if (!reconnected && isCurrent(serverName, watch)) {
+            synchronized (watch) {
+                watch.pendingReconnect = null;
+            }
+            scheduleReconnect(serverName, watch);
+        }
+    }
+
+    private boolean isCurrent(String serverName, Watch watch) {
+        return watches.get(serverName) == watch;
+    }
+
+    private static void cancelReconnect(Watch watch) {
+        synchronized (watch) {
+            if (watch.pendingReconnect != null) {
+                watch.pendingReconnect.cancel(false);
+                watch.pendingReconnect = null;
+            }
+        }
+    }
+}
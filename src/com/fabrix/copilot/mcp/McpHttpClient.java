@@ -2,50 +2,164 @@ package com.fabrix.copilot.mcp;
 
 import java.io.*;
 import java.net.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+import com.fabrix.copilot.core.RequestDeadline;
 import com.fabrix.copilot.utils.CopilotLogger;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
  * HTTP 방식 MCP 클라이언트
+ *
+ * 먼저 MCP Streamable HTTP(단일 /mcp 엔드포인트, Mcp-Session-Id, SSE 응답)로 연결하고,
+ * 서버가 initialize에 응답하지 않으면 기존 REST 엔드포인트(/health, /tools, /execute)를 사용합니다.
+ * 어느 방식이든 응답 본문을 끝까지 읽고 disconnect()는 취소할 때만 불러 keep-alive 연결이 재사용됩니다.
  */
 public class McpHttpClient extends McpClient {
     
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final int READ_TIMEOUT_MS = 30000;
+    
+    // JSON-RPC 배치를 지원하는 마지막 프로토콜 버전 (2025-06-18에서 배치 제거)
+    private static final String PROTOCOL_VERSION = "2025-03-26";
+    
+    private final McpServerConfig config;
     private final String baseUrl;
     private final Map<String, String> headers;
     private final Map<String, String> endpoints;
+    private final McpStreamableHttpTransport transport;
+    private final McpProgressTracker progressTracker;
+    // JSON-RPC 배치 엔드포인트가 없거나 배치를 거부하는 서버면 false
+    private volatile boolean batchSupported = true;
+    // initialize에 응답한 Streamable HTTP 서버면 true, REST 엔드포인트 서버면 false
+    private volatile boolean streamable;
+    private volatile boolean connected;
+    private final Set<String> availableResources = new HashSet<>();
+    private final Set<String> availablePrompts = new HashSet<>();
     
     public McpHttpClient(McpServerConfig config) {
         super(config);
+        this.config = config;
         
         // HTTP 설정 파싱
         JSONObject httpConfig = parseHttpConfig(config);
-        this.baseUrl = httpConfig.optString("url", "http://localhost:8080");
+        this.baseUrl = stripTrailingSlash(httpConfig.optString("url", "http://localhost:8080"));
         this.headers = parseHeaders(httpConfig.optJSONObject("headers"));
         this.endpoints = parseEndpoints(httpConfig.optJSONObject("endpoints"));
+        this.transport = new McpStreamableHttpTransport(URI.create(resolveMcpUrl()), headers);
+        this.progressTracker = new McpProgressTracker(config.getName());
+        // SSE 응답으로 온 진행 알림은 해당 요청으로 전달
+        this.transport.setNotificationListener(message -> {
+            if (!progressTracker.handle(message)) {
+                CopilotLogger.debug("MCP notification from " + getServerName() + ": " + message.optString("method"));
+            }
+        });
     }
     
     @Override
     public boolean connect() {
         // connectHTTP가 아닌 connect를 오버라이드
-        return connectHTTPInternal();
+        connected = initializeStreamable() || connectHTTPInternal();
+        return connected;
     }
     
-    private boolean connectHTTPInternal() {
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+    
+    /**
+     * 💓 상태 확인 - Streamable 서버는 JSON-RPC ping(만료된 세션은 다시 initialize), REST 서버는 헬스 엔드포인트
+     */
+    @Override
+    public boolean ping() {
+        if (!connected) {
+            return false;
+        }
+        try {
+            if (streamable) {
+                try {
+                    // ping을 구현하지 않은 서버의 오류 응답도 살아 있다는 뜻
+                    transport.request(rpcRequest("ping", new JSONObject()), CONNECT_TIMEOUT_MS);
+                } catch (McpStreamableHttpTransport.SessionExpiredException e) {
+                    reinitialize();
+                }
+                return true;
+            }
+            HttpURLConnection conn = openRest(endpoints.getOrDefault("health", "/health"), "GET", CONNECT_TIMEOUT_MS);
+            int responseCode = conn.getResponseCode();
+            McpStreamableHttpTransport.drain(conn);
+            return responseCode >= 200 && responseCode < 300;
+        } catch (Exception e) {
+            CopilotLogger.debug("MCP ping failed: " + getServerName() + " - " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public void disconnect() {
+        connected = false;
+        transport.close();
+        CopilotLogger.info("🔌 HTTP MCP client disconnected: " + getServerName());
+    }
+    
+    /**
+     * Streamable HTTP 초기화 - initialize로 세션을 열고 도구 목록 조회
+     */
+    private boolean initializeStreamable() {
         try {
-            // 헬스 체크
-            String healthUrl = baseUrl + "/health";
-            HttpURLConnection conn = (HttpURLConnection) new URL(healthUrl).openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
+            JSONObject params = new JSONObject();
+            params.put("protocolVersion", PROTOCOL_VERSION);
+            params.put("capabilities", new JSONObject());
+            JSONObject clientInfo = new JSONObject();
+            clientInfo.put("name", "FabriX Copilot");
+            clientInfo.put("version", "1.0.0");
+            params.put("clientInfo", clientInfo);
             
-            // 헤더 추가
-            headers.forEach(conn::setRequestProperty);
+            JSONObject response = transport.request(rpcRequest("initialize", params), READ_TIMEOUT_MS);
+            JSONObject result = response != null ? response.optJSONObject("result") : null;
+            if (result == null) {
+                return false;
+            }
+            
+            String negotiated = result.optString("protocolVersion", PROTOCOL_VERSION);
+            transport.setProtocolVersion(negotiated);
+            batchSupported = PROTOCOL_VERSION.equals(negotiated);
+            transport.notify("notifications/initialized", null);
+            streamable = true;
             
+            CopilotLogger.info("HTTP MCP server connected (streamable, protocol " + negotiated
+                + (transport.getSessionId() != null ? ", session" : "") + "): " + getServerName());
+            discoverStreamableTools();
+            return true;
+        
+        } catch (Exception e) {
+            CopilotLogger.debug("Streamable HTTP initialize failed, trying REST endpoints: " + e.getMessage());
+            streamable = false;
+            return false;
+        }
+    }
+    
+    /**
+     * 세션이 만료되었으면 다시 initialize (서버 재시작 등)
+     */
+    private void reinitialize() throws Exception {
+        CopilotLogger.info("MCP HTTP session expired, re-initializing: " + getServerName());
+        if (!initializeStreamable()) {
+            connected = false;
+            throw new Exception("Failed to re-initialize MCP HTTP session: " + getServerName());
+        }
+    }
+    
+    private boolean connectHTTPInternal() {
+        try {
+            // 헬스 체크 - 본문을 끝까지 읽어 연결을 keep-alive 캐시로 돌려줌
+            HttpURLConnection conn = openRest(endpoints.getOrDefault("health", "/health"), "GET", CONNECT_TIMEOUT_MS);
             int responseCode = conn.getResponseCode();
-            conn.disconnect();
+            McpStreamableHttpTransport.drain(conn);
             
             if (responseCode >= 200 && responseCode < 300) {
                 CopilotLogger.info("HTTP MCP server connected: " + getServerName());
@@ -54,7 +168,7 @@ public class McpHttpClient extends McpClient {
                 discoverHttpTools();
                 return true;
             }
-            
+        
         } catch (Exception e) {
             CopilotLogger.error("HTTP connection failed", e);
         }
@@ -65,182 +179,409 @@ public class McpHttpClient extends McpClient {
     // sendHTTPRequest를 public 메서드로 변경
     public String sendRequest(String method, Map<String, Object> params) {
         try {
-            JSONObject request = new JSONObject();
-            request.put("jsonrpc", "2.0");
-            request.put("id", System.currentTimeMillis());
-            request.put("method", method);
-            if (params != null) {
-                request.put("params", new JSONObject(params));
+            JSONObject request = rpcRequest(method, params != null ? new JSONObject(params) : null);
+            
+            if (streamable) {
+                JSONObject response;
+                try {
+                    response = transport.request(request, READ_TIMEOUT_MS);
+                } catch (McpStreamableHttpTransport.SessionExpiredException e) {
+                    reinitialize();
+                    response = transport.request(request, READ_TIMEOUT_MS);
+                }
+                return response != null ? response.toString() : null;
             }
             
-            return sendHTTPRequestInternal(request.toString());
+            // REST 서버는 메서드에 따라 엔드포인트 결정
+            return postRest(determineEndpoint(method), request.toString(), READ_TIMEOUT_MS);
         } catch (Exception e) {
             CopilotLogger.error("Failed to send request", e);
             return null;
         }
     }
     
-    private String sendHTTPRequestInternal(String request) {
+    private JSONObject rpcRequest(String method, JSONObject params) {
+        JSONObject request = new JSONObject();
+        request.put("jsonrpc", "2.0");
+        request.put("id", getJsonRpcIdCounter().getAndIncrement());
+        request.put("method", method);
+        if (params != null) {
+            request.put("params", params);
+        }
+        return request;
+    }
+    
+    /**
+     * 📦 JSON-RPC 배치 전송 - 배열 하나를 한 번의 POST로 보내고 응답을 id별로 반환
+     * 서버가 배열을 해석하지 못하면(HTTP 오류, 배열이 아닌 오류 응답) 빈 맵을 반환하고 이후 배치를 사용하지 않습니다.
+     */
+    public Map<Long, JSONObject> sendBatch(JsonRpcBatch batch, RequestDeadline deadline) throws Exception {
+        if (streamable) {
+            return sendStreamableBatch(batch, deadline);
+        }
+        
+        HttpURLConnection conn = openRest(endpoints.getOrDefault("rpc", "/api"), "POST",
+            deadline.timeoutFor("MCP batch", McpLatencyStats.MAX_TIMEOUT_MS));
+        conn.setConnectTimeout(deadline.timeoutFor("MCP connect", CONNECT_TIMEOUT_MS));
+        
+        RequestDeadline.Registration cancelRegistration = deadline.onCancel(conn::disconnect);
         try {
-            // 요청 파싱
-            JSONObject jsonRequest = new JSONObject(request);
-            String method = jsonRequest.getString("method");
-            
-            // 엔드포인트 결정
-            String endpoint = determineEndpoint(method);
-            String url = baseUrl + endpoint;
-            
-            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-            
-            // 헤더 추가
-            headers.forEach(conn::setRequestProperty);
-            
-            // 요청 본문 전송
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(request.getBytes("UTF-8"));
+            String response = postJson(conn, batch.toJson());
+            if (conn.getResponseCode() < 200 || conn.getResponseCode() >= 300) {
+                CopilotLogger.warn("JSON-RPC batch not supported (HTTP " + conn.getResponseCode() + "): " + getServerName());
+                batchSupported = false;
+                return new HashMap<>();
             }
             
-            // 응답 읽기
-            int responseCode = conn.getResponseCode();
-            InputStream inputStream = (responseCode >= 200 && responseCode < 300) ? 
-                conn.getInputStream() : conn.getErrorStream();
-            
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(inputStream))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
+            Map<Long, JSONObject> responses;
+            try {
+                responses = JsonRpcBatch.parseResponses(response);
+            } catch (Exception parseError) {
+                responses = new HashMap<>();
             }
-            
-            return response.toString();
-            
+            if (responses.isEmpty() && !response.trim().startsWith("[")) {
+                CopilotLogger.warn("JSON-RPC batch rejected: " + getServerName());
+                batchSupported = false;
+            }
+            return responses;
         } catch (Exception e) {
-            CopilotLogger.error("HTTP request failed", e);
-            return null;
+            if (deadline.isCancelled()) {
+                throw new RequestDeadline.RequestCancelledException("MCP batch cancelled");
+            }
+            throw e;
+        } finally {
+            cancelRegistration.close();
+        }
+    }
+    
+    private Map<Long, JSONObject> sendStreamableBatch(JsonRpcBatch batch, RequestDeadline deadline) throws Exception {
+        long timeout = deadline.timeoutFor("MCP batch", McpLatencyStats.MAX_TIMEOUT_MS);
+        try {
+            return awaitExchange(transport.post(batch.toJson(), batch.getIds()), timeout, deadline, "MCP batch");
+        } catch (McpStreamableHttpTransport.SessionExpiredException e) {
+            reinitialize();
+            return awaitExchange(transport.post(batch.toJson(), batch.getIds()), timeout, deadline, "MCP batch");
+        } catch (McpStreamableHttpTransport.HttpStatusException e) {
+            CopilotLogger.warn("JSON-RPC batch not supported (HTTP " + e.getStatusCode() + "): " + getServerName());
+            batchSupported = false;
+            return new HashMap<>();
+        }
+    }
+    
+    /**
+     * 교환 응답 대기 - 요청이 취소되면 연결을 끊어 대기를 중단
+     */
+    private Map<Long, JSONObject> awaitExchange(McpStreamableHttpTransport.Exchange exchange, long timeoutMillis,
+                                                RequestDeadline deadline, String what) throws Exception {
+        RequestDeadline.Registration cancelRegistration = deadline.onCancel(exchange::cancel);
+        try {
+            return exchange.await(timeoutMillis);
+        } catch (McpStreamableHttpTransport.SessionExpiredException e) {
+            throw e;
+        } catch (Exception e) {
+            if (deadline.isCancelled()) {
+                throw new RequestDeadline.RequestCancelledException(what + " cancelled");
+            }
+            throw e;
+        } finally {
+            cancelRegistration.close();
+        }
+    }
+    
+    /**
+     * 여러 도구 실행 - 배치 POST 한 번으로 보내고, 배치를 쓸 수 없으면 하나씩 호출
+     */
+    @Override
+    public List<String> callTools(List<ToolInvocation> invocations, RequestDeadline deadline) throws Exception {
+        if (!batchSupported || invocations.size() < 2) {
+            return super.callTools(invocations, deadline);
+        }
+        
+        JsonRpcBatch batch = new JsonRpcBatch(getJsonRpcIdCounter());
+        List<String> progressTokens = new ArrayList<>();
+        for (ToolInvocation invocation : invocations) {
+            String progressToken = progressTracker.register(invocation.getToolName(), deadline);
+            progressTokens.add(progressToken);
+            Map<String, Object> params = new HashMap<>();
+            params.put("name", invocation.getToolName());
+            params.put("arguments", new HashMap<>(invocation.getArguments()));
+            params.put("_meta", McpProgressTracker.meta(progressToken));
+            batch.add("tools/call", params);
+        }
+        
+        Map<Long, JSONObject> responses;
+        RequestDeadline.Registration notifyCancel = deadline.onCancel(
+            () -> batch.getIds().forEach(id -> sendCancelled(id, "Request cancelled")));
+        try {
+            responses = sendBatch(batch, deadline);
+        } finally {
+            notifyCancel.close();
+            progressTokens.forEach(progressTracker::unregister);
+        }
+        if (responses.isEmpty()) {
+            // 거부된 배치는 실행되지 않았으므로 개별 호출로 다시 보냄
+            return super.callTools(invocations, deadline);
+        }
+        
+        List<String> results = new ArrayList<>();
+        for (Long id : batch.getIds()) {
+            results.add(JsonRpcBatch.toolResultText(responses.get(id)));
+        }
+        return results;
+    }
+    
+    /**
+     * Streamable 서버 도구 검색 - tools/list, resources/list, prompts/list를 배치 하나로 조회하고,
+     * 배치를 쓸 수 없으면 tools/list만 단건 조회
+     */
+    private void discoverStreamableTools() throws Exception {
+        if (batchSupported && discoverWithBatch()) {
+            return;
+        }
+        
+        JSONObject response = transport.request(rpcRequest("tools/list", new JSONObject()), READ_TIMEOUT_MS);
+        JSONObject result = response != null ? response.optJSONObject("result") : null;
+        if (result != null && result.optJSONArray("tools") != null) {
+            replaceAvailableTools(result.getJSONArray("tools"));
+            CopilotLogger.info("Discovered " + getAvailableTools().size() + " tools from HTTP server");
         }
     }
     
+    /**
+     * REST 서버 도구 검색 - JSON-RPC 배치 엔드포인트가 있으면 배치로, 없으면 REST 도구 목록 조회
+     */
     private void discoverHttpTools() {
+        if (batchSupported && discoverWithBatch()) {
+            return;
+        }
+        
         try {
-            String toolsEndpoint = endpoints.getOrDefault("tools", "/tools");
-            String url = baseUrl + toolsEndpoint;
-            
-            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
-            conn.setRequestMethod("GET");
-            headers.forEach(conn::setRequestProperty);
+            HttpURLConnection conn = openRest(endpoints.getOrDefault("tools", "/tools"), "GET", READ_TIMEOUT_MS);
+            String response = McpStreamableHttpTransport.drain(conn);
             
             if (conn.getResponseCode() == 200) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream()))) {
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    
-                    parseToolsFromHttpResponse(response.toString());
-                }
+                parseToolsFromHttpResponse(response);
             }
-            
+        
         } catch (Exception e) {
             CopilotLogger.error("Failed to discover HTTP tools", e);
         }
     }
     
-    private void parseToolsFromHttpResponse(String response) {
+    private boolean discoverWithBatch() {
         try {
-            JSONArray tools = new JSONArray(response);
+            JsonRpcBatch batch = new JsonRpcBatch(getJsonRpcIdCounter());
+            long toolsId = batch.add("tools/list", null);
+            long resourcesId = batch.add("resources/list", null);
+            long promptsId = batch.add("prompts/list", null);
             
-            // availableTools를 직접 접근하는 대신 부모 클래스의 메서드 사용
-            Set<String> toolSet = getAvailableTools();
-            toolSet.clear();
+            Map<Long, JSONObject> responses = sendBatch(batch, RequestDeadline.unbounded());
+            JSONObject toolsResult = responses.containsKey(toolsId) ? responses.get(toolsId).optJSONObject("result") : null;
+            if (toolsResult == null || toolsResult.optJSONArray("tools") == null) {
+                return false;
+            }
             
-            for (int i = 0; i < tools.length(); i++) {
-                JSONObject tool = tools.getJSONObject(i);
-                String name = tool.getString("name");
-                toolSet.add(name);
+            replaceAvailableTools(toolsResult.getJSONArray("tools"));
+            collectNames(responses.get(resourcesId), "resources", "uri", availableResources);
+            collectNames(responses.get(promptsId), "prompts", "name", availablePrompts);
+            
+            CopilotLogger.info("Discovered " + getAvailableTools().size() + " tools, " + availableResources.size()
+                + " resources, " + availablePrompts.size() + " prompts from HTTP server (1 batch)");
+            return true;
+        
+        } catch (Exception e) {
+            CopilotLogger.debug("Batch discovery failed, using single tools request: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private static void collectNames(JSONObject response, String listKey, String nameKey, Set<String> target) {
+        JSONObject result = response != null ? response.optJSONObject("result") : null;
+        JSONArray items = result != null ? result.optJSONArray(listKey) : null;
+        if (items == null) return;
+        
+        synchronized (target) {
+            target.clear();
+            for (int i = 0; i < items.length(); i++) {
+                JSONObject item = items.optJSONObject(i);
+                if (item != null && item.has(nameKey)) {
+                    target.add(item.getString(nameKey));
+                }
             }
+        }
+    }
+    
+    private void parseToolsFromHttpResponse(String response) {
+        try {
+            JSONArray tools = new JSONArray(response);
             
-            CopilotLogger.info("Discovered " + toolSet.size() + 
-                             " tools from HTTP server");
+            // getAvailableTools()는 복사본이므로 부모 클래스의 목록을 직접 교체
+            replaceAvailableTools(tools);
             
+            CopilotLogger.info("Discovered " + getAvailableTools().size() +
+                             " tools from HTTP server");
+        
         } catch (Exception e) {
             CopilotLogger.error("Failed to parse tools response", e);
         }
     }
     
+    /** resources/list로 조회한 리소스 URI (서버가 지원하는 경우) */
+    public Set<String> getAvailableResources() {
+        synchronized (availableResources) {
+            return new HashSet<>(availableResources);
+        }
+    }
+    
+    /** prompts/list로 조회한 프롬프트 이름 (서버가 지원하는 경우) */
+    public Set<String> getAvailablePrompts() {
+        synchronized (availablePrompts) {
+            return new HashSet<>(availablePrompts);
+        }
+    }
+    
     @Override
     public String callTool(String toolName, Map<String, Object> parameters) throws Exception {
+        return callTool(toolName, parameters, RequestDeadline.unbounded());
+    }
+    
+    @Override
+    public String callTool(String toolName, Map<String, Object> parameters, RequestDeadline deadline) throws Exception {
         if (!isConnected()) {
             throw new Exception("Not connected to HTTP MCP server");
         }
         
-        String executeEndpoint = endpoints.getOrDefault("execute", "/execute");
-        String url = baseUrl + executeEndpoint;
+        if (streamable) {
+            return callStreamableTool(toolName, parameters, deadline);
+        }
         
         // 요청 생성
         JSONObject request = new JSONObject();
         request.put("tool", toolName);
         request.put("parameters", new JSONObject(parameters));
         
-        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
-        conn.setRequestMethod("POST");
-        conn.setRequestProperty("Content-Type", "application/json");
-        conn.setDoOutput(true);
+        HttpURLConnection conn = openRest(endpoints.getOrDefault("execute", "/execute"), "POST",
+            deadline.timeoutFor("MCP tool " + toolName, McpLatencyStats.MAX_TIMEOUT_MS));
+        conn.setConnectTimeout(deadline.timeoutFor("MCP connect", CONNECT_TIMEOUT_MS));
         
-        headers.forEach(conn::setRequestProperty);
-        
-        // 요청 전송
-        try (OutputStream os = conn.getOutputStream()) {
-            os.write(request.toString().getBytes("UTF-8"));
+        // 요청이 취소되면 연결을 끊어 블로킹 중인 호출을 중단
+        RequestDeadline.Registration cancelRegistration = deadline.onCancel(conn::disconnect);
+        try {
+            String response = postJson(conn, request.toString());
+            return parseRestToolResponse(conn.getResponseCode(), response);
+        } catch (Exception e) {
+            if (deadline.isCancelled()) {
+                throw new RequestDeadline.RequestCancelledException("MCP tool call cancelled: " + toolName);
+            }
+            throw e;
+        } finally {
+            cancelRegistration.close();
         }
+    }
+    
+    /**
+     * tools/call - 오래 걸리는 도구는 서버가 SSE로 진행 알림을 보내다가 결과를 보냄
+     */
+    private String callStreamableTool(String toolName, Map<String, Object> parameters, RequestDeadline deadline) throws Exception {
+        long timeout = deadline.timeoutFor("MCP tool " + toolName, McpLatencyStats.MAX_TIMEOUT_MS);
+        String progressToken = progressTracker.register(toolName, deadline);
+        JSONObject params = new JSONObject();
+        params.put("name", toolName);
+        params.put("arguments", new JSONObject(parameters));
+        params.put("_meta", McpProgressTracker.meta(progressToken));
+        JSONObject request = rpcRequest("tools/call", params);
+        long id = request.getLong("id");
+        String what = "MCP tool call " + toolName;
         
-        // 응답 처리
-        int responseCode = conn.getResponseCode();
-        if (responseCode >= 200 && responseCode < 300) {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream()))) {
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                
-                // 결과 파싱
-                JSONObject result = new JSONObject(response.toString());
-                if (result.has("result")) {
-                    return result.getString("result");
-                } else if (result.has("error")) {
-                    throw new Exception("Tool error: " + result.getString("error"));
-                }
-                
-                return response.toString();
+        // 연결을 끊는 것만으로는 서버가 작업을 멈추지 않으므로 취소 알림도 보냄
+        Map<Long, JSONObject> responses;
+        RequestDeadline.Registration notifyCancel = deadline.onCancel(() -> sendCancelled(id, "Request cancelled"));
+        try {
+            responses = awaitExchange(transport.post(request.toString(), Collections.singleton(id)), timeout, deadline, what);
+        } catch (McpStreamableHttpTransport.SessionExpiredException e) {
+            reinitialize();
+            responses = awaitExchange(transport.post(request.toString(), Collections.singleton(id)), timeout, deadline, what);
+        } finally {
+            notifyCancel.close();
+            progressTracker.unregister(progressToken);
+        }
+        return JsonRpcBatch.toolResultText(responses.get(id));
+    }
+    
+    /**
+     * 서버에 notifications/cancelled 전송 - 취소 훅에서 불리므로 다른 스레드에서 POST
+     */
+    private void sendCancelled(long id, String reason) {
+        if (!streamable) return;
+        CompletableFuture.runAsync(() -> {
+            try {
+                transport.notify("notifications/cancelled",
+                    McpProgressTracker.cancelledNotification(id, reason).getJSONObject("params"));
+            } catch (Exception e) {
+                CopilotLogger.debug("Failed to send notifications/cancelled: " + e.getMessage());
             }
-        } else {
+        });
+    }
+    
+    private String parseRestToolResponse(int responseCode, String response) throws Exception {
+        if (responseCode < 200 || responseCode >= 300) {
             throw new Exception("HTTP error: " + responseCode);
         }
+        
+        // 결과 파싱
+        JSONObject result = new JSONObject(response);
+        if (result.has("result")) {
+            return result.getString("result");
+        } else if (result.has("error")) {
+            throw new Exception("Tool error: " + result.getString("error"));
+        }
+        
+        return response;
+    }
+    
+    private String postRest(String endpoint, String body, int timeoutMillis) throws Exception {
+        return postJson(openRest(endpoint, "POST", timeoutMillis), body);
+    }
+    
+    private HttpURLConnection openRest(String endpoint, String method, int timeoutMillis) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(baseUrl + endpoint).openConnection();
+        conn.setRequestMethod(method);
+        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        conn.setReadTimeout(timeoutMillis);
+        headers.forEach(conn::setRequestProperty);
+        return conn;
+    }
+    
+    /**
+     * JSON 본문 POST 후 응답 본문(오류면 오류 본문)을 끝까지 읽음 - disconnect하지 않아야 연결이 재사용됨
+     */
+    private static String postJson(HttpURLConnection conn, String body) throws IOException {
+        conn.setRequestProperty("Content-Type", "application/json");
+        conn.setDoOutput(true);
+        try (OutputStream os = conn.getOutputStream()) {
+            os.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return McpStreamableHttpTransport.drain(conn);
     }
     
     // 헬퍼 메서드들
     private String getServerName() {
-        // McpServerConfig에서 이름 가져오기
-        try {
-            java.lang.reflect.Field configField = McpClient.class.getDeclaredField("config");
-            configField.setAccessible(true);
-            McpServerConfig config = (McpServerConfig) configField.get(this);
-            return config.getName();
-        } catch (Exception e) {
-            return "Unknown";
+        return config != null ? config.getName() : "Unknown";
+    }
+    
+    /**
+     * MCP 엔드포인트 - endpoints.mcp 설정, URL에 경로가 있으면 그 URL, 없으면 /mcp
+     */
+    private String resolveMcpUrl() {
+        String mcpEndpoint = endpoints.get("mcp");
+        if (mcpEndpoint != null) {
+            return mcpEndpoint.startsWith("http") ? mcpEndpoint : baseUrl + mcpEndpoint;
         }
+        String path = URI.create(baseUrl).getPath();
+        return path != null && !path.isEmpty() && !"/".equals(path) ? baseUrl : baseUrl + "/mcp";
     }
     
     private JSONObject parseHttpConfig(McpServerConfig config) {
-        // 실제 구현에서는 config에서 HTTP 설정을 파싱
         JSONObject httpConfig = new JSONObject();
         
         // config.getArgs()에서 URL 추출
@@ -251,6 +592,11 @@ public class McpHttpClient extends McpClient {
             }
         }
         
+        // HTTP 서버의 env 항목은 요청 헤더 (Authorization 등)
+        if (config.getEnv() != null && !config.getEnv().isEmpty()) {
+            httpConfig.put("headers", new JSONObject(config.getEnv()));
+        }
+        
         return httpConfig;
     }
     
@@ -278,6 +624,10 @@ public class McpHttpClient extends McpClient {
         return endpoints;
     }
     
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
     private String determineEndpoint(String method) {
         // 메서드에 따른 엔드포인트 결정
         if (method.contains("tools")) {
@@ -287,4 +637,4 @@ public class McpHttpClient extends McpClient {
         }
         return "/api";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ⏱️ McpLatencyStats - 서버/도구별 지연 시간 통계와 적응형 타임아웃
+ *
+ * 도구마다 지수 이동 평균(EWMA)과 로그 구간 히스토그램(구간 폭 10%)을 유지해 p50/p90/p99를 추정합니다.
+ * 타임아웃은 p99와 EWMA의 배수 중 큰 값을 하한/상한 사이로 맞춰 정하므로,
+ * 20ms 걸리는 list_directory는 빨리 실패하고 15초 걸리는 git_log는 잘리지 않습니다.
+ * 표본이 충분히 쌓이기 전에는 예전 고정 RPC 타임아웃(10초)을 사용하고, 타임아웃된 호출은 한도까지의 시간을
+ * 표본으로 넣어 바로 다음 한도를 늘립니다.
+ */
+public class McpLatencyStats {
+
+    /** 타임아웃 상한 설정의 최댓값 - 전송 계층은 도구 호출에 이 값을 쓰고 실제 한도는 호출자의 데드라인으로 정함 */
+    static final long MAX_TIMEOUT_MS = 600000;
+
+    /** 표본이 부족할 때의 한도 - 적응형 타임아웃 이전의 고정 RPC 타임아웃 */
+    static final long COLD_START_TIMEOUT_MS = 10000;
+
+    /** 적응형 타임아웃을 쓰기 위한 최소 표본 수 */
+    private static final int MIN_SAMPLES = 5;
+    private static final double P99_MULTIPLIER = 2.0;
+    private static final double EWMA_MULTIPLIER = 3.0;
+    private static final double EWMA_ALPHA = 0.2;
+
+    /** 히스토그램 구간 - 1ms부터 10%씩 늘려 약 1시간까지 */
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 160;
+
+    /** 표본이 이만큼 쌓이면 구간 값을 절반으로 줄여 최근 호출의 비중을 높임 */
+    private static final long DECAY_THRESHOLD = 1024;
+
+    private final Map<String, Sketch> sketches = new ConcurrentHashMap<>();
+
+    /**
+     * 📊 도구 지연 시간 스냅샷
+     */
+    public static final class Snapshot {
+        private final long calls;
+        private final long timeouts;
+        private final long ewmaMillis;
+        private final long p50Millis;
+        private final long p90Millis;
+        private final long p99Millis;
+        private final long maxMillis;
+
+        Snapshot(Sketch sketch) {
+            this.calls = sketch.calls;
+            this.timeouts = sketch.timeouts;
+            this.ewmaMillis = Math.round(sketch.ewma);
+            this.p50Millis = sketch.quantile(0.50);
+            this.p90Millis = sketch.quantile(0.90);
+            this.p99Millis = sketch.quantile(0.99);
+            this.maxMillis = sketch.max;
+        }
+
+        public long getCalls() { return calls; }
+        public long getTimeouts() { return timeouts; }
+        public long getEwmaMillis() { return ewmaMillis; }
+        public long getP50Millis() { return p50Millis; }
+        public long getP90Millis() { return p90Millis; }
+        public long getP99Millis() { return p99Millis; }
+        public long getMaxMillis() { return maxMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("calls %d, ewma %dms, p50 %dms, p90 %dms, p99 %dms, max %dms, timeouts %d",
+                calls, ewmaMillis, p50Millis, p90Millis, p99Millis, maxMillis, timeouts);
+        }
+    }
+
+    private static final class Sketch {
+        final long[] buckets = new long[BUCKETS];
+        long count;
+        long calls;
+        long timeouts;
+        double ewma;
+        long max;
+
+        void add(long millis) {
+            if (count >= DECAY_THRESHOLD) {
+                count = 0;
+                for (int i = 0; i < BUCKETS; i++) {
+                    buckets[i] /= 2;
+                    count += buckets[i];
+                }
+            }
+            buckets[bucket(millis)]++;
+            count++;
+            ewma = calls == 0 ? millis : EWMA_ALPHA * millis + (1 - EWMA_ALPHA) * ewma;
+            calls++;
+            max = Math.max(max, millis);
+        }
+
+        // 해당 분위가 속한 구간의 상한 (상대 오차 10% 이내)
+        long quantile(double q) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(max, (long) Math.ceil(Math.pow(GROWTH, i)));
+                }
+            }
+            return max;
+        }
+
+        static int bucket(long millis) {
+            if (millis <= 1) return 0;
+            return (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(millis) / LOG_GROWTH));
+        }
+    }
+
+    /**
+     * 호출 결과 기록
+     * @param timedOut 한도에 걸려 끝난 호출 - 실제 지연은 더 길었으므로 한도를 늘리는 쪽으로 반영
+     */
+    public void record(String serverName, String toolName, long millis, boolean timedOut) {
+        Sketch sketch = sketches.computeIfAbsent(key(serverName, toolName), key -> new Sketch());
+        synchronized (sketch) {
+            sketch.add(Math.max(0, millis));
+            if (timedOut) {
+                sketch.timeouts++;
+            }
+        }
+    }
+
+    /**
+     * 도구 호출 타임아웃 - max(p99 × 2, EWMA × 3)를 [floor, ceiling]으로 맞춤
+     * 표본이 부족하면 COLD_START_TIMEOUT_MS를 쓰되, 이미 타임아웃된 적이 있으면 그 표본으로 한도를 늘림
+     */
+    public long timeoutFor(String serverName, String toolName, long floorMillis, long ceilingMillis) {
+        long coldStart = Math.max(floorMillis, Math.min(ceilingMillis, COLD_START_TIMEOUT_MS));
+        Sketch sketch = sketches.get(key(serverName, toolName));
+        if (sketch == null) {
+            return coldStart;
+        }
+        long estimate;
+        synchronized (sketch) {
+            if (sketch.calls < MIN_SAMPLES && sketch.timeouts == 0) {
+                return coldStart;
+            }
+            estimate = (long) Math.max(sketch.quantile(0.99) * P99_MULTIPLIER, sketch.ewma * EWMA_MULTIPLIER);
+        }
+        return Math.max(floorMillis, Math.min(ceilingMillis, estimate));
+    }
+
+    /**
+     * 도구 지연 시간 조회 - 호출한 적 없으면 null
+     */
+    public Snapshot get(String serverName, String toolName) {
+        Sketch sketch = sketches.get(key(serverName, toolName));
+        if (sketch == null) return null;
+        synchronized (sketch) {
+            return new Snapshot(sketch);
+        }
+    }
+
+    /**
+     * 제거된 서버의 통계 정리
+     */
+    public void removeServer(String serverName) {
+        sketches.keySet().removeIf(key -> key.startsWith(serverName + '\u0000'));
+    }
+
+    private static String key(String serverName, String toolName) {
+        return serverName + '\u0000' + toolName;
+    }
+}
@@ -0,0 +1,110 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONObject;
+
+import com.fabrix.copilot.core.RequestDeadline;
+
+/**
+ * 📶 McpProgressTracker - tools/call 진행 알림과 취소 알림
+ *
+ * 도구 호출마다 progressToken을 발급해 params._meta로 보내고, 서버가 보내는 notifications/progress를
+ * 그 호출의 RequestDeadline으로 전달합니다 (채팅 화면의 상태 표시줄 등).
+ * 요청을 포기하면 notifications/cancelled를 보내 서버도 작업을 멈출 수 있게 합니다.
+ */
+final class McpProgressTracker {
+
+    private final String prefix;
+    private final AtomicLong tokens = new AtomicLong(1);
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    private static final class Registration {
+        final String toolName;
+        final RequestDeadline deadline;
+
+        Registration(String toolName, RequestDeadline deadline) {
+            this.toolName = toolName;
+            this.deadline = deadline;
+        }
+    }
+
+    McpProgressTracker(String serverName) {
+        this.prefix = serverName;
+    }
+
+    /**
+     * 진행 알림을 받을 토큰 발급 - 호출이 끝나면 unregister
+     */
+    String register(String toolName, RequestDeadline deadline) {
+        String token = prefix + "-" + tokens.getAndIncrement();
+        registrations.put(token, new Registration(toolName, deadline));
+        return token;
+    }
+
+    void unregister(String token) {
+        if (token != null) {
+            registrations.remove(token);
+        }
+    }
+
+    /**
+     * tools/call params에 붙일 _meta (progressToken)
+     */
+    static JSONObject meta(String token) {
+        JSONObject meta = new JSONObject();
+        meta.put("progressToken", token);
+        return meta;
+    }
+
+    /**
+     * notifications/progress 처리 - 진행 알림이면 true (등록되지 않은 토큰은 무시)
+     */
+    boolean handle(JSONObject notification) {
+        if (!"notifications/progress".equals(notification.optString("method"))) {
+            return false;
+        }
+        JSONObject params = notification.optJSONObject("params");
+        Object token = params != null ? params.opt("progressToken") : null;
+        Registration registration = token != null ? registrations.get(String.valueOf(token)) : null;
+        if (registration != null) {
+            registration.deadline.reportProgress("🛠️ " + registration.toolName + ": " + format(params));
+        }
+        return true;
+    }
+
+    /**
+     * 진행 표시 - total이 있으면 백분율, 없으면 진행 값, message가 있으면 덧붙임
+     */
+    static String format(JSONObject params) {
+        double progress = params.optDouble("progress", 0);
+        double total = params.optDouble("total", 0);
+        StringBuilder text = new StringBuilder();
+        if (total > 0) {
+            text.append(Math.round(progress * 100 / total)).append('%');
+        } else {
+            text.append(progress == Math.rint(progress) ? String.valueOf((long) progress) : String.valueOf(progress));
+        }
+        String message = params.optString("message", "");
+        if (!message.isEmpty()) {
+            text.append(" - ").append(message);
+        }
+        return text.toString();
+    }
+
+    /**
+     * 취소 알림 - 서버는 해당 요청의 처리를 멈추고 응답을 보내지 않아도 됨
+     */
+    static JSONObject cancelledNotification(long requestId, String reason) {
+        JSONObject params = new JSONObject();
+        params.put("requestId", requestId);
+        params.put("reason", reason);
+        JSONObject notification = new JSONObject();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", "notifications/cancelled");
+        notification.put("params", params);
+        return notification;
+    }
+}
@@ -0,0 +1,246 @@
+package com.fabrix.copilot.mcp;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.json.JSONObject;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+
+/**
+ * 🗃️ McpResultCache - 읽기 전용 MCP 도구 결과 캐시
+ *
+ * 서버가 readOnlyHint로 읽기 전용이라고 알린 도구(annotation이 없으면 알려진 조회 도구)의 결과를
+ * "서버 + 도구 + 정렬된 인자" 키로 보관합니다. 파일을 가리키는 결과는 파일 수정 시각/크기로,
+ * 나머지는 워크스페이스 변경 세대(IResourceChangeListener)와 짧은 보관 시간으로 유효성을 확인합니다.
+ * 읽기 전용이 아닌 도구가 실행되면 전체를 비웁니다.
+ */
+public class McpResultCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    /** 파일 스탬프로 확인할 수 있는 결과의 최대 보관 시간 */
+    private static final long STAMPED_MAX_AGE_MS = 300000;
+
+    /** 스탬프로 확인할 수 없는 결과(목록, 검색, git 상태)의 최대 보관 시간 - Eclipse 밖의 변경 대비 */
+    private static final long UNSTAMPED_MAX_AGE_MS = 30000;
+
+    /** readOnlyHint를 알리지 않는 서버를 위한 기본 읽기 전용 도구 */
+    private static final Set<String> KNOWN_READ_ONLY_TOOLS = new HashSet<>(Arrays.asList(
+        "read_file", "read_multiple_files", "list_directory", "directory_tree", "search_files",
+        "get_file_info", "list_allowed_directories",
+        "git_status", "git_log", "git_diff", "git_diff_staged", "git_diff_unstaged", "git_show"));
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // 워크스페이스가 바뀔 때마다 증가 - 스탬프 없는 결과는 저장 당시 세대와 같을 때만 유효
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private IResourceChangeListener workspaceListener;
+
+    /**
+     * 호출 전에 잡아 둔 키와 유효성 기준 - 호출 중에 파일이 바뀌면 저장된 결과가 바로 무효가 되도록 먼저 기록
+     */
+    public static final class Pending {
+        final String key;
+        final long generation;
+        final long storedAt;
+        final File file;
+        final long lastModified;
+        final long length;
+
+        Pending(String key, long generation, File file) {
+            this.key = key;
+            this.generation = generation;
+            this.storedAt = System.currentTimeMillis();
+            this.file = file;
+            this.lastModified = file != null ? file.lastModified() : 0;
+            this.length = file != null ? file.length() : 0;
+        }
+    }
+
+    private static final class Entry {
+        final String result;
+        final Pending stamp;
+
+        Entry(String result, Pending stamp) {
+            this.result = result;
+            this.stamp = stamp;
+        }
+
+        boolean isValid(long currentGeneration, long now) {
+            if (stamp.file != null) {
+                return now - stamp.storedAt < STAMPED_MAX_AGE_MS
+                    && stamp.file.lastModified() == stamp.lastModified && stamp.file.length() == stamp.length;
+            }
+            return stamp.generation == currentGeneration && now - stamp.storedAt < UNSTAMPED_MAX_AGE_MS;
+        }
+    }
+
+    /**
+     * 워크스페이스 변경 리스너 등록 - 워크스페이스가 없는 환경에서는 보관 시간과 파일 스탬프로만 확인
+     */
+    public synchronized void install() {
+        if (workspaceListener != null) return;
+        try {
+            workspaceListener = this::workspaceChanged;
+            ResourcesPlugin.getWorkspace().addResourceChangeListener(
+                workspaceListener, IResourceChangeEvent.POST_CHANGE);
+        } catch (Exception e) {
+            workspaceListener = null;
+            CopilotLogger.warn("Workspace listener not available for MCP result cache: " + e.getMessage());
+        }
+    }
+
+    public synchronized void uninstall() {
+        if (workspaceListener == null) return;
+        try {
+            ResourcesPlugin.getWorkspace().removeResourceChangeListener(workspaceListener);
+        } catch (Exception e) {
+            // 워크스페이스가 이미 종료됨
+        }
+        workspaceListener = null;
+    }
+
+    private void workspaceChanged(IResourceChangeEvent event) {
+        IResourceDelta delta = event.getDelta();
+        if (delta != null && hasContentChange(delta)) {
+            generation.incrementAndGet();
+        }
+    }
+
+    // 마커(문제/북마크)만 바뀐 변경은 무시
+    private static boolean hasContentChange(IResourceDelta delta) {
+        if (delta.getKind() == IResourceDelta.ADDED || delta.getKind() == IResourceDelta.REMOVED) {
+            return true;
+        }
+        if ((delta.getFlags() & ~IResourceDelta.MARKERS) != 0) {
+            return true;
+        }
+        for (IResourceDelta child : delta.getAffectedChildren()) {
+            if (hasContentChange(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 캐시할 수 있는 도구인지 - annotation의 readOnlyHint 우선, 없으면 알려진 조회 도구
+     */
+    public boolean isCacheable(String toolName, JSONObject annotations) {
+        if (annotations != null && annotations.has("readOnlyHint")) {
+            return annotations.optBoolean("readOnlyHint");
+        }
+        return KNOWN_READ_ONLY_TOOLS.contains(toolName);
+    }
+
+    /**
+     * 저장된 결과 조회 - 없거나 무효화되었으면 null
+     */
+    public synchronized String get(String serverName, String toolName, Map<String, Object> arguments) {
+        String key = key(serverName, toolName, arguments);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isValid(generation.get(), System.currentTimeMillis())) {
+            hits.incrementAndGet();
+            return entry.result;
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 도구 호출 직전에 키와 파일 스탬프 기록
+     * @param baseDirectory 상대 경로 인자의 기준 디렉토리 (서버 작업 디렉토리, null이면 워크스페이스 루트)
+     */
+    public Pending begin(String serverName, String toolName, Map<String, Object> arguments, File baseDirectory) {
+        return new Pending(key(serverName, toolName, arguments), generation.get(), stampFile(arguments, baseDirectory));
+    }
+
+    /**
+     * 호출 결과 저장 - 호출 중에 워크스페이스가 바뀌었으면 어느 시점의 결과인지 알 수 없으므로 저장하지 않음
+     */
+    public synchronized void complete(Pending pending, String result) {
+        if (result == null || (pending.file == null && pending.generation != generation.get())) return;
+        entries.put(pending.key, new Entry(result, pending));
+    }
+
+    /**
+     * 전체 무효화 - 쓰기 도구 실행, 서버 재시작 등
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 인자의 path가 실제 파일이면 그 파일로 유효성 확인
+     * 상대 경로는 Eclipse 프로세스의 작업 디렉토리가 아니라 서버 작업 디렉토리(없으면 워크스페이스 루트) 기준으로 찾습니다.
+     */
+    private static File stampFile(Map<String, Object> arguments, File baseDirectory) {
+        Object path = arguments != null ? arguments.get("path") : null;
+        if (path == null) return null;
+        File file = new File(String.valueOf(path));
+        if (!file.isAbsolute()) {
+            File base = baseDirectory != null ? baseDirectory : workspaceRoot();
+            if (base == null) return null;
+            file = new File(base, file.getPath());
+        }
+        return file.isFile() ? file : null;
+    }
+
+    private static File workspaceRoot() {
+        try {
+            return ResourcesPlugin.getWorkspace().getRoot().getLocation().toFile();
+        } catch (Exception e) {
+            return null; // 워크스페이스가 없는 환경
+        }
+    }
+
+    /**
+     * 정규화된 키 - 인자를 이름 순으로 정렬 (값은 그대로 - 경로/검색어의 앞뒤 공백도 다른 호출)
+     */
+    static String key(String serverName, String toolName, Map<String, Object> arguments) {
+        StringBuilder key = new StringBuilder();
+        key.append(serverName).append('\u0000').append(toolName).append('\u0000');
+        if (arguments != null) {
+            for (Map.Entry<String, Object> argument : new TreeMap<>(arguments).entrySet()) {
+                Object value = argument.getValue();
+                key.append(JSONObject.quote(argument.getKey())).append(':')
+                    .append(value instanceof String ? JSONObject.quote((String) value)
+                        : JSONObject.valueToString(value))
+                    .append(',');
+            }
+        }
+        return key.toString();
+    }
+}
@@ -10,15 +10,25 @@ public class McpServerConfig {
     private final List<String> args;
     private final Map<String, String> env;
     private final int priority;
+    private final int maxInFlight;
     
     public McpServerConfig(String name, String type, String command, 
                           List<String> args, Map<String, String> env, int priority) {
+        this(name, type, command, args, env, priority, 0);
+    }
+    
+    /**
+     * @param maxInFlight 이 서버에 동시에 보낼 수 있는 도구 호출 수 (0이면 설정의 기본값)
+     */
+    public McpServerConfig(String name, String type, String command, 
+                          List<String> args, Map<String, String> env, int priority, int maxInFlight) {
         this.name = name;
         this.type = type;
         this.command = command;
         this.args = args;
         this.env = env;
         this.priority = priority;
+        this.maxInFlight = maxInFlight;
     }
     
     // Getters
@@ -28,4 +38,5 @@ public class McpServerConfig {
     public List<String> getArgs() { return args; }
     public Map<String, String> getEnv() { return env; }
     public int getPriority() { return priority; }
+    public int getMaxInFlight() { return maxInFlight; }
 }
\ No newline at end of file
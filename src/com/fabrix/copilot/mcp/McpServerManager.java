@@ -1,17 +1,37 @@
 package com.fabrix.copilot.mcp;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.core.RequestTrace;
 import com.fabrix.copilot.utils.CopilotLogger;
 import com.fabrix.copilot.utils.PreferenceManager;
 
@@ -21,15 +41,69 @@ import com.fabrix.copilot.utils.PreferenceManager;
  * Model Context Protocol 서버들의 연결과 도구를 중앙에서 관리합니다.
  */
 public class McpServerManager {
+    /** 동시에 시작할 수 있는 서버 수 - 서버 프로세스(npx, node)가 한꺼번에 CPU를 다투지 않도록 제한 */
+    private static final int MAX_PARALLEL_STARTS = 4;
+
+    /** 도구를 가진 서버가 시작 중일 때 기다리는 최대 시간 */
+    private static final long DEFAULT_STARTUP_WAIT_MS = 30000;
+    private static final AtomicInteger STARTUP_THREADS = new AtomicInteger();
+
+    /** 유휴 서버 확인 주기 */
+    private static final long IDLE_CHECK_INTERVAL_MS = 60000;
+
     private static McpServerManager instance;
     private final Map<String, McpClient> clients;
     private final Map<String, McpServerConfig> configs;
     private final Map<String, List<McpTool>> availableTools;
+    // 도구 이름 → 서버 이름 (연결/해제/tools/list_changed 시 재구성, 이름이 겹치면 우선순위가 높은 서버)
+    // 재구성한 색인은 스냅샷에 담아 통째로 바꿈
+    private Map<String, String> toolIndex = Collections.emptyMap();
+
+    // 📸 상태 스냅샷 - 변화가 있을 때만 다시 만들고, 읽기는 volatile 읽기 한 번
+    private volatile McpSnapshot snapshot = McpSnapshot.EMPTY;
+    private long snapshotVersion;
+    private final Map<String, ServerState> serverStates = new ConcurrentHashMap<>();
+    private final List<SnapshotListener> snapshotListeners = new CopyOnWriteArrayList<>();
+
+    /** "서버/도구" 형식의 정규화된 도구 이름 구분자 - 이름이 겹치는 도구를 특정 서버로 지정할 때 사용 */
+    public static final String QUALIFIED_NAME_SEPARATOR = "/";
+
+    // 서버별 준비 완료 future - 서버가 준비되는 즉시 그 서버의 도구를 사용할 수 있음
+    private final Map<String, CompletableFuture<Ready>> readiness = new ConcurrentHashMap<>();
+    private final ExecutorService startupExecutor = Executors.newFixedThreadPool(MAX_PARALLEL_STARTS, r -> {
+        Thread t = new Thread(r, "FabriX-MCP-Startup-" + STARTUP_THREADS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 지연 시작 / 유휴 종료 - 카탈로그의 도구만 안내하고 프로세스는 첫 호출 때 띄움
+    private final McpToolCatalog toolCatalog;
+    private final McpResultCache resultCache = new McpResultCache();
+    private final Set<String> dormantServers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastUsed = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlightCalls = new ConcurrentHashMap<>();
+    // 서버별 동시 호출 제한 - 넘치는 호출은 대기열에서 기다리고, 대기열이 가득 차면 바로 실패
+    private final McpCallLimiter callLimiter = new McpCallLimiter();
+    private final McpLatencyStats latencyStats = new McpLatencyStats();
+    private final ScheduledExecutorService idleMonitor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "FabriX-MCP-Idle");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 상태 감시 - 죽은 프로세스/응답 없는 원격 서버를 백오프로 재연결하고 상태 변화를 리스너에 알림
+    private final McpHealthSupervisor healthSupervisor = new McpHealthSupervisor(this);
+    private final List<ServerStateListener> stateListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Object> restartLocks = new ConcurrentHashMap<>();
 
     private McpServerManager() {
         this.clients = new ConcurrentHashMap<>();
         this.configs = new ConcurrentHashMap<>();
         this.availableTools = new ConcurrentHashMap<>();
+        this.toolCatalog = new McpToolCatalog();
+        resultCache.install();
+        idleMonitor.scheduleWithFixedDelay(this::shutdownIdleServers,
+            IDLE_CHECK_INTERVAL_MS, IDLE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
         CopilotLogger.info("🔌 MCP Server Manager initialized.");
     }
 
@@ -47,21 +121,22 @@ public class McpServerManager {
         try {
             CopilotLogger.info("🔄 Adding MCP server: " + config.getName());
             
+            if ("http".equals(config.getType())) {
+                return addHttpServer(config);
+            }
+            if ("websocket".equals(config.getType())) {
+                return addWebSocketServer(config);
+            }
+            
             // Claude Desktop 스타일의 stdio 클라이언트 사용
-            McpStdioClient client = new McpStdioClient(config);
+            McpStdioClient client = new McpStdioClient(config, brokerSocket());
             
             if (client.connect()) {
                 // 기존 clients Map의 타입을 변경하거나, adapter 패턴 사용
-                clients.put(config.getName(), new McpClientAdapter(client));
-                configs.put(config.getName(), config);
-                
-                // 도구 목록 생성
-                Set<String> tools = client.getAvailableTools();
-                List<McpTool> mcpTools = tools.stream()
-                    .map(name -> new McpTool(name, getToolDescription(name), getToolParameters(name)))
-                    .collect(Collectors.toList());
-                
-                availableTools.put(config.getName(), mcpTools);
+                McpClientAdapter adapter = new McpClientAdapter(client);
+                dormantServers.remove(config.getName());
+                List<McpTool> mcpTools = registerClient(config, adapter, client);
+                saveToCatalog(config, adapter);
                 
                 CopilotLogger.info(String.format("✅ MCP server connected: %s (%d tools)", 
                     config.getName(), mcpTools.size()));
@@ -77,6 +152,514 @@ public class McpServerManager {
         }
     }
 
+    /**
+     * 🌐 HTTP 서버 추가 - Streamable HTTP 세션을 열고(안 되면 REST 엔드포인트) 도구 등록
+     */
+    private boolean addHttpServer(McpServerConfig config) {
+        McpHttpClient client = new McpHttpClient(config);
+        if (!client.connect()) {
+            return false;
+        }
+        dormantServers.remove(config.getName());
+        List<McpTool> mcpTools = registerClient(config, client, null);
+        
+        CopilotLogger.info(String.format("✅ HTTP MCP server connected: %s (%d tools)",
+            config.getName(), mcpTools.size()));
+        return true;
+    }
+
+    /**
+     * 🔗 WebSocket 서버 추가 - 연결 하나를 유지하며, 서버 알림이나 재연결로 도구 목록이 바뀌면 다시 등록
+     */
+    private boolean addWebSocketServer(McpServerConfig config) {
+        McpWebSocketClient client = new McpWebSocketClient(config);
+        if (!client.connect()) {
+            return false;
+        }
+        dormantServers.remove(config.getName());
+        List<McpTool> mcpTools = registerClient(config, client, null);
+        client.setToolsChangedListener(() -> {
+            if (clients.get(config.getName()) == client) {
+                updateServerTools(config.getName(), client);
+                rebuildToolIndex();
+            }
+        });
+        
+        CopilotLogger.info(String.format("✅ WebSocket MCP server connected: %s (%d tools)",
+            config.getName(), mcpTools.size()));
+        return true;
+    }
+
+    /**
+     * 💤 카탈로그로 서버 등록 - 프로세스 없이 저장된 도구만 안내하고, 첫 도구 호출 때 시작
+     */
+    private boolean addDormantServer(McpServerConfig config, McpToolCatalog.Entry entry) {
+        try {
+            McpStdioClient client = new McpStdioClient(config, brokerSocket());
+            client.seedTools(entry.getTools());
+            McpClientAdapter adapter = new McpClientAdapter(client);
+            dormantServers.add(config.getName());
+            List<McpTool> mcpTools = registerClient(config, adapter, client);
+
+            CopilotLogger.info(String.format("💤 MCP server registered from catalog: %s (%d tools, version %s)",
+                config.getName(), mcpTools.size(), entry.getServerVersion()));
+            return true;
+        } catch (Exception e) {
+            CopilotLogger.warn("Ignoring MCP tool catalog for " + config.getName() + ": " + e.getMessage());
+            dormantServers.remove(config.getName());
+            return false;
+        }
+    }
+
+    /**
+     * 클라이언트 등록 - stdioClient가 있으면 tools/list_changed 알림으로 도구 목록과 카탈로그 갱신
+     */
+    private List<McpTool> registerClient(McpServerConfig config, McpClient client, McpStdioClient stdioClient) {
+        clients.put(config.getName(), client);
+        configs.put(config.getName(), config);
+        lastUsed.put(config.getName(), System.currentTimeMillis());
+        
+        // 도구 목록 생성
+        List<McpTool> mcpTools = updateServerTools(config.getName(), client);
+        if (stdioClient != null) {
+            stdioClient.setToolsChangedListener(() -> {
+                if (clients.get(config.getName()) == client) {
+                    updateServerTools(config.getName(), client);
+                    rebuildToolIndex();
+                    saveToCatalog(config, client);
+                }
+            });
+        }
+        if (dormantServers.contains(config.getName())) {
+            publishState(config.getName(), ServerState.DORMANT);
+        } else {
+            healthSupervisor.watch(config.getName(), client);
+            publishState(config.getName(), ServerState.CONNECTED);
+        }
+        return mcpTools;
+    }
+
+    /**
+     * 연결된 서버의 tools/list 결과(이름, 설명, 입력 스키마)를 카탈로그에 저장 - 저장된 목록과 다르면 변경 내용 기록
+     */
+    private void saveToCatalog(McpServerConfig config, McpClient client) {
+        JSONArray tools = new JSONArray();
+        Set<String> names = new TreeSet<>(client.getAvailableTools());
+        for (String toolName : names) {
+            JSONObject tool = new JSONObject();
+            tool.put("name", toolName);
+            String description = client.getToolDescription(toolName);
+            if (description != null) {
+                tool.put("description", description);
+            }
+            JSONObject schema = client.getToolSchema(toolName);
+            if (schema != null) {
+                tool.put("inputSchema", schema);
+            }
+            JSONObject annotations = client.getToolAnnotations(toolName);
+            if (annotations != null) {
+                tool.put("annotations", annotations);
+            }
+            tools.put(tool);
+        }
+
+        McpToolCatalog.Entry previous = toolCatalog.get(config);
+        if (previous != null) {
+            Set<String> previousNames = new TreeSet<>();
+            for (int i = 0; i < previous.getTools().length(); i++) {
+                JSONObject tool = previous.getTools().optJSONObject(i);
+                if (tool != null) {
+                    previousNames.add(tool.optString("name"));
+                }
+            }
+            Set<String> added = new TreeSet<>(names);
+            added.removeAll(previousNames);
+            Set<String> removed = new TreeSet<>(previousNames);
+            removed.removeAll(names);
+            if (!added.isEmpty() || !removed.isEmpty()
+                    || !Objects.equals(previous.getServerVersion(), client.getServerVersion())) {
+                CopilotLogger.info("📚 Tool catalog revalidated for " + config.getName() + ": added " + added
+                    + ", removed " + removed + ", version " + previous.getServerVersion()
+                    + " → " + client.getServerVersion());
+            }
+        }
+        toolCatalog.put(config, tools, client.getServerVersion());
+    }
+
+    /**
+     * 💤 카탈로그로 등록만 되었거나 유휴 종료되어 프로세스가 없는 서버인지 여부
+     */
+    public boolean isDormant(String serverName) {
+        return dormantServers.contains(serverName);
+    }
+
+    /**
+     * 도구 호출 시작 - 실행 중 카운트를 올리고 프로세스가 없는 서버는 지금 시작
+     */
+    private void beginCall(String serverName, McpClient client) throws Exception {
+        // 유휴 종료와 같은 잠금 안에서 올려야 종료 판단 직후 시작된 호출이 내려간 서버를 쓰지 않음
+        synchronized (client) {
+            inFlightCalls.computeIfAbsent(serverName, key -> new AtomicInteger()).incrementAndGet();
+        }
+        try {
+            ensureStarted(serverName, client);
+        } catch (Exception e) {
+            endCall(serverName);
+            throw e;
+        }
+    }
+
+    private void endCall(String serverName) {
+        lastUsed.put(serverName, System.currentTimeMillis());
+        AtomicInteger count = inFlightCalls.get(serverName);
+        if (count != null) {
+            count.decrementAndGet();
+        }
+    }
+
+    private void ensureStarted(String serverName, McpClient client) throws Exception {
+        if (!dormantServers.contains(serverName)) {
+            return;
+        }
+        synchronized (client) {
+            if (!dormantServers.contains(serverName)) {
+                return;
+            }
+            CopilotLogger.info("🚀 Starting MCP server on first use: " + serverName);
+            long startedAt = System.currentTimeMillis();
+            if (!client.connect()) {
+                client.disconnect();
+                throw new Exception("MCP server failed to start: " + serverName);
+            }
+            dormantServers.remove(serverName);
+
+            // 카탈로그 이후 서버의 도구가 바뀌었을 수 있으므로 실제 목록으로 갱신 (색인은 상태 알림에서 재구성)
+            updateServerTools(serverName, client);
+            McpServerConfig config = configs.get(serverName);
+            if (config != null) {
+                saveToCatalog(config, client);
+            }
+            healthSupervisor.watch(serverName, client);
+            publishState(serverName, ServerState.CONNECTED);
+            CopilotLogger.info(String.format("✅ MCP server started on demand: %s (%dms)",
+                serverName, System.currentTimeMillis() - startedAt));
+        }
+    }
+
+    /**
+     * ⏲️ 유휴 서버 종료 - 설정한 시간 동안 호출이 없고 실행 중이거나 대기열에 있는 호출도 없는 서버의 프로세스를 내림
+     * 도구는 계속 안내되며 다음 호출 때 다시 시작됩니다.
+     * 💤 여부와 실행 중 호출 수는 beginCall/ensureStarted와 같은 클라이언트 잠금 안에서 확인합니다.
+     */
+    private void shutdownIdleServers() {
+        try {
+            int idleMinutes = PreferenceManager.getInstance().getMCPIdleShutdownMinutes();
+            if (idleMinutes <= 0) {
+                return;
+            }
+            long idleLimit = TimeUnit.MINUTES.toMillis(idleMinutes);
+            long now = System.currentTimeMillis();
+
+            for (Map.Entry<String, McpClient> entry : new HashMap<>(clients).entrySet()) {
+                String serverName = entry.getKey();
+                McpClient client = entry.getValue();
+                synchronized (client) {
+                    AtomicInteger inFlight = inFlightCalls.get(serverName);
+                    McpCallLimiter.Stats calls = callLimiter.getStats(serverName);
+                    long idleMillis = now - lastUsed.getOrDefault(serverName, now);
+                    if (dormantServers.contains(serverName) || !client.isConnected()
+                            || (inFlight != null && inFlight.get() > 0) || idleMillis < idleLimit
+                            || (calls != null && (calls.getInFlight() > 0 || calls.getQueued() > 0))) {
+                        continue;
+                    }
+                    CopilotLogger.info("💤 Stopping idle MCP server: " + serverName
+                        + " (idle " + TimeUnit.MILLISECONDS.toMinutes(idleMillis) + " min)");
+                    // 먼저 💤로 표시해야 상태 감시가 프로세스 종료를 장애로 보지 않음
+                    dormantServers.add(serverName);
+                    client.disconnect();
+                    publishState(serverName, ServerState.DORMANT);
+                }
+            }
+        } catch (Exception e) {
+            CopilotLogger.error("Idle MCP server check failed", e);
+        }
+    }
+
+    /**
+     * 🚀 서버 비동기 시작 - 제한된 스레드 풀에서 연결하고, 준비되면(initialize + tools/list 완료) 완료되는 future 반환
+     * 같은 서버가 이미 시작 중이거나 준비된 경우 기존 future를 반환합니다.
+     */
+    public CompletableFuture<Ready> startServer(McpServerConfig config) {
+        CompletableFuture<Ready> started = new CompletableFuture<>();
+        CompletableFuture<Ready> existing = readiness.putIfAbsent(config.getName(), started);
+        if (existing != null && !existing.isCompletedExceptionally()) {
+            return existing;
+        }
+        if (existing != null) {
+            // 이전 시작이 실패한 서버는 다시 시도
+            readiness.put(config.getName(), started);
+        }
+
+        // 같은 설정으로 저장된 도구 목록이 있으면 서버를 기다리지 않고 바로 안내
+        // 지연 시작이면 첫 호출 때, 아니면 지금 백그라운드에서 서버를 띄워 목록을 다시 검증
+        // HTTP/WebSocket 서버는 띄울 프로세스가 없으므로 카탈로그를 쓰지 않고 바로 연결
+        boolean remote = "http".equals(config.getType()) || "websocket".equals(config.getType());
+        McpToolCatalog.Entry entry = remote ? null : toolCatalog.get(config);
+        if (entry != null && addDormantServer(config, entry)) {
+            started.complete(new Ready(config.getName(), getServerTools(config.getName()).size(), 0));
+            if (!PreferenceManager.getInstance().isMCPLazyStartEnabled()) {
+                startupExecutor.execute(() -> {
+                    McpClient client = clients.get(config.getName());
+                    try {
+                        if (client != null) {
+                            ensureStarted(config.getName(), client);
+                        }
+                    } catch (Exception e) {
+                        CopilotLogger.warn("Background start failed, will retry on first use: " + e.getMessage());
+                    }
+                });
+            }
+            return started;
+        }
+
+        startupExecutor.execute(() -> {
+            long startedAt = System.currentTimeMillis();
+            try {
+                if (addServer(config)) {
+                    started.complete(new Ready(config.getName(), getServerTools(config.getName()).size(),
+                        System.currentTimeMillis() - startedAt));
+                } else {
+                    started.completeExceptionally(new Exception("MCP server failed to start: " + config.getName()));
+                }
+            } catch (Exception e) {
+                started.completeExceptionally(e);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * 여러 서버를 동시에 시작 - 모든 서버의 시작 시도가 끝나면 완료 (실패한 서버가 있어도 정상 완료)
+     */
+    public CompletableFuture<Void> startServers(List<McpServerConfig> serverConfigs) {
+        CompletableFuture<?>[] futures = serverConfigs.stream()
+            .map(config -> startServer(config).handle((ready, error) -> ready))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * 서버 준비 future 조회 - 시작한 적 없는 서버는 null
+     */
+    public CompletableFuture<Ready> whenReady(String serverName) {
+        return readiness.get(serverName);
+    }
+
+    /**
+     * 아직 시작 중인 서버가 있는지 여부
+     */
+    public boolean isStarting() {
+        return readiness.values().stream().anyMatch(future -> !future.isDone());
+    }
+
+    /**
+     * 도구를 가진 서버가 아직 시작 중이면 준비될 때까지 대기 - 서버가 하나 준비될 때마다 다시 조회
+     */
+    private ToolRoute awaitTool(String toolName, RequestDeadline deadline) throws Exception {
+        ToolRoute route = resolveTool(toolName);
+        while (route == null) {
+            CompletableFuture<?>[] pending = readiness.values().stream()
+                .filter(future -> !future.isDone())
+                .toArray(CompletableFuture[]::new);
+            if (pending.length == 0) {
+                return null;
+            }
+
+            long timeoutMillis = deadline.timeoutFor("MCP server startup", DEFAULT_STARTUP_WAIT_MS);
+            try {
+                CompletableFuture.anyOf(pending).handle((ready, error) -> ready)
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return null;
+            }
+            route = resolveTool(toolName);
+        }
+        return route;
+    }
+
+    private List<McpTool> updateServerTools(String serverName, McpClient client) {
+        List<McpTool> mcpTools = client.getAvailableTools().stream()
+            .sorted()
+            .map(name -> describeTool(client, name))
+            .collect(Collectors.toList());
+        availableTools.put(serverName, mcpTools);
+        return mcpTools;
+    }
+
+    /**
+     * 서버가 알려준 설명과 입력 스키마로 도구 정보 생성 - 없으면 기본 설명/파라미터 사용
+     */
+    private McpTool describeTool(McpClient client, String toolName) {
+        String description = client.getToolDescription(toolName);
+        JSONObject schema = client.getToolSchema(toolName);
+        return new McpTool(toolName,
+            description != null ? description : getToolDescription(toolName),
+            schema != null ? schemaParameters(schema) : getToolParameters(toolName),
+            schema);
+    }
+
+    /**
+     * 입력 스키마의 파라미터 이름 - 필수 파라미터를 스키마 순서대로 먼저, 나머지는 이름 순
+     */
+    private static String schemaParameters(JSONObject schema) {
+        Set<String> names = new LinkedHashSet<>();
+        JSONArray required = schema.optJSONArray("required");
+        if (required != null) {
+            for (int i = 0; i < required.length(); i++) {
+                names.add(required.optString(i));
+            }
+        }
+        JSONObject properties = schema.optJSONObject("properties");
+        if (properties != null) {
+            names.addAll(new TreeSet<>(properties.keySet()));
+        }
+        return String.join(",", names);
+    }
+
+    /**
+     * 🗂️ 도구 → 서버 색인 재구성 - 서버 등록/해제, 상태 변화, 도구 목록 변경 시 호출
+     * 사용 가능한 서버를 먼저, 그다음 우선순위(값이 작을수록 우선), 이름 순으로 훑어 먼저 등록된 서버가 이름을 가지므로
+     * 같은 상태에서는 라우팅이 항상 같고, 우선 서버가 끊긴 동안에는 같은 도구를 가진 다른 서버로 보냅니다.
+     * 밀려난 서버의 도구는 "서버/도구" 형식으로 호출할 수 있습니다.
+     */
+    private synchronized void rebuildToolIndex() {
+        List<String> serverNames = serversByPriority();
+        serverNames.sort(Comparator.comparing((String name) -> {
+            McpClient client = clients.get(name);
+            return client == null || !isAvailable(name, client);
+        }));
+
+        Map<String, String> rebuilt = new HashMap<>();
+        for (String serverName : serverNames) {
+            McpClient client = clients.get(serverName);
+            if (client == null) continue;
+            for (String toolName : client.getAvailableTools()) {
+                String owner = rebuilt.putIfAbsent(toolName, serverName);
+                if (owner != null && !owner.equals(serverName)) {
+                    CopilotLogger.warn("Tool name collision: " + toolName + " (" + owner + ", " + serverName
+                        + ") - routed to " + owner + ", use " + qualify(serverName, toolName) + " for the other");
+                }
+            }
+        }
+
+        toolIndex = rebuilt;
+        CopilotLogger.debug("Tool index rebuilt: " + rebuilt.size() + " tools on " + serverNames.size() + " servers");
+        refreshSnapshot();
+    }
+
+    // 등록된 서버 이름 - 우선순위(값이 작을수록 우선), 이름 순
+    private List<String> serversByPriority() {
+        List<String> serverNames = new ArrayList<>(clients.keySet());
+        serverNames.sort(Comparator.comparingInt((String name) -> {
+            McpServerConfig config = configs.get(name);
+            return config != null ? config.getPriority() : Integer.MAX_VALUE;
+        }).thenComparing(Comparator.naturalOrder()));
+        return serverNames;
+    }
+
+    /**
+     * 📸 스냅샷 다시 만들기 - 서버 등록/해제, 상태 변화, 도구 목록 변경 시 호출
+     */
+    private void refreshSnapshot() {
+        McpSnapshot current;
+        synchronized (this) {
+            // 💤 서버는 프로세스가 없어도 첫 호출 때 시작되므로 사용 가능한 서버로 집계
+            Map<String, List<McpTool>> connectedTools = new LinkedHashMap<>();
+            for (String serverName : new TreeSet<>(clients.keySet())) {
+                McpClient client = clients.get(serverName);
+                if (client != null && isAvailable(serverName, client)) {
+                    connectedTools.put(serverName, availableTools.getOrDefault(serverName, new ArrayList<>()));
+                }
+            }
+            current = new McpSnapshot(++snapshotVersion, new TreeMap<>(serverStates), connectedTools,
+                toolIndex, configs.size());
+            snapshot = current;
+        }
+        for (SnapshotListener listener : snapshotListeners) {
+            try {
+                listener.snapshotChanged(current);
+            } catch (Exception e) {
+                CopilotLogger.error("MCP snapshot listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * 📸 현재 상태 스냅샷 - 상태와 도구 목록을 함께 볼 때 한 번만 읽어 같은 시점의 값을 사용
+     */
+    public McpSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 📸 스냅샷 변경 리스너 등록 - 도구 목록 등에서 파생한 값을 캐시하는 쪽에서 사용
+     */
+    public void addSnapshotListener(SnapshotListener listener) {
+        snapshotListeners.add(listener);
+    }
+
+    public void removeSnapshotListener(SnapshotListener listener) {
+        snapshotListeners.remove(listener);
+    }
+
+    /**
+     * "서버/도구" 형식의 도구 이름 생성
+     */
+    public static String qualify(String serverName, String toolName) {
+        return serverName + QUALIFIED_NAME_SEPARATOR + toolName;
+    }
+
+    /**
+     * 도구 이름으로 실행할 서버 결정 - "서버/도구" 형식이면 해당 서버, 아니면 색인 조회 (없으면 null)
+     * 색인의 서버가 그사이 끊겼으면 같은 도구를 가진 사용 가능한 다른 서버를 우선순위 순으로 고릅니다.
+     */
+    private ToolRoute resolveTool(String toolName) {
+        int separator = toolName.indexOf(QUALIFIED_NAME_SEPARATOR);
+        if (separator > 0) {
+            String serverName = toolName.substring(0, separator);
+            McpClient client = clients.get(serverName);
+            if (client != null) {
+                return new ToolRoute(serverName, toolName.substring(separator + 1), client);
+            }
+        }
+
+        String serverName = snapshot.getServerForTool(toolName);
+        McpClient client = serverName != null ? clients.get(serverName) : null;
+        if (client != null && !isAvailable(serverName, client)) {
+            for (String candidate : serversByPriority()) {
+                McpClient other = clients.get(candidate);
+                if (other != null && !candidate.equals(serverName) && isAvailable(candidate, other)
+                        && other.getAvailableTools().contains(toolName)) {
+                    CopilotLogger.debug("Tool " + toolName + " routed to " + candidate + " while " + serverName + " is unavailable");
+                    return new ToolRoute(candidate, toolName, other);
+                }
+            }
+        }
+        return client != null ? new ToolRoute(serverName, toolName, client) : null;
+    }
+
+    private static final class ToolRoute {
+        final String serverName;
+        final String toolName;
+        final McpClient client;
+
+        ToolRoute(String serverName, String toolName, McpClient client) {
+            this.serverName = serverName;
+            this.toolName = toolName;
+            this.client = client;
+        }
+    }
+
     private boolean verifyNpxCommand(McpServerConfig config) {
         try {
             // npx 사용 가능 여부 확인
@@ -115,6 +698,7 @@ public class McpServerManager {
      * MCP 서버 제거
      */
     public void removeServer(String serverName) {
+        healthSupervisor.forget(serverName);
         McpClient client = clients.remove(serverName);
         if (client != null) {
             client.disconnect();
@@ -122,8 +706,79 @@ public class McpServerManager {
         }
         configs.remove(serverName);
         availableTools.remove(serverName);
+        readiness.remove(serverName);
+        dormantServers.remove(serverName);
+        lastUsed.remove(serverName);
+        inFlightCalls.remove(serverName);
+        callLimiter.remove(serverName);
+        latencyStats.removeServer(serverName);
+        McpStderrLog.getInstance().removeServer(serverName);
+        restartLocks.remove(serverName);
+        publishState(serverName, ServerState.REMOVED);
     }
     
+    /**
+     * 🔄 서버 재시작 - 설정은 유지한 채 기존 연결을 닫고 다시 연결 (상태 감시와 수동 새로고침에서 사용)
+     * 다른 스레드가 이미 다시 연결했으면 그대로 성공으로 봅니다.
+     */
+    boolean restartServer(String serverName) {
+        synchronized (restartLocks.computeIfAbsent(serverName, key -> new Object())) {
+            McpServerConfig config = configs.get(serverName);
+            McpClient current = clients.get(serverName);
+            if (config == null) {
+                return false;
+            }
+            if (current != null && current.isConnected()) {
+                return true;
+            }
+            if (current != null) {
+                current.disconnect();
+            }
+            return addServer(config);
+        }
+    }
+
+    McpClient getRegisteredClient(String serverName) {
+        return clients.get(serverName);
+    }
+
+    /**
+     * 프로세스/연결이 살아 있어야 하는 서버인지 - 제거되었거나 💤 상태면 false
+     */
+    boolean expectsRunning(String serverName) {
+        return clients.containsKey(serverName) && !dormantServers.contains(serverName);
+    }
+
+    /**
+     * 📣 서버 상태 변화 리스너 등록 - 화면은 getStatus()를 주기적으로 조회하는 대신 변화가 있을 때만 갱신
+     * 리스너는 감시/시작 스레드에서 호출되므로 UI 갱신은 asyncExec로 넘겨야 합니다.
+     */
+    public void addServerStateListener(ServerStateListener listener) {
+        stateListeners.add(listener);
+    }
+
+    public void removeServerStateListener(ServerStateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    void publishState(String serverName, ServerState state) {
+        CopilotLogger.debug("MCP server state: " + serverName + " → " + state);
+        if (state == ServerState.REMOVED) {
+            serverStates.remove(serverName);
+        } else {
+            serverStates.put(serverName, state);
+        }
+        // 프로세스 종료나 연결 끊김으로 사용 가능 여부가 바뀌므로 색인도 다시 만듦
+        rebuildToolIndex();
+        for (ServerStateListener listener : stateListeners) {
+            try {
+                listener.serverStateChanged(serverName, state);
+            } catch (Exception e) {
+                CopilotLogger.error("MCP server state listener failed", e);
+            }
+        }
+    }
+
     /**
      * 모든 서버 새로고침
      */
@@ -136,14 +791,12 @@ public class McpServerManager {
             McpClient client = entry.getValue();
             
             try {
-                if (!client.isConnected()) {
+                // 프로세스가 없는 💤 서버는 다음 호출 때 시작되므로 재연결 대상이 아님
+                if (!client.isConnected() && !dormantServers.contains(serverName)) {
                     CopilotLogger.info("Reconnecting server: " + serverName);
-                    removeServer(serverName);
-                    
-                    // 설정이 있으면 재연결 시도
-                    McpServerConfig config = configs.get(serverName);
-                    if (config != null) {
-                        addServer(config);
+                    if (!restartServer(serverName)) {
+                        // 실패하면 상태 감시가 백오프로 계속 시도
+                        healthSupervisor.reconnectNow(serverName);
                     }
                 }
             } catch (Exception e) {
@@ -155,29 +808,31 @@ public class McpServerManager {
     }
 
     /**
-     * 로컬 MCP 설정 로드
+     * 로컬 MCP 설정 로드 - 설정된 서버를 동시에 시작하고, 모든 시작 시도가 끝나면 완료되는 future 반환
      */
-    public void loadLocalMCPConfig() {
+    public CompletableFuture<Void> loadLocalMCPConfig() {
         try {
             PreferenceManager prefs = PreferenceManager.getInstance();
             String configJson = prefs.getValue("mcp.config.json", "");
             
             if (!configJson.isEmpty() && !configJson.equals("{}")) {
                 CopilotLogger.info("Parsing local MCP configuration...");
-                parseAndLoadMCPConfig(configJson);
+                return parseAndLoadMCPConfig(configJson);
             } else {
                 CopilotLogger.info("No local MCP configuration found, setting up defaults.");
-                setupDefaultLocalMCP();
+                return setupDefaultLocalMCP();
             }
         } catch (Exception e) {
             CopilotLogger.error("❌ Failed to load local MCP config", e);
+            return CompletableFuture.completedFuture(null);
         }
     }
     
     /**
      * MCP 설정 JSON 파싱 및 로드
      */
-    private void parseAndLoadMCPConfig(String configJson) {
+    private CompletableFuture<Void> parseAndLoadMCPConfig(String configJson) {
+        List<McpServerConfig> serverConfigs = new ArrayList<>();
         try {
             JSONObject config = new JSONObject(configJson);
             
@@ -188,6 +843,21 @@ public class McpServerManager {
                 for (String serverName : servers.keySet()) {
                     JSONObject serverConfig = servers.getJSONObject(serverName);
                     
+                    // "url" 항목은 원격 서버 (ws://, wss://는 WebSocket, 그 외는 HTTP) - headers는 요청 헤더로 사용
+                    if (serverConfig.has("url")) {
+                        String url = serverConfig.getString("url");
+                        serverConfigs.add(new McpServerConfig(
+                            serverName,
+                            url.startsWith("ws://") || url.startsWith("wss://") ? "websocket" : "http",
+                            null,
+                            Collections.singletonList(url),
+                            parseEnv(serverConfig.optJSONObject("headers")),
+                            1,
+                            serverConfig.optInt("maxInFlight", 0)
+                        ));
+                        continue;
+                    }
+                    
                     String command = serverConfig.getString("command");
                     JSONArray argsArray = serverConfig.optJSONArray("args");
                     JSONObject envObject = serverConfig.optJSONObject("env");
@@ -201,15 +871,18 @@ public class McpServerManager {
                         command,
                         args,
                         env,
-                        1
+                        1,
+                        serverConfig.optInt("maxInFlight", 0) // 서버별 동시 호출 제한 (없으면 설정 기본값)
                     );
                     
-                    addServer(mcpConfig);
+                    serverConfigs.add(mcpConfig);
                 }
             }
         } catch (Exception e) {
             CopilotLogger.error("Failed to parse MCP config JSON", e);
         }
+        
+        return startServers(serverConfigs);
     }
     
     /**
@@ -241,7 +914,7 @@ public class McpServerManager {
     /**
      * 기본 로컬 MCP 설정
      */
-    private void setupDefaultLocalMCP() {
+    private CompletableFuture<Void> setupDefaultLocalMCP() {
         // 파일시스템 MCP 서버
         McpServerConfig fsConfig = new McpServerConfig(
             "mcp-filesystem", 
@@ -262,13 +935,15 @@ public class McpServerManager {
             1
         );
         
+        List<McpServerConfig> defaults = new ArrayList<>();
         if (!clients.containsKey(fsConfig.getName())) {
-            addServer(fsConfig);
+            defaults.add(fsConfig);
         }
         
         if (!clients.containsKey(gitConfig.getName())) {
-            addServer(gitConfig);
+            defaults.add(gitConfig);
         }
+        return startServers(defaults);
     }
     
     /**
@@ -277,6 +952,7 @@ public class McpServerManager {
     public void shutdown() {
         CopilotLogger.info("🔌 Shutting down all MCP servers...");
         new ArrayList<>(clients.keySet()).forEach(this::removeServer);
+        resultCache.uninstall();
         CopilotLogger.info("✅ All MCP servers shut down.");
     }
 
@@ -284,16 +960,303 @@ public class McpServerManager {
      * 도구 실행
      */
     public String executeTool(String toolName, Map<String, Object> parameters, String context) throws Exception {
-        // 연결된 서버 중에서 해당 도구를 지원하는 서버 찾기
-        for (Map.Entry<String, McpClient> entry : clients.entrySet()) {
-            McpClient client = entry.getValue();
-            if (client.isConnected() && client.hasTool(toolName)) {
-                CopilotLogger.info("🛠️ Executing tool: " + toolName + " on server: " + entry.getKey());
-                return client.callTool(toolName, parameters);
+        return executeTool(toolName, parameters, context, RequestDeadline.unbounded());
+    }
+    
+    /**
+     * ⏳ 데드라인 인식 도구 실행 - 남은 요청 예산으로 RPC 타임아웃을 정하고, 소진 시 즉시 실패
+     */
+    public String executeTool(String toolName, Map<String, Object> parameters, String context,
+            RequestDeadline deadline) throws Exception {
+        deadline.check("MCP tool " + toolName);
+        
+        // 색인에서 해당 도구를 가진 서버 조회 (연결 상태는 선택된 서버만 확인, 시작 중인 서버는 준비될 때까지 대기)
+        ToolRoute route = awaitTool(toolName, deadline);
+        if (route == null || !isAvailable(route.serverName, route.client)) {
+            throw new Exception("Tool not found or no connected server supports it: " + toolName);
+        }
+        
+        CopilotLogger.info("🛠️ Executing tool: " + route.toolName + " on server: " + route.serverName);
+        try (RequestTrace.Span span = deadline.getTrace().open("MCP " + route.toolName)) {
+            span.set("server", route.serverName);
+            if (parameters != null) {
+                span.add("bytesSent", new JSONObject(parameters).toString().getBytes(StandardCharsets.UTF_8).length);
+            }
+            
+            // 읽기 전용 도구는 워크스페이스가 바뀌지 않았으면 저장된 결과 사용 (서버 왕복 생략)
+            boolean cacheable = isResultCacheable(route);
+            if (cacheable) {
+                String cached = resultCache.get(route.serverName, route.toolName, parameters);
+                if (cached != null) {
+                    CopilotLogger.debug("🗃️ Cached result: " + route.toolName);
+                    span.set("cache", "hit");
+                    span.add("bytesReceived", cached.getBytes(StandardCharsets.UTF_8).length);
+                    return cached;
+                }
+            }
+            try {
+                McpCallLimiter.Permit permit = acquireCallSlot(route.serverName, deadline);
+                try {
+                    beginCall(route.serverName, route.client);
+                    try {
+                        McpResultCache.Pending pending = cacheable
+                            ? resultCache.begin(route.serverName, route.toolName, parameters,
+                                workingDirectory(route.serverName)) : null;
+                        String result = callWithAdaptiveTimeout(route, parameters, deadline, span);
+                        if (result != null) {
+                            span.add("bytesReceived", result.getBytes(StandardCharsets.UTF_8).length);
+                        }
+                        recordResult(pending, result);
+                        return result;
+                    } finally {
+                        endCall(route.serverName);
+                    }
+                } finally {
+                    permit.close();
+                }
+            } catch (Exception e) {
+                span.fail(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 🚦 서버 호출 허가 - 서버 설정의 maxInFlight(없으면 설정 기본값)만큼 동시에 보내고 나머지는 대기
+     */
+    private McpCallLimiter.Permit acquireCallSlot(String serverName, RequestDeadline deadline) throws Exception {
+        PreferenceManager prefs = PreferenceManager.getInstance();
+        McpServerConfig config = configs.get(serverName);
+        int maxInFlight = config != null && config.getMaxInFlight() > 0
+            ? config.getMaxInFlight() : prefs.getMCPMaxInFlightCalls();
+        return callLimiter.acquire(serverName, maxInFlight, prefs.getMCPMaxQueuedCalls(), deadline);
+    }
+
+    /**
+     * ⏱️ 도구별 적응형 타임아웃으로 호출 - 관측한 지연 시간으로 한도를 정하고 결과를 다시 통계에 반영
+     * 한도에 걸린 호출은 TimeoutException으로 바꾸고, 요청 취소나 요청 예산 소진은 그대로 전달합니다.
+     */
+    private String callWithAdaptiveTimeout(ToolRoute route, Map<String, Object> parameters,
+            RequestDeadline deadline, RequestTrace.Span span) throws Exception {
+        long timeoutMillis = getToolTimeoutMillis(route.serverName, route.toolName);
+        span.set("timeoutMs", timeoutMillis);
+        RequestDeadline callDeadline = deadline.limitTo(timeoutMillis);
+        long start = System.currentTimeMillis();
+        try {
+            String result = route.client.callTool(route.toolName, parameters, callDeadline);
+            latencyStats.record(route.serverName, route.toolName, System.currentTimeMillis() - start, false);
+            return result;
+        } catch (Exception e) {
+            if (deadline.isCancelled() || deadline.isExpired() || !callDeadline.isExpired()) {
+                throw e;
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            latencyStats.record(route.serverName, route.toolName, elapsed, true);
+            CopilotLogger.warn("⏱️ MCP tool timed out: " + route.toolName + " (" + elapsed + "ms, limit "
+                + timeoutMillis + "ms)");
+            TimeoutException timeout = new TimeoutException("MCP tool " + route.toolName + " timed out after "
+                + timeoutMillis + "ms on " + route.serverName);
+            timeout.initCause(e);
+            throw timeout;
+        }
+    }
+
+    /**
+     * ⏱️ 배치 호출 - 도구별 한도의 합으로 보내고, 배치 왕복 시간을 각 호출의 지연으로 통계에 반영
+     * 응답이 함께 도착하므로 왕복 시간은 각 호출 지연의 상한입니다. 배치로만 호출되는 도구도 표본이 쌓입니다.
+     */
+    private List<String> callBatchWithAdaptiveTimeout(String serverName, McpClient client,
+            List<ToolInvocation> batch, RequestDeadline deadline) throws Exception {
+        RequestDeadline batchDeadline = deadline.limitTo(batchTimeoutMillis(serverName, batch));
+        long start = System.currentTimeMillis();
+        try {
+            List<String> results = client.callTools(batch, batchDeadline);
+            long elapsed = System.currentTimeMillis() - start;
+            for (ToolInvocation invocation : batch) {
+                latencyStats.record(serverName, invocation.getToolName(), elapsed, false);
+            }
+            return results;
+        } catch (Exception e) {
+            if (!deadline.isCancelled() && !deadline.isExpired() && batchDeadline.isExpired()) {
+                long elapsed = System.currentTimeMillis() - start;
+                for (ToolInvocation invocation : batch) {
+                    latencyStats.record(serverName, invocation.getToolName(), elapsed, true);
+                }
+                CopilotLogger.warn("⏱️ MCP batch timed out on " + serverName + " (" + elapsed + "ms, "
+                    + batch.size() + " calls)");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * ⏱️ 도구 호출 타임아웃 - 관측한 p99/EWMA 기반, 설정의 하한/상한 사이 (표본이 부족하면 예전 고정 타임아웃)
+     */
+    public long getToolTimeoutMillis(String serverName, String toolName) {
+        PreferenceManager prefs = PreferenceManager.getInstance();
+        long ceiling = prefs.getMCPToolTimeoutMaxSeconds() * 1000L;
+        long floor = Math.min(ceiling, prefs.getMCPToolTimeoutMinSeconds() * 1000L);
+        return latencyStats.timeoutFor(serverName, toolName, floor, ceiling);
+    }
+
+    /**
+     * 📊 도구의 관측 지연 시간 (호출한 적 없으면 null)
+     */
+    public McpLatencyStats.Snapshot getToolLatency(String serverName, String toolName) {
+        return latencyStats.get(serverName, toolName);
+    }
+
+    /**
+     * 📜 서버의 최근 stderr (stdio 서버가 아니거나 출력이 없으면 null)
+     */
+    public McpStderrLog.Snapshot getServerStderr(String serverName, int maxLines) {
+        return McpStderrLog.getInstance().get(serverName, maxLines);
+    }
+
+    /**
+     * 📊 서버의 동시 호출/대기열 지표 (호출한 적 없으면 null)
+     */
+    public McpCallLimiter.Stats getCallStats(String serverName) {
+        return callLimiter.getStats(serverName);
+    }
+
+    /**
+     * 배치 타임아웃 - 서버가 순서대로 처리해도 되도록 도구별 타임아웃의 합 (상한까지)
+     */
+    private long batchTimeoutMillis(String serverName, List<ToolInvocation> batch) {
+        long total = 0;
+        for (ToolInvocation invocation : batch) {
+            total += getToolTimeoutMillis(serverName, invocation.getToolName());
+        }
+        return Math.min(total, PreferenceManager.getInstance().getMCPToolTimeoutMaxSeconds() * 1000L);
+    }
+
+    // 공유 브로커 소켓 - 설정에서 켠 경우에만 (꺼져 있으면 서버 프로세스를 직접 시작)
+    private static Path brokerSocket() {
+        return PreferenceManager.getInstance().isMCPBrokerEnabled() ? McpBroker.defaultSocketPath() : null;
+    }
+
+    private boolean isResultCacheable(ToolRoute route) {
+        return PreferenceManager.getInstance().isMCPResultCacheEnabled()
+            && resultCache.isCacheable(route.toolName, route.client.getToolAnnotations(route.toolName));
+    }
+
+    /**
+     * 읽기 전용 도구 결과는 저장하고, 그 밖의 도구(파일 쓰기, 커밋 등)가 실행되면 저장된 결과를 모두 버림
+     */
+    private void recordResult(McpResultCache.Pending pending, String result) {
+        if (pending != null) {
+            resultCache.complete(pending, result);
+        } else {
+            resultCache.invalidateAll();
+        }
+    }
+
+    // stdio 서버 프로세스의 작업 디렉토리 (원격 서버는 null) - 도구 인자의 상대 경로 기준
+    private File workingDirectory(String serverName) {
+        McpServerConfig config = configs.get(serverName);
+        return config != null && "stdio".equalsIgnoreCase(config.getType())
+            ? McpStdioClient.workingDirectory(config) : null;
+    }
+
+    // 재연결 중이거나 포기한 서버는 HTTP처럼 연결 상태가 남아 있어도 사용하지 않음
+    private boolean isAvailable(String serverName, McpClient client) {
+        ServerState state = serverStates.get(serverName);
+        if (state == ServerState.RECONNECTING || state == ServerState.FAILED) {
+            return false;
+        }
+        return client.isConnected() || dormantServers.contains(serverName);
+    }
+
+    /**
+     * 📦 여러 도구 실행 - 서버별로 묶어 JSON-RPC 배치 한 번으로 보내고 결과를 호출 순서대로 반환
+     * 다중 도구 계획이 서버마다 한 번의 왕복으로 끝납니다.
+     */
+    public List<String> executeTools(List<ToolInvocation> invocations, String context,
+            RequestDeadline deadline) throws Exception {
+        deadline.check("MCP tools batch");
+        
+        List<ToolRoute> routes = new ArrayList<>();
+        for (ToolInvocation invocation : invocations) {
+            ToolRoute route = awaitTool(invocation.getToolName(), deadline);
+            if (route == null || !isAvailable(route.serverName, route.client)) {
+                throw new Exception("Tool not found or no connected server supports it: " + invocation.getToolName());
+            }
+            routes.add(route);
+        }
+        // 쓰기 도구가 섞인 배치는 같은 배치의 읽기 결과도 바뀔 수 있으므로 저장된 결과를 쓰지 않음
+        boolean readOnlyBatch = routes.stream().allMatch(this::isResultCacheable);
+        
+        // 서버별로 호출 묶기 (원래 순서 기억, 정규화된 이름은 서버의 도구 이름으로 변환)
+        // 저장된 결과가 있는 읽기 전용 호출은 배치에서 제외
+        String[] results = new String[invocations.size()];
+        Map<String, List<Integer>> indexesByServer = new LinkedHashMap<>();
+        Map<String, List<ToolInvocation>> batches = new HashMap<>();
+        Map<String, List<McpResultCache.Pending>> pendingByServer = new HashMap<>();
+        for (int i = 0; i < invocations.size(); i++) {
+            ToolInvocation invocation = invocations.get(i);
+            ToolRoute route = routes.get(i);
+            boolean cacheable = readOnlyBatch;
+            if (cacheable) {
+                results[i] = resultCache.get(route.serverName, route.toolName, invocation.getArguments());
+                if (results[i] != null) {
+                    CopilotLogger.debug("🗃️ Cached result: " + route.toolName);
+                    continue;
+                }
             }
+            indexesByServer.computeIfAbsent(route.serverName, key -> new ArrayList<>()).add(i);
+            batches.computeIfAbsent(route.serverName, key -> new ArrayList<>()).add(
+                new ToolInvocation(route.toolName, invocation.getArguments(), invocation.getDisplayParameter()));
+            pendingByServer.computeIfAbsent(route.serverName, key -> new ArrayList<>()).add(cacheable
+                ? resultCache.begin(route.serverName, route.toolName, invocation.getArguments(),
+                    workingDirectory(route.serverName)) : null);
         }
         
-        throw new Exception("Tool not found or no connected server supports it: " + toolName);
+        for (Map.Entry<String, List<Integer>> entry : indexesByServer.entrySet()) {
+            List<ToolInvocation> batch = batches.get(entry.getKey());
+            
+            CopilotLogger.info("🛠️ Executing " + batch.size() + " tools on server: " + entry.getKey());
+            try (RequestTrace.Span span = deadline.getTrace().open("MCP batch " + entry.getKey())) {
+                span.set("server", entry.getKey());
+                span.set("calls", batch.size());
+                // 배치는 서버와 한 번 왕복하므로 허가 하나로 보냄
+                try {
+                    McpCallLimiter.Permit permit = acquireCallSlot(entry.getKey(), deadline);
+                    List<String> batchResults;
+                    try {
+                        McpClient client = clients.get(entry.getKey());
+                        beginCall(entry.getKey(), client);
+                        try {
+                            batchResults = callBatchWithAdaptiveTimeout(entry.getKey(), client, batch, deadline);
+                        } finally {
+                            endCall(entry.getKey());
+                        }
+                    } finally {
+                        permit.close();
+                    }
+                    List<McpResultCache.Pending> pending = pendingByServer.get(entry.getKey());
+                    for (int i = 0; i < batchResults.size(); i++) {
+                        results[entry.getValue().get(i)] = batchResults.get(i);
+                        recordResult(pending.get(i), batchResults.get(i));
+                        if (batchResults.get(i) != null) {
+                            span.add("bytesReceived", batchResults.get(i).getBytes(StandardCharsets.UTF_8).length);
+                        }
+                    }
+                } catch (Exception e) {
+                    span.fail(e);
+                    throw e;
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 📐 도구의 입력 스키마 조회 - 해당 도구를 가진 연결된 서버의 tools/list inputSchema (없으면 null)
+     */
+    public JSONObject getToolSchema(String toolName) {
+        ToolRoute route = resolveTool(toolName);
+        return route != null ? route.client.getToolSchema(route.toolName) : null;
     }
 
     /**
@@ -399,21 +1362,14 @@ public class McpServerManager {
      * MCP 상태 조회
      */
     public McpStatus getStatus() {
-        long connectedCount = clients.values().stream().filter(McpClient::isConnected).count();
-        int totalTools = getConnectedTools().values().stream().mapToInt(List::size).sum();
-        return new McpStatus(configs.size(), (int) connectedCount, totalTools);
+        return snapshot.getStatus();
     }
     
     /**
-     * 연결된 도구 목록 조회
+     * 연결된 도구 목록 조회 (💤 서버의 카탈로그 도구 포함, 수정 불가)
      */
     public Map<String, List<McpTool>> getConnectedTools() {
-        return clients.entrySet().stream()
-                .filter(entry -> entry.getValue().isConnected())
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey, 
-                    entry -> availableTools.getOrDefault(entry.getKey(), new ArrayList<>())
-                ));
+        return snapshot.getConnectedTools();
     }
     
     /**
@@ -437,6 +1393,36 @@ public class McpServerManager {
         return new ArrayList<>(configs.keySet());
     }
     
+    /**
+     * 📡 서버 상태
+     */
+    public enum ServerState {
+        /** 연결되어 도구 호출 가능 */
+        CONNECTED,
+        /** 💤 프로세스 없이 카탈로그 도구만 안내 (첫 호출 때 시작) */
+        DORMANT,
+        /** 비정상 종료/응답 없음 - 백오프로 재연결 중 */
+        RECONNECTING,
+        /** 재연결을 포기함 - 수동 새로고침 필요 */
+        FAILED,
+        /** 제거됨 */
+        REMOVED
+    }
+
+    /**
+     * 📣 서버 상태 변화 리스너
+     */
+    public interface ServerStateListener {
+        void serverStateChanged(String serverName, ServerState state);
+    }
+
+    /**
+     * 📸 스냅샷 변경 리스너
+     */
+    public interface SnapshotListener {
+        void snapshotChanged(McpSnapshot snapshot);
+    }
+
     /**
      * 🛠️ MCP Tool - MCP 도구 정보
      */
@@ -444,11 +1430,17 @@ public class McpServerManager {
         private final String name;
         private final String description;
         private final String parameters;
+        private final JSONObject inputSchema;
         
         public McpTool(String name, String description, String parameters) {
+            this(name, description, parameters, null);
+        }
+        
+        public McpTool(String name, String description, String parameters, JSONObject inputSchema) {
             this.name = name;
             this.description = description;
             this.parameters = parameters;
+            this.inputSchema = inputSchema;
         }
         
         public String getName() { 
@@ -463,12 +1455,49 @@ public class McpServerManager {
             return parameters; 
         }
         
+        /** tools/list의 inputSchema (서버가 제공하지 않았으면 null) */
+        public JSONObject getInputSchema() { 
+            return inputSchema; 
+        }
+        
         @Override
         public String toString() {
             return String.format("%s - %s", name, description);
         }
     }
     
+    /**
+     * ✅ Ready - 서버 준비 완료 정보
+     */
+    public static class Ready {
+        private final String serverName;
+        private final int toolCount;
+        private final long startupMillis;
+        
+        public Ready(String serverName, int toolCount, long startupMillis) {
+            this.serverName = serverName;
+            this.toolCount = toolCount;
+            this.startupMillis = startupMillis;
+        }
+        
+        public String getServerName() { 
+            return serverName; 
+        }
+        
+        public int getToolCount() { 
+            return toolCount; 
+        }
+        
+        public long getStartupMillis() { 
+            return startupMillis; 
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s ready (%d tools, %dms)", serverName, toolCount, startupMillis);
+        }
+    }
+    
     /**
      * 📊 MCP Status - MCP 상태 정보
      */
@@ -0,0 +1,80 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 📸 McpSnapshot - MCP 서버 상태의 불변 스냅샷
+ *
+ * 서버 상태, 사용 가능한 서버의 도구 목록, 도구 → 서버 색인, 집계를 한 번에 담습니다.
+ * 관리자가 연결/해제/도구 변경 때마다 새 스냅샷을 만들어 통째로 바꾸므로,
+ * 메시지마다 상태를 여러 번 확인하는 화면과 에이전트는 volatile 읽기 한 번으로 서로 맞는 값을 봅니다.
+ */
+public final class McpSnapshot {
+
+    static final McpSnapshot EMPTY = new McpSnapshot(0, Collections.emptyMap(), Collections.emptyMap(),
+        Collections.emptyMap(), 0);
+
+    private final long version;
+    private final Map<String, McpServerManager.ServerState> states;
+    private final Map<String, List<McpServerManager.McpTool>> connectedTools;
+    private final Map<String, String> toolIndex;
+    private final McpServerManager.McpStatus status;
+
+    McpSnapshot(long version, Map<String, McpServerManager.ServerState> states,
+            Map<String, List<McpServerManager.McpTool>> connectedTools, Map<String, String> toolIndex,
+            int configuredServers) {
+        this.version = version;
+        this.states = Collections.unmodifiableMap(new LinkedHashMap<>(states));
+        Map<String, List<McpServerManager.McpTool>> tools = new LinkedHashMap<>();
+        int totalTools = 0;
+        for (Map.Entry<String, List<McpServerManager.McpTool>> entry : connectedTools.entrySet()) {
+            tools.put(entry.getKey(), List.copyOf(entry.getValue()));
+            totalTools += entry.getValue().size();
+        }
+        this.connectedTools = Collections.unmodifiableMap(tools);
+        this.toolIndex = Collections.unmodifiableMap(toolIndex);
+        this.status = new McpServerManager.McpStatus(configuredServers, tools.size(), totalTools);
+    }
+
+    /** 스냅샷이 바뀔 때마다 증가 - 파생 값을 캐시할 때 비교용 */
+    public long getVersion() {
+        return version;
+    }
+
+    public McpServerManager.McpStatus getStatus() {
+        return status;
+    }
+
+    /** 사용 가능한 서버(연결됨 또는 💤)가 하나라도 있는지 */
+    public boolean hasConnectedServers() {
+        return !connectedTools.isEmpty();
+    }
+
+    /** 사용 가능한 서버별 도구 목록 (💤 서버의 카탈로그 도구 포함, 수정 불가) */
+    public Map<String, List<McpServerManager.McpTool>> getConnectedTools() {
+        return connectedTools;
+    }
+
+    /** 등록된 서버별 상태 (수정 불가) */
+    public Map<String, McpServerManager.ServerState> getServerStates() {
+        return states;
+    }
+
+    /** 서버 상태 - 등록되지 않은 서버는 null */
+    public McpServerManager.ServerState getState(String serverName) {
+        return states.get(serverName);
+    }
+
+    /** 도구 이름으로 라우팅될 서버 (없으면 null) */
+    public String getServerForTool(String toolName) {
+        return toolIndex.get(toolName);
+    }
+
+    @Override
+    public String toString() {
+        return "v" + version + " " + status + " " + states;
+    }
+}
@@ -0,0 +1,190 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+
+/**
+ * 📜 McpStderrLog - 서버별 stderr 링 버퍼와 요약 로그
+ *
+ * stdio 서버의 stderr를 서버마다 최근 줄만 고정 크기로 보관하고, 로그에는 구간(10초)마다 처음 몇 줄만 그대로 남긴 뒤
+ * 나머지는 한 줄 요약으로 합칩니다. 줄마다 로그(콘솔 asyncExec, 파일 flush)를 쓰지 않으므로
+ * 말이 많은 서버가 콘솔을 채우거나 UI를 느리게 하지 않고, 전체 최근 출력은 MCP 관리자에서 확인합니다.
+ * 버퍼는 서버 이름으로 보관되어 재시작 후에도 종료 직전 출력이 남습니다.
+ */
+public class McpStderrLog {
+
+    /** 서버별로 보관하는 최근 줄 수 */
+    static final int CAPACITY = 500;
+    /** 한 줄 최대 길이 - 넘는 부분은 잘라 보관 */
+    private static final int MAX_LINE_LENGTH = 2000;
+    /** 로그 구간과 구간마다 그대로 남기는 줄 수 */
+    private static final long WINDOW_MS = 10000;
+    private static final int LOGGED_LINES_PER_WINDOW = 5;
+
+    private static McpStderrLog instance;
+
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService summaryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "FabriX-MCP-Stderr");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static synchronized McpStderrLog getInstance() {
+        if (instance == null) {
+            instance = new McpStderrLog();
+        }
+        return instance;
+    }
+
+    private McpStderrLog() {
+    }
+
+    /**
+     * 📊 서버 stderr 스냅샷
+     */
+    public static final class Snapshot {
+        private final List<String> lines;
+        private final long totalLines;
+        private final long suppressedLines;
+
+        Snapshot(List<String> lines, long totalLines, long suppressedLines) {
+            this.lines = Collections.unmodifiableList(lines);
+            this.totalLines = totalLines;
+            this.suppressedLines = suppressedLines;
+        }
+
+        /** 보관 중인 최근 줄 (오래된 순) */
+        public List<String> getLines() { return lines; }
+        /** 지금까지 받은 전체 줄 수 */
+        public long getTotalLines() { return totalLines; }
+        /** 로그에 남기지 않고 요약한 줄 수 */
+        public long getSuppressedLines() { return suppressedLines; }
+        /** 버퍼에서 밀려나 더 볼 수 없는 줄 수 */
+        public long getDroppedLines() { return totalLines - lines.size(); }
+    }
+
+    private static final class Ring {
+        final String[] lines = new String[CAPACITY];
+        int next;
+        long total;
+        long suppressedTotal;
+        long windowStart;
+        int windowLogged;
+        int windowSuppressed;
+        String lastSuppressed;
+        boolean summaryScheduled;
+
+        void add(String line) {
+            lines[next] = line;
+            next = (next + 1) % CAPACITY;
+            total++;
+        }
+
+        List<String> tail(int maxLines) {
+            int size = (int) Math.min(total, CAPACITY);
+            int count = Math.min(size, Math.max(0, maxLines));
+            List<String> tail = new ArrayList<>(count);
+            for (int i = count; i > 0; i--) {
+                tail.add(lines[Math.floorMod(next - i, CAPACITY)]);
+            }
+            return tail;
+        }
+
+        // 요약할 줄 수를 넘겨받고 0으로 되돌림
+        int takeSuppressed() {
+            int suppressed = windowSuppressed;
+            windowSuppressed = 0;
+            return suppressed;
+        }
+    }
+
+    /**
+     * stderr 한 줄 기록 - 구간마다 처음 몇 줄만 로그에 남기고 나머지는 구간이 끝날 때 요약
+     */
+    public void append(String serverName, String line) {
+        if (line.length() > MAX_LINE_LENGTH) {
+            line = line.substring(0, MAX_LINE_LENGTH) + "…";
+        }
+        Ring ring = rings.computeIfAbsent(serverName, key -> new Ring());
+        long now = System.currentTimeMillis();
+        int previousSuppressed = 0;
+        String previousLast = null;
+        boolean log;
+        synchronized (ring) {
+            ring.add(line);
+            if (now - ring.windowStart >= WINDOW_MS) {
+                // 예약된 요약보다 새 줄이 먼저 오면 이전 구간 요약을 여기서 남김
+                previousLast = ring.lastSuppressed;
+                previousSuppressed = ring.takeSuppressed();
+                ring.windowStart = now;
+                ring.windowLogged = 0;
+            }
+            log = ring.windowLogged < LOGGED_LINES_PER_WINDOW;
+            if (log) {
+                ring.windowLogged++;
+            } else {
+                ring.windowSuppressed++;
+                ring.suppressedTotal++;
+                ring.lastSuppressed = line;
+                if (!ring.summaryScheduled) {
+                    ring.summaryScheduled = true;
+                    long delay = ring.windowStart + WINDOW_MS - now;
+                    summaryTimer.schedule(() -> logSummary(serverName, ring), delay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        if (previousSuppressed > 0) {
+            warnSummary(serverName, previousSuppressed, previousLast);
+        }
+        if (log) {
+            CopilotLogger.warn("MCP stderr [" + serverName + "]: " + line);
+        }
+    }
+
+    private void logSummary(String serverName, Ring ring) {
+        int suppressed;
+        String last;
+        synchronized (ring) {
+            ring.summaryScheduled = false;
+            last = ring.lastSuppressed;
+            suppressed = ring.takeSuppressed();
+        }
+        if (suppressed > 0) {
+            warnSummary(serverName, suppressed, last);
+        }
+    }
+
+    private static void warnSummary(String serverName, int suppressed, String last) {
+        CopilotLogger.warn(String.format("MCP stderr [%s]: %d more lines in %ds (last: %s) - see MCP Manager → Show stderr",
+            serverName, suppressed, WINDOW_MS / 1000, last));
+    }
+
+    /**
+     * 최근 stderr 조회 - 받은 적 없으면 null
+     */
+    public Snapshot get(String serverName, int maxLines) {
+        Ring ring = rings.get(serverName);
+        if (ring == null) {
+            return null;
+        }
+        synchronized (ring) {
+            return new Snapshot(ring.tail(maxLines), ring.total, ring.suppressedTotal);
+        }
+    }
+
+    /**
+     * 제거된 서버의 버퍼 정리
+     */
+    public void removeServer(String serverName) {
+        rings.remove(serverName);
+    }
+}
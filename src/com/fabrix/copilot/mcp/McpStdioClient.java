@@ -1,9 +1,11 @@
 package com.fabrix.copilot.mcp;
 
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import com.fabrix.copilot.core.RequestDeadline;
 import com.fabrix.copilot.utils.CopilotLogger;
 import org.json.JSONObject;
 import org.json.JSONArray;
@@ -12,21 +14,53 @@ import org.json.JSONArray;
  * Claude Desktop 스타일의 MCP Stdio 클라이언트
  */
 public class McpStdioClient {
+    private static final long DEFAULT_REQUEST_TIMEOUT_MS = 10000;
+    // JSON-RPC 배치를 지원하는 유일한 프로토콜 버전 (2024-11-05에는 없고 2025-06-18에서 제거)
+    private static final String PROTOCOL_VERSION = "2025-03-26";
+    
     private final McpServerConfig config;
     private Process process;
     private BufferedWriter writer;
-    private BufferedReader reader;
+    private volatile BufferedReader reader;
     private BufferedReader errorReader;
     
     private final AtomicLong requestId = new AtomicLong(1);
     private final Map<Long, CompletableFuture<JSONObject>> pendingRequests = new ConcurrentHashMap<>();
-    private final Set<String> availableTools = new HashSet<>();
+    private final Set<String> availableTools = ConcurrentHashMap.newKeySet();
+    private final Map<String, JSONObject> toolSchemas = new ConcurrentHashMap<>();
+    private final Map<String, String> toolDescriptions = new ConcurrentHashMap<>();
+    private final Map<String, JSONObject> toolAnnotations = new ConcurrentHashMap<>();
+    private volatile String serverVersion;
+    private final Set<String> availableResources = ConcurrentHashMap.newKeySet();
+    private final Set<String> availablePrompts = ConcurrentHashMap.newKeySet();
+    private JSONObject serverCapabilities = new JSONObject();
+    
+    // JSON-RPC 배치 - 서버가 2025-03-26으로 응답할 때만 사용, 거부하면 이후에는 개별 요청으로 전송
+    private final Set<Long> batchRequestIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean batchSupported = false;
+    private final Object writeLock = new Object();
+    
+    private volatile Runnable toolsChangedListener;
+    private final McpProgressTracker progressTracker;
     
     private Thread readerThread;
     private volatile boolean running = false;
     
+    // 공유 브로커 - 소켓이 지정되면 서버 프로세스를 직접 띄우지 않고 브로커를 통해 연결
+    private final Path brokerSocket;
+    private volatile McpBrokerConnection brokerConnection;
+    
     public McpStdioClient(McpServerConfig config) {
+        this(config, null);
+    }
+    
+    /**
+     * @param brokerSocket 공유 MCP 브로커 소켓 (null이면 서버 프로세스를 직접 시작)
+     */
+    public McpStdioClient(McpServerConfig config, Path brokerSocket) {
         this.config = config;
+        this.brokerSocket = brokerSocket;
+        this.progressTracker = new McpProgressTracker(config.getName());
     }
     
     /**
@@ -34,6 +68,11 @@ public class McpStdioClient {
      */
     public boolean connect() {
         try {
+            if (brokerSocket != null && connectViaBroker()) {
+                return initialize();
+            }
+            
+            brokerConnection = null;
             CopilotLogger.info("Starting MCP server: " + config.getName());
             
             // 프로세스 빌더 설정
@@ -48,14 +87,8 @@ public class McpStdioClient {
             env.putAll(config.getEnv());
             
             // 작업 디렉토리 설정 (args의 경로에서 추출)
-            if (!config.getArgs().isEmpty()) {
-                String firstArg = config.getArgs().get(0);
-                File scriptFile = new File(firstArg);
-                if (scriptFile.exists() && scriptFile.getParentFile() != null) {
-                    pb.directory(scriptFile.getParentFile().getParentFile()); // dist의 부모 디렉토리
-                    CopilotLogger.info("Working directory: " + pb.directory());
-                }
-            }
+            pb.directory(workingDirectory(config));
+            CopilotLogger.info("Working directory: " + pb.directory());
             
             // 프로세스 시작
             process = pb.start();
@@ -71,9 +104,8 @@ public class McpStdioClient {
             // 응답 리더 시작
             startResponseReader();
             
-            // 프로세스 상태 확인
-            Thread.sleep(500); // 프로세스 시작 대기
-            
+            // 고정 대기 없이 바로 initialize 전송 - 서버가 stdin을 읽기 시작하면 응답하고,
+            // 시작 중에 종료되면 리더 스레드가 stdout 종료를 감지해 대기 중인 요청을 즉시 실패시킴
             if (!process.isAlive()) {
             	CopilotLogger.error("Process died immediately", null);
                 return false;
@@ -89,14 +121,51 @@ public class McpStdioClient {
     }
     
     /**
-     * 에러 스트림 리더
+     * 🔀 브로커를 통해 연결 - 실패하면 false (직접 시작으로 대체)
+     */
+    private boolean connectViaBroker() {
+        try {
+            McpBrokerConnection connection = McpBrokerConnection.attach(config, workingDirectory(config), brokerSocket);
+            brokerConnection = connection;
+            process = null;
+            errorReader = null;
+            writer = connection.getWriter();
+            reader = connection.getReader();
+            // 서버 stderr는 브로커 로그에 남음
+            startResponseReader();
+            return true;
+        } catch (Exception e) {
+            CopilotLogger.warn("MCP broker unavailable, starting " + config.getName() + " directly: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 작업 디렉토리 - 첫 인자가 스크립트 경로이면 dist의 부모 디렉토리, 아니면 이 인스턴스의 작업 디렉토리
+     * 브로커가 띄운 공유 서버도 "./" 같은 상대 경로 인자를 요청한 인스턴스 기준으로 해석하도록 항상 지정합니다.
+     */
+    static File workingDirectory(McpServerConfig config) {
+        if (!config.getArgs().isEmpty()) {
+            File scriptFile = new File(config.getArgs().get(0));
+            if (scriptFile.exists() && scriptFile.getParentFile() != null
+                    && scriptFile.getParentFile().getParentFile() != null) {
+                return scriptFile.getParentFile().getParentFile();
+            }
+        }
+        return new File(System.getProperty("user.dir")).getAbsoluteFile();
+    }
+    
+    /**
+     * 에러 스트림 리더 - 줄마다 로그를 쓰지 않고 서버별 링 버퍼에 보관 (로그에는 요약)
      */
     private void startErrorReader() {
+        BufferedReader err = errorReader;
+        McpStderrLog stderrLog = McpStderrLog.getInstance();
         Thread errorThread = new Thread(() -> {
             try {
                 String line;
-                while ((line = errorReader.readLine()) != null) {
-                    CopilotLogger.warn("MCP stderr: " + line);
+                while ((line = err.readLine()) != null) {
+                    stderrLog.append(config.getName(), line);
                 }
             } catch (IOException e) {
                 // 정상 종료
@@ -111,65 +180,194 @@ public class McpStdioClient {
      */
     private void startResponseReader() {
         running = true;
+        BufferedReader in = reader;
         readerThread = new Thread(() -> {
             try {
                 String line;
-                while (running && (line = reader.readLine()) != null) {
+                while (running && (line = in.readLine()) != null) {
                     CopilotLogger.debug("MCP response: " + line);
                     handleResponse(line);
                 }
             } catch (IOException e) {
-                if (running) {
+                if (running && in == reader) {
                     CopilotLogger.error("Reader thread error", e);
                 }
+            } finally {
+                // 유휴 종료 후 다시 연결한 경우 이전 프로세스의 리더가 새 요청을 실패시키지 않도록 확인
+                if (in == reader) {
+                    failPendingRequests(new IOException("MCP server closed stdout: " + config.getName()));
+                    McpBrokerConnection connection = brokerConnection;
+                    if (connection != null) {
+                        connection.close();
+                    }
+                }
             }
         });
         readerThread.setDaemon(true);
         readerThread.start();
     }
     
+    private void failPendingRequests(Exception cause) {
+        for (Long id : new ArrayList<>(pendingRequests.keySet())) {
+            CompletableFuture<JSONObject> future = pendingRequests.remove(id);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+    
     /**
-     * 응답 처리
+     * 응답 처리 - 배치 응답(JSON 배열)은 요소별로 id에 맞는 요청에 전달
      */
     private void handleResponse(String response) {
         try {
-            JSONObject json = new JSONObject(response);
-            
-            // JSON-RPC 응답인지 확인
-            if (json.has("id")) {
-                long id = json.getLong("id");
-                CompletableFuture<JSONObject> future = pendingRequests.remove(id);
-                if (future != null) {
-                    future.complete(json);
+            String trimmed = response.trim();
+            if (trimmed.startsWith("[")) {
+                JSONArray batch = new JSONArray(trimmed);
+                for (int i = 0; i < batch.length(); i++) {
+                    JSONObject message = batch.optJSONObject(i);
+                    if (message != null) {
+                        handleMessage(message);
+                    }
                 }
+            } else if (!trimmed.isEmpty()) {
+                handleMessage(new JSONObject(trimmed));
             }
-            
-            // 알림(notification) 처리
-            if (!json.has("id") && json.has("method")) {
-                handleNotification(json);
-            }
-            
         } catch (Exception e) {
             CopilotLogger.error("Failed to handle response: " + response, e);
         }
     }
     
+    private void handleMessage(JSONObject json) {
+        boolean hasId = json.has("id") && !json.isNull("id");
+        
+        // JSON-RPC 응답인지 확인 - method가 있으면 서버가 보낸 요청
+        if (hasId && !json.has("method")) {
+            CompletableFuture<JSONObject> future = pendingRequests.remove(json.optLong("id", -1));
+            if (future != null) {
+                future.complete(json);
+            }
+            return;
+        }
+        
+        if (hasId) {
+            answerServerRequest(json);
+            return;
+        }
+        
+        // id가 null인 오류 - 배치 자체를 해석하지 못한 서버
+        if (json.has("id") && json.has("error")) {
+            rejectPendingBatches(json.getJSONObject("error").optString("message"));
+            return;
+        }
+        
+        // 알림(notification) 처리
+        if (json.has("method")) {
+            handleNotification(json);
+        }
+    }
+    
+    /**
+     * 서버 요청 응답 - ping에만 응답하고 나머지(roots/list 등)는 지원하지 않음
+     */
+    private void answerServerRequest(JSONObject request) {
+        String method = request.optString("method");
+        JSONObject reply = new JSONObject();
+        reply.put("jsonrpc", "2.0");
+        reply.put("id", request.get("id"));
+        if ("ping".equals(method)) {
+            reply.put("result", new JSONObject());
+        } else {
+            JSONObject error = new JSONObject();
+            error.put("code", -32601);
+            error.put("message", "Method not found: " + method);
+            reply.put("error", error);
+        }
+        try {
+            writeMessage(reply.toString());
+        } catch (IOException e) {
+            CopilotLogger.debug("Failed to answer MCP server request " + method + ": " + e.getMessage());
+        }
+    }
+    
+    private void rejectPendingBatches(String reason) {
+        if (batchSupported) {
+            CopilotLogger.warn("MCP server rejected JSON-RPC batch, falling back to single requests: "
+                + config.getName() + " (" + reason + ")");
+        }
+        batchSupported = false;
+        for (Long id : new ArrayList<>(batchRequestIds)) {
+            CompletableFuture<JSONObject> future = pendingRequests.remove(id);
+            if (future != null) {
+                future.completeExceptionally(new BatchRejectedException(reason));
+            }
+        }
+    }
+    
+    /**
+     * 서버가 JSON-RPC 배치를 지원하지 않음
+     */
+    private static class BatchRejectedException extends Exception {
+        private static final long serialVersionUID = 1L;
+        
+        BatchRejectedException(String message) {
+            super("JSON-RPC batch rejected: " + message);
+        }
+    }
+    
     /**
      * 알림 처리
      */
     private void handleNotification(JSONObject notification) {
+        // 도구 호출의 진행 알림은 해당 요청으로 전달
+        if (progressTracker.handle(notification)) {
+            return;
+        }
+        
         String method = notification.getString("method");
         CopilotLogger.info("Received notification: " + method);
+        
+        if ("notifications/tools/list_changed".equals(method)) {
+            // 응답은 이 리더 스레드가 전달하므로 재조회는 다른 스레드에서 실행
+            CompletableFuture.runAsync(() -> {
+                if (discoverTools()) {
+                    Runnable listener = toolsChangedListener;
+                    if (listener != null) {
+                        listener.run();
+                    }
+                }
+            });
+        }
+    }
+    
+    /**
+     * 서버가 도구 목록 변경을 알리고 재조회가 끝났을 때 호출될 리스너
+     */
+    public void setToolsChangedListener(Runnable listener) {
+        this.toolsChangedListener = listener;
     }
     
     /**
      * JSON-RPC 요청 전송
      */
     private CompletableFuture<JSONObject> sendRequest(String method, Map<String, Object> params) {
+        return sendRequest(method, params, DEFAULT_REQUEST_TIMEOUT_MS);
+    }
+    
+    /**
+     * JSON-RPC 요청 전송 - 호출자가 남은 예산에 맞춘 타임아웃 지정
+     */
+    private CompletableFuture<JSONObject> sendRequest(String method, Map<String, Object> params, long timeoutMillis) {
+        return sendRequest(requestId.getAndIncrement(), method, params, timeoutMillis);
+    }
+    
+    /**
+     * JSON-RPC 요청 전송 - 나중에 cancelRequest로 취소할 수 있도록 호출자가 id 지정
+     */
+    private CompletableFuture<JSONObject> sendRequest(long id, String method, Map<String, Object> params, long timeoutMillis) {
         CompletableFuture<JSONObject> future = new CompletableFuture<>();
         
         try {
-            long id = requestId.getAndIncrement();
             
             JSONObject request = new JSONObject();
             request.put("jsonrpc", "2.0");
@@ -182,26 +380,141 @@ public class McpStdioClient {
             String jsonString = request.toString();
             CopilotLogger.debug("Sending: " + jsonString);
             
-            writer.write(jsonString);
-            writer.newLine();
-            writer.flush();
+            writeMessage(jsonString);
             
-            // 타임아웃 설정
-            return future.orTimeout(10, TimeUnit.SECONDS);
+            // 타임아웃 설정 - 만료된 요청은 대기 목록에서 제거하고 서버에도 취소를 알림
+            return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> {
+                    pendingRequests.remove(id);
+                    if (error instanceof TimeoutException) {
+                        sendCancelled(id, "Request timed out after " + timeoutMillis + "ms");
+                    }
+                });
             
         } catch (Exception e) {
+            pendingRequests.remove(id);
             future.completeExceptionally(e);
             return future;
         }
     }
     
+    /**
+     * JSON-RPC 배치 전송 - 배열 한 줄로 보내고 id별 응답 future 반환 (추가 순서 유지)
+     */
+    private Map<Long, CompletableFuture<JSONObject>> sendBatch(JsonRpcBatch batch, long timeoutMillis) {
+        Map<Long, CompletableFuture<JSONObject>> pending = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<JSONObject>> futures = new LinkedHashMap<>();
+        for (Long id : batch.getIds()) {
+            CompletableFuture<JSONObject> future = new CompletableFuture<>();
+            pendingRequests.put(id, future);
+            batchRequestIds.add(id);
+            pending.put(id, future);
+            futures.put(id, future.whenComplete((response, error) -> {
+                pendingRequests.remove(id);
+                batchRequestIds.remove(id);
+            }));
+        }
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS)
+            .execute(() -> expireBatch(pending, timeoutMillis));
+        
+        try {
+            String jsonString = batch.toJson();
+            CopilotLogger.debug("Sending batch(" + batch.size() + "): " + jsonString);
+            writeMessage(jsonString);
+        } catch (Exception e) {
+            for (Long id : batch.getIds()) {
+                CompletableFuture<JSONObject> future = pendingRequests.remove(id);
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+        return futures;
+    }
+    
+    /**
+     * ⏱ 배치 타임아웃 - 응답이 하나도 없으면 배열 줄을 조용히 버리는 서버로 보고 거부로 처리
+     * 거부된 요청은 BatchRejectedException으로 끝나 호출자가 바로 개별 요청으로 다시 보냅니다.
+     */
+    private void expireBatch(Map<Long, CompletableFuture<JSONObject>> pending, long timeoutMillis) {
+        boolean unanswered = pending.values().stream().noneMatch(CompletableFuture::isDone);
+        if (unanswered) {
+            if (batchSupported) {
+                CopilotLogger.warn("MCP server did not answer JSON-RPC batch, falling back to single requests: "
+                    + config.getName());
+            }
+            batchSupported = false;
+        }
+        for (Map.Entry<Long, CompletableFuture<JSONObject>> entry : pending.entrySet()) {
+            if (unanswered) {
+                entry.getValue().completeExceptionally(
+                    new BatchRejectedException("no response within " + timeoutMillis + "ms"));
+            } else if (entry.getValue().completeExceptionally(new TimeoutException())) {
+                sendCancelled(entry.getKey(), "Request timed out after " + timeoutMillis + "ms");
+            }
+        }
+    }
+    
+    /**
+     * 독립적인 요청 여러 개 전송 - 배치를 지원하면 한 번의 왕복, 아니면 개별 요청을 연달아 전송 (응답은 id로 분배)
+     * @param ids 보낸 요청의 id를 순서대로 담을 목록 (취소용)
+     */
+    private List<CompletableFuture<JSONObject>> sendAll(List<String> methods, List<Map<String, Object>> params,
+            long timeoutMillis, boolean useBatch, List<Long> ids) {
+        if (useBatch && methods.size() > 1) {
+            JsonRpcBatch batch = new JsonRpcBatch(requestId);
+            for (int i = 0; i < methods.size(); i++) {
+                batch.add(methods.get(i), params.get(i));
+            }
+            ids.addAll(batch.getIds());
+            return new ArrayList<>(sendBatch(batch, timeoutMillis).values());
+        }
+        
+        List<CompletableFuture<JSONObject>> futures = new ArrayList<>();
+        for (int i = 0; i < methods.size(); i++) {
+            long id = requestId.getAndIncrement();
+            ids.add(id);
+            futures.add(sendRequest(id, methods.get(i), params.get(i), timeoutMillis));
+        }
+        return futures;
+    }
+    
+    /**
+     * ⏹ 요청 취소 - 대기 중인 future를 바로 실패시키고, 서버에 notifications/cancelled를 보내 작업을 멈추게 함
+     */
+    private void cancelRequest(long id, String reason) {
+        CompletableFuture<JSONObject> future = pendingRequests.remove(id);
+        if (future == null) {
+            return; // 이미 응답을 받았거나 만료됨
+        }
+        future.completeExceptionally(new CancellationException(reason));
+        sendCancelled(id, reason);
+    }
+    
+    private void sendCancelled(long id, String reason) {
+        if (!isConnected()) return;
+        try {
+            writeMessage(McpProgressTracker.cancelledNotification(id, reason).toString());
+        } catch (IOException e) {
+            CopilotLogger.debug("Failed to send notifications/cancelled: " + e.getMessage());
+        }
+    }
+    
+    private void writeMessage(String message) throws IOException {
+        synchronized (writeLock) {
+            writer.write(message);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+    
     /**
      * 초기화
      */
     private boolean initialize() {
         try {
             Map<String, Object> params = new HashMap<>();
-            params.put("protocolVersion", "2024-11-05");
+            params.put("protocolVersion", PROTOCOL_VERSION);
             
             Map<String, Object> capabilities = new HashMap<>();
             capabilities.put("roots", new HashMap<>());
@@ -216,8 +529,15 @@ public class McpStdioClient {
             
             if (response.has("result")) {
                 CopilotLogger.info("✅ MCP server initialized: " + config.getName());
+                JSONObject negotiated = response.getJSONObject("result").optJSONObject("capabilities");
+                serverCapabilities = negotiated != null ? negotiated : new JSONObject();
+                JSONObject serverInfo = response.getJSONObject("result").optJSONObject("serverInfo");
+                serverVersion = serverInfo != null ? serverInfo.optString("version", null) : null;
+                // 서버가 더 낮은 버전(배치 없음)이나 더 높은 버전(배치 제거)으로 응답하면 개별 요청만 사용
+                batchSupported = PROTOCOL_VERSION.equals(
+                    response.getJSONObject("result").optString("protocolVersion"));
                 
-                // 도구 목록 가져오기
+                // 도구/리소스/프롬프트 목록 가져오기
                 return discoverTools();
             }
             
@@ -230,34 +550,117 @@ public class McpStdioClient {
     }
     
     /**
-     * 도구 검색
+     * 도구 검색 - 서버가 지원하는 resources/list, prompts/list와 함께 배치 한 번으로 조회
      */
     private boolean discoverTools() {
+        List<String> methods = new ArrayList<>();
+        List<Map<String, Object>> params = new ArrayList<>();
+        methods.add("tools/list");
+        params.add(new HashMap<>());
+        if (serverCapabilities.has("resources")) {
+            methods.add("resources/list");
+            params.add(new HashMap<>());
+        }
+        if (serverCapabilities.has("prompts")) {
+            methods.add("prompts/list");
+            params.add(new HashMap<>());
+        }
+        
+        boolean batched = batchSupported && methods.size() > 1;
+        List<JSONObject> responses;
         try {
-            JSONObject response = sendRequest("tools/list", new HashMap<>()).get();
-            
-            if (response.has("result")) {
-                JSONObject result = response.getJSONObject("result");
-                if (result.has("tools")) {
-                    JSONArray tools = result.getJSONArray("tools");
-                    
-                    availableTools.clear();
-                    for (int i = 0; i < tools.length(); i++) {
-                        JSONObject tool = tools.getJSONObject(i);
-                        String name = tool.getString("name");
-                        availableTools.add(name);
-                        CopilotLogger.info("Found tool: " + name);
-                    }
-                    
-                    return true;
-                }
-            }
-            
-            return false;
-            
+            responses = awaitAll(sendAll(methods, params, DEFAULT_REQUEST_TIMEOUT_MS, batched, new ArrayList<>()));
         } catch (Exception e) {
-            CopilotLogger.error("Tool discovery failed", e);
-            return false;
+            if (!batched) {
+                CopilotLogger.error("Tool discovery failed", e);
+                return false;
+            }
+            // 배치를 거부하거나 응답하지 않는 서버 - 개별 요청으로 다시 조회
+            batchSupported = false;
+            CopilotLogger.info("Retrying discovery without JSON-RPC batch: " + config.getName());
+            try {
+                responses = awaitAll(sendAll(methods, params, DEFAULT_REQUEST_TIMEOUT_MS, false, new ArrayList<>()));
+            } catch (Exception retryError) {
+                CopilotLogger.error("Tool discovery failed", retryError);
+                return false;
+            }
+        }
+        
+        for (int i = 1; i < methods.size(); i++) {
+            if ("resources/list".equals(methods.get(i))) {
+                collectNames(responses.get(i), "resources", "uri", availableResources);
+            } else {
+                collectNames(responses.get(i), "prompts", "name", availablePrompts);
+            }
+        }
+        
+        JSONObject response = responses.get(0);
+        if (response.has("result")) {
+            JSONObject result = response.getJSONObject("result");
+            if (result.has("tools")) {
+                applyToolList(result.getJSONArray("tools"));
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * tools/list 결과 반영 - 재조회 중에도 기존 도구가 보이도록 비우지 않고 교체
+     */
+    private void applyToolList(JSONArray tools) {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < tools.length(); i++) {
+            JSONObject tool = tools.getJSONObject(i);
+            String name = tool.getString("name");
+            names.add(name);
+            if (tool.optJSONObject("inputSchema") != null) {
+                toolSchemas.put(name, tool.getJSONObject("inputSchema"));
+            }
+            if (!tool.optString("description").isEmpty()) {
+                toolDescriptions.put(name, tool.getString("description"));
+            }
+            if (tool.optJSONObject("annotations") != null) {
+                toolAnnotations.put(name, tool.getJSONObject("annotations"));
+            }
+            CopilotLogger.info("Found tool: " + name);
+        }
+        availableTools.addAll(names);
+        availableTools.retainAll(names);
+        toolSchemas.keySet().retainAll(names);
+        toolDescriptions.keySet().retainAll(names);
+        toolAnnotations.keySet().retainAll(names);
+    }
+    
+    /**
+     * 📚 저장된 카탈로그로 도구 목록 채우기 - 프로세스를 띄우기 전에도 도구와 스키마를 안내
+     * connect() 시 실제 tools/list 결과로 교체됩니다.
+     */
+    public void seedTools(JSONArray tools) {
+        applyToolList(tools);
+    }
+    
+    private static List<JSONObject> awaitAll(List<CompletableFuture<JSONObject>> futures)
+            throws InterruptedException, ExecutionException {
+        List<JSONObject> responses = new ArrayList<>();
+        for (CompletableFuture<JSONObject> future : futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+    
+    private static void collectNames(JSONObject response, String listKey, String nameKey, Set<String> target) {
+        JSONObject result = response.optJSONObject("result");
+        JSONArray items = result != null ? result.optJSONArray(listKey) : null;
+        if (items == null) return;
+        
+        target.clear();
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject item = items.optJSONObject(i);
+            if (item != null && item.has(nameKey)) {
+                target.add(item.getString(nameKey));
+            }
         }
     }
     
@@ -265,34 +668,100 @@ public class McpStdioClient {
      * 도구 실행
      */
     public String executeTool(String toolName, Map<String, Object> parameters) throws Exception {
+        return executeTool(toolName, parameters, RequestDeadline.unbounded());
+    }
+    
+    /**
+     * 도구 실행 - 남은 요청 예산으로 타임아웃을 정하고, 요청 취소 시 대기 중인 RPC를 즉시 중단
+     * 서버가 보내는 진행 알림은 데드라인으로 전달하고, 취소하면 서버에도 notifications/cancelled를 보냅니다.
+     */
+    public String executeTool(String toolName, Map<String, Object> parameters, RequestDeadline deadline) throws Exception {
+        long timeoutMillis = deadline.timeoutFor("MCP tool " + toolName, McpLatencyStats.MAX_TIMEOUT_MS);
+        String progressToken = progressTracker.register(toolName, deadline);
+        
         Map<String, Object> params = new HashMap<>();
         params.put("name", toolName);
         params.put("arguments", parameters);
+        params.put("_meta", McpProgressTracker.meta(progressToken));
+        
+        long id = requestId.getAndIncrement();
+        CompletableFuture<JSONObject> pending = sendRequest(id, "tools/call", params, timeoutMillis);
         
+        RequestDeadline.Registration cancelRegistration = deadline.onCancel(
+            () -> cancelRequest(id, "Request cancelled"));
         try {
-            JSONObject response = sendRequest("tools/call", params).get();
+            return JsonRpcBatch.toolResultText(pending.get());
             
-            if (response.has("result")) {
-                JSONObject result = response.getJSONObject("result");
-                if (result.has("content")) {
-                    JSONArray content = result.getJSONArray("content");
-                    if (content.length() > 0) {
-                        JSONObject firstContent = content.getJSONObject(0);
-                        return firstContent.getString("text");
-                    }
+        } catch (Exception e) {
+            if (deadline.isCancelled()) {
+                throw new RequestDeadline.RequestCancelledException("MCP tool call cancelled: " + toolName);
+            }
+            throw new Exception("Tool execution failed: " + e.getMessage(), e);
+        } finally {
+            cancelRegistration.close();
+            progressTracker.unregister(progressToken);
+        }
+    }
+    
+    /**
+     * 여러 도구 실행 - 배치 한 번으로 보내고 결과를 호출 순서대로 반환
+     * 서버가 배치를 거부하면 개별 요청으로 다시 보냅니다. (거부된 배치는 실행되지 않았으므로 안전)
+     */
+    public List<String> executeTools(List<ToolInvocation> invocations, RequestDeadline deadline) throws Exception {
+        long timeoutMillis = deadline.timeoutFor("MCP tools batch", McpLatencyStats.MAX_TIMEOUT_MS);
+        List<String> methods = new ArrayList<>();
+        List<Map<String, Object>> params = new ArrayList<>();
+        List<String> progressTokens = new ArrayList<>();
+        for (ToolInvocation invocation : invocations) {
+            String progressToken = progressTracker.register(invocation.getToolName(), deadline);
+            progressTokens.add(progressToken);
+            
+            Map<String, Object> callParams = new HashMap<>();
+            callParams.put("name", invocation.getToolName());
+            callParams.put("arguments", new HashMap<>(invocation.getArguments()));
+            callParams.put("_meta", McpProgressTracker.meta(progressToken));
+            methods.add("tools/call");
+            params.add(callParams);
+        }
+        
+        try {
+            List<JSONObject> responses;
+            List<Long> ids = new ArrayList<>();
+            try {
+                responses = awaitCancellable(sendAll(methods, params, timeoutMillis, batchSupported, ids), ids, deadline);
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof BatchRejectedException)) {
+                    throw e;
                 }
-                return result.toString();
+                // 거부되거나 응답 없는 배치 - 남은 예산으로 바로 개별 요청 재전송
+                long retryMillis = deadline.timeoutFor("MCP tools batch", McpLatencyStats.MAX_TIMEOUT_MS);
+                List<Long> retryIds = new ArrayList<>();
+                responses = awaitCancellable(sendAll(methods, params, retryMillis, false, retryIds), retryIds, deadline);
             }
             
-            if (response.has("error")) {
-                JSONObject error = response.getJSONObject("error");
-                throw new Exception("Tool error: " + error.getString("message"));
+            List<String> results = new ArrayList<>();
+            for (JSONObject response : responses) {
+                results.add(JsonRpcBatch.toolResultText(response));
             }
-            
-            return "No result";
-            
+            return results;
+        } finally {
+            progressTokens.forEach(progressTracker::unregister);
+        }
+    }
+    
+    private List<JSONObject> awaitCancellable(List<CompletableFuture<JSONObject>> futures, List<Long> ids,
+            RequestDeadline deadline) throws Exception {
+        RequestDeadline.Registration cancelRegistration = deadline.onCancel(
+            () -> ids.forEach(id -> cancelRequest(id, "Request cancelled")));
+        try {
+            return awaitAll(futures);
         } catch (Exception e) {
-            throw new Exception("Tool execution failed: " + e.getMessage(), e);
+            if (deadline.isCancelled()) {
+                throw new RequestDeadline.RequestCancelledException("MCP tool batch cancelled");
+            }
+            throw e;
+        } finally {
+            cancelRegistration.close();
         }
     }
     
@@ -312,6 +781,10 @@ public class McpStdioClient {
             if (errorReader != null) {
                 errorReader.close();
             }
+            // 브로커 연결은 끊기만 함 - 서버 종료는 다른 인스턴스가 모두 떠난 뒤 브로커가 결정
+            if (brokerConnection != null) {
+                brokerConnection.close();
+            }
             if (process != null && process.isAlive()) {
                 process.destroy();
                 process.waitFor(5, TimeUnit.SECONDS);
@@ -325,10 +798,68 @@ public class McpStdioClient {
     }
     
     public boolean isConnected() {
+        McpBrokerConnection connection = brokerConnection;
+        if (connection != null) {
+            return connection.isOpen() && running;
+        }
         return process != null && process.isAlive() && running;
     }
     
+    /**
+     * 💥 현재 프로세스 종료(브로커 연결은 끊김) 시 완료되는 future (프로세스가 없으면 null)
+     */
+    public CompletableFuture<Void> onExit() {
+        McpBrokerConnection connection = brokerConnection;
+        if (connection != null) {
+            return connection.onClose();
+        }
+        Process current = process;
+        return current != null ? current.onExit().thenApply(exited -> null) : null;
+    }
+    
+    /**
+     * 📐 도구의 입력 스키마 (tools/list의 inputSchema, 없으면 null)
+     */
+    public JSONObject getToolSchema(String toolName) {
+        return toolSchemas.get(toolName);
+    }
+    
+    /**
+     * 📝 도구 설명 (tools/list의 description, 없으면 null)
+     */
+    public String getToolDescription(String toolName) {
+        return toolDescriptions.get(toolName);
+    }
+    
+    /**
+     * 🏷️ 도구 annotations (readOnlyHint 등, 없으면 null)
+     */
+    public JSONObject getToolAnnotations(String toolName) {
+        return toolAnnotations.get(toolName);
+    }
+    
+    /**
+     * 🏷️ 서버 버전 (initialize 응답의 serverInfo.version, 연결 전이거나 알 수 없으면 null)
+     */
+    public String getServerVersion() {
+        return serverVersion;
+    }
+    
     public Set<String> getAvailableTools() {
         return new HashSet<>(availableTools);
     }
+    
+    public boolean hasTool(String toolName) {
+        return availableTools.contains(toolName);
+    }
+    
+    /** resources/list로 조회한 리소스 URI (서버가 지원하는 경우) */
+    public Set<String> getAvailableResources() {
+        return new HashSet<>(availableResources);
+    }
+    
+    /** prompts/list로 조회한 프롬프트 이름 (서버가 지원하는 경우) */
+    public Set<String> getAvailablePrompts() {
+        return new HashSet<>(availablePrompts);
+    }
 }
\ No newline at end of file
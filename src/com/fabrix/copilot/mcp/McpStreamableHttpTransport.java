@@ -0,0 +1,340 @@
+package com.fabrix.copilot.mcp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 🌊 McpStreamableHttpTransport - MCP Streamable HTTP 전송 계층
+ *
+ * 하나의 MCP 엔드포인트로 JSON-RPC 메시지를 POST하고, initialize 응답의 Mcp-Session-Id를 기억해 이후 요청에 붙입니다.
+ * 응답이 text/event-stream(SSE)이면 이벤트를 읽으면서 진행 알림은 리스너로 넘기고, 기다리는 id의 응답이 모두 오면 끝냅니다.
+ *
+ * 연결은 JDK의 HTTP keep-alive 캐시에서 재사용됩니다. 응답 본문을 끝까지 읽고 disconnect()를 부르지 않아야
+ * 소켓이 캐시로 돌아가므로, 오류 응답도 본문을 모두 읽고 disconnect()는 취소할 때만 사용합니다.
+ * Eclipse에 의존하지 않으므로 bench에서 그대로 사용할 수 있습니다.
+ */
+public final class McpStreamableHttpTransport implements AutoCloseable {
+
+    public static final String SESSION_HEADER = "Mcp-Session-Id";
+    public static final String PROTOCOL_VERSION_HEADER = "MCP-Protocol-Version";
+
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+
+    private final URI endpoint;
+    private final Map<String, String> headers;
+    private volatile String sessionId;
+    private volatile String protocolVersion;
+    private volatile Consumer<JSONObject> notificationListener;
+
+    /**
+     * 세션이 만료됨 (서버가 세션 id에 404로 응답) - 다시 initialize 해야 함
+     */
+    public static class SessionExpiredException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public SessionExpiredException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * HTTP 오류 응답
+     */
+    public static class HttpStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+        private final int statusCode;
+
+        public HttpStatusException(int statusCode, String body) {
+            super("HTTP " + statusCode + (body != null && !body.isEmpty() ? ": " + body : ""));
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+
+    public McpStreamableHttpTransport(URI endpoint, Map<String, String> headers) {
+        this.endpoint = endpoint;
+        this.headers = headers != null ? new HashMap<>(headers) : new HashMap<>();
+    }
+
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * initialize로 합의한 프로토콜 버전 - 이후 요청의 MCP-Protocol-Version 헤더로 전송
+     */
+    public void setProtocolVersion(String protocolVersion) {
+        this.protocolVersion = protocolVersion;
+    }
+
+    /**
+     * SSE 스트림으로 받은 알림(notifications/progress 등)과 서버 요청을 받을 리스너
+     */
+    public void setNotificationListener(Consumer<JSONObject> listener) {
+        this.notificationListener = listener;
+    }
+
+    /**
+     * 요청 하나 전송 - 응답 JSON-RPC 메시지 반환 (SSE 응답이면 같은 id의 응답이 올 때까지 읽음)
+     */
+    public JSONObject request(JSONObject message, long timeoutMillis) throws Exception {
+        long id = message.getLong("id");
+        Set<Long> ids = new HashSet<>();
+        ids.add(id);
+        return post(message.toString(), ids).await(timeoutMillis).get(id);
+    }
+
+    /**
+     * 응답을 기다리지 않는 알림 전송 (notifications/initialized 등 - 서버는 202로 응답)
+     */
+    public void notify(String method, JSONObject params) throws Exception {
+        JSONObject notification = new JSONObject();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", method);
+        if (params != null) {
+            notification.put("params", params);
+        }
+        post(notification.toString(), new HashSet<>()).await(CONNECT_TIMEOUT_MS);
+    }
+
+    /**
+     * 요청 본문(단일 메시지 또는 배치 배열)을 보낼 교환 생성 - 반환된 Exchange의 await에서 전송하고 응답을 기다림
+     */
+    public Exchange post(String body, Collection<Long> expectedIds) {
+        return new Exchange(body.getBytes(StandardCharsets.UTF_8), new HashSet<>(expectedIds));
+    }
+
+    private HttpURLConnection open(String method, int timeoutMillis) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) endpoint.toURL().openConnection();
+        conn.setRequestMethod(method);
+        conn.setConnectTimeout(Math.min(CONNECT_TIMEOUT_MS, timeoutMillis));
+        conn.setReadTimeout(timeoutMillis);
+        headers.forEach(conn::setRequestProperty);
+        String session = sessionId;
+        if (session != null) {
+            conn.setRequestProperty(SESSION_HEADER, session);
+        }
+        String version = protocolVersion;
+        if (version != null) {
+            conn.setRequestProperty(PROTOCOL_VERSION_HEADER, version);
+        }
+        return conn;
+    }
+
+    /**
+     * 세션 종료 - 서버에 DELETE로 알리고 세션 id를 잊음 (서버가 지원하지 않으면 무시)
+     */
+    @Override
+    public void close() {
+        String session = sessionId;
+        sessionId = null;
+        if (session == null) return;
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                HttpURLConnection conn = open("DELETE", CONNECT_TIMEOUT_MS);
+                conn.setRequestProperty(SESSION_HEADER, session);
+                drain(conn);
+            } catch (IOException e) {
+                // 세션 종료를 지원하지 않거나 이미 내려간 서버
+            }
+        });
+    }
+
+    /**
+     * 📨 POST 하나 - 응답(JSON 또는 SSE)을 읽어 id별 메시지로 돌려주며, 다른 스레드에서 언제든 취소할 수 있음
+     */
+    public final class Exchange {
+        private final byte[] body;
+        private final Set<Long> expectedIds;
+        private volatile HttpURLConnection connection;
+        private volatile boolean cancelled;
+
+        private Exchange(byte[] body, Set<Long> expectedIds) {
+            this.body = body;
+            this.expectedIds = expectedIds;
+        }
+
+        /**
+         * 전송 후 응답 대기 - 기다리는 id의 응답을 모두 받으면 반환 (SSE 스트림이 먼저 끝나면 받은 것까지만)
+         */
+        public Map<Long, JSONObject> await(long timeoutMillis) throws Exception {
+            int timeout = (int) Math.max(1, Math.min(Integer.MAX_VALUE, timeoutMillis));
+            HttpURLConnection conn = open("POST", timeout);
+            conn.setRequestProperty("Content-Type", "application/json");
+            conn.setRequestProperty("Accept", "application/json, text/event-stream");
+            conn.setDoOutput(true);
+            connection = conn;
+            if (cancelled) {
+                throw new CancellationException("MCP HTTP request cancelled");
+            }
+
+            try {
+                try (OutputStream os = conn.getOutputStream()) {
+                    os.write(body);
+                }
+                return readResponse(conn, timeoutMillis);
+            } catch (SocketTimeoutException e) {
+                throw new TimeoutException("MCP HTTP request timed out after " + timeoutMillis + "ms");
+            } catch (IOException e) {
+                if (cancelled) {
+                    throw new CancellationException("MCP HTTP request cancelled");
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * 요청 취소 - 연결을 끊어 전송이나 응답(SSE) 읽기를 중단
+         */
+        public void cancel() {
+            cancelled = true;
+            HttpURLConnection conn = connection;
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+
+        private Map<Long, JSONObject> readResponse(HttpURLConnection conn, long timeoutMillis) throws IOException, TimeoutException {
+            int status = conn.getResponseCode();
+            String newSession = conn.getHeaderField(SESSION_HEADER);
+            if (newSession != null) {
+                sessionId = newSession;
+            }
+
+            if (status == 404 && conn.getRequestProperty(SESSION_HEADER) != null) {
+                drain(conn);
+                sessionId = null;
+                throw new SessionExpiredException("MCP session expired: " + endpoint);
+            }
+            if (status < 200 || status >= 300) {
+                throw new HttpStatusException(status, drain(conn));
+            }
+
+            Map<Long, JSONObject> responses = new HashMap<>();
+            if (status == 202 || expectedIds.isEmpty()) {
+                // 알림/응답만 보낸 경우 본문 없음
+                drain(conn);
+                return responses;
+            }
+
+            String contentType = conn.getContentType();
+            if (contentType != null && contentType.startsWith("text/event-stream")) {
+                // SSE는 이벤트마다 읽기 타임아웃이 새로 시작되므로 전체 대기 시간을 넘기면 연결을 끊음
+                CompletableFuture<Void> watchdog = CompletableFuture.runAsync(conn::disconnect,
+                    CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS));
+                try {
+                    readEventStream(conn.getInputStream(), responses);
+                } catch (IOException e) {
+                    if (watchdog.isDone() && !cancelled) {
+                        throw new TimeoutException("MCP HTTP stream timed out after " + timeoutMillis + "ms");
+                    }
+                    throw e;
+                } finally {
+                    watchdog.cancel(false);
+                }
+            } else {
+                responses.putAll(JsonRpcBatch.parseResponses(drain(conn)));
+            }
+            return responses;
+        }
+
+        /**
+         * SSE 이벤트 읽기 - data 줄을 모아 빈 줄에서 메시지 하나로 처리
+         */
+        private void readEventStream(InputStream stream, Map<Long, JSONObject> responses) throws IOException {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                StringBuilder data = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (data.length() > 0) {
+                            dispatchEvent(data.toString(), responses);
+                            data.setLength(0);
+                            if (responses.keySet().containsAll(expectedIds)) {
+                                return;
+                            }
+                        }
+                    } else if (line.startsWith("data:")) {
+                        if (data.length() > 0) {
+                            data.append('\n');
+                        }
+                        data.append(line.startsWith("data: ") ? line.substring(6) : line.substring(5));
+                    }
+                    // event:, id:, retry:, 주석(:) 줄은 사용하지 않음
+                }
+                if (data.length() > 0) {
+                    dispatchEvent(data.toString(), responses);
+                }
+            }
+        }
+
+        private void dispatchEvent(String data, Map<Long, JSONObject> responses) {
+            String trimmed = data.trim();
+            if (trimmed.startsWith("[")) {
+                JSONArray messages = new JSONArray(trimmed);
+                for (int i = 0; i < messages.length(); i++) {
+                    JSONObject message = messages.optJSONObject(i);
+                    if (message != null) {
+                        dispatchMessage(message, responses);
+                    }
+                }
+            } else if (trimmed.startsWith("{")) {
+                dispatchMessage(new JSONObject(trimmed), responses);
+            }
+        }
+
+        private void dispatchMessage(JSONObject message, Map<Long, JSONObject> responses) {
+            boolean isResponse = (message.has("result") || message.has("error"))
+                && message.has("id") && !message.isNull("id");
+            if (isResponse) {
+                responses.put(message.getLong("id"), message);
+                return;
+            }
+            Consumer<JSONObject> listener = notificationListener;
+            if (listener != null) {
+                listener.accept(message);
+            }
+        }
+    }
+
+    /**
+     * 응답 본문(오류면 오류 본문)을 끝까지 읽음 - 다 읽어야 연결이 keep-alive 캐시로 돌아감
+     */
+    public static String drain(HttpURLConnection conn) throws IOException {
+        InputStream stream = conn.getResponseCode() < 400 ? conn.getInputStream() : conn.getErrorStream();
+        if (stream == null) {
+            return "";
+        }
+        try (InputStream in = stream) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.fabrix.copilot.mcp;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.osgi.framework.FrameworkUtil;
+
+import com.fabrix.copilot.utils.CopilotLogger;
+
+/**
+ * 📚 McpToolCatalog - 서버별 tools/list 결과 저장소
+ *
+ * 서버 프로세스를 띄우지 않고도 도구를 안내할 수 있도록 마지막으로 조회한 tools/list 결과(이름, 설명,
+ * 입력 스키마)와 서버 버전을 플러그인 상태 폴더에 저장합니다. 명령/인자/환경 변수가 바뀐 서버의 항목은
+ * 지문이 달라 무시되고, 서버가 시작되면 실제 목록으로 다시 검증됩니다.
+ */
+public class McpToolCatalog {
+
+    private static final String CATALOG_FILE = "mcp-tool-catalog.json";
+
+    private final Path catalogPath;
+    private final JSONObject servers;
+
+    public McpToolCatalog() {
+        this.catalogPath = initializeCatalogPath();
+        this.servers = load();
+    }
+
+    /**
+     * 📚 저장된 카탈로그 항목
+     */
+    public static class Entry {
+        private final JSONArray tools;
+        private final String serverVersion;
+        private final long updatedAt;
+
+        Entry(JSONArray tools, String serverVersion, long updatedAt) {
+            this.tools = tools;
+            this.serverVersion = serverVersion;
+            this.updatedAt = updatedAt;
+        }
+
+        /** tools/list의 tools 배열 (name, description, inputSchema, annotations) */
+        public JSONArray getTools() { return tools; }
+        /** 저장 당시 서버 버전 (serverInfo.version, 알 수 없으면 null) */
+        public String getServerVersion() { return serverVersion; }
+        public long getUpdatedAt() { return updatedAt; }
+    }
+
+    private Path initializeCatalogPath() {
+        try {
+            IPath stateLocation = Platform.getStateLocation(
+                FrameworkUtil.getBundle(McpToolCatalog.class));
+            Path dir = stateLocation.toFile().toPath();
+            Files.createDirectories(dir);
+            return dir.resolve(CATALOG_FILE);
+        } catch (Exception e) {
+            CopilotLogger.error("Failed to initialize MCP tool catalog path", e);
+            return null;
+        }
+    }
+
+    private JSONObject load() {
+        try {
+            if (catalogPath != null && Files.exists(catalogPath)) {
+                String json = new String(Files.readAllBytes(catalogPath), StandardCharsets.UTF_8);
+                JSONObject root = new JSONObject(json);
+                JSONObject loaded = root.optJSONObject("servers");
+                if (loaded != null) {
+                    CopilotLogger.info("Loaded MCP tool catalog: " + loaded.length() + " servers");
+                    return loaded;
+                }
+            }
+        } catch (Exception e) {
+            CopilotLogger.warn("Failed to load MCP tool catalog: " + e.getMessage());
+        }
+        return new JSONObject();
+    }
+
+    /**
+     * 서버 설정에 맞는 항목 조회 - 없거나 설정이 바뀌었으면 null
+     */
+    public synchronized Entry get(McpServerConfig config) {
+        JSONObject server = servers.optJSONObject(config.getName());
+        if (server == null || !fingerprint(config).equals(server.optString("fingerprint"))) {
+            return null;
+        }
+        JSONArray tools = server.optJSONArray("tools");
+        return tools != null
+            ? new Entry(tools, server.optString("serverVersion", null), server.optLong("updatedAt"))
+            : null;
+    }
+
+    /**
+     * 서버의 도구 목록 저장
+     */
+    public synchronized void put(McpServerConfig config, JSONArray tools, String serverVersion) {
+        JSONObject server = new JSONObject();
+        server.put("fingerprint", fingerprint(config));
+        if (serverVersion != null) {
+            server.put("serverVersion", serverVersion);
+        }
+        server.put("updatedAt", System.currentTimeMillis());
+        server.put("tools", tools);
+        servers.put(config.getName(), server);
+        persist();
+    }
+
+    public synchronized void remove(String serverName) {
+        if (servers.remove(serverName) != null) {
+            persist();
+        }
+    }
+
+    private void persist() {
+        if (catalogPath == null) return;
+        try {
+            JSONObject root = new JSONObject();
+            root.put("servers", servers);
+            // 임시 파일에 쓴 뒤 교체해 중간에 종료되어도 파일이 깨지지 않도록 함
+            Path temp = catalogPath.resolveSibling(CATALOG_FILE + ".tmp");
+            Files.write(temp, root.toString(2).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, catalogPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            CopilotLogger.error("Failed to save MCP tool catalog", e);
+        }
+    }
+
+    /**
+     * 서버 실행 설정 지문 - 명령, 인자, 환경 변수가 같으면 같은 도구를 제공한다고 봄
+     */
+    static String fingerprint(McpServerConfig config) {
+        StringBuilder source = new StringBuilder();
+        source.append(config.getType()).append('\n').append(config.getCommand()).append('\n');
+        if (config.getArgs() != null) {
+            for (String arg : config.getArgs()) {
+                source.append(arg).append('\u0000');
+            }
+        }
+        source.append('\n');
+        if (config.getEnv() != null) {
+            for (Map.Entry<String, String> env : new TreeMap<>(config.getEnv()).entrySet()) {
+                source.append(env.getKey()).append('=').append(env.getValue()).append('\u0000');
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest(source.toString().getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            return Integer.toHexString(source.toString().hashCode());
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package com.fabrix.copilot.mcp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.fabrix.copilot.core.RequestDeadline;
+import com.fabrix.copilot.utils.CopilotLogger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 🔗 McpWebSocketClient - WebSocket 방식 MCP 클라이언트
+ *
+ * 하나의 java.net.http.WebSocket 연결로 JSON-RPC 요청을 보내고, 응답은 id별 대기 future로 돌려줍니다 (stdio 클라이언트와 같은 방식).
+ * 도구 호출마다 새 연결을 열지 않고, 서버가 보내는 알림(tools/list_changed 등)도 같은 연결로 받습니다.
+ * 주기적으로 ping을 보내 응답(pong)이 없으면 연결을 끊고, 의도하지 않은 종료는 지수 백오프로 다시 연결합니다.
+ */
+public class McpWebSocketClient extends McpClient {
+
+    private static final long CONNECT_TIMEOUT_MS = 5000;
+    private static final long REQUEST_TIMEOUT_MS = 30000;
+    private static final long PING_INTERVAL_MS = 15000;
+    private static final long RECONNECT_INITIAL_DELAY_MS = 1000;
+    private static final long RECONNECT_MAX_DELAY_MS = 30000;
+    private static final String PROTOCOL_VERSION = "2025-03-26";
+    private static final String SUBPROTOCOL = "mcp";
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+        .build();
+
+    // ping과 재연결 예약용 - 실제 연결은 다른 스레드에서 실행해 이 스레드를 막지 않음
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "FabriX-MCP-WebSocket");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final McpServerConfig config;
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final AtomicLong requestId = new AtomicLong(1);
+    private final Map<Long, CompletableFuture<JSONObject>> pendingRequests = new ConcurrentHashMap<>();
+    private final McpProgressTracker progressTracker;
+
+    // WebSocket은 이전 sendText가 끝나기 전에 다음 전송을 거부하므로 전송을 하나의 체인으로 직렬화
+    private final Object sendLock = new Object();
+    private CompletableFuture<?> sendChain = CompletableFuture.completedFuture(null);
+
+    private volatile WebSocket socket;
+    private volatile boolean connected;
+    // disconnect()로 닫은 경우 true - 재연결하지 않음
+    private volatile boolean closed;
+    private volatile long lastPongAt;
+    private volatile String serverVersion;
+    private volatile Runnable toolsChangedListener;
+    private ScheduledFuture<?> pingTask;
+
+    public McpWebSocketClient(McpServerConfig config) {
+        super(config);
+        this.config = config;
+        this.uri = URI.create(config.getArgs().get(config.getArgs().size() - 1));
+        // WebSocket 서버의 env 항목은 핸드셰이크 헤더 (Authorization 등)
+        this.headers = config.getEnv() != null ? new HashMap<>(config.getEnv()) : new HashMap<>();
+        this.progressTracker = new McpProgressTracker(config.getName());
+    }
+
+    @Override
+    public boolean connect() {
+        closed = false;
+        connected = open();
+        return connected;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void disconnect() {
+        closed = true;
+        connected = false;
+        WebSocket ws;
+        synchronized (this) {
+            ws = socket;
+            socket = null;
+            stopPing();
+        }
+        failPendingRequests(new IOException("MCP WebSocket client disconnected"));
+        if (ws != null) {
+            send(() -> ws.sendClose(WebSocket.NORMAL_CLOSURE, ""))
+                .orTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> ws.abort());
+        }
+        CopilotLogger.info("🔌 WebSocket MCP client disconnected: " + config.getName());
+    }
+
+    @Override
+    public String getServerVersion() {
+        return serverVersion;
+    }
+
+    /**
+     * 서버가 도구 목록 변경을 알리거나 재연결 후 목록을 다시 읽었을 때 호출될 리스너
+     */
+    public void setToolsChangedListener(Runnable listener) {
+        this.toolsChangedListener = listener;
+    }
+
+    /**
+     * 연결 열기 - 핸드셰이크, initialize, 도구 목록 조회까지 끝나야 성공
+     */
+    private boolean open() {
+        WebSocket ws = null;
+        try {
+            WebSocket.Builder builder = HTTP_CLIENT.newWebSocketBuilder()
+                .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+                .subprotocols(SUBPROTOCOL);
+            headers.forEach(builder::header);
+            ws = builder.buildAsync(uri, new Listener()).get(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            synchronized (this) {
+                socket = ws;
+                lastPongAt = System.currentTimeMillis();
+            }
+
+            JSONObject params = new JSONObject();
+            params.put("protocolVersion", PROTOCOL_VERSION);
+            params.put("capabilities", new JSONObject());
+            JSONObject clientInfo = new JSONObject();
+            clientInfo.put("name", "FabriX Copilot");
+            clientInfo.put("version", "1.0.0");
+            params.put("clientInfo", clientInfo);
+
+            JSONObject response = sendRequest(ws, rpcRequest("initialize", params), REQUEST_TIMEOUT_MS).get();
+            JSONObject result = response.optJSONObject("result");
+            if (result == null) {
+                throw new IOException("initialize failed: " + response.optJSONObject("error"));
+            }
+            JSONObject serverInfo = result.optJSONObject("serverInfo");
+            serverVersion = serverInfo != null ? serverInfo.optString("version", null) : null;
+
+            JSONObject initialized = new JSONObject();
+            initialized.put("jsonrpc", "2.0");
+            initialized.put("method", "notifications/initialized");
+            sendText(ws, initialized.toString());
+
+            discoverTools(ws);
+            startPing(ws);
+            CopilotLogger.info("WebSocket MCP server connected (protocol "
+                + result.optString("protocolVersion", PROTOCOL_VERSION) + "): " + config.getName());
+            return true;
+
+        } catch (Exception e) {
+            CopilotLogger.warn("WebSocket MCP connection failed: " + config.getName() + " (" + e.getMessage() + ")");
+            if (ws != null) {
+                synchronized (this) {
+                    if (socket == ws) {
+                        socket = null;
+                    }
+                }
+                ws.abort();
+            }
+            return false;
+        }
+    }
+
+    private void discoverTools(WebSocket ws) throws Exception {
+        JSONObject response = sendRequest(ws, rpcRequest("tools/list", new JSONObject()), REQUEST_TIMEOUT_MS).get();
+        JSONObject result = response.optJSONObject("result");
+        if (result != null && result.optJSONArray("tools") != null) {
+            replaceAvailableTools(result.getJSONArray("tools"));
+            CopilotLogger.info("Discovered " + getAvailableTools().size() + " tools from WebSocket server");
+        }
+    }
+
+    /**
+     * 서버 알림으로 도구 목록 재조회 - 응답은 리스너 스레드가 전달하므로 다른 스레드에서 실행
+     */
+    private void refreshTools() {
+        WebSocket ws = socket;
+        if (ws == null) return;
+        try {
+            discoverTools(ws);
+            notifyToolsChanged();
+        } catch (Exception e) {
+            CopilotLogger.warn("Failed to refresh WebSocket MCP tools: " + e.getMessage());
+        }
+    }
+
+    private void notifyToolsChanged() {
+        Runnable listener = toolsChangedListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    // ===== 연결 유지 =====
+
+    private synchronized void startPing(WebSocket ws) {
+        stopPing();
+        pingTask = SCHEDULER.scheduleAtFixedRate(() -> ping(ws),
+            PING_INTERVAL_MS, PING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopPing() {
+        if (pingTask != null) {
+            pingTask.cancel(false);
+            pingTask = null;
+        }
+    }
+
+    /**
+     * ping 전송 - 두 주기 동안 pong이 없으면 연결이 끊긴 것으로 보고 닫음 (게이트웨이/NAT가 조용히 끊은 경우)
+     */
+    private void ping(WebSocket ws) {
+        if (socket != ws) return;
+        if (System.currentTimeMillis() - lastPongAt > 2 * PING_INTERVAL_MS) {
+            ws.abort();
+            connectionLost(ws, "no pong for " + (2 * PING_INTERVAL_MS) + "ms");
+            return;
+        }
+        ws.sendPing(ByteBuffer.allocate(0));
+    }
+
+    /**
+     * 연결 끊김 처리 - 대기 중인 요청을 실패시키고, 직접 닫은 게 아니면 재연결 예약
+     */
+    private void connectionLost(WebSocket ws, String reason) {
+        synchronized (this) {
+            if (socket != ws) return;
+            socket = null;
+            stopPing();
+        }
+        connected = false;
+        failPendingRequests(new IOException("MCP WebSocket connection lost: " + reason));
+        if (!closed) {
+            CopilotLogger.warn("WebSocket MCP connection lost, reconnecting: " + config.getName() + " (" + reason + ")");
+            scheduleReconnect(RECONNECT_INITIAL_DELAY_MS);
+        }
+    }
+
+    private void scheduleReconnect(long delayMillis) {
+        SCHEDULER.schedule(() -> CompletableFuture.runAsync(() -> {
+            if (closed || connected) return;
+            if (open()) {
+                connected = true;
+                CopilotLogger.info("🔄 WebSocket MCP server reconnected: " + config.getName());
+                // 끊겨 있는 동안 서버의 도구가 바뀌었을 수 있음
+                notifyToolsChanged();
+            } else {
+                scheduleReconnect(Math.min(delayMillis * 2, RECONNECT_MAX_DELAY_MS));
+            }
+        }), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void failPendingRequests(Exception cause) {
+        for (Long id : new ArrayList<>(pendingRequests.keySet())) {
+            CompletableFuture<JSONObject> future = pendingRequests.remove(id);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * 📨 수신 리스너 - 조각난 텍스트 프레임을 모아 메시지 하나로 처리
+     */
+    private final class Listener implements WebSocket.Listener {
+        private final StringBuilder buffer = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                String message = buffer.toString();
+                buffer.setLength(0);
+                try {
+                    handleMessage(webSocket, message);
+                } catch (Exception e) {
+                    CopilotLogger.warn("Invalid MCP WebSocket message: " + e.getMessage());
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+            lastPongAt = System.currentTimeMillis();
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            connectionLost(webSocket, "closed by server (" + statusCode + (reason.isEmpty() ? "" : ", " + reason) + ")");
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            connectionLost(webSocket, String.valueOf(error.getMessage()));
+        }
+    }
+
+    private void handleMessage(WebSocket ws, String text) {
+        String trimmed = text.trim();
+        if (trimmed.startsWith("[")) {
+            JSONArray messages = new JSONArray(trimmed);
+            for (int i = 0; i < messages.length(); i++) {
+                JSONObject message = messages.optJSONObject(i);
+                if (message != null) {
+                    dispatchMessage(ws, message);
+                }
+            }
+        } else if (trimmed.startsWith("{")) {
+            dispatchMessage(ws, new JSONObject(trimmed));
+        }
+    }
+
+    private void dispatchMessage(WebSocket ws, JSONObject message) {
+        boolean hasId = message.has("id") && !message.isNull("id");
+        if (hasId && (message.has("result") || message.has("error"))) {
+            CompletableFuture<JSONObject> future = pendingRequests.remove(message.optLong("id", -1));
+            if (future != null) {
+                future.complete(message);
+            }
+            return;
+        }
+
+        String method = message.optString("method");
+        if (hasId) {
+            // 서버 요청 - ping에만 응답하고 나머지는 지원하지 않음
+            JSONObject reply = new JSONObject();
+            reply.put("jsonrpc", "2.0");
+            reply.put("id", message.get("id"));
+            if ("ping".equals(method)) {
+                reply.put("result", new JSONObject());
+            } else {
+                JSONObject error = new JSONObject();
+                error.put("code", -32601);
+                error.put("message", "Method not found: " + method);
+                reply.put("error", error);
+            }
+            sendText(ws, reply.toString());
+            return;
+        }
+
+        if (progressTracker.handle(message)) {
+            return;
+        }
+        if ("notifications/tools/list_changed".equals(method)) {
+            CompletableFuture.runAsync(this::refreshTools);
+        } else {
+            CopilotLogger.debug("MCP notification from " + config.getName() + ": " + method);
+        }
+    }
+
+    // ===== 전송 =====
+
+    private CompletableFuture<WebSocket> send(Supplier<CompletableFuture<WebSocket>> operation) {
+        synchronized (sendLock) {
+            CompletableFuture<WebSocket> next = sendChain
+                .handle((result, error) -> null)
+                .thenCompose(ignored -> operation.get());
+            sendChain = next;
+            return next;
+        }
+    }
+
+    private CompletableFuture<WebSocket> sendText(WebSocket ws, String text) {
+        return send(() -> ws.sendText(text, true));
+    }
+
+    private JSONObject rpcRequest(String method, JSONObject params) {
+        JSONObject request = new JSONObject();
+        request.put("jsonrpc", "2.0");
+        request.put("id", requestId.getAndIncrement());
+        request.put("method", method);
+        if (params != null) {
+            request.put("params", params);
+        }
+        return request;
+    }
+
+    /**
+     * JSON-RPC 요청 전송 - 같은 id의 응답이 오면 완료되는 future 반환 (만료되면 대기 목록에서 제거)
+     */
+    private CompletableFuture<JSONObject> sendRequest(WebSocket ws, JSONObject request, long timeoutMillis) {
+        long id = request.getLong("id");
+        CompletableFuture<JSONObject> future = new CompletableFuture<>();
+        if (ws == null) {
+            future.completeExceptionally(new IOException("Not connected to WebSocket MCP server"));
+            return future;
+        }
+
+        pendingRequests.put(id, future);
+        sendText(ws, request.toString()).whenComplete((sent, error) -> {
+            if (error != null) {
+                cancelRequest(id, error);
+            }
+        });
+        // 만료된 요청은 대기 목록에서 제거하고 서버에도 취소를 알림
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .whenComplete((response, error) -> {
+                pendingRequests.remove(id);
+                if (error instanceof TimeoutException) {
+                    sendCancelled(ws, id, "Request timed out after " + timeoutMillis + "ms");
+                }
+            });
+    }
+
+    private void cancelRequest(long id, Throwable cause) {
+        CompletableFuture<JSONObject> future = pendingRequests.remove(id);
+        if (future != null) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * ⏹ 요청 취소 - 대기 중인 future를 실패시키고 서버에 notifications/cancelled 전송
+     */
+    private void cancelRequest(WebSocket ws, long id, String reason) {
+        if (pendingRequests.containsKey(id)) {
+            cancelRequest(id, new CancellationException(reason));
+            sendCancelled(ws, id, reason);
+        }
+    }
+
+    private void sendCancelled(WebSocket ws, long id, String reason) {
+        if (socket == ws) {
+            sendText(ws, McpProgressTracker.cancelledNotification(id, reason).toString());
+        }
+    }
+
+    /**
+     * 응답 대기 - 요청이 취소되면 대기 중인 future를 실패시켜 바로 반환
+     */
+    private JSONObject awaitResponse(CompletableFuture<JSONObject> future, String what) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new TimeoutException(what + " timed out");
+            }
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    @Override
+    public String callTool(String toolName, Map<String, Object> parameters) throws Exception {
+        return callTool(toolName, parameters, RequestDeadline.unbounded());
+    }
+
+    @Override
+    public String callTool(String toolName, Map<String, Object> parameters, RequestDeadline deadline) throws Exception {
+        List<ToolInvocation> invocations = new ArrayList<>();
+        invocations.add(new ToolInvocation(toolName, parameters, null));
+        return callTools(invocations, deadline).get(0);
+    }
+
+    /**
+     * 여러 도구 실행 - 같은 연결로 요청을 모두 보낸 뒤 응답을 기다림 (서버가 병렬로 처리할 수 있음)
+     */
+    @Override
+    public List<String> callTools(List<ToolInvocation> invocations, RequestDeadline deadline) throws Exception {
+        WebSocket ws = socket;
+        if (!connected || ws == null) {
+            throw new Exception("Not connected to WebSocket MCP server");
+        }
+
+        long timeout = deadline.timeoutFor("MCP tool " + invocations.get(0).getToolName(), McpLatencyStats.MAX_TIMEOUT_MS);
+        List<Long> ids = new ArrayList<>();
+        List<String> progressTokens = new ArrayList<>();
+        List<CompletableFuture<JSONObject>> futures = new ArrayList<>();
+        for (ToolInvocation invocation : invocations) {
+            String progressToken = progressTracker.register(invocation.getToolName(), deadline);
+            progressTokens.add(progressToken);
+            JSONObject params = new JSONObject();
+            params.put("name", invocation.getToolName());
+            params.put("arguments", new JSONObject(invocation.getArguments()));
+            params.put("_meta", McpProgressTracker.meta(progressToken));
+            JSONObject request = rpcRequest("tools/call", params);
+            ids.add(request.getLong("id"));
+            futures.add(sendRequest(ws, request, timeout));
+        }
+
+        Runnable cancelAll = () -> {
+            for (Long id : ids) {
+                cancelRequest(ws, id, "Request cancelled");
+            }
+        };
+        RequestDeadline.Registration cancelRegistration = deadline.onCancel(cancelAll);
+        try {
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                String what = "MCP tool call " + invocations.get(i).getToolName();
+                results.add(JsonRpcBatch.toolResultText(awaitResponse(futures.get(i), what)));
+            }
+            return results;
+        } catch (Exception e) {
+            if (deadline.isCancelled()) {
+                throw new RequestDeadline.RequestCancelledException("MCP tool call cancelled");
+            }
+            throw e;
+        } finally {
+            cancelRegistration.close();
+            progressTokens.forEach(progressTracker::unregister);
+        }
+    }
+}
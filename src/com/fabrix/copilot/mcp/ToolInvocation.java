@@ -0,0 +1,181 @@
+package com.fabrix.copilot.mcp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 🧾 ToolInvocation - 도구 이름과 인자를 가진 타입이 있는 도구 호출
+ *
+ * 자연어 요청을 파싱한 결과를 서버로 보내기 전에 tools/list의 inputSchema로 검증합니다.
+ * 파서가 붙인 인자 이름(query, limit 등)이 스키마에 없으면 같은 뜻의 스키마 속성(pattern, max_count 등)으로 옮기므로
+ * 검증 기준은 서버가 알려준 스키마뿐입니다.
+ * 필수 인자 누락, 열거값 위반은 오류로 보고하고, "10" → 10처럼 안전한 타입 변환은 자동으로 적용합니다.
+ */
+public final class ToolInvocation {
+
+    /** 파서의 인자 이름 → 서버마다 다르게 부르는 같은 뜻의 속성 이름 (스키마에 원래 이름이 없을 때만 사용) */
+    private static final Map<String, String[]> ARGUMENT_ALIASES = new HashMap<>();
+    static {
+        ARGUMENT_ALIASES.put("query", new String[] { "pattern", "search", "regex", "q" });
+        ARGUMENT_ALIASES.put("limit", new String[] { "max_count", "maxCount", "max_results", "maxResults", "count" });
+        ARGUMENT_ALIASES.put("path", new String[] { "file_path", "filePath", "directory", "dir" });
+    }
+
+    private final String toolName;
+    private final Map<String, Object> arguments;
+    private final String displayParameter;
+
+    /**
+     * @param displayParameter 결과 화면에 표시할 대표 인자 (경로, 검색어 등, 없으면 null)
+     */
+    public ToolInvocation(String toolName, Map<String, Object> arguments, String displayParameter) {
+        this.toolName = toolName;
+        this.arguments = new LinkedHashMap<>(arguments);
+        this.displayParameter = displayParameter;
+    }
+
+    public String getToolName() { return toolName; }
+    public Map<String, Object> getArguments() { return Collections.unmodifiableMap(arguments); }
+    public String getDisplayParameter() { return displayParameter; }
+
+    /**
+     * 📐 입력 스키마 검증 결과
+     */
+    public static final class Validation {
+        private final ToolInvocation invocation;
+        private final List<String> errors;
+
+        private Validation(ToolInvocation invocation, List<String> errors) {
+            this.invocation = invocation;
+            this.errors = errors;
+        }
+
+        public boolean isValid() { return errors.isEmpty(); }
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+        /** 타입 변환과 스키마 밖 인자 제거가 적용된 호출 */
+        public ToolInvocation getInvocation() { return invocation; }
+    }
+
+    /**
+     * inputSchema로 인자 검증 - 스키마가 없으면 그대로 통과
+     */
+    public Validation validate(JSONObject inputSchema) {
+        List<String> errors = new ArrayList<>();
+        if (inputSchema == null) {
+            return new Validation(this, errors);
+        }
+
+        JSONObject properties = inputSchema.optJSONObject("properties");
+        Map<String, Object> validated = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> entry : arguments.entrySet()) {
+            String name = schemaName(entry.getKey(), properties);
+            JSONObject property = properties != null ? properties.optJSONObject(name) : null;
+
+            if (property == null) {
+                // 스키마에 없는 인자는 additionalProperties가 false일 때만 제거 (기본값은 허용)
+                if (properties != null && !inputSchema.optBoolean("additionalProperties", true)) {
+                    continue;
+                }
+                validated.put(name, entry.getValue());
+                continue;
+            }
+
+            Object value = coerce(entry.getValue(), property.optString("type", ""));
+            if (value == null) {
+                errors.add(name + ": expected " + property.optString("type") + " but got '" + entry.getValue() + "'");
+                continue;
+            }
+
+            JSONArray allowed = property.optJSONArray("enum");
+            if (allowed != null && !isAllowed(allowed, value)) {
+                errors.add(name + ": '" + value + "' is not one of " + allowed);
+                continue;
+            }
+            validated.put(name, value);
+        }
+
+        JSONArray required = inputSchema.optJSONArray("required");
+        if (required != null) {
+            for (int i = 0; i < required.length(); i++) {
+                String name = required.optString(i);
+                if (!validated.containsKey(name)) {
+                    errors.add(name + ": required argument missing");
+                }
+            }
+        }
+
+        return new Validation(new ToolInvocation(toolName, validated, displayParameter), errors);
+    }
+
+    /**
+     * 스키마의 속성 이름 - 인자 이름이 스키마에 없으면 아직 쓰이지 않은 같은 뜻의 속성으로 옮김
+     */
+    private String schemaName(String name, JSONObject properties) {
+        if (properties == null || properties.has(name)) {
+            return name;
+        }
+        String[] aliases = ARGUMENT_ALIASES.get(name);
+        if (aliases != null) {
+            for (String alias : aliases) {
+                if (properties.has(alias) && !arguments.containsKey(alias)) {
+                    return alias;
+                }
+            }
+        }
+        return name;
+    }
+
+    private static boolean isAllowed(JSONArray allowed, Object value) {
+        String text = String.valueOf(value);
+        for (int i = 0; i < allowed.length(); i++) {
+            if (text.equals(String.valueOf(allowed.opt(i)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 스키마 타입으로 값 변환 - 변환할 수 없으면 null
+     */
+    private static Object coerce(Object value, String type) {
+        if (value == null) return null;
+        String text = String.valueOf(value).trim();
+
+        try {
+            switch (type) {
+                case "integer":
+                    return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(text);
+                case "number":
+                    return value instanceof Number ? value : Double.parseDouble(text);
+                case "boolean":
+                    if (value instanceof Boolean) return value;
+                    if (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false")) {
+                        return Boolean.parseBoolean(text);
+                    }
+                    return null;
+                case "string":
+                    return text;
+                default:
+                    // array/object 등은 파서가 만들지 않으므로 그대로 전달
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toolName + arguments;
+    }
+}
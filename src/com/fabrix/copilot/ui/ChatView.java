@@ -22,10 +22,12 @@ import com.fabrix.copilot.core.*;
 import com.fabrix.copilot.agents.*;
 import com.fabrix.copilot.utils.*;
 import com.fabrix.copilot.mcp.McpServerManager;
+import com.fabrix.copilot.mcp.McpSnapshot;
 
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.nio.file.*;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -67,6 +69,13 @@ public class ChatView extends ViewPart {
     private ToolItem newConvItem;
     private ToolItem historyBtn;
     private ToolItem snippetBtn;
+    private ToolItem stopItem;
+    private ToolItem timelineItem;
+    
+    // 요청 타임라인
+    private Composite timelineComposite;
+    private Label timelineSummaryLabel;
+    private Tree timelineTree;
     
     // 입력
     private StyledText inputText;
@@ -83,10 +92,17 @@ public class ChatView extends ViewPart {
     private PreferenceManager preferenceManager;
     private ConversationManager conversationManager;
     private AgentOrchestrator agentOrchestrator;
+    private RequestScheduler requestScheduler;
     private SnippetManager snippetManager;
     private EnhancedContextCollector contextCollector;
     private String currentSessionId;
     private boolean isProcessing = false;
+    // 표시할 최신 진행 메시지 - 알림이 몰려도 UI 갱신은 한 번만 예약
+    private final AtomicReference<String> pendingProgress = new AtomicReference<>();
+    // MCP 스냅샷이 바뀔 때만 연결 상태 갱신 (주기적 조회 없음) - 상태 변화, 도구 목록 변경, 💤 서버 시작 포함
+    private final McpServerManager.SnapshotListener mcpSnapshotListener = this::updateConnectionStatus;
+    // 표시할 최신 MCP 스냅샷 - 변경이 몰려도 UI 갱신은 한 번만 예약
+    private final AtomicReference<McpSnapshot> pendingSnapshot = new AtomicReference<>();
     private Map<String, ModelInfo> modelMap = new HashMap<>();
     private String attachedCode = "";
     private String attachedFileName = "";
@@ -294,6 +310,7 @@ public class ChatView extends ViewPart {
         createMainLayout(parent);
         createHeader();
         createChatArea();
+        createTimelinePanel();
         createInputArea();
         loadInitialData();
         
@@ -305,6 +322,8 @@ public class ChatView extends ViewPart {
         this.llmClient = LLMClient.getInstance();
         this.conversationManager = ConversationManager.getInstance();
         this.agentOrchestrator = new AgentOrchestrator();
+        this.requestScheduler = new RequestScheduler(preferenceManager.isChatSupersedeEnabled());
+        this.requestScheduler.addStateListener(this::updateProcessingState);
         this.snippetManager = new SnippetManager();
         this.contextCollector = new EnhancedContextCollector();
         this.currentSessionId = conversationManager.startNewConversation();
@@ -343,6 +362,7 @@ public class ChatView extends ViewPart {
         statusLabel = new Label(headerComposite, SWT.NONE);
         statusLabel.setText("Ready");
         statusLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        McpServerManager.getInstance().addSnapshotListener(mcpSnapshotListener);
         updateConnectionStatus();
         
         // 모델 선택
@@ -428,6 +448,27 @@ public class ChatView extends ViewPart {
             }
         });
         
+        stopItem = new ToolItem(chatToolBar, SWT.PUSH);
+        stopItem.setText("⏹");
+        stopItem.setToolTipText("진행 중인 요청 취소");
+        stopItem.setEnabled(false);
+        stopItem.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                requestScheduler.cancelAll();
+            }
+        });
+        
+        timelineItem = new ToolItem(chatToolBar, SWT.CHECK);
+        timelineItem.setText("⏱");
+        timelineItem.setToolTipText("요청 타임라인 표시");
+        timelineItem.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                setTimelineVisible(timelineItem.getSelection());
+            }
+        });
+        
         new ToolItem(chatToolBar, SWT.SEPARATOR);
         
         attachCodeItem = new ToolItem(chatToolBar, SWT.PUSH);
@@ -486,6 +527,111 @@ public class ChatView extends ViewPart {
         });
     }
     
+    /**
+     * ⏱ 요청 타임라인 패널 - 마지막 요청의 스팬(단계, LLM/MCP 호출)별 소요 시간 표시
+     */
+    private void createTimelinePanel() {
+        timelineComposite = new Composite(mainComposite, SWT.NONE);
+        GridData timelineData = new GridData(SWT.FILL, SWT.FILL, true, false);
+        timelineData.heightHint = 160;
+        timelineData.exclude = true;
+        timelineComposite.setLayoutData(timelineData);
+        timelineComposite.setVisible(false);
+        
+        GridLayout timelineLayout = new GridLayout(1, false);
+        timelineLayout.marginHeight = 5;
+        timelineLayout.marginWidth = 15;
+        timelineComposite.setLayout(timelineLayout);
+        
+        timelineSummaryLabel = new Label(timelineComposite, SWT.NONE);
+        timelineSummaryLabel.setText("⏱ Request timeline - 아직 완료된 요청이 없습니다");
+        timelineSummaryLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        
+        timelineTree = new Tree(timelineComposite, SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL | SWT.FULL_SELECTION);
+        timelineTree.setHeaderVisible(true);
+        timelineTree.setLinesVisible(true);
+        timelineTree.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
+        
+        String[] titles = { "단계", "시작", "소요", "구간", "세부 정보" };
+        int[] widths = { 180, 60, 70, 130, 300 };
+        for (int i = 0; i < titles.length; i++) {
+            TreeColumn column = new TreeColumn(timelineTree, SWT.LEFT);
+            column.setText(titles[i]);
+            column.setWidth(widths[i]);
+        }
+    }
+    
+    private void setTimelineVisible(boolean visible) {
+        if (timelineComposite == null || timelineComposite.isDisposed()) return;
+        
+        ((GridData) timelineComposite.getLayoutData()).exclude = !visible;
+        timelineComposite.setVisible(visible);
+        mainComposite.layout(true, true);
+    }
+    
+    /**
+     * 완료된 요청의 트레이스를 타임라인 패널에 표시
+     */
+    private void showTimeline(RequestTrace trace) {
+        Display.getDefault().asyncExec(() -> {
+            if (timelineTree == null || timelineTree.isDisposed()) return;
+            
+            RequestTrace.Span root = trace.getRoot();
+            long total = Math.max(1, root.getDurationMillis());
+            
+            timelineTree.removeAll();
+            TreeItem rootItem = new TreeItem(timelineTree, SWT.NONE);
+            fillTimelineItem(rootItem, root, total);
+            expandAll(rootItem);
+            
+            timelineSummaryLabel.setText(String.format("⏱ Request timeline - 총 %dms%s",
+                root.getDurationMillis(), root.getError() != null ? " (❌ " + root.getError() + ")" : ""));
+        });
+    }
+    
+    private void fillTimelineItem(TreeItem item, RequestTrace.Span span, long totalMillis) {
+        long offset = span.getStartOffsetMillis();
+        long duration = span.getDurationMillis();
+        
+        // 전체 요청 대비 시작 위치와 길이를 20칸 막대로 표시
+        int width = 20;
+        int startCell = (int) Math.min(width - 1, offset * width / totalMillis);
+        int lengthCells = (int) Math.max(1, Math.min(width - startCell, duration * width / totalMillis));
+        StringBuilder bar = new StringBuilder();
+        for (int i = 0; i < width; i++) {
+            bar.append(i >= startCell && i < startCell + lengthCells ? '█' : '·');
+        }
+        
+        StringBuilder details = new StringBuilder();
+        span.getAttributes().forEach((key, value) -> {
+            if (details.length() > 0) details.append(", ");
+            details.append(key).append('=').append(value);
+        });
+        if (span.getError() != null) {
+            if (details.length() > 0) details.append(", ");
+            details.append("❌ ").append(span.getError());
+        }
+        
+        item.setText(new String[] {
+            span.getName(),
+            "+" + offset + "ms",
+            duration + "ms" + (span.isFinished() ? "" : " …"),
+            bar.toString(),
+            details.toString()
+        });
+        
+        for (RequestTrace.Span child : span.getChildren()) {
+            fillTimelineItem(new TreeItem(item, SWT.NONE), child, totalMillis);
+        }
+    }
+    
+    private void expandAll(TreeItem item) {
+        item.setExpanded(true);
+        for (TreeItem child : item.getItems()) {
+            expandAll(child);
+        }
+    }
+    
     private void createInputArea() {
         inputComposite = new Composite(mainComposite, SWT.NONE);
         inputComposite.setBackground(Display.getDefault().getSystemColor(SWT.COLOR_WIDGET_LIGHT_SHADOW));
@@ -785,7 +931,7 @@ public class ChatView extends ViewPart {
 
     private void sendMessage() {
         String message = inputText.getText().trim();
-        if (message.isEmpty() || message.equals("질문을 입력하세요...") || isProcessing) {
+        if (message.isEmpty() || message.equals("질문을 입력하세요...")) {
             return;
         }
 
@@ -795,7 +941,7 @@ public class ChatView extends ViewPart {
             return;
         }
 
-        setProcessingState(true);
+        // 처리 중에도 입력을 막지 않음 - 스케줄러가 이전 요청을 대체하거나 대기열에 넣음
         
         // 입력 텍스트를 즉시 저장하고 초기화
         final String userMessage = message;
@@ -823,108 +969,120 @@ public class ChatView extends ViewPart {
 
     // MCP 도구 비동기 실행
     private void executeMCPToolAsync(String message, String context, String modelId) {
-        Job job = new Job("MCP Tool Execution") {
-            @Override
-            protected IStatus run(IProgressMonitor monitor) {
-                try {
-                    monitor.beginTask("MCP 도구 실행 중...", IProgressMonitor.UNKNOWN);
-                    
-                    String mcpContext = "MCP Tool Request: " + message;
-                    if (!attachedCode.isEmpty()) {
-                        mcpContext += "\n\nAttached Code:\n" + attachedCode;
-                    }
-                    
-                    // AgentOrchestrator를 통해 처리
-                    String response = agentOrchestrator.processComplexRequest(
-                        message, mcpContext, modelId);
-                    
-                    // UI 업데이트
-                    Display.getDefault().asyncExec(() -> {
-                        if (!chatContent.isDisposed()) {
-                            addMessage("🔌 " + response, false);
-                            conversationManager.addMessage(currentSessionId, response, false);
-                            setProcessingState(false);
-                            
-                            // 스크롤
-                            if (preferenceManager.isAutoScrollEnabled()) {
-                                scrollToBottom();
-                            }
-                        }
-                    });
-                    
-                    return Status.OK_STATUS;
-                    
-                } catch (Exception e) {
-                    Display.getDefault().asyncExec(() -> {
-                        if (!chatContent.isDisposed()) {
-                            String errorMessage = "❌ MCP 도구 실행 실패: " + e.getMessage();
-                            addMessage(errorMessage, false);
-                            setProcessingState(false);
-                        }
-                    });
-                    
-                    CopilotLogger.error("MCP tool execution failed", e);
-                    return Status.error("MCP 도구 실행 실패", e);
-                }
-            }
-        };
-        
-        job.setUser(false);
-        job.schedule();
+        String mcpContext = "MCP Tool Request: " + message;
+        if (!attachedCode.isEmpty()) {
+            mcpContext += "\n\nAttached Code:\n" + attachedCode;
+        }
+        final String requestContext = mcpContext;
+        
+        // AgentOrchestrator를 통해 처리
+        requestScheduler.submit(new RequestScheduler.ScheduledRequest(
+            message, "MCP Tool Execution",
+            deadline -> processWithTimeline(message, requestContext, modelId, deadline),
+            response -> showResponse("🔌 ", response),
+            error -> showError("❌ MCP 도구 실행 실패: ", error),
+            () -> showCancelled(message)
+        ));
     }
 
     // 일반 요청 비동기 실행
     private void executeGeneralRequestAsync(String message, String context, String modelId) {
-        agentOrchestrator.processComplexRequestAsync(message, context, modelId,
-            response -> {
-                Display.getDefault().asyncExec(() -> {
-                    if (chatContent.isDisposed()) return;
-                    
-                    addMessage("🤖 " + response, false);
-                    conversationManager.addMessage(currentSessionId, response, false);
-                    setProcessingState(false);
-                    
-                    // 스크롤
-                    if (preferenceManager.isAutoScrollEnabled()) {
-                        scrollToBottom();
-                    }
-                });
-            },
-            error -> {
-                Display.getDefault().asyncExec(() -> {
-                    if (chatContent.isDisposed()) return;
-                    
-                    String errorMessage = "❌ 오류: " + error.getMessage();
-                    addMessage(errorMessage, false);
-                    setProcessingState(false);
-                    CopilotLogger.error("Message processing failed", error);
-                });
+        String enhancedContext = context;
+        if (modelId != null && !modelId.isEmpty()) {
+            enhancedContext = "Model: " + modelId + "\n" + context;
+        }
+        final String requestContext = enhancedContext;
+        
+        requestScheduler.submit(new RequestScheduler.ScheduledRequest(
+            message, "AI Assistant is thinking...",
+            deadline -> processWithTimeline(message, requestContext, modelId, deadline),
+            response -> showResponse("🤖 ", response),
+            error -> showError("❌ 오류: ", error),
+            () -> showCancelled(message)
+        ));
+    }
+    
+    // 요청 처리 후 (취소/실패 포함) 트레이스를 타임라인에 반영
+    private String processWithTimeline(String message, String requestContext, String modelId,
+            RequestDeadline deadline) throws RequestDeadline.DeadlineExceededException {
+        deadline.setProgressListener(this::showProgress);
+        try {
+            return agentOrchestrator.processComplexRequest(message, requestContext, modelId, deadline);
+        } finally {
+            showTimeline(deadline.getTrace());
+        }
+    }
+    
+    private void showResponse(String prefix, String response) {
+        Display.getDefault().asyncExec(() -> {
+            if (chatContent.isDisposed()) return;
+            
+            addMessage(prefix + response, false);
+            conversationManager.addMessage(currentSessionId, response, false);
+            
+            // 스크롤
+            if (preferenceManager.isAutoScrollEnabled()) {
+                scrollToBottom();
             }
-        );
+        });
+    }
+    
+    private void showError(String prefix, Throwable error) {
+        Display.getDefault().asyncExec(() -> {
+            if (chatContent.isDisposed()) return;
+            
+            addMessage(prefix + error.getMessage(), false);
+            CopilotLogger.error("Message processing failed", error);
+        });
+    }
+    
+    private void showCancelled(String message) {
+        Display.getDefault().asyncExec(() -> {
+            if (chatContent.isDisposed()) return;
+            
+            String preview = message.length() > 40 ? message.substring(0, 40) + "..." : message;
+            addMessage("⏹ 요청이 취소되었습니다: " + preview, false);
+        });
     }
 
-    // 처리 상태 설정 개선
-    private void setProcessingState(boolean processing) {
+    // 처리 상태 표시 - 스케줄러의 진행/대기 요청 수를 반영
+    private void updateProcessingState() {
         Display.getDefault().asyncExec(() -> {
             if (!isDisposed()) {
-                isProcessing = processing;
-                sendButton.setEnabled(!processing);
-                inputText.setEditable(!processing);
+                int inFlight = requestScheduler.getInFlightCount();
+                int queued = requestScheduler.getQueuedCount();
+                isProcessing = inFlight + queued > 0;
                 
-                if (processing) {
-                    statusLabel.setText("Processing...");
-                    sendButton.setText("처리 중...");
+                if (stopItem != null && !stopItem.isDisposed()) {
+                    stopItem.setEnabled(isProcessing);
+                }
+                
+                if (isProcessing) {
+                    statusLabel.setText(queued > 0
+                        ? String.format("Processing... (%d running, %d queued)", inFlight, queued)
+                        : "Processing...");
+                    sendButton.setText(requestScheduler.isSupersede() ? "새 요청으로 대체" : "대기열에 추가");
                 } else {
-                    statusLabel.setText("Ready");
+                    statusLabel.setText(connectionStatusText());
                     sendButton.setText("전송 (Ctrl+Enter)");
-                    
-                    // 포커스를 입력창으로 되돌리기
-                    inputText.setFocus();
                 }
             }
         });
     }
 
+    // 📶 MCP 도구 진행 알림을 상태 표시줄에 표시 (처리 중일 때만)
+    private void showProgress(String progress) {
+        if (pendingProgress.getAndSet(progress) != null) {
+            return; // 이미 예약된 갱신이 최신 메시지를 표시함
+        }
+        Display.getDefault().asyncExec(() -> {
+            String latest = pendingProgress.getAndSet(null);
+            if (!isDisposed() && isProcessing && latest != null) {
+                statusLabel.setText("Processing... " + latest);
+            }
+        });
+    }
+    
     // isDisposed 헬퍼 메서드 추가
     private boolean isDisposed() {
         return mainComposite == null || mainComposite.isDisposed() ||
@@ -942,7 +1100,8 @@ public class ChatView extends ViewPart {
     private void testMCPConnection() {
         try {
             McpServerManager manager = McpServerManager.getInstance();
-            McpServerManager.McpStatus status = manager.getStatus();
+            McpSnapshot mcp = manager.getSnapshot();
+            McpServerManager.McpStatus status = mcp.getStatus();
             
             addMessage("🔍 MCP 연결 테스트 시작...", false);
             
@@ -952,7 +1111,7 @@ public class ChatView extends ViewPart {
             
             if (status.getConnectedServers() > 0) {
                 // 연결된 도구 목록 표시
-                Map<String, List<McpServerManager.McpTool>> tools = manager.getConnectedTools();
+                Map<String, List<McpServerManager.McpTool>> tools = mcp.getConnectedTools();
                 for (Map.Entry<String, List<McpServerManager.McpTool>> entry : tools.entrySet()) {
                     String serverName = entry.getKey();
                     List<McpServerManager.McpTool> serverTools = entry.getValue();
@@ -978,7 +1137,8 @@ public class ChatView extends ViewPart {
                             // 다른 도구들에 대한 테스트 파라미터 추가...
                             
                             // 도구 실행
-                            String result = manager.executeTool(firstTool.getName(), 
+                            String result = manager.executeTool(
+                                McpServerManager.qualify(serverName, firstTool.getName()),
                                 testParams, "MCP Connection Test");
                                 
                             addMessage("✅ 도구 실행 성공:\n" + result, false);
@@ -1021,19 +1181,16 @@ public class ChatView extends ViewPart {
     }
     // MCP 도구 사용 여부 결정 - MCP가 설정되어 있고 명시적 요청인 경우만
     private boolean shouldUseMCPTool(String message) {
-        // MCP 서버가 연결되어 있는지 확인
-        McpServerManager.McpStatus status = McpServerManager.getInstance().getStatus();
-        if (status.getConnectedServers() == 0) {
+        // MCP 서버가 연결되어 있는지 확인 (상태와 도구 목록은 같은 스냅샷에서)
+        McpSnapshot mcp = McpServerManager.getInstance().getSnapshot();
+        if (!mcp.hasConnectedServers()) {
             return false;
         }
         
         String lower = message.toLowerCase();
         
         // 1. 연결된 도구들의 키워드 검사
-        Map<String, List<McpServerManager.McpTool>> connectedTools = 
-            McpServerManager.getInstance().getConnectedTools();
-        
-        for (List<McpServerManager.McpTool> tools : connectedTools.values()) {
+        for (List<McpServerManager.McpTool> tools : mcp.getConnectedTools().values()) {
             for (McpServerManager.McpTool tool : tools) {
                 String toolName = tool.getName().toLowerCase();
                 // 도구 이름이 메시지에 관련되어 있는지 확인
@@ -1145,7 +1302,6 @@ public class ChatView extends ViewPart {
                     // MCP 도구 실행 결과 표시
                     addMessage("🔌 MCP 도구 실행 결과:\n" + response, false);
                     conversationManager.addMessage(currentSessionId, response, false);
-                    setProcessingState(false);
                     inputText.setText("");
                     clearAttachedCode();
                 });
@@ -1155,7 +1311,6 @@ public class ChatView extends ViewPart {
                     if (chatContent.isDisposed()) return;
                     String errorMessage = "❌ MCP 도구 실행 실패: " + error.getMessage();
                     addMessage(errorMessage, false);
-                    setProcessingState(false);
                     CopilotLogger.error("MCP tool execution failed", error);
                 });
             }
@@ -1260,6 +1415,7 @@ public class ChatView extends ViewPart {
         if (dialog.open() == Window.OK) {
             loadInitialData();
             loadAvailableModels();
+            updateConnectionStatus();
             addMessage("✅ 설정이 저장되었습니다.", false);
             CopilotLogger.info("Settings updated");
         }
@@ -1536,45 +1692,83 @@ public class ChatView extends ViewPart {
         }
         
         // MCP 도구 가용성 (연결된 경우만)
-        McpServerManager mcpManager = McpServerManager.getInstance();
-        McpServerManager.McpStatus status = mcpManager.getStatus();
+        McpSnapshot mcp = McpServerManager.getInstance().getSnapshot();
+        McpServerManager.McpStatus status = mcp.getStatus();
         if (status.getConnectedServers() > 0) {
-            context.append("\nMCP 도구 사용 가능: ").append(status.getTotalTools()).append("개\n");
-            
-            // 사용 가능한 도구 목록
-            Map<String, List<McpServerManager.McpTool>> tools = mcpManager.getConnectedTools();
-            if (!tools.isEmpty()) {
-                context.append("도구 목록: ");
-                tools.values().stream()
-                    .flatMap(List::stream)
-                    .map(McpServerManager.McpTool::getName)
-                    .distinct()
-                    .forEach(toolName -> context.append(toolName).append(", "));
-                context.append("\n");
-            }
+            context.append(formatToolContext(status.getTotalTools(), mcp.getConnectedTools()));
         }
         
         return context.toString();
     }
     
+    /**
+     * MCP 도구 목록 컨텍스트 - 별도의 "=== Available MCP Tools ===" 섹션으로 내보내
+     * 프롬프트 조립 시 파일 컨텍스트의 예산을 차지하지 않고 낮은 우선순위로 다뤄지게 함
+     * 도구마다 카탈로그/서버가 알려준 파라미터와 설명을 포함합니다.
+     */
+    public static String formatToolContext(int totalTools, Map<String, List<McpServerManager.McpTool>> tools) {
+        StringBuilder context = new StringBuilder();
+        context.append("\n=== Available MCP Tools ===\n");
+        context.append("MCP 도구 사용 가능: ").append(totalTools).append("개\n");
+        if (!tools.isEmpty()) {
+            context.append("도구 목록:\n");
+            Set<String> listed = new HashSet<>();
+            tools.values().stream()
+                .flatMap(List::stream)
+                .filter(tool -> listed.add(tool.getName()))
+                .forEach(tool -> context.append("- ").append(describeToolForPrompt(tool)).append("\n"));
+        }
+        return context.toString();
+    }
+    
+    private static final int PROMPT_TOOL_DESCRIPTION_LIMIT = 100;
+    
+    private static String describeToolForPrompt(McpServerManager.McpTool tool) {
+        String description = tool.getDescription() != null ? tool.getDescription().trim() : "";
+        int lineEnd = description.indexOf('\n');
+        if (lineEnd >= 0) {
+            description = description.substring(0, lineEnd);
+        }
+        if (description.length() > PROMPT_TOOL_DESCRIPTION_LIMIT) {
+            description = description.substring(0, PROMPT_TOOL_DESCRIPTION_LIMIT) + "...";
+        }
+        String parameters = tool.getParameters() != null ? tool.getParameters() : "";
+        return tool.getName() + "(" + parameters + ")" + (description.isEmpty() ? "" : ": " + description);
+    }
+    
+    // 연결 상태 표시 - 처리 중에는 진행 상태를 덮어쓰지 않음
     private void updateConnectionStatus() {
-        Display.getDefault().timerExec(5000, () -> {
-            if (!statusLabel.isDisposed()) {
-                boolean hasApi = preferenceManager.hasValidAPIKey();
-                McpServerManager.McpStatus mcpStatus = McpServerManager.getInstance().getStatus();
-                
-                String status = String.format("API: %s | MCP: %d/%d servers, %d tools", 
-                    hasApi ? "✅" : "❌",
-                    mcpStatus.getConnectedServers(),
-                    mcpStatus.getTotalServers(),
-                    mcpStatus.getTotalTools());
-                
-                statusLabel.setText(status);
-                updateConnectionStatus(); // 재귀 호출
+        updateConnectionStatus(McpServerManager.getInstance().getSnapshot());
+    }
+    
+    // 전달받은 스냅샷으로 표시 - 이미 예약된 갱신이 있으면 스냅샷만 바꿔 최신 값을 표시하게 함
+    private void updateConnectionStatus(McpSnapshot snapshot) {
+        if (pendingSnapshot.getAndSet(snapshot) != null) {
+            return;
+        }
+        Display.getDefault().asyncExec(() -> {
+            McpSnapshot latest = pendingSnapshot.getAndSet(null);
+            if (!isDisposed() && !isProcessing && latest != null) {
+                statusLabel.setText(connectionStatusText(latest));
             }
         });
     }
     
+    private String connectionStatusText() {
+        return connectionStatusText(McpServerManager.getInstance().getSnapshot());
+    }
+    
+    private String connectionStatusText(McpSnapshot snapshot) {
+        boolean hasApi = preferenceManager.hasValidAPIKey();
+        McpServerManager.McpStatus mcpStatus = snapshot.getStatus();
+        
+        return String.format("API: %s | MCP: %d/%d servers, %d tools", 
+            hasApi ? "✅" : "❌",
+            mcpStatus.getConnectedServers(),
+            mcpStatus.getTotalServers(),
+            mcpStatus.getTotalTools());
+    }
+    
     private void loadInitialData() {
         if (!PreferenceManager.getInstance().hasValidAPIKey()) {
             addMessage("⚠️ API 키가 설정되지 않았습니다. Settings에서 설정해주세요.", false);
@@ -1592,53 +1786,50 @@ public class ChatView extends ViewPart {
         });
     }
     
+    /**
+     * MCP 서버 초기화 - 설정된 서버와 기본 파일시스템 서버를 백그라운드에서 동시에 시작
+     * 각 서버는 준비되는 즉시 사용할 수 있고, 모든 시작 시도가 끝나면 상태를 표시합니다.
+     */
     private void initializeMCPServers() {
         McpServerManager manager = McpServerManager.getInstance();
         
-        // 로컬 설정 로드
-        manager.loadLocalMCPConfig();
-        
-        // NPX 확인 및 안내
-        if (!checkNPXAvailability()) {
-            addMessage("⚠️ npx를 찾을 수 없습니다. Node.js가 설치되어 있는지 확인하세요.", false);
-            addMessage("💡 npx는 npm 5.2.0 이상에 포함되어 있습니다. 다음 명령으로 확인하세요:", false);
-            addMessage("```\nnpm --version\nnpx --version\n```", false);
-            return;
-        }
+        // 로컬 설정 로드 (서버별 병렬 시작)
+        java.util.concurrent.CompletableFuture<Void> configured = manager.loadLocalMCPConfig();
         
         // 개발/테스트용 기본 MCP 서버 추가
+        java.util.concurrent.CompletableFuture<Void> defaults;
         if (!preferenceManager.getBooleanValue("mcp.skip_default_servers", false)) {
-            try {
-                // 다양한 방법으로 MCP 서버 시작 시도
-                boolean connected = false;
-                
-                // 방법 1: npx로 직접 실행
-                if (!connected) {
-                    connected = tryNPXConnection(manager);
-                }
-                
-                // 방법 2: 글로벌 설치된 경우
-                if (!connected) {
-                    connected = tryGlobalInstallation(manager);
-                }
-                
-                // 방법 3: 로컬 node_modules
-                if (!connected) {
-                    connected = tryLocalInstallation(manager);
-                }
-                
-                if (!connected) {
-                    addMessage("⚠️ MCP 서버 연결 실패. 다음 명령으로 설치해보세요:", false);
-                    addMessage("```\nnpm install -g @modelcontextprotocol/server-filesystem\n```", false);
-                }
-                
-            } catch (Exception e) {
-                CopilotLogger.warn("Failed to setup default MCP servers: " + e.getMessage());
-            }
+            defaults = java.util.concurrent.CompletableFuture.supplyAsync(this::checkNPXAvailability)
+                .thenCompose(npxAvailable -> {
+                    if (!npxAvailable) {
+                        // NPX 확인 및 안내
+                        postMessage("⚠️ npx를 찾을 수 없습니다. Node.js가 설치되어 있는지 확인하세요.");
+                        postMessage("💡 npx는 npm 5.2.0 이상에 포함되어 있습니다. 다음 명령으로 확인하세요:");
+                        postMessage("```\nnpm --version\nnpx --version\n```");
+                        return java.util.concurrent.CompletableFuture.completedFuture(null);
+                    }
+                    return startDefaultFilesystemServer(manager, 0);
+                })
+                .exceptionally(e -> {
+                    CopilotLogger.warn("Failed to setup default MCP servers: " + e.getMessage());
+                    return null;
+                });
+        } else {
+            defaults = java.util.concurrent.CompletableFuture.completedFuture(null);
         }
         
+        java.util.concurrent.CompletableFuture.allOf(configured, defaults).whenComplete((ignored, error) ->
+            Display.getDefault().asyncExec(() -> {
+                if (!chatContent.isDisposed()) {
+                    showMCPStatus(manager);
+                }
+            }));
+    }
+    
+    private void showMCPStatus(McpServerManager manager) {
         // 상태 표시
-        McpServerManager.McpStatus status = manager.getStatus();
+        McpSnapshot mcp = manager.getSnapshot();
+        McpServerManager.McpStatus status = mcp.getStatus();
         if (status.getTotalServers() > 0 && status.getConnectedServers() > 0) {
             addMessage(String.format("🔌 MCP: %d개 서버 중 %d개 연결됨 (%d개 도구 사용 가능)", 
                 status.getTotalServers(), 
@@ -1647,7 +1838,7 @@ public class ChatView extends ViewPart {
             
             // 사용 가능한 도구 목록 표시
             if (status.getTotalTools() > 0) {
-                Map<String, List<McpServerManager.McpTool>> tools = manager.getConnectedTools();
+                Map<String, List<McpServerManager.McpTool>> tools = mcp.getConnectedTools();
                 StringBuilder toolsMsg = new StringBuilder("📋 사용 가능한 도구:\n");
                 for (Map.Entry<String, List<McpServerManager.McpTool>> entry : tools.entrySet()) {
                     toolsMsg.append("• ").append(entry.getKey()).append(": ");
@@ -1661,6 +1852,128 @@ public class ChatView extends ViewPart {
         }
     }
     
+    /**
+     * 백그라운드 스레드에서 채팅 메시지 추가
+     */
+    private void postMessage(String message) {
+        Display.getDefault().asyncExec(() -> {
+            if (!chatContent.isDisposed()) {
+                addMessage(message, false);
+            }
+        });
+    }
+    
+    /**
+     * 기본 파일시스템 서버 시작 - npx → 글로벌 설치 → 로컬 node_modules 순으로, 앞의 방법이 실패하면 다음 방법 시도
+     */
+    private java.util.concurrent.CompletableFuture<Void> startDefaultFilesystemServer(McpServerManager manager, int method) {
+        com.fabrix.copilot.mcp.McpServerConfig fsConfig = null;
+        String successMessage = null;
+        try {
+            switch (method) {
+                case 0:
+                    // 방법 1: npx로 직접 실행
+                    fsConfig = npxFilesystemConfig();
+                    successMessage = "🔌 파일시스템 MCP 서버가 npx로 연결되었습니다.";
+                    break;
+                case 1:
+                    // 방법 2: 글로벌 설치된 경우
+                    fsConfig = globalFilesystemConfig();
+                    successMessage = "🔌 파일시스템 MCP 서버가 글로벌 설치에서 연결되었습니다.";
+                    break;
+                case 2:
+                    // 방법 3: 로컬 node_modules
+                    fsConfig = localFilesystemConfig();
+                    successMessage = "🔌 파일시스템 MCP 서버가 로컬 설치에서 연결되었습니다.";
+                    break;
+                default:
+                    postMessage("⚠️ MCP 서버 연결 실패. 다음 명령으로 설치해보세요:");
+                    postMessage("```\nnpm install -g @modelcontextprotocol/server-filesystem\n```");
+                    return java.util.concurrent.CompletableFuture.completedFuture(null);
+            }
+        } catch (Exception e) {
+            CopilotLogger.warn("Filesystem MCP server lookup failed: " + e.getMessage());
+        }
+        
+        if (fsConfig == null) {
+            return startDefaultFilesystemServer(manager, method + 1);
+        }
+        
+        String message = successMessage;
+        return manager.startServer(fsConfig)
+            .handle((ready, error) -> error == null)
+            .thenCompose(connected -> {
+                if (connected) {
+                    postMessage(message);
+                    return java.util.concurrent.CompletableFuture.<Void>completedFuture(null);
+                }
+                return startDefaultFilesystemServer(manager, method + 1);
+            });
+    }
+    
+    private static String fsConfigName(int method) {
+        switch (method) {
+            case 0: return "filesystem-mcp-npx";
+            case 1: return "filesystem-mcp-global";
+            default: return "filesystem-mcp-local";
+        }
+    }
+    
+    private com.fabrix.copilot.mcp.McpServerConfig npxFilesystemConfig() {
+        return new com.fabrix.copilot.mcp.McpServerConfig(
+            fsConfigName(0),
+            "stdio",
+            "npx",
+            Arrays.asList("--yes", "@modelcontextprotocol/server-filesystem", System.getProperty("user.home")),
+            new HashMap<>(),
+            1
+        );
+    }
+    
+    private com.fabrix.copilot.mcp.McpServerConfig globalFilesystemConfig() {
+        // npm 글로벌 경로 찾기
+        String npmPrefix = getNPMPrefix();
+        if (npmPrefix != null) {
+            String serverPath = npmPrefix + "/lib/node_modules/@modelcontextprotocol/server-filesystem/dist/index.js";
+            java.io.File file = new java.io.File(serverPath);
+            
+            if (file.exists()) {
+                return new com.fabrix.copilot.mcp.McpServerConfig(
+                    fsConfigName(1),
+                    "stdio",
+                    "node",
+                    Arrays.asList(serverPath, System.getProperty("user.home")),
+                    new HashMap<>(),
+                    1
+                );
+            }
+        }
+        return null;
+    }
+    
+    private com.fabrix.copilot.mcp.McpServerConfig localFilesystemConfig() {
+        String[] possiblePaths = {
+            "./node_modules/@modelcontextprotocol/server-filesystem/dist/index.js",
+            "../node_modules/@modelcontextprotocol/server-filesystem/dist/index.js",
+            System.getProperty("user.home") + "/node_modules/@modelcontextprotocol/server-filesystem/dist/index.js"
+        };
+        
+        for (String path : possiblePaths) {
+            java.io.File file = new java.io.File(path);
+            if (file.exists()) {
+                return new com.fabrix.copilot.mcp.McpServerConfig(
+                    fsConfigName(2),
+                    "stdio",
+                    "node",
+                    Arrays.asList(file.getAbsolutePath(), System.getProperty("user.home")),
+                    new HashMap<>(),
+                    1
+                );
+            }
+        }
+        return null;
+    }
+    
     private boolean checkNPXAvailability() {
         try {
             ProcessBuilder pb = new ProcessBuilder();
@@ -1685,89 +1998,6 @@ public class ChatView extends ViewPart {
         return false;
     }
     
-    private boolean tryNPXConnection(McpServerManager manager) {
-        try {
-            com.fabrix.copilot.mcp.McpServerConfig fsConfig = new com.fabrix.copilot.mcp.McpServerConfig(
-                "filesystem-mcp-npx",
-                "stdio",
-                "npx",
-                Arrays.asList("--yes", "@modelcontextprotocol/server-filesystem", System.getProperty("user.home")),
-                new HashMap<>(),
-                1
-            );
-            
-            if (manager.addServer(fsConfig)) {
-                addMessage("🔌 파일시스템 MCP 서버가 npx로 연결되었습니다.", false);
-                return true;
-            }
-        } catch (Exception e) {
-            CopilotLogger.warn("NPX connection failed: " + e.getMessage());
-        }
-        return false;
-    }
-    
-    private boolean tryGlobalInstallation(McpServerManager manager) {
-        try {
-            // npm 글로벌 경로 찾기
-            String npmPrefix = getNPMPrefix();
-            if (npmPrefix != null) {
-                String serverPath = npmPrefix + "/lib/node_modules/@modelcontextprotocol/server-filesystem/dist/index.js";
-                java.io.File file = new java.io.File(serverPath);
-                
-                if (file.exists()) {
-                    com.fabrix.copilot.mcp.McpServerConfig fsConfig = new com.fabrix.copilot.mcp.McpServerConfig(
-                        "filesystem-mcp-global",
-                        "stdio",
-                        "node",
-                        Arrays.asList(serverPath, System.getProperty("user.home")),
-                        new HashMap<>(),
-                        1
-                    );
-                    
-                    if (manager.addServer(fsConfig)) {
-                        addMessage("🔌 파일시스템 MCP 서버가 글로벌 설치에서 연결되었습니다.", false);
-                        return true;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            CopilotLogger.warn("Global installation check failed: " + e.getMessage());
-        }
-        return false;
-    }
-    
-    private boolean tryLocalInstallation(McpServerManager manager) {
-        try {
-            String[] possiblePaths = {
-                "./node_modules/@modelcontextprotocol/server-filesystem/dist/index.js",
-                "../node_modules/@modelcontextprotocol/server-filesystem/dist/index.js",
-                System.getProperty("user.home") + "/node_modules/@modelcontextprotocol/server-filesystem/dist/index.js"
-            };
-            
-            for (String path : possiblePaths) {
-                java.io.File file = new java.io.File(path);
-                if (file.exists()) {
-                    com.fabrix.copilot.mcp.McpServerConfig fsConfig = new com.fabrix.copilot.mcp.McpServerConfig(
-                        "filesystem-mcp-local",
-                        "stdio",
-                        "node",
-                        Arrays.asList(file.getAbsolutePath(), System.getProperty("user.home")),
-                        new HashMap<>(),
-                        1
-                    );
-                    
-                    if (manager.addServer(fsConfig)) {
-                        addMessage("🔌 파일시스템 MCP 서버가 로컬 설치에서 연결되었습니다.", false);
-                        return true;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            CopilotLogger.warn("Local installation check failed: " + e.getMessage());
-        }
-        return false;
-    }
-    
     private String getNPMPrefix() {
         try {
             ProcessBuilder pb = new ProcessBuilder();
@@ -1808,6 +2038,12 @@ public class ChatView extends ViewPart {
     @Override
     public void dispose() {
         CopilotLogger.info("ChatView disposing");
+        McpServerManager.getInstance().removeSnapshotListener(mcpSnapshotListener);
+        
+        // 진행 중인 요청 취소 (HTTP/MCP 호출까지 중단)
+        if (requestScheduler != null) {
+            requestScheduler.dispose();
+        }
         
         // 리소스 정리
         if (llmClient != null) {
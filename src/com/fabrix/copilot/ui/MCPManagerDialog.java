@@ -9,13 +9,18 @@ import org.eclipse.swt.graphics.*;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.dialogs.MessageDialog;
 
+import com.fabrix.copilot.mcp.McpCallLimiter;
+import com.fabrix.copilot.mcp.McpLatencyStats;
 import com.fabrix.copilot.mcp.McpServerManager;
 import com.fabrix.copilot.mcp.McpServerConfig;
+import com.fabrix.copilot.mcp.McpSnapshot;
+import com.fabrix.copilot.mcp.McpStderrLog;
 import com.fabrix.copilot.utils.PreferenceManager;
 import com.fabrix.copilot.utils.CopilotLogger;
 
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 🔌 MCP Manager Dialog - MCP 서버 관리
@@ -24,6 +29,9 @@ import java.util.List;
  */
 public class MCPManagerDialog extends Dialog {
     
+    /** Show stderr에서 보여줄 최근 줄 수 */
+    private static final int STDERR_LINES = 200;
+    
     private Tree serverTree;
     private Text detailsText;
     private Label statusLabel;
@@ -32,6 +40,20 @@ public class MCPManagerDialog extends Dialog {
     
     private McpServerManager mcpManager;
     private PreferenceManager preferenceManager;
+    // 서버 상태, 도구 목록(list_changed), 💤 서버 시작이 바뀌면 전달된 스냅샷으로 목록 갱신
+    // (변경이 몰려도 최신 스냅샷으로 한 번만 그리고, 새로고침 중에는 끝난 뒤 한 번에 갱신)
+    private final AtomicReference<McpSnapshot> pendingSnapshot = new AtomicReference<>();
+    private final McpServerManager.SnapshotListener snapshotListener = snapshot -> {
+        if (pendingSnapshot.getAndSet(snapshot) != null) {
+            return;
+        }
+        Display.getDefault().asyncExec(() -> {
+            McpSnapshot latest = pendingSnapshot.getAndSet(null);
+            if (latest != null && !serverTree.isDisposed() && refreshButton.isEnabled()) {
+                loadMCPStatus(latest);
+            }
+        });
+    };
     
     public MCPManagerDialog(Shell parentShell) {
         super(parentShell);
@@ -62,10 +84,17 @@ public class MCPManagerDialog extends Dialog {
         createHeader(container);
         createMainContent(container);
         loadMCPStatus();
+        mcpManager.addSnapshotListener(snapshotListener);
         
         return container;
     }
     
+    @Override
+    public boolean close() {
+        mcpManager.removeSnapshotListener(snapshotListener);
+        return super.close();
+    }
+    
     /**
      * 헤더 생성
      */
@@ -140,6 +169,15 @@ public class MCPManagerDialog extends Dialog {
                 testSelectedTool();
             }
         });
+        
+        MenuItem stderrItem = new MenuItem(contextMenu, SWT.PUSH);
+        stderrItem.setText("📜 Show stderr");
+        stderrItem.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                showSelectedServerStderr();
+            }
+        });
     }
     
     /**
@@ -172,14 +210,18 @@ public class MCPManagerDialog extends Dialog {
      * MCP 상태 로드
      */
     private void loadMCPStatus() {
+        loadMCPStatus(mcpManager.getSnapshot());
+    }
+    
+    private void loadMCPStatus(McpSnapshot mcp) {
         serverTree.removeAll();
         
-        McpServerManager.McpStatus status = mcpManager.getStatus();
+        McpServerManager.McpStatus status = mcp.getStatus();
         statusLabel.setText(String.format("서버: %d개 연결됨 / %d개 설정됨 | 도구: %d개", 
             status.getConnectedServers(), status.getTotalServers(), status.getTotalTools()));
         
         // 연결된 도구들만 표시
-        Map<String, List<McpServerManager.McpTool>> connectedTools = mcpManager.getConnectedTools();
+        Map<String, List<McpServerManager.McpTool>> connectedTools = mcp.getConnectedTools();
         
         if (connectedTools.isEmpty()) {
             TreeItem noServerItem = new TreeItem(serverTree, SWT.NONE);
@@ -198,7 +240,7 @@ public class MCPManagerDialog extends Dialog {
                 List<McpServerManager.McpTool> tools = entry.getValue();
                 
                 TreeItem serverItem = new TreeItem(serverTree, SWT.NONE);
-                serverItem.setText("🟢 " + serverName + " (" + tools.size() + " tools)");
+                serverItem.setText("🟢 " + serverName + " (" + tools.size() + " tools" + formatLoad(serverName) + ")");
                 serverItem.setData("type", "server");
                 serverItem.setData("name", serverName);
                 
@@ -247,19 +289,132 @@ public class MCPManagerDialog extends Dialog {
         details.append("🔌 MCP Server: ").append(serverName).append("\n\n");
         details.append("상태: 🟢 연결됨\n");
         details.append("타입: stdio/http\n");
+        appendCallStats(details, serverName);
+        appendStderrSummary(details, serverName);
+        details.append("\n");
         
         List<McpServerManager.McpTool> tools = mcpManager.getConnectedTools().get(serverName);
         if (tools != null) {
             details.append("도구 수: ").append(tools.size()).append("\n\n");
             details.append("제공하는 도구들:\n");
             for (McpServerManager.McpTool tool : tools) {
-                details.append("• ").append(tool.getName()).append("\n");
+                details.append("• ").append(tool.getName()).append(formatLatency(serverName, tool.getName())).append("\n");
             }
         }
         
         detailsText.setText(details.toString());
     }
     
+    /**
+     * 실행 중/대기 중인 호출 수 (없으면 빈 문자열)
+     */
+    private String formatLoad(String serverName) {
+        McpCallLimiter.Stats stats = mcpManager.getCallStats(serverName);
+        if (stats == null || (stats.getInFlight() == 0 && stats.getQueued() == 0)) {
+            return "";
+        }
+        return ", " + stats.getInFlight() + " running, " + stats.getQueued() + " queued";
+    }
+    
+    /**
+     * 도구 목록에 붙일 관측 지연 시간 (호출한 적 없으면 빈 문자열)
+     */
+    private String formatLatency(String serverName, String toolName) {
+        McpLatencyStats.Snapshot latency = mcpManager.getToolLatency(serverName, toolName);
+        if (latency == null) {
+            return "";
+        }
+        return String.format(" - p50 %dms, p99 %dms, 타임아웃 %.1fs", latency.getP50Millis(), latency.getP99Millis(),
+            mcpManager.getToolTimeoutMillis(serverName, toolName) / 1000.0);
+    }
+    
+    /**
+     * ⏱️ 관측 지연 시간과 현재 적용 중인 타임아웃
+     */
+    private void appendLatency(StringBuilder details, String serverName, String toolName) {
+        McpLatencyStats.Snapshot latency = mcpManager.getToolLatency(serverName, toolName);
+        details.append("\n⏱️ 지연 시간:\n");
+        if (latency == null) {
+            details.append("• 아직 호출 없음 (타임아웃 ")
+                   .append(mcpManager.getToolTimeoutMillis(serverName, toolName) / 1000).append("초)\n");
+            return;
+        }
+        details.append("• 호출: ").append(latency.getCalls()).append("건, 타임아웃: ")
+               .append(latency.getTimeouts()).append("건\n");
+        details.append("• p50 ").append(latency.getP50Millis()).append("ms, p90 ").append(latency.getP90Millis())
+               .append("ms, p99 ").append(latency.getP99Millis()).append("ms, 최대 ").append(latency.getMaxMillis()).append("ms\n");
+        details.append("• EWMA: ").append(latency.getEwmaMillis()).append("ms\n");
+        details.append("• 적용 중인 타임아웃: ").append(mcpManager.getToolTimeoutMillis(serverName, toolName)).append("ms\n");
+    }
+    
+    /**
+     * 🚦 동시 호출 제한과 대기열 지표
+     */
+    private void appendCallStats(StringBuilder details, String serverName) {
+        McpCallLimiter.Stats stats = mcpManager.getCallStats(serverName);
+        details.append("\n🚦 도구 호출:\n");
+        if (stats == null) {
+            details.append("• 아직 호출 없음\n");
+            return;
+        }
+        details.append("• 실행 중: ").append(stats.getInFlight()).append(" / ").append(stats.getMaxInFlight()).append("\n");
+        details.append("• 대기열: ").append(stats.getQueued()).append(" / ").append(stats.getMaxQueue())
+               .append(" (최대 ").append(stats.getPeakQueued()).append(")\n");
+        details.append("• 대기 시간: 평균 ").append(stats.getAverageWaitMillis()).append("ms, 최대 ")
+               .append(stats.getMaxWaitMillis()).append("ms (").append(stats.getWaited()).append("건 대기)\n");
+        details.append("• 완료: ").append(stats.getCompleted()).append("건, 대기열 초과로 거부: ")
+               .append(stats.getRejected()).append("건\n");
+    }
+    
+    /**
+     * 📜 stderr 요약 - 전체 내용은 컨텍스트 메뉴에서
+     */
+    private void appendStderrSummary(StringBuilder details, String serverName) {
+        McpStderrLog.Snapshot stderr = mcpManager.getServerStderr(serverName, 1);
+        if (stderr == null) {
+            return;
+        }
+        details.append("\n📜 stderr: ").append(stderr.getTotalLines()).append("줄 (우클릭 → Show stderr)\n");
+        if (!stderr.getLines().isEmpty()) {
+            details.append("• 마지막 줄: ").append(stderr.getLines().get(0)).append("\n");
+        }
+    }
+    
+    /**
+     * 📜 선택한 서버(또는 도구의 서버)의 최근 stderr 표시
+     */
+    private void showSelectedServerStderr() {
+        TreeItem[] selection = serverTree.getSelection();
+        if (selection.length == 0) {
+            return;
+        }
+        TreeItem selected = selection[0];
+        String serverName = "server".equals(selected.getData("type"))
+            ? (String) selected.getData("name") : (String) selected.getData("server");
+        if (serverName == null) {
+            return;
+        }
+        
+        StringBuilder details = new StringBuilder();
+        details.append("📜 stderr: ").append(serverName).append("\n\n");
+        McpStderrLog.Snapshot stderr = mcpManager.getServerStderr(serverName, STDERR_LINES);
+        if (stderr == null) {
+            details.append("stderr 출력이 없습니다 (stdio 서버만 수집).\n");
+        } else {
+            details.append("전체 ").append(stderr.getTotalLines()).append("줄, 로그에서 요약된 줄 ")
+                   .append(stderr.getSuppressedLines()).append("줄");
+            if (stderr.getTotalLines() > stderr.getLines().size()) {
+                details.append(" - 최근 ").append(stderr.getLines().size()).append("줄만 표시");
+            }
+            details.append("\n\n");
+            for (String line : stderr.getLines()) {
+                details.append(line).append("\n");
+            }
+        }
+        detailsText.setText(details.toString());
+        detailsText.setTopIndex(detailsText.getLineCount());
+    }
+    
     /**
      * 도구 상세 정보 표시
      */
@@ -276,6 +431,7 @@ public class MCPManagerDialog extends Dialog {
                 details.append("• ").append(param.trim()).append("\n");
             }
         }
+        appendLatency(details, serverName, tool.getName());
         
         details.append("\n사용 예시:\n");
         details.append(getToolExample(tool.getName()));
@@ -363,7 +519,8 @@ public class MCPManagerDialog extends Dialog {
         }
         
         try {
-            String result = mcpManager.executeTool(tool.getName(), testParams, "test");
+            String result = mcpManager.executeTool(
+                McpServerManager.qualify(serverName, tool.getName()), testParams, "test");
             MessageDialog.openInformation(getShell(), 
                 "도구 테스트 결과", 
                 "도구: " + tool.getName() + "\n\n결과:\n" + result);
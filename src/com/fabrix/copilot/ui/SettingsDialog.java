@@ -45,6 +45,14 @@ public class SettingsDialog extends Dialog {
     private Label apiStatusLabel;
     private Text mcpConfigText;
     private Label mcpStatusLabel;
+    private Button mcpLazyStartButton;
+    private Text mcpIdleShutdownText;
+    private Button mcpResultCacheButton;
+    private Text mcpMaxInFlightText;
+    private Text mcpMaxQueuedText;
+    private Text mcpToolTimeoutMinText;
+    private Text mcpToolTimeoutMaxText;
+    private Button mcpBrokerButton;
     private Button autoScrollButton;
     private Scale fontSizeScale;
     private Label fontSizeValueLabel;
@@ -159,6 +167,44 @@ public class SettingsDialog extends Dialog {
         mcpConfigText.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
         mcpConfigText.setFont(new Font(mcpConfigText.getDisplay(), "Consolas", 10, SWT.NORMAL));
         
+        // Lifecycle Group
+        Group lifecycleGroup = new Group(mcpComposite, SWT.NONE);
+        lifecycleGroup.setText("💤 Server Lifecycle");
+        lifecycleGroup.setLayout(new GridLayout(2, false));
+        lifecycleGroup.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        
+        mcpLazyStartButton = new Button(lifecycleGroup, SWT.CHECK);
+        mcpLazyStartButton.setText("Start servers on first tool call (use cached tool list)");
+        mcpLazyStartButton.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+        
+        new Label(lifecycleGroup, SWT.NONE).setText("Stop idle servers after (minutes, 0 = never):");
+        mcpIdleShutdownText = new Text(lifecycleGroup, SWT.BORDER);
+        mcpIdleShutdownText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        
+        mcpResultCacheButton = new Button(lifecycleGroup, SWT.CHECK);
+        mcpResultCacheButton.setText("Cache read-only tool results until the workspace changes");
+        mcpResultCacheButton.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+        
+        new Label(lifecycleGroup, SWT.NONE).setText("Concurrent tool calls per server:");
+        mcpMaxInFlightText = new Text(lifecycleGroup, SWT.BORDER);
+        mcpMaxInFlightText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        
+        new Label(lifecycleGroup, SWT.NONE).setText("Queued calls per server (fail when full):");
+        mcpMaxQueuedText = new Text(lifecycleGroup, SWT.BORDER);
+        mcpMaxQueuedText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        
+        new Label(lifecycleGroup, SWT.NONE).setText("Tool timeout floor (seconds):");
+        mcpToolTimeoutMinText = new Text(lifecycleGroup, SWT.BORDER);
+        mcpToolTimeoutMinText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        
+        new Label(lifecycleGroup, SWT.NONE).setText("Tool timeout ceiling (seconds, max 600):");
+        mcpToolTimeoutMaxText = new Text(lifecycleGroup, SWT.BORDER);
+        mcpToolTimeoutMaxText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        
+        mcpBrokerButton = new Button(lifecycleGroup, SWT.CHECK);
+        mcpBrokerButton.setText("Share stdio servers across Eclipse instances (local broker)");
+        mcpBrokerButton.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 2, 1));
+        
         // Button Group
         Composite buttonComposite = new Composite(mcpComposite, SWT.NONE);
         buttonComposite.setLayout(new GridLayout(3, false));
@@ -257,6 +303,14 @@ public class SettingsDialog extends Dialog {
         fabrixClientText.setText(preferenceManager.getFabriXClientKey());
         
         mcpConfigText.setText(preferenceManager.getValue("mcp.config.json", "{}"));
+        mcpLazyStartButton.setSelection(preferenceManager.isMCPLazyStartEnabled());
+        mcpIdleShutdownText.setText(String.valueOf(preferenceManager.getMCPIdleShutdownMinutes()));
+        mcpResultCacheButton.setSelection(preferenceManager.isMCPResultCacheEnabled());
+        mcpMaxInFlightText.setText(String.valueOf(preferenceManager.getMCPMaxInFlightCalls()));
+        mcpMaxQueuedText.setText(String.valueOf(preferenceManager.getMCPMaxQueuedCalls()));
+        mcpToolTimeoutMinText.setText(String.valueOf(preferenceManager.getMCPToolTimeoutMinSeconds()));
+        mcpToolTimeoutMaxText.setText(String.valueOf(preferenceManager.getMCPToolTimeoutMaxSeconds()));
+        mcpBrokerButton.setSelection(preferenceManager.isMCPBrokerEnabled());
 
         autoScrollButton.setSelection(preferenceManager.isAutoScrollEnabled());
         showTimestampsButton.setSelection(preferenceManager.isShowTimestamps());
@@ -276,6 +330,34 @@ public class SettingsDialog extends Dialog {
         preferenceManager.setFabriXClientKey(fabrixClientText.getText().trim());
         
         preferenceManager.setValue("mcp.config.json", mcpConfigText.getText().trim());
+        preferenceManager.setMCPLazyStartEnabled(mcpLazyStartButton.getSelection());
+        preferenceManager.setMCPResultCacheEnabled(mcpResultCacheButton.getSelection());
+        try {
+            preferenceManager.setMCPIdleShutdownMinutes(Integer.parseInt(mcpIdleShutdownText.getText().trim()));
+        } catch (NumberFormatException e) {
+            preferenceManager.setMCPIdleShutdownMinutes(10); // 기본값
+        }
+        try {
+            preferenceManager.setMCPMaxInFlightCalls(Integer.parseInt(mcpMaxInFlightText.getText().trim()));
+        } catch (NumberFormatException e) {
+            preferenceManager.setMCPMaxInFlightCalls(2); // 기본값
+        }
+        try {
+            preferenceManager.setMCPMaxQueuedCalls(Integer.parseInt(mcpMaxQueuedText.getText().trim()));
+        } catch (NumberFormatException e) {
+            preferenceManager.setMCPMaxQueuedCalls(16); // 기본값
+        }
+        try {
+            preferenceManager.setMCPToolTimeoutMinSeconds(Integer.parseInt(mcpToolTimeoutMinText.getText().trim()));
+        } catch (NumberFormatException e) {
+            preferenceManager.setMCPToolTimeoutMinSeconds(5); // 기본값
+        }
+        try {
+            preferenceManager.setMCPToolTimeoutMaxSeconds(Integer.parseInt(mcpToolTimeoutMaxText.getText().trim()));
+        } catch (NumberFormatException e) {
+            preferenceManager.setMCPToolTimeoutMaxSeconds(120); // 기본값
+        }
+        preferenceManager.setMCPBrokerEnabled(mcpBrokerButton.getSelection());
         
         preferenceManager.setAutoScroll(autoScrollButton.getSelection());
         preferenceManager.setShowTimestamps(showTimestampsButton.getSelection());
@@ -310,16 +392,18 @@ public class SettingsDialog extends Dialog {
                     monitor.beginTask("Testing MCP servers...", IProgressMonitor.UNKNOWN);
                     
                     // 설정 저장
+                    String[] config = new String[1];
                     Display.getDefault().syncExec(() -> {
-                        applyMCPConfig();
+                        config[0] = mcpConfigText.getText();
                     });
+                    preferenceManager.setValue("mcp.config.json", config[0]);
+                    
+                    // 설정된 서버를 동시에 시작하고, 모든 서버가 준비(또는 실패)될 때까지 대기
+                    mcpServerManager.loadLocalMCPConfig().get();
                     
                     // MCP 서버 새로고침
                     mcpServerManager.refreshServers();
                     
-                    // 잠시 대기 (서버 시작 시간)
-                    Thread.sleep(2000);
-                    
                     // 상태 확인
                     McpServerManager.McpStatus status = mcpServerManager.getStatus();
                     String statusText = String.format("Test complete: %d out of %d servers connected.", 
@@ -10,11 +10,14 @@ import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.dialogs.IDialogConstants;
 
 import com.fabrix.copilot.mcp.McpServerManager;
+import com.fabrix.copilot.mcp.ToolInvocation;
 import com.fabrix.copilot.utils.CopilotLogger;
 
 import java.util.*;
 import org.eclipse.swt.graphics.*;
 import org.eclipse.swt.dnd.*;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 /**
  * 🧪 Tool Test Dialog - MCP 도구 테스트 UI
@@ -159,15 +162,27 @@ public class ToolTestDialog extends Dialog {
     }
     
     /**
-     * 개별 파라미터 필드 생성
+     * 개별 파라미터 필드 생성 - 입력 스키마가 있으면 필수 표시(*)와 타입/설명 안내
      */
     private void createParameterField(String paramName) {
+        JSONObject property = getSchemaProperty(paramName);
+        
         Label label = new Label(parametersComposite, SWT.NONE);
-        label.setText(paramName + ":");
+        label.setText(paramName + (isRequired(paramName) ? " *" : "") + ":");
         
         Text field = new Text(parametersComposite, SWT.BORDER);
         field.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
-        field.setMessage("Enter " + paramName);
+        if (property != null) {
+            String type = property.optString("type");
+            String description = property.optString("description");
+            field.setMessage((type.isEmpty() ? "" : "[" + type + "] ")
+                + (description.isEmpty() ? "Enter " + paramName : description));
+            if (!description.isEmpty()) {
+                field.setToolTipText(description);
+            }
+        } else {
+            field.setMessage("Enter " + paramName);
+        }
         
         // 특정 파라미터에 대한 기본값 제공
         setDefaultValue(paramName, field);
@@ -175,6 +190,24 @@ public class ToolTestDialog extends Dialog {
         parameterFields.put(paramName, field);
     }
     
+    private JSONObject getSchemaProperty(String paramName) {
+        JSONObject schema = tool.getInputSchema();
+        JSONObject properties = schema != null ? schema.optJSONObject("properties") : null;
+        return properties != null ? properties.optJSONObject(paramName) : null;
+    }
+    
+    private boolean isRequired(String paramName) {
+        JSONObject schema = tool.getInputSchema();
+        JSONArray required = schema != null ? schema.optJSONArray("required") : null;
+        if (required == null) return false;
+        for (int i = 0; i < required.length(); i++) {
+            if (paramName.equals(required.optString(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * 파라미터 기본값 설정
      */
@@ -281,6 +314,16 @@ public class ToolTestDialog extends Dialog {
             }
         }
         
+        // 입력 스키마로 검증 및 타입 변환 (서버를 띄우기 전에 잘못된 입력을 알려줌)
+        ToolInvocation.Validation validation =
+            new ToolInvocation(tool.getName(), parameters, null).validate(tool.getInputSchema());
+        if (!validation.isValid()) {
+            statusLabel.setText("⚠️ " + String.join(", ", validation.getErrors()));
+            statusLabel.setForeground(statusLabel.getDisplay().getSystemColor(SWT.COLOR_RED));
+            return;
+        }
+        Map<String, Object> arguments = new HashMap<>(validation.getInvocation().getArguments());
+        
         String context = contextText.getText().trim();
         
         // UI 업데이트
@@ -295,7 +338,7 @@ public class ToolTestDialog extends Dialog {
                 long startTime = System.currentTimeMillis();
                 
                 // 도구 실행
-                String result = mcpManager.executeTool(tool.getName(), parameters, context);
+                String result = mcpManager.executeTool(tool.getName(), arguments, context);
                 
                 long duration = System.currentTimeMillis() - startTime;
                 
@@ -38,6 +38,22 @@ public class PreferenceManager {
     private static final String FONT_SIZE = "ui.font.size";
     private static final String SHOW_TIMESTAMPS = "ui.show.timestamps";
     
+    // Performance Settings
+    private static final String AGENT_CACHE_TTL = "agent.cache.ttl.seconds";
+    private static final String AGENT_ENSEMBLE_ENABLED = "agent.ensemble.enabled";
+    private static final String AGENT_ENSEMBLE_TIMEOUT = "agent.ensemble.timeout.seconds";
+    private static final String REQUEST_DEADLINE = "request.deadline.seconds";
+    private static final String CHAT_SUPERSEDE = "chat.request.supersede";
+    private static final String PROMPT_TOKEN_BUDGET = "prompt.token.budget";
+    private static final String MCP_LAZY_START = "mcp.lazy.start";
+    private static final String MCP_IDLE_SHUTDOWN = "mcp.idle.shutdown.minutes";
+    private static final String MCP_RESULT_CACHE = "mcp.result.cache";
+    private static final String MCP_MAX_IN_FLIGHT = "mcp.max.inflight";
+    private static final String MCP_MAX_QUEUED = "mcp.max.queued";
+    private static final String MCP_TOOL_TIMEOUT_MIN = "mcp.tool.timeout.min.seconds";
+    private static final String MCP_TOOL_TIMEOUT_MAX = "mcp.tool.timeout.max.seconds";
+    private static final String MCP_BROKER = "mcp.broker.enabled";
+    
     // =================================================================
     // 🎯 인스턴스 변수
     // =================================================================
@@ -88,6 +104,22 @@ public class PreferenceManager {
         preferenceStore.setDefault(AUTO_SCROLL, true);
         preferenceStore.setDefault(FONT_SIZE, 12);
         preferenceStore.setDefault(SHOW_TIMESTAMPS, true);
+        
+        // Performance Settings
+        preferenceStore.setDefault(AGENT_CACHE_TTL, 300);
+        preferenceStore.setDefault(AGENT_ENSEMBLE_ENABLED, true);
+        preferenceStore.setDefault(AGENT_ENSEMBLE_TIMEOUT, 60);
+        preferenceStore.setDefault(REQUEST_DEADLINE, 120);
+        preferenceStore.setDefault(CHAT_SUPERSEDE, true);
+        preferenceStore.setDefault(PROMPT_TOKEN_BUDGET, 6000);
+        preferenceStore.setDefault(MCP_LAZY_START, true);
+        preferenceStore.setDefault(MCP_IDLE_SHUTDOWN, 10);
+        preferenceStore.setDefault(MCP_RESULT_CACHE, true);
+        preferenceStore.setDefault(MCP_MAX_IN_FLIGHT, 2);
+        preferenceStore.setDefault(MCP_MAX_QUEUED, 16);
+        preferenceStore.setDefault(MCP_TOOL_TIMEOUT_MIN, 5);
+        preferenceStore.setDefault(MCP_TOOL_TIMEOUT_MAX, 120);
+        preferenceStore.setDefault(MCP_BROKER, false);
     }
     
     // =================================================================
@@ -340,6 +372,226 @@ public class PreferenceManager {
         }
     }
     
+    // =================================================================
+    // ⚡ 성능 설정 관리
+    // =================================================================
+    
+    /**
+     * 🗂️ 에이전트 응답 캐시 TTL (초, 0이면 캐시 비활성화)
+     */
+    public void setAgentCacheTtlSeconds(int seconds) {
+        setIntValue(AGENT_CACHE_TTL, Math.max(0, seconds));
+    }
+    
+    public int getAgentCacheTtlSeconds() {
+        try {
+            return Math.max(0, preferenceStore.getInt(AGENT_CACHE_TTL));
+        } catch (Exception e) {
+            return 300;
+        }
+    }
+    
+    /**
+     * 🎲 모호한 요청에 대한 CODE/GENERAL 병렬 실행 여부
+     */
+    public void setAgentEnsembleEnabled(boolean enabled) {
+        setBooleanValue(AGENT_ENSEMBLE_ENABLED, enabled);
+    }
+    
+    public boolean isAgentEnsembleEnabled() {
+        try {
+            return preferenceStore.getBoolean(AGENT_ENSEMBLE_ENABLED);
+        } catch (Exception e) {
+            return true;
+        }
+    }
+    
+    /**
+     * 🎲 앙상블 후보들이 공유하는 데드라인 (초)
+     */
+    public void setAgentEnsembleTimeoutSeconds(int seconds) {
+        setIntValue(AGENT_ENSEMBLE_TIMEOUT, Math.max(1, seconds));
+    }
+    
+    public int getAgentEnsembleTimeoutSeconds() {
+        try {
+            int seconds = preferenceStore.getInt(AGENT_ENSEMBLE_TIMEOUT);
+            return seconds > 0 ? seconds : 60;
+        } catch (Exception e) {
+            return 60;
+        }
+    }
+    
+    /**
+     * ⏳ 채팅 요청 하나에 허용되는 전체 시간 예산 (초)
+     */
+    public void setRequestDeadlineSeconds(int seconds) {
+        setIntValue(REQUEST_DEADLINE, Math.max(1, seconds));
+    }
+    
+    public int getRequestDeadlineSeconds() {
+        try {
+            int seconds = preferenceStore.getInt(REQUEST_DEADLINE);
+            return seconds > 0 ? seconds : 120;
+        } catch (Exception e) {
+            return 120;
+        }
+    }
+    
+    /**
+     * 🗓️ 새 채팅 요청이 진행 중인 요청을 취소하고 대체할지 여부 (false면 대기열에 추가)
+     */
+    public void setChatSupersedeEnabled(boolean enabled) {
+        setBooleanValue(CHAT_SUPERSEDE, enabled);
+    }
+    
+    public boolean isChatSupersedeEnabled() {
+        try {
+            return preferenceStore.getBoolean(CHAT_SUPERSEDE);
+        } catch (Exception e) {
+            return true;
+        }
+    }
+    
+    /**
+     * 🧱 에이전트 프롬프트 전체 토큰 예산 (추정치) - 초과 시 우선순위가 낮은 섹션부터 요약/제외
+     */
+    public void setPromptTokenBudget(int tokens) {
+        setIntValue(PROMPT_TOKEN_BUDGET, Math.max(500, tokens));
+    }
+    
+    public int getPromptTokenBudget() {
+        try {
+            int tokens = preferenceStore.getInt(PROMPT_TOKEN_BUDGET);
+            return tokens > 0 ? tokens : 6000;
+        } catch (Exception e) {
+            return 6000;
+        }
+    }
+    
+    /**
+     * 💤 도구 카탈로그가 저장된 MCP 서버는 첫 도구 호출 때 프로세스 시작
+     */
+    public void setMCPLazyStartEnabled(boolean enabled) {
+        setBooleanValue(MCP_LAZY_START, enabled);
+    }
+    
+    public boolean isMCPLazyStartEnabled() {
+        try {
+            return preferenceStore.getBoolean(MCP_LAZY_START);
+        } catch (Exception e) {
+            return true;
+        }
+    }
+    
+    /**
+     * 💤 이 시간(분) 동안 호출이 없는 MCP 서버 프로세스 종료 (0이면 종료하지 않음)
+     */
+    public void setMCPIdleShutdownMinutes(int minutes) {
+        setIntValue(MCP_IDLE_SHUTDOWN, Math.max(0, minutes));
+    }
+    
+    public int getMCPIdleShutdownMinutes() {
+        try {
+            return Math.max(0, preferenceStore.getInt(MCP_IDLE_SHUTDOWN));
+        } catch (Exception e) {
+            return 10;
+        }
+    }
+    
+    /**
+     * 🗃️ 읽기 전용 MCP 도구 결과 캐시 (워크스페이스 변경 시 무효화)
+     */
+    public void setMCPResultCacheEnabled(boolean enabled) {
+        setBooleanValue(MCP_RESULT_CACHE, enabled);
+    }
+    
+    public boolean isMCPResultCacheEnabled() {
+        try {
+            return preferenceStore.getBoolean(MCP_RESULT_CACHE);
+        } catch (Exception e) {
+            return true;
+        }
+    }
+    
+    /**
+     * 🚦 서버 하나에 동시에 보낼 수 있는 MCP 도구 호출 수 (서버 설정의 maxInFlight가 우선)
+     */
+    public void setMCPMaxInFlightCalls(int calls) {
+        setIntValue(MCP_MAX_IN_FLIGHT, Math.max(1, calls));
+    }
+    
+    public int getMCPMaxInFlightCalls() {
+        try {
+            int calls = preferenceStore.getInt(MCP_MAX_IN_FLIGHT);
+            return calls > 0 ? calls : 2;
+        } catch (Exception e) {
+            return 2;
+        }
+    }
+    
+    /**
+     * 🚦 서버별로 차례를 기다릴 수 있는 호출 수 - 넘치면 기다리지 않고 바로 실패
+     */
+    public void setMCPMaxQueuedCalls(int calls) {
+        setIntValue(MCP_MAX_QUEUED, Math.max(0, calls));
+    }
+    
+    public int getMCPMaxQueuedCalls() {
+        try {
+            return Math.max(0, preferenceStore.getInt(MCP_MAX_QUEUED));
+        } catch (Exception e) {
+            return 16;
+        }
+    }
+    
+    /**
+     * ⏱️ 도구 호출 타임아웃 하한 (초) - 관측한 지연 시간이 아무리 짧아도 이보다 빨리 끊지 않음
+     */
+    public void setMCPToolTimeoutMinSeconds(int seconds) {
+        setIntValue(MCP_TOOL_TIMEOUT_MIN, Math.max(1, seconds));
+    }
+    
+    public int getMCPToolTimeoutMinSeconds() {
+        try {
+            int seconds = preferenceStore.getInt(MCP_TOOL_TIMEOUT_MIN);
+            return seconds > 0 ? seconds : 5;
+        } catch (Exception e) {
+            return 5;
+        }
+    }
+    
+    /**
+     * ⏱️ 도구 호출 타임아웃 상한 (초, 최대 600초)
+     */
+    public void setMCPToolTimeoutMaxSeconds(int seconds) {
+        setIntValue(MCP_TOOL_TIMEOUT_MAX, Math.max(1, Math.min(600, seconds)));
+    }
+    
+    public int getMCPToolTimeoutMaxSeconds() {
+        try {
+            int seconds = preferenceStore.getInt(MCP_TOOL_TIMEOUT_MAX);
+            return seconds > 0 ? Math.min(600, seconds) : 120;
+        } catch (Exception e) {
+            return 120;
+        }
+    }
+    
+    /**
+     * 🔀 로컬 MCP 브로커 사용 - 여러 Eclipse 인스턴스가 같은 stdio 서버 프로세스를 공유
+     */
+    public void setMCPBrokerEnabled(boolean enabled) {
+        setBooleanValue(MCP_BROKER, enabled);
+    }
+    
+    public boolean isMCPBrokerEnabled() {
+        try {
+            return preferenceStore.getBoolean(MCP_BROKER);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
     // =================================================================
     // 🔧 누락된 Public 메서드들 추가
     // =================================================================
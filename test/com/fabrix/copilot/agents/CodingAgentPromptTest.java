@@ -0,0 +1,75 @@
+package com.fabrix.copilot.agents;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fabrix.copilot.core.PromptAssembler;
+import com.fabrix.copilot.mcp.McpServerManager;
+import com.fabrix.copilot.ui.ChatView;
+
+/**
+ * 🧪 CodingAgent 프롬프트 조립 - ChatView 컨텍스트의 MCP 도구 목록이 파일 컨텍스트 예산을 차지하지 않는지 확인
+ */
+public class CodingAgentPromptTest {
+
+    private static final int TOKEN_BUDGET = 6000;
+
+    @Test
+    public void toolListDoesNotCrowdOutFileContext() {
+        StringBuilder file = new StringBuilder("프로젝트: demo\n파일: src/Main.java\n");
+        for (int i = 0; i < 60; i++) {
+            file.append("int value").append(i).append(" = compute(").append(i).append(");\n");
+        }
+        String fileContext = file.toString();
+
+        Map<String, List<McpServerManager.McpTool>> tools = new LinkedHashMap<>();
+        List<McpServerManager.McpTool> serverTools = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            serverTools.add(new McpServerManager.McpTool("tool_" + i,
+                "Performs operation number " + i + " against the remote system and returns a detailed report",
+                "path, recursive, pattern"));
+        }
+        tools.put("server", serverTools);
+
+        // ChatView.getCurrentContext 출력을 AgentOrchestrator.buildEnhancedContext처럼 감쌈
+        String chatContext = fileContext + ChatView.formatToolContext(serverTools.size(), tools);
+        String context = "=== File Context ===\n" + chatContext;
+
+        PromptAssembler assembler = CodingAgent.codingPromptAssembler("이 메서드를 리팩터링해줘", context, null, TOKEN_BUDGET);
+        String prompt = assembler.assemble();
+
+        assertFalse(assembler.getTrimmedSections().contains("file"), "file context must not be trimmed");
+        assertFalse(assembler.getDroppedSections().contains("file"), "file context must not be dropped");
+        assertTrue(prompt.contains(fileContext.trim()), "file context must survive intact");
+
+        String fileSection = prompt.substring(prompt.indexOf("📋 파일 컨텍스트:"));
+        int toolHints = fileSection.indexOf("🔌 사용 가능한 도구:");
+        if (toolHints >= 0) {
+            fileSection = fileSection.substring(0, toolHints);
+        }
+        assertFalse(fileSection.contains("tool_"), "tool list must not be part of the file section");
+        assertFalse(fileSection.contains("도구 목록:"), "tool list header must not be part of the file section");
+    }
+
+    @Test
+    public void toolListIsEmittedAsItsOwnSection() {
+        Map<String, List<McpServerManager.McpTool>> tools = new LinkedHashMap<>();
+        List<McpServerManager.McpTool> serverTools = new ArrayList<>();
+        serverTools.add(new McpServerManager.McpTool("read_file", "Read a file", "path"));
+        tools.put("filesystem", serverTools);
+
+        Map<String, String> parts = PromptAssembler.splitContext(
+            "=== File Context ===\n파일: src/Main.java\n" + ChatView.formatToolContext(1, tools));
+
+        assertEquals("파일: src/Main.java", parts.get("File Context").trim());
+        assertTrue(parts.get("Available MCP Tools").contains("read_file"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.fabrix.copilot.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 🧪 RequestDeadline - 취소 훅, limitTo/fork 하위 데드라인, 예산 확인
+ */
+public class RequestDeadlineTest {
+
+    @Test
+    public void cancelRunsEachHookOnce() {
+        RequestDeadline deadline = RequestDeadline.after(60000);
+        AtomicInteger runs = new AtomicInteger();
+        deadline.onCancel(runs::incrementAndGet);
+
+        deadline.cancel();
+        deadline.cancel();
+
+        assertEquals(1, runs.get());
+        assertTrue(deadline.isCancelled());
+        assertEquals(0L, deadline.remainingMillis());
+    }
+
+    @Test
+    public void hookRegisteredAfterCancelRunsImmediately() {
+        RequestDeadline deadline = RequestDeadline.after(60000);
+        deadline.cancel();
+        AtomicInteger runs = new AtomicInteger();
+
+        deadline.onCancel(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void closedRegistrationDoesNotRun() {
+        RequestDeadline deadline = RequestDeadline.after(60000);
+        AtomicInteger runs = new AtomicInteger();
+
+        deadline.onCancel(runs::incrementAndGet).close();
+        deadline.cancel();
+
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void limitToCapsTheBudgetAndSharesCancellation() {
+        RequestDeadline parent = RequestDeadline.after(60000);
+        RequestDeadline child = parent.limitTo(1000);
+        AtomicInteger runs = new AtomicInteger();
+        child.onCancel(runs::incrementAndGet);
+
+        assertTrue(child.remainingMillis() <= 1000);
+        assertSame(parent.getTrace(), child.getTrace());
+
+        child.cancel();
+
+        assertTrue(parent.isCancelled(), "limitTo child cancels the whole request");
+        assertEquals(1, runs.get(), "hooks are registered on the parent");
+    }
+
+    @Test
+    public void limitToNeverExtendsTheParentBudget() {
+        RequestDeadline parent = RequestDeadline.after(500);
+
+        assertTrue(parent.limitTo(60000).remainingMillis() <= 500);
+    }
+
+    @Test
+    public void forkIsCancelledWithItsParentButNotTheOtherWay() {
+        RequestDeadline parent = RequestDeadline.after(60000);
+        RequestDeadline first = parent.fork();
+        RequestDeadline second = parent.fork();
+        AtomicInteger parentRuns = new AtomicInteger();
+        AtomicInteger firstRuns = new AtomicInteger();
+        parent.onCancel(parentRuns::incrementAndGet);
+        first.onCancel(firstRuns::incrementAndGet);
+
+        first.cancel();
+
+        assertTrue(first.isCancelled());
+        assertFalse(parent.isCancelled());
+        assertFalse(second.isCancelled());
+        assertEquals(1, firstRuns.get());
+        assertEquals(0, parentRuns.get());
+
+        parent.cancel();
+
+        assertTrue(second.isCancelled());
+        assertEquals(1, parentRuns.get());
+    }
+
+    @Test
+    public void releasedForkNoLongerFollowsItsParent() {
+        RequestDeadline parent = RequestDeadline.after(60000);
+        RequestDeadline child = parent.fork();
+        AtomicInteger childRuns = new AtomicInteger();
+        child.onCancel(childRuns::incrementAndGet);
+
+        child.release();
+        parent.cancel();
+
+        assertEquals(0, childRuns.get(), "released fork must not stay in the parent's hook list");
+        assertTrue(child.isCancelled(), "budget still follows the parent");
+    }
+
+    @Test
+    public void forkOfACancelledParentStartsCancelled() {
+        RequestDeadline parent = RequestDeadline.after(60000);
+        parent.cancel();
+
+        RequestDeadline child = parent.fork();
+
+        assertTrue(child.isCancelled());
+        assertThrows(RequestDeadline.RequestCancelledException.class, () -> child.check("tool"));
+    }
+
+    @Test
+    public void timeoutForUsesTheSmallerOfPreferredAndRemaining() throws Exception {
+        RequestDeadline deadline = RequestDeadline.after(60000);
+
+        assertEquals(3000, deadline.timeoutFor("llm", 3000));
+        assertTrue(deadline.timeoutFor("llm", 120000) <= 60000);
+        assertEquals(Integer.MAX_VALUE, RequestDeadline.unbounded().timeoutFor("llm", Long.MAX_VALUE));
+    }
+
+    @Test
+    public void exhaustedBudgetFailsBeforeTheStage() {
+        RequestDeadline deadline = RequestDeadline.after(0);
+
+        assertThrows(RequestDeadline.DeadlineExceededException.class, () -> deadline.check("llm"));
+        assertThrows(RequestDeadline.DeadlineExceededException.class, () -> deadline.timeoutFor("llm", 1000));
+    }
+}
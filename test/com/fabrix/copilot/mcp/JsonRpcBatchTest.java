@@ -0,0 +1,76 @@
+package com.fabrix.copilot.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 🧪 JsonRpcBatch - id 부여와 순서와 무관한 응답 분배 확인
+ */
+public class JsonRpcBatchTest {
+
+    @Test
+    public void idsComeFromTheSharedCounterInOrder() {
+        AtomicLong counter = new AtomicLong(7);
+        JsonRpcBatch batch = new JsonRpcBatch(counter);
+
+        assertEquals(7L, batch.add("tools/list", null));
+        assertEquals(8L, batch.add("resources/list", Collections.emptyMap()));
+        assertEquals(9L, counter.get(), "single requests must not reuse batch ids");
+        assertEquals(Arrays.asList(7L, 8L), batch.getIds());
+
+        JSONArray body = new JSONArray(batch.toJson());
+        assertEquals(2, body.length());
+        assertEquals("tools/list", body.getJSONObject(0).getString("method"));
+        assertEquals(8L, body.getJSONObject(1).getLong("id"));
+        assertEquals("2.0", body.getJSONObject(1).getString("jsonrpc"));
+    }
+
+    @Test
+    public void responsesArePairedByIdRegardlessOfOrder() {
+        Map<Long, JSONObject> responses = JsonRpcBatch.parseResponses(
+            "[{\"jsonrpc\":\"2.0\",\"id\":3,\"result\":{\"n\":3}},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{\"n\":1}},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":2,\"error\":{\"code\":-32601,\"message\":\"nope\"}}]");
+
+        assertEquals(3, responses.size());
+        assertEquals(1, responses.get(1L).getJSONObject("result").getInt("n"));
+        assertEquals(3, responses.get(3L).getJSONObject("result").getInt("n"));
+        assertTrue(responses.get(2L).has("error"));
+    }
+
+    @Test
+    public void singleObjectAndIdlessResponsesAreHandled() {
+        assertEquals(Collections.singleton(5L),
+            JsonRpcBatch.parseResponses("{\"jsonrpc\":\"2.0\",\"id\":5,\"result\":{}}").keySet());
+        assertTrue(JsonRpcBatch.parseResponses(
+            "{\"jsonrpc\":\"2.0\",\"id\":null,\"error\":{\"code\":-32600,\"message\":\"batch\"}}").isEmpty());
+        assertTrue(JsonRpcBatch.parseResponses("  ").isEmpty());
+    }
+
+    @Test
+    public void toolResultTextReadsTheFirstContentItem() throws Exception {
+        JSONObject response = new JSONObject(
+            "{\"id\":1,\"result\":{\"content\":[{\"type\":\"text\",\"text\":\"hello\"},{\"type\":\"text\",\"text\":\"x\"}]}}");
+
+        assertEquals("hello", JsonRpcBatch.toolResultText(response));
+    }
+
+    @Test
+    public void toolErrorAndMissingResponseAreFailures() {
+        JSONObject error = new JSONObject("{\"id\":1,\"error\":{\"code\":-32000,\"message\":\"denied\"}}");
+
+        Exception failure = assertThrows(Exception.class, () -> JsonRpcBatch.toolResultText(error));
+        assertTrue(failure.getMessage().contains("denied"));
+        assertThrows(Exception.class, () -> JsonRpcBatch.toolResultText(null));
+    }
+}
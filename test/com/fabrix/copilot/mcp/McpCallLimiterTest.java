@@ -0,0 +1,166 @@
+package com.fabrix.copilot.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import com.fabrix.copilot.core.RequestDeadline;
+
+/**
+ * 🧪 McpCallLimiter - 동시 호출 제한, 대기열 순서, 대기열 초과/취소/타임아웃 확인
+ */
+public class McpCallLimiterTest {
+
+    @Test
+    public void callsOverTheLimitWaitForAPermit() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        RequestDeadline deadline = RequestDeadline.after(10000);
+        McpCallLimiter.Permit first = limiter.acquire("fs", 1, 4, deadline);
+
+        CompletableFuture<McpCallLimiter.Permit> second = acquireAsync(limiter, "fs", 1, 4, deadline);
+        awaitQueued(limiter, "fs", 1);
+        assertFalse(second.isDone());
+
+        first.close();
+        second.get(5, TimeUnit.SECONDS).close();
+
+        McpCallLimiter.Stats stats = limiter.getStats("fs");
+        assertEquals(0, stats.getInFlight());
+        assertEquals(2L, stats.getCompleted());
+        assertEquals(1L, stats.getWaited());
+    }
+
+    @Test
+    public void waitersAreServedInArrivalOrder() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        RequestDeadline deadline = RequestDeadline.after(10000);
+        McpCallLimiter.Permit first = limiter.acquire("git", 1, 4, deadline);
+        CompletableFuture<McpCallLimiter.Permit> second = acquireAsync(limiter, "git", 1, 4, deadline);
+        awaitQueued(limiter, "git", 1);
+        CompletableFuture<McpCallLimiter.Permit> third = acquireAsync(limiter, "git", 1, 4, deadline);
+        awaitQueued(limiter, "git", 2);
+
+        first.close();
+        McpCallLimiter.Permit secondPermit = second.get(5, TimeUnit.SECONDS);
+        assertFalse(third.isDone(), "only one permit was released");
+
+        secondPermit.close();
+        third.get(5, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    public void fullQueueFailsImmediately() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        RequestDeadline deadline = RequestDeadline.after(10000);
+        McpCallLimiter.Permit first = limiter.acquire("fs", 1, 1, deadline);
+        CompletableFuture<McpCallLimiter.Permit> second = acquireAsync(limiter, "fs", 1, 1, deadline);
+        awaitQueued(limiter, "fs", 1);
+
+        assertThrows(McpCallLimiter.QueueFullException.class, () -> limiter.acquire("fs", 1, 1, deadline));
+        assertEquals(1L, limiter.getStats("fs").getRejected());
+
+        first.close();
+        second.get(5, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    public void permitIsReturnedOnlyOnce() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        RequestDeadline deadline = RequestDeadline.after(10000);
+        McpCallLimiter.Permit first = limiter.acquire("fs", 2, 0, deadline);
+
+        first.close();
+        first.close();
+
+        assertEquals(0, limiter.getStats("fs").getInFlight());
+        limiter.acquire("fs", 2, 0, deadline);
+        limiter.acquire("fs", 2, 0, deadline);
+        assertThrows(McpCallLimiter.QueueFullException.class, () -> limiter.acquire("fs", 2, 0, deadline));
+    }
+
+    @Test
+    public void cancelledRequestLeavesTheQueue() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        McpCallLimiter.Permit first = limiter.acquire("fs", 1, 4, RequestDeadline.after(10000));
+        RequestDeadline waiting = RequestDeadline.after(10000);
+        CompletableFuture<McpCallLimiter.Permit> second = acquireAsync(limiter, "fs", 1, 4, waiting);
+        awaitQueued(limiter, "fs", 1);
+
+        waiting.cancel();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof RequestDeadline.RequestCancelledException, "got " + failure.getCause());
+        assertEquals(0, limiter.getStats("fs").getQueued());
+        first.close();
+        assertEquals(0, limiter.getStats("fs").getInFlight(), "cancelled waiter must not take the permit");
+    }
+
+    @Test
+    public void queueWaitIsBoundedByTheDeadline() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        McpCallLimiter.Permit first = limiter.acquire("fs", 1, 4, RequestDeadline.after(10000));
+
+        assertThrows(TimeoutException.class, () -> limiter.acquire("fs", 1, 4, RequestDeadline.after(400)));
+        assertEquals(0, limiter.getStats("fs").getQueued());
+        first.close();
+    }
+
+    @Test
+    public void raisedLimitGrantsWaitingCalls() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        RequestDeadline deadline = RequestDeadline.after(10000);
+        McpCallLimiter.Permit first = limiter.acquire("fs", 1, 4, deadline);
+        CompletableFuture<McpCallLimiter.Permit> second = acquireAsync(limiter, "fs", 1, 4, deadline);
+        awaitQueued(limiter, "fs", 1);
+
+        McpCallLimiter.Permit third = limiter.acquire("fs", 3, 4, deadline);
+
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(3, limiter.getStats("fs").getInFlight());
+        first.close();
+        third.close();
+    }
+
+    @Test
+    public void removedServerHasNoStats() throws Exception {
+        McpCallLimiter limiter = new McpCallLimiter();
+        limiter.acquire("fs", 1, 0, RequestDeadline.unbounded()).close();
+
+        limiter.remove("fs");
+
+        assertNull(limiter.getStats("fs"));
+    }
+
+    private static CompletableFuture<McpCallLimiter.Permit> acquireAsync(McpCallLimiter limiter, String serverName,
+            int maxInFlight, int maxQueue, RequestDeadline deadline) {
+        CompletableFuture<McpCallLimiter.Permit> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(limiter.acquire(serverName, maxInFlight, maxQueue, deadline));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    private static void awaitQueued(McpCallLimiter limiter, String serverName, int queued) throws InterruptedException {
+        long until = System.currentTimeMillis() + 5000;
+        while (limiter.getStats(serverName).getQueued() < queued) {
+            assertTrue(System.currentTimeMillis() < until, "call never reached the queue");
+            Thread.sleep(5);
+        }
+    }
+}
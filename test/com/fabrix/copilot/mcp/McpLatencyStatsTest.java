@@ -0,0 +1,93 @@
+package com.fabrix.copilot.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 🧪 McpLatencyStats - 표본 부족 시 고정 한도, 적응형 타임아웃 계산, 타임아웃 표본 반영 확인
+ */
+public class McpLatencyStatsTest {
+
+    private static final long FLOOR = 10;
+    private static final long CEILING = 120000;
+
+    @Test
+    public void unknownToolUsesTheColdStartTimeout() {
+        McpLatencyStats stats = new McpLatencyStats();
+
+        assertEquals(McpLatencyStats.COLD_START_TIMEOUT_MS, stats.timeoutFor("fs", "read_file", FLOOR, CEILING));
+        assertEquals(5000L, stats.timeoutFor("fs", "read_file", FLOOR, 5000), "cold start respects the ceiling");
+        assertEquals(20000L, stats.timeoutFor("fs", "read_file", 20000, CEILING), "cold start respects the floor");
+    }
+
+    @Test
+    public void fewSamplesKeepTheColdStartTimeout() {
+        McpLatencyStats stats = new McpLatencyStats();
+        record(stats, "fs", "list_directory", 20, 4);
+
+        assertEquals(McpLatencyStats.COLD_START_TIMEOUT_MS, stats.timeoutFor("fs", "list_directory", FLOOR, CEILING));
+    }
+
+    @Test
+    public void fastToolGetsAShortTimeout() {
+        McpLatencyStats stats = new McpLatencyStats();
+        record(stats, "fs", "list_directory", 20, 5);
+
+        // max(p99 20ms × 2, EWMA 20ms × 3)
+        assertEquals(60L, stats.timeoutFor("fs", "list_directory", FLOOR, CEILING));
+        assertEquals(500L, stats.timeoutFor("fs", "list_directory", 500, CEILING));
+    }
+
+    @Test
+    public void slowToolIsNotCutOff() {
+        McpLatencyStats stats = new McpLatencyStats();
+        record(stats, "git", "git_log", 15000, 5);
+
+        assertEquals(45000L, stats.timeoutFor("git", "git_log", FLOOR, CEILING));
+        assertEquals(30000L, stats.timeoutFor("git", "git_log", FLOOR, 30000));
+    }
+
+    @Test
+    public void timeoutSampleRaisesTheLimitImmediately() {
+        McpLatencyStats stats = new McpLatencyStats();
+        stats.record("git", "git_log", McpLatencyStats.COLD_START_TIMEOUT_MS, true);
+
+        assertEquals(30000L, stats.timeoutFor("git", "git_log", FLOOR, CEILING));
+        assertEquals(1L, stats.get("git", "git_log").getTimeouts());
+    }
+
+    @Test
+    public void quantilesStayWithinTenPercent() {
+        McpLatencyStats stats = new McpLatencyStats();
+        for (long millis = 1; millis <= 1000; millis++) {
+            stats.record("fs", "search_files", millis, false);
+        }
+
+        McpLatencyStats.Snapshot snapshot = stats.get("fs", "search_files");
+        assertEquals(1000L, snapshot.getCalls());
+        assertTrue(Math.abs(snapshot.getP50Millis() - 500) <= 50, "p50 " + snapshot.getP50Millis());
+        assertTrue(Math.abs(snapshot.getP99Millis() - 990) <= 99, "p99 " + snapshot.getP99Millis());
+        assertEquals(1000L, snapshot.getMaxMillis());
+    }
+
+    @Test
+    public void removeServerDropsOnlyThatServer() {
+        McpLatencyStats stats = new McpLatencyStats();
+        stats.record("fs", "read_file", 5, false);
+        stats.record("fs-extra", "read_file", 5, false);
+
+        stats.removeServer("fs");
+
+        assertNull(stats.get("fs", "read_file"));
+        assertEquals(1L, stats.get("fs-extra", "read_file").getCalls());
+    }
+
+    private static void record(McpLatencyStats stats, String serverName, String toolName, long millis, int times) {
+        for (int i = 0; i < times; i++) {
+            stats.record(serverName, toolName, millis, false);
+        }
+    }
+}
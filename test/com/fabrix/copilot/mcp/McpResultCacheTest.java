@@ -0,0 +1,126 @@
+package com.fabrix.copilot.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 🧪 McpResultCache - 키 정규화와 결과 무효화(워크스페이스 세대, 파일 스탬프) 확인
+ */
+public class McpResultCacheTest {
+
+    @Test
+    public void keyIgnoresArgumentOrder() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("path", "src");
+        first.put("depth", 2);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("depth", 2);
+        second.put("path", "src");
+
+        assertEquals(McpResultCache.key("fs", "list_directory", first),
+            McpResultCache.key("fs", "list_directory", second));
+    }
+
+    @Test
+    public void keyKeepsStringArgumentsVerbatim() {
+        assertNotEquals(McpResultCache.key("fs", "search_files", Collections.singletonMap("pattern", "TODO")),
+            McpResultCache.key("fs", "search_files", Collections.singletonMap("pattern", " TODO ")),
+            "whitespace is part of a search pattern");
+        assertNotEquals(McpResultCache.key("fs", "read_file", Collections.singletonMap("path", "a.txt")),
+            McpResultCache.key("fs", "read_file", Collections.singletonMap("path", "a.txt ")),
+            "whitespace is part of a path");
+    }
+
+    @Test
+    public void keySeparatesServersToolsAndValueTypes() {
+        Map<String, Object> arguments = Collections.singletonMap("limit", "10");
+
+        assertNotEquals(McpResultCache.key("a", "git_log", arguments), McpResultCache.key("b", "git_log", arguments));
+        assertNotEquals(McpResultCache.key("a", "git_log", arguments), McpResultCache.key("a", "git_diff", arguments));
+        assertNotEquals(McpResultCache.key("a", "git_log", arguments),
+            McpResultCache.key("a", "git_log", Collections.singletonMap("limit", 10)));
+    }
+
+    @Test
+    public void unstampedResultIsDroppedWhenTheWorkspaceChanges() {
+        McpResultCache cache = new McpResultCache();
+        Map<String, Object> arguments = Collections.emptyMap();
+
+        cache.complete(cache.begin("git", "git_status", arguments, null), "clean");
+        assertEquals("clean", cache.get("git", "git_status", arguments));
+
+        cache.invalidateAll();
+        assertNull(cache.get("git", "git_status", arguments));
+    }
+
+    @Test
+    public void resultOfACallThatOverlappedAChangeIsNotStored() {
+        McpResultCache cache = new McpResultCache();
+        Map<String, Object> arguments = Collections.emptyMap();
+
+        McpResultCache.Pending pending = cache.begin("git", "git_status", arguments, null);
+        cache.invalidateAll();
+        cache.complete(pending, "stale");
+
+        assertNull(cache.get("git", "git_status", arguments));
+    }
+
+    @Test
+    public void fileResultExpiresWhenTheFileChanges() throws IOException {
+        File file = File.createTempFile("mcp-cache", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "one".getBytes(StandardCharsets.UTF_8));
+        McpResultCache cache = new McpResultCache();
+        Map<String, Object> arguments = Collections.singletonMap("path", file.getAbsolutePath());
+
+        cache.complete(cache.begin("fs", "read_file", arguments, null), "one");
+        assertEquals("one", cache.get("fs", "read_file", arguments));
+
+        Files.write(file.toPath(), " two".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertNull(cache.get("fs", "read_file", arguments));
+    }
+
+    @Test
+    public void relativePathIsStampedAgainstTheServerDirectory() throws IOException {
+        File directory = Files.createTempDirectory("mcp-cache").toFile();
+        File file = new File(directory, "notes.txt");
+        Files.write(file.toPath(), "one".getBytes(StandardCharsets.UTF_8));
+        file.deleteOnExit();
+        directory.deleteOnExit();
+        McpResultCache cache = new McpResultCache();
+        Map<String, Object> arguments = Collections.singletonMap("path", "notes.txt");
+
+        McpResultCache.Pending pending = cache.begin("fs", "read_file", arguments, directory);
+        cache.invalidateAll();
+        cache.complete(pending, "one");
+        assertEquals("one", cache.get("fs", "read_file", arguments), "stamped results survive workspace changes");
+
+        Files.write(file.toPath(), " two".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertNull(cache.get("fs", "read_file", arguments));
+    }
+
+    @Test
+    public void readOnlyHintOverridesTheKnownToolList() {
+        McpResultCache cache = new McpResultCache();
+
+        assertTrue(cache.isCacheable("read_file", null));
+        assertFalse(cache.isCacheable("write_file", null));
+        assertFalse(cache.isCacheable("read_file", new JSONObject().put("readOnlyHint", false)));
+        assertTrue(cache.isCacheable("lookup", new JSONObject().put("readOnlyHint", true)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.fabrix.copilot.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 🧪 McpToolCatalog 지문 - 실행 설정(명령, 인자, 환경 변수)이 바뀔 때만 저장된 도구 목록을 무시하는지 확인
+ */
+public class McpToolCatalogTest {
+
+    private static final List<String> ARGS = Arrays.asList("-y", "@modelcontextprotocol/server-filesystem", "./");
+
+    @Test
+    public void sameLaunchSettingsGiveTheSameFingerprint() {
+        McpServerConfig config = config("npx", ARGS, Collections.singletonMap("NODE_ENV", "production"));
+        McpServerConfig renamed = new McpServerConfig("files", "stdio", "npx", ARGS,
+            Collections.singletonMap("NODE_ENV", "production"), 5, 4);
+
+        assertEquals(McpToolCatalog.fingerprint(config), McpToolCatalog.fingerprint(renamed),
+            "name, priority and concurrency do not change the tool list");
+    }
+
+    @Test
+    public void environmentOrderDoesNotMatter() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("A", "1");
+        first.put("B", "2");
+        Map<String, String> second = new LinkedHashMap<>();
+        second.put("B", "2");
+        second.put("A", "1");
+
+        assertEquals(McpToolCatalog.fingerprint(config("npx", ARGS, first)),
+            McpToolCatalog.fingerprint(config("npx", ARGS, second)));
+    }
+
+    @Test
+    public void changedCommandArgumentsOrEnvironmentGiveANewFingerprint() {
+        String base = McpToolCatalog.fingerprint(config("npx", ARGS, null));
+
+        assertNotEquals(base, McpToolCatalog.fingerprint(config("node", ARGS, null)));
+        assertNotEquals(base, McpToolCatalog.fingerprint(config("npx", Arrays.asList("-y",
+            "@modelcontextprotocol/server-filesystem", "/tmp"), null)));
+        assertNotEquals(base, McpToolCatalog.fingerprint(config("npx", ARGS, Collections.singletonMap("DEBUG", "1"))));
+        assertNotEquals(base, McpToolCatalog.fingerprint(
+            new McpServerConfig("filesystem", "http", "npx", ARGS, null, 0)));
+    }
+
+    @Test
+    public void argumentBoundariesArePartOfTheFingerprint() {
+        assertNotEquals(McpToolCatalog.fingerprint(config("uvx", Arrays.asList("mcp-server-git", "--repository"), null)),
+            McpToolCatalog.fingerprint(config("uvx", Collections.singletonList("mcp-server-git--repository"), null)));
+    }
+
+    @Test
+    public void emptyAndMissingArgumentsAreEquivalent() {
+        assertEquals(McpToolCatalog.fingerprint(config("server", null, null)),
+            McpToolCatalog.fingerprint(config("server", Collections.emptyList(), Collections.emptyMap())));
+    }
+
+    private static McpServerConfig config(String command, List<String> args, Map<String, String> env) {
+        return new McpServerConfig("filesystem", "stdio", command, args, env, 0);
+    }
+}
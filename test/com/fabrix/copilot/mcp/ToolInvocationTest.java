@@ -0,0 +1,98 @@
+package com.fabrix.copilot.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 🧪 ToolInvocation 스키마 검증 - 파서의 인자 이름이 아니라 서버가 알려준 inputSchema 기준으로 판단하는지 확인
+ */
+public class ToolInvocationTest {
+
+    // @modelcontextprotocol/server-filesystem의 search_files
+    private static final JSONObject SEARCH_FILES_SCHEMA = new JSONObject(
+        "{\"type\":\"object\",\"properties\":{\"path\":{\"type\":\"string\"},\"pattern\":{\"type\":\"string\"},"
+            + "\"excludePatterns\":{\"type\":\"array\",\"items\":{\"type\":\"string\"},\"default\":[]}},"
+            + "\"required\":[\"path\",\"pattern\"],\"additionalProperties\":false}");
+
+    // mcp-server-git의 git_log
+    private static final JSONObject GIT_LOG_SCHEMA = new JSONObject(
+        "{\"type\":\"object\",\"properties\":{\"repo_path\":{\"type\":\"string\"},"
+            + "\"max_count\":{\"type\":\"integer\",\"default\":10}},\"required\":[\"repo_path\"]}");
+
+    @Test
+    public void searchQueryIsSentAsTheSchemasPatternArgument() {
+        ToolInvocation.Validation validation = invocation("search_files", "query", "TODO", "path", "./")
+            .validate(SEARCH_FILES_SCHEMA);
+
+        assertTrue(validation.isValid(), "rejected: " + validation.getErrors());
+        Map<String, Object> arguments = validation.getInvocation().getArguments();
+        assertEquals("TODO", arguments.get("pattern"));
+        assertEquals("./", arguments.get("path"));
+        assertFalse(arguments.containsKey("query"), "parser name must not reach the server");
+    }
+
+    @Test
+    public void limitIsSentAsMaxCountAndCoerced() {
+        JSONObject schema = new JSONObject(GIT_LOG_SCHEMA.toString());
+        schema.remove("required");
+
+        ToolInvocation.Validation validation = invocation("git_log", "limit", "10").validate(schema);
+
+        assertTrue(validation.isValid(), "rejected: " + validation.getErrors());
+        assertEquals(10L, validation.getInvocation().getArguments().get("max_count"));
+    }
+
+    @Test
+    public void argumentTheParserCannotProvideIsReported() {
+        ToolInvocation.Validation validation = invocation("git_log", "limit", "10").validate(GIT_LOG_SCHEMA);
+
+        assertFalse(validation.isValid());
+        assertTrue(validation.getErrors().get(0).startsWith("repo_path"), "unexpected: " + validation.getErrors());
+    }
+
+    @Test
+    public void schemaThatUsesTheParserNamesIsMatchedDirectly() {
+        JSONObject schema = new JSONObject(
+            "{\"type\":\"object\",\"properties\":{\"query\":{\"type\":\"string\"},\"pattern\":{\"type\":\"string\"}},"
+                + "\"required\":[\"query\"]}");
+
+        ToolInvocation.Validation validation = invocation("search", "query", "main").validate(schema);
+
+        assertTrue(validation.isValid(), "rejected: " + validation.getErrors());
+        assertEquals("main", validation.getInvocation().getArguments().get("query"));
+        assertFalse(validation.getInvocation().getArguments().containsKey("pattern"));
+    }
+
+    @Test
+    public void enumViolationIsRejected() {
+        JSONObject schema = new JSONObject(
+            "{\"type\":\"object\",\"properties\":{\"mode\":{\"type\":\"string\",\"enum\":[\"fast\",\"full\"]}}}");
+
+        ToolInvocation.Validation validation = invocation("scan", "mode", "slow").validate(schema);
+
+        assertFalse(validation.isValid());
+    }
+
+    @Test
+    public void missingSchemaPassesArgumentsThrough() {
+        ToolInvocation.Validation validation = invocation("read_file", "path", "README.md").validate(null);
+
+        assertTrue(validation.isValid());
+        assertEquals("README.md", validation.getInvocation().getArguments().get("path"));
+    }
+
+    private static ToolInvocation invocation(String toolName, String... keyValues) {
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            arguments.put(keyValues[i], keyValues[i + 1]);
+        }
+        return new ToolInvocation(toolName, arguments, null);
+    }
+}